@@ -19,7 +19,11 @@
 package org.openbase.bco.ontology.lib;
 
 import org.openbase.bco.ontology.lib.commun.monitor.HeartbeatPhase;
+import org.openbase.bco.ontology.lib.commun.web.EmbeddedTripleStore;
+import org.openbase.bco.ontology.lib.commun.web.HttpConnectionPool;
 import org.openbase.bco.ontology.lib.commun.web.OntModelHttp;
+import org.openbase.bco.ontology.lib.manager.aggregation.AggregationScheduler;
+import org.openbase.bco.ontology.lib.manager.aggregation.RetentionService;
 import org.openbase.bco.ontology.lib.manager.datasource.UnitRegistrySynchronizer;
 import org.openbase.bco.ontology.lib.manager.datasource.UnitRemoteSynchronizer;
 import org.openbase.bco.ontology.lib.system.config.OntConfig;
@@ -49,6 +53,7 @@ import rst.domotic.ontology.OntologyChangeType.OntologyChange;
 import rst.domotic.registry.UnitRegistryDataType.UnitRegistryData;
 import rst.domotic.unit.UnitConfigType.UnitConfig;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -82,6 +87,8 @@ public final class OntologyManagerController implements Launchable<Void>, VoidIn
     private ProtobufListDiff<String, UnitConfig, UnitConfig.Builder> registryDiff;
     private UnitRegistryRemote unitRegistryRemote;
     private Observer<UnitRegistryData> unitRegistryObserver;
+    private AggregationScheduler aggregationScheduler;
+    private RetentionService retentionService;
 
     @Override
     public void activate() throws CouldNotPerformException, InterruptedException {
@@ -100,6 +107,8 @@ public final class OntologyManagerController implements Launchable<Void>, VoidIn
             new HeartbeatPhase();
             new UnitRegistrySynchronizer();
             new UnitRemoteSynchronizer();
+            this.aggregationScheduler = new AggregationScheduler();
+            this.retentionService = new RetentionService(aggregationScheduler);
 
             final List<UnitConfig> unitConfigs = getUnitConfigs();
             NEW_UNIT_CONFIG_OBSERVABLE.notifyObservers(unitConfigs);
@@ -114,6 +123,12 @@ public final class OntologyManagerController implements Launchable<Void>, VoidIn
 
     @Override
     public void deactivate() throws CouldNotPerformException, InterruptedException {
+        if (retentionService != null) {
+            retentionService.shutdown();
+        }
+        if (aggregationScheduler != null) {
+            aggregationScheduler.shutdown();
+        }
     }
 
     @Override
@@ -130,10 +145,19 @@ public final class OntologyManagerController implements Launchable<Void>, VoidIn
 //            new StateObservation(colorableLightRemote);
 //            MultiException.checkAndThrow("Input is invalid.", Preconditions.checkNotNull(null, null, ""));
 
+            HttpConnectionPool.init();
+
+            if (OntConfig.getOntologyBackend() == OntConfig.OntologyBackend.TDB) {
+                // the ontology manager is the only process, which opens the embedded triple store
+                EmbeddedTripleStore.open();
+            }
+
             //upload (add) ontModel
             OntModelHttp.addModelToServer(OntModelHandler.loadOntModelFromFile(null, null), OntConfig.getOntologyDbUrl(), 0);
         } catch (NotAvailableException ex) {
             throw new InitializationException("Could not upload ontology model!", ex);
+        } catch (IOException ex) {
+            throw new InitializationException("Could not open embedded triple store!", ex);
         }
 
 //        try {
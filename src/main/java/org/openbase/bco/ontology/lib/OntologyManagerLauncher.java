@@ -18,10 +18,38 @@
  */
 package org.openbase.bco.ontology.lib;
 
+import org.openbase.bco.ontology.lib.jp.JPOntologyAggregationCatchUpLimit;
+import org.openbase.bco.ontology.lib.jp.JPOntologyAggregationParallelism;
+import org.openbase.bco.ontology.lib.jp.JPOntologyAggregationStateFile;
+import org.openbase.bco.ontology.lib.jp.JPOntologyAggregationTimeZone;
+import org.openbase.bco.ontology.lib.jp.JPOntologyAggregationWeighting;
+import org.openbase.bco.ontology.lib.jp.JPOntologyOnlineAggregation;
+import org.openbase.bco.ontology.lib.jp.JPOntologyBatchLinger;
+import org.openbase.bco.ontology.lib.jp.JPOntologyBatchQueueDepth;
+import org.openbase.bco.ontology.lib.jp.JPOntologyBatchSize;
+import org.openbase.bco.ontology.lib.jp.JPOntologyBufferDirectory;
+import org.openbase.bco.ontology.lib.jp.JPOntologyBufferOverflowPolicy;
+import org.openbase.bco.ontology.lib.jp.JPOntologyBackend;
 import org.openbase.bco.ontology.lib.jp.JPOntologyDBURL;
+import org.openbase.bco.ontology.lib.jp.JPOntologyHttpConnectTimeout;
+import org.openbase.bco.ontology.lib.jp.JPOntologyHttpKeepAlive;
+import org.openbase.bco.ontology.lib.jp.JPOntologyHttpMaxConnections;
+import org.openbase.bco.ontology.lib.jp.JPOntologyHttpSocketTimeout;
+import org.openbase.bco.ontology.lib.jp.JPOntologyGraphPartition;
 import org.openbase.bco.ontology.lib.jp.JPOntologyMode;
 import org.openbase.bco.ontology.lib.jp.JPOntologyPingURL;
 import org.openbase.bco.ontology.lib.jp.JPOntologyRSBScope;
+import org.openbase.bco.ontology.lib.jp.JPOntologyRSBUpdateScope;
+import org.openbase.bco.ontology.lib.jp.JPOntologyRetentionChunkSize;
+import org.openbase.bco.ontology.lib.jp.JPOntologyRetentionWindows;
+import org.openbase.bco.ontology.lib.jp.JPOntologyTdbDirectory;
+import org.openbase.bco.ontology.lib.jp.JPOntologyTriggerCacheFile;
+import org.openbase.bco.ontology.lib.jp.JPOntologyTriggerExecutionTimeout;
+import org.openbase.bco.ontology.lib.jp.JPOntologyTriggerMaxStaleness;
+import org.openbase.bco.ontology.lib.jp.JPOntologyTriggerMinInterval;
+import org.openbase.bco.ontology.lib.jp.JPOntologyTriggerParallelism;
+import org.openbase.bco.ontology.lib.jp.JPOntologyTriggerQueueTimeout;
+import org.openbase.bco.ontology.lib.jp.JPOntologyTriggerReplica;
 import org.openbase.bco.ontology.lib.jp.JPOntologyURL;
 import org.openbase.bco.registry.lib.BCO;
 import org.openbase.jul.pattern.launch.AbstractLauncher;
@@ -51,9 +79,37 @@ public class OntologyManagerLauncher extends AbstractLauncher<OntologyManagerCon
     protected void loadProperties() {
         JPService.registerProperty(JPOntologyURL.class);
         JPService.registerProperty(JPOntologyDBURL.class);
+        JPService.registerProperty(JPOntologyBackend.class);
+        JPService.registerProperty(JPOntologyTdbDirectory.class);
         JPService.registerProperty(JPOntologyPingURL.class);
         JPService.registerProperty(JPOntologyRSBScope.class);
         JPService.registerProperty(JPOntologyMode.class);
+        JPService.registerProperty(JPOntologyHttpMaxConnections.class);
+        JPService.registerProperty(JPOntologyHttpKeepAlive.class);
+        JPService.registerProperty(JPOntologyHttpConnectTimeout.class);
+        JPService.registerProperty(JPOntologyHttpSocketTimeout.class);
+        JPService.registerProperty(JPOntologyBatchSize.class);
+        JPService.registerProperty(JPOntologyBatchLinger.class);
+        JPService.registerProperty(JPOntologyBatchQueueDepth.class);
+        JPService.registerProperty(JPOntologyBufferDirectory.class);
+        JPService.registerProperty(JPOntologyBufferOverflowPolicy.class);
+        JPService.registerProperty(JPOntologyAggregationParallelism.class);
+        JPService.registerProperty(JPOntologyAggregationWeighting.class);
+        JPService.registerProperty(JPOntologyOnlineAggregation.class);
+        JPService.registerProperty(JPOntologyAggregationTimeZone.class);
+        JPService.registerProperty(JPOntologyAggregationStateFile.class);
+        JPService.registerProperty(JPOntologyAggregationCatchUpLimit.class);
+        JPService.registerProperty(JPOntologyRetentionWindows.class);
+        JPService.registerProperty(JPOntologyRetentionChunkSize.class);
+        JPService.registerProperty(JPOntologyGraphPartition.class);
+        JPService.registerProperty(JPOntologyTriggerMinInterval.class);
+        JPService.registerProperty(JPOntologyTriggerMaxStaleness.class);
+        JPService.registerProperty(JPOntologyTriggerReplica.class);
+        JPService.registerProperty(JPOntologyRSBUpdateScope.class);
+        JPService.registerProperty(JPOntologyTriggerParallelism.class);
+        JPService.registerProperty(JPOntologyTriggerQueueTimeout.class);
+        JPService.registerProperty(JPOntologyTriggerExecutionTimeout.class);
+        JPService.registerProperty(JPOntologyTriggerCacheFile.class);
         JPService.registerProperty(JPDebugMode.class);
     }
 
@@ -18,10 +18,10 @@
  */
 package org.openbase.bco.ontology.lib.commun.monitor;
 
-import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.HttpClients;
+import org.openbase.bco.ontology.lib.commun.web.EmbeddedTripleStore;
+import org.openbase.bco.ontology.lib.commun.web.HttpConnectionPool;
 import org.openbase.bco.ontology.lib.commun.web.SparqlHttp;
 import org.openbase.bco.ontology.lib.system.config.OntConfig;
 import org.openbase.jul.exception.CouldNotPerformException;
@@ -54,18 +54,23 @@ public final class ServerConnection {
 
     /**
      * Method creates a monitoring thread to observe the connection state between ontology manager and ontology server. In case the server can't be
-     * reached, an observable informs.
+     * reached, an observable informs. The embedded triple store (see {@link OntConfig.OntologyBackend#TDB}) is not pinged: it is reachable, if it is opened
+     * by this process (the ontology manager), and never reachable for other processes.
      *
      * @throws NotAvailableException is thrown in case there is no thread available.
      */
     public static void newServerConnectionObservable() throws NotAvailableException {
         GlobalScheduledExecutorService.scheduleWithFixedDelay(() -> {
             try {
-                try {
-                    final HttpClient httpclient = HttpClients.createDefault();
-                    final HttpGet httpGet = new HttpGet(OntConfig.getOntologyPingUrl());
-                    final HttpResponse httpResponse = httpclient.execute(httpGet);
+                if (OntConfig.getOntologyBackend() == OntConfig.OntologyBackend.TDB) {
+                    SERVER_STATE_OBSERVABLE.notifyObservers(EmbeddedTripleStore.isOpen() ? ConnectionState.CONNECTED : ConnectionState.DISCONNECTED);
+                    return;
+                }
+
+                final HttpGet httpGet = new HttpGet(OntConfig.getOntologyPingUrl());
 
+                try (CloseableHttpResponse httpResponse = HttpConnectionPool.getHttpClient().execute(httpGet)) {
+                    HttpConnectionPool.consume(httpResponse.getEntity());
                     SparqlHttp.checkHttpRequest(httpResponse, null);
                     SERVER_STATE_OBSERVABLE.notifyObservers(ConnectionState.CONNECTED);
                 } catch (IOException | CouldNotPerformException ex) {
@@ -18,25 +18,17 @@
  */
 package org.openbase.bco.ontology.lib.commun.trigger;
 
-import org.apache.commons.io.IOUtils;
-import org.apache.http.HttpEntity;
-import org.apache.http.NameValuePair;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.utils.URLEncodedUtils;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.message.BasicNameValuePair;
 import org.openbase.bco.ontology.lib.commun.monitor.ServerConnection;
+import org.openbase.bco.ontology.lib.commun.web.SparqlHttp;
 import org.openbase.bco.ontology.lib.system.config.OntConfig;
 import org.openbase.bco.ontology.lib.trigger.TriggerFactory;
 import org.openbase.jul.pattern.Observer;
 import org.openbase.jul.pattern.Remote.ConnectionState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import rst.domotic.ontology.OntologyChangeType.OntologyChange;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * @author agatting on 27.02.17.
@@ -44,27 +36,24 @@ import java.util.List;
 @SuppressWarnings("checkstyle:multiplestringliterals")
 public class OntologyRemoteImpl implements OntologyRemote {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(OntologyRemoteImpl.class);
+
+    /**
+     * {@inheritDoc} If the trigger replica is enabled (see {@link OntConfig#isTriggerReplica()}), the query is evaluated on the local replica (see
+     * {@link OntologyReplica}). As long as the replica is out of sync, the query is sent to the ontology server.
+     */
     @Override
     public boolean match(final String query) throws IOException {
 
-        boolean queryResult;
-        final HttpEntity httpEntity = getHttpEntity(query);
-        final InputStream inputStream = httpEntity.getContent();
-
-        try {
-            final String dataStream = IOUtils.toString(inputStream, "UTF-8");
-
-            if (dataStream.contains("true")) {
-                queryResult =  true;
-            } else if (dataStream.contains("false")) {
-                queryResult = false;
-            } else {
-                throw new IOException("Could not get query result, cause inputStream of http content has no valid content.");
+        if (OntConfig.isTriggerReplica()) {
+            try {
+                return OntologyReplica.match(query);
+            } catch (IOException ex) {
+                LOGGER.debug("Evaluate query on ontology server: " + ex.getMessage());
             }
-        } finally {
-            inputStream.close();
         }
-        return queryResult;
+
+        return SparqlHttp.sparqlAsk(query, OntConfig.getOntologyDbUrl());
     }
 
     /**
@@ -98,21 +87,4 @@ public class OntologyRemoteImpl implements OntologyRemote {
     public void removeOntologyObserver(final Observer<OntologyChange> observer) {
         TriggerFactory.ONTOLOGY_CHANGE_OBSERVABLE.removeObserver(observer);
     }
-
-    private HttpEntity getHttpEntity(final String query) throws IOException {
-
-        final List<NameValuePair> params = new ArrayList<>();
-        params.add(new BasicNameValuePair("query", query));
-
-        final HttpClient httpclient = HttpClients.createDefault();
-        final HttpGet httpGet = new HttpGet(OntConfig.getOntologyDbUrl() + "sparql?" + URLEncodedUtils.format(params, "UTF-8"));
-
-        final HttpEntity httpEntity = httpclient.execute(httpGet).getEntity();
-
-        if (httpEntity != null) {
-            return httpEntity;
-        } else {
-            throw new IOException("Could not get query result, cause http entity is null.");
-        }
-    }
 }
@@ -0,0 +1,266 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.commun.trigger;
+
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.ontology.OntModelSpec;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.graph.Node;
+import org.apache.jena.shared.JenaException;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.modify.request.UpdateDataInsert;
+import org.apache.jena.sparql.modify.request.UpdateModify;
+import org.apache.jena.update.Update;
+import org.apache.jena.update.UpdateAction;
+import org.apache.jena.update.UpdateFactory;
+import org.apache.jena.update.UpdateRequest;
+import org.apache.jena.vocabulary.RDF;
+import org.openbase.bco.ontology.lib.commun.monitor.ServerConnection;
+import org.openbase.bco.ontology.lib.commun.web.SparqlHttp;
+import org.openbase.bco.ontology.lib.system.config.OntConfig;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.OntCl;
+import org.openbase.bco.ontology.lib.utility.ontology.OntModelHandler;
+import org.openbase.bco.ontology.lib.utility.sparql.QueryExpression;
+import org.openbase.jul.exception.CouldNotPerformException;
+import org.openbase.jul.exception.NotAvailableException;
+import org.openbase.jul.exception.printer.ExceptionPrinter;
+import org.openbase.jul.exception.printer.LogLevel;
+import org.openbase.jul.extension.rsb.com.RSBFactoryImpl;
+import org.openbase.jul.extension.rsb.iface.RSBListener;
+import org.openbase.jul.pattern.Remote.ConnectionState;
+import org.openbase.jul.schedule.GlobalCachedExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Class keeps a local in-memory replica of the ontology (default graph), which is used to evaluate the trigger queries without request to the ontology
+ * server. The replica is seeded by constructing the relevant part of the ontology from the server and is kept up to date by the committed sparql updates,
+ * which are published by the ontology manager (see {@link OntologyUpdateStream}). To bound the memory, the replica keeps the latest observation of each
+ * unit and provider service only. Historic observations and aggregation observations are excluded (see {@link QueryExpression#CONSTRUCT_TRIGGER_REPLICA}).
+ * After each update, only the units and provider services of the inserted observations are pruned (see
+ * {@link QueryExpression#deleteTriggerReplicaHistory(java.util.Collection)}), so that the costs of an update do not grow with the replica.
+ * The replica covers the default graph only and is disabled, if the server keeps observations in named graphs (graph partitions). The replica is out of sync and is seeded again, if an update is lost (gap of the sequence) or
+ * could not be applied, or if the connection to the ontology server was lost. Updates, which arrive while seeding, are applied after the download. As long
+ * as the replica is out of sync, the queries are evaluated on the ontology server (see {@link OntologyRemoteImpl#match(String)}).
+ *
+ * @author agent on 18.10.26.
+ */
+public final class OntologyReplica {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OntologyReplica.class);
+    private static final ReadWriteLock LOCK = new ReentrantReadWriteLock();
+    private static final List<String> SEEDING_UPDATES = new ArrayList<>();
+    private static OntModel replica;
+    private static boolean seeding;
+    private static volatile boolean disabled;
+    private static long lastSequence = -1;
+
+    static {
+        try {
+            final RSBListener rsbListener = RSBFactoryImpl.getInstance().createSynchronizedListener(OntConfig.getOntologyRsbUpdateScope());
+
+            rsbListener.activate();
+            rsbListener.addHandler(event -> applyUpdate((String) event.getData()), false);
+
+            ServerConnection.SERVER_STATE_OBSERVABLE.addObserver((source, data) -> {
+                if (data == ConnectionState.CONNECTED) {
+                    seedIfOutOfSync();
+                } else {
+                    invalidate();
+                }
+            });
+            seedIfOutOfSync();
+        } catch (CouldNotPerformException ex) {
+            ExceptionPrinter.printHistory("Could not start ontology replica!", ex, LOGGER, LogLevel.ERROR);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private OntologyReplica() {
+    }
+
+    /**
+     * Method evaluates the ASK query on the local replica.
+     *
+     * @param query is the ASK query.
+     * @return true if the query has a match. Otherwise false.
+     * @throws IOException is thrown in case the replica is out of sync or the query could not be executed.
+     */
+    public static boolean match(final String query) throws IOException {
+        LOCK.readLock().lock();
+        try {
+            if (disabled) {
+                throw new IOException("Ontology replica is disabled.");
+            }
+            if (replica == null) {
+                throw new IOException("Ontology replica is out of sync.");
+            }
+            return OntModelHandler.askQuery(query, replica);
+        } catch (JenaException ex) {
+            throw new IOException("Could not execute query on ontology replica!", ex);
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+
+    private static void applyUpdate(final String update) {
+        LOCK.writeLock().lock();
+        try {
+            if (seeding) {
+                SEEDING_UPDATES.add(update);
+                return;
+            }
+            if (replica == null) {
+                // is seeded with the next connection state notification
+                return;
+            }
+
+            final long sequence = OntologyUpdateStream.getSequence(update);
+
+            if (lastSequence >= 0 && sequence != lastSequence + 1) {
+                throw new NotAvailableException("Updates " + (lastSequence + 1) + " to " + (sequence - 1));
+            }
+            final UpdateRequest updateRequest = UpdateFactory.create(update);
+            final Set<String> insertedSubjects = getInsertedSubjects(updateRequest);
+
+            UpdateAction.execute(updateRequest, replica);
+
+            if (insertedSubjects == null) {
+                UpdateAction.parseExecute(QueryExpression.DELETE_TRIGGER_REPLICA_HISTORY, replica);
+            } else if (!insertedSubjects.isEmpty()) {
+                UpdateAction.parseExecute(QueryExpression.deleteTriggerReplicaHistory(insertedSubjects), replica);
+            }
+            lastSequence = sequence;
+        } catch (NotAvailableException | JenaException ex) {
+            replica = null;
+            ExceptionPrinter.printHistory("Ontology replica is out of sync. Seed again...", ex, LOGGER, LogLevel.WARN);
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+
+        seedIfOutOfSync();
+    }
+
+    /**
+     * Method returns the subjects, which are inserted by the input update request.
+     *
+     * @param updateRequest is the update request.
+     * @return the full IRIs of the inserted subjects or {@code null}, if the update inserts observations via variables, so that the inserted observations
+     * are unknown and the whole replica must be pruned.
+     */
+    private static Set<String> getInsertedSubjects(final UpdateRequest updateRequest) {
+        final Set<String> subjects = new LinkedHashSet<>();
+
+        for (final Update operation : updateRequest.getOperations()) {
+            final List<Quad> quads;
+
+            if (operation instanceof UpdateDataInsert) {
+                quads = ((UpdateDataInsert) operation).getQuads();
+            } else if (operation instanceof UpdateModify) {
+                quads = ((UpdateModify) operation).getInsertQuads();
+            } else {
+                continue;
+            }
+
+            for (final Quad quad : quads) {
+                if (quad.getSubject().isURI()) {
+                    subjects.add(quad.getSubject().getURI());
+                } else if (RDF.type.asNode().equals(quad.getPredicate()) && isObservationClass(quad.getObject())) {
+                    return null;
+                }
+            }
+        }
+        return subjects;
+    }
+
+    private static boolean isObservationClass(final Node node) {
+        return node.isURI() && (node.getURI().equals(OntConfig.NAMESPACE + OntCl.OBSERVATION.getName())
+                || node.getURI().equals(OntConfig.NAMESPACE + OntCl.AGGREGATION_OBSERVATION.getName()));
+    }
+
+    private static void invalidate() {
+        LOCK.writeLock().lock();
+        try {
+            replica = null;
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+    }
+
+    private static void seedIfOutOfSync() {
+        LOCK.writeLock().lock();
+        try {
+            if (replica != null || seeding || disabled) {
+                return;
+            }
+            seeding = true;
+            SEEDING_UPDATES.clear();
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+
+        GlobalCachedExecutorService.submit(() -> {
+            OntModel ontModel = null;
+
+            try {
+                if (SparqlHttp.sparqlAsk(QueryExpression.ASK_OBSERVATION_GRAPHS, OntConfig.getOntologyDbUrl())) {
+                    // the replica covers the default graph only. The observations in the named graphs would be missed by the trigger queries
+                    LOGGER.error("Ontology server keeps observations in named graphs. Ontology replica disabled, evaluate trigger queries on the server.");
+                    disabled = true;
+                } else {
+                    ontModel = ModelFactory.createOntologyModel(OntModelSpec.OWL_DL_MEM,
+                            SparqlHttp.sparqlConstruct(QueryExpression.CONSTRUCT_TRIGGER_REPLICA, OntConfig.getOntologyDbUrl()));
+                }
+            } catch (IOException | JenaException ex) {
+                // is seeded again with the next connection state notification
+                ExceptionPrinter.printHistory("Could not construct ontology for replica.", ex, LOGGER, LogLevel.WARN);
+            }
+
+            LOCK.writeLock().lock();
+            try {
+                if (ontModel != null) {
+                    lastSequence = -1;
+
+                    for (final String update : SEEDING_UPDATES) {
+                        UpdateAction.parseExecute(update, ontModel);
+                        lastSequence = OntologyUpdateStream.getSequence(update);
+                    }
+                    UpdateAction.parseExecute(QueryExpression.DELETE_TRIGGER_REPLICA_HISTORY, ontModel);
+                    replica = ontModel;
+                }
+            } catch (NotAvailableException | JenaException ex) {
+                ExceptionPrinter.printHistory("Could not apply updates to ontology replica.", ex, LOGGER, LogLevel.WARN);
+            } finally {
+                seeding = false;
+                SEEDING_UPDATES.clear();
+                LOCK.writeLock().unlock();
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.commun.trigger;
+
+import org.openbase.bco.ontology.lib.system.config.OntConfig;
+import org.openbase.bco.ontology.lib.utility.sparql.SparqlUpdateWriter;
+import org.openbase.jul.exception.CouldNotPerformException;
+import org.openbase.jul.exception.NotAvailableException;
+import org.openbase.jul.exception.printer.ExceptionPrinter;
+import org.openbase.jul.exception.printer.LogLevel;
+import org.openbase.jul.extension.rsb.com.RSBFactoryImpl;
+import org.openbase.jul.extension.rsb.iface.RSBInformer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class publishes the sparql updates, which are committed to the ontology server, via rsb (see {@link OntConfig#getOntologyRsbUpdateScope()}), so that
+ * the trigger replicas (see {@link OntologyReplica}) can apply them. Each update starts with a sparql comment, which contains a consecutive sequence number.
+ * A receiver detects lost updates via gaps of the sequence. The updates are published only, if the trigger replica is enabled (see
+ * {@link OntConfig#isTriggerReplica()}).
+ *
+ * @author agent on 18.10.26.
+ */
+public final class OntologyUpdateStream {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OntologyUpdateStream.class);
+    private static final String SEQUENCE_PREFIX = "# sequence ";
+    private static RSBInformer<String> rsbInformer;
+    private static long sequence;
+
+    static {
+        if (OntConfig.isTriggerReplica()) {
+            try {
+                rsbInformer = RSBFactoryImpl.getInstance().createSynchronizedInformer(OntConfig.getOntologyRsbUpdateScope(), String.class);
+                rsbInformer.activate();
+            } catch (CouldNotPerformException ex) {
+                rsbInformer = null;
+                ExceptionPrinter.printHistory("Could not start ontology update stream!", ex, LOGGER, LogLevel.ERROR);
+            } catch (InterruptedException ex) {
+                rsbInformer = null;
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private OntologyUpdateStream() {
+    }
+
+    /**
+     * Method publishes the committed sparql update. Consider to call the method in order of the commits.
+     *
+     * @param sparql is the committed sparql update.
+     */
+    public static void publish(final String sparql) {
+        if (rsbInformer == null) {
+            return;
+        }
+
+        synchronized (OntologyUpdateStream.class) {
+            try {
+                rsbInformer.publish(SEQUENCE_PREFIX + (++sequence) + "\n" + sparql);
+            } catch (CouldNotPerformException ex) {
+                ExceptionPrinter.printHistory("Could not publish committed sparql update!", ex, LOGGER, LogLevel.WARN);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Method publishes the committed sparql update of the writer. The update string is built only, if the update stream is enabled.
+     *
+     * @param sparqlUpdateWriter is the writer, which contains the committed sparql update.
+     */
+    public static void publish(final SparqlUpdateWriter sparqlUpdateWriter) {
+        if (rsbInformer != null) {
+            publish(sparqlUpdateWriter.toString());
+        }
+    }
+
+    /**
+     * Method returns the sequence number of a published update.
+     *
+     * @param update is the published update.
+     * @return the sequence number of the update.
+     * @throws NotAvailableException is thrown in case the update contains no sequence number.
+     */
+    static long getSequence(final String update) throws NotAvailableException {
+        final int lineEnd = update.indexOf('\n');
+
+        if (!update.startsWith(SEQUENCE_PREFIX) || lineEnd < 0) {
+            throw new NotAvailableException("Sequence of update " + update);
+        }
+
+        try {
+            return Long.parseLong(update.substring(SEQUENCE_PREFIX.length(), lineEnd).trim());
+        } catch (NumberFormatException ex) {
+            throw new NotAvailableException("Sequence of update " + update, ex);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.commun.web;
+
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.shared.JenaException;
+import org.apache.jena.tdb.TDBFactory;
+import org.apache.jena.update.UpdateAction;
+import org.openbase.bco.ontology.lib.system.config.OntConfig;
+import org.openbase.jul.exception.CouldNotPerformException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Class keeps the embedded triple store (jena tdb), which is used instead of the remote ontology server, if the ontology backend is set to
+ * {@link OntConfig.OntologyBackend#TDB}. The store is located in the tdb directory (see {@link OntConfig#getTdbDirectory()}) and is opened by the ontology
+ * manager process only (see {@link #open()}), because jena tdb must not be opened by multiple processes at the same time. Each sparql update is executed in an own write transaction and each query in an own read transaction, so that the store keeps consistent in case
+ * of a crash.
+ *
+ * @author agent on 18.10.26.
+ */
+public final class EmbeddedTripleStore {
+
+    private static Dataset dataset;
+
+    private EmbeddedTripleStore() {
+    }
+
+    /**
+     * Method opens the embedded dataset. The dataset (and the tdb directory) is created, if it does not exist yet. Must be called by the ontology manager
+     * process only: jena tdb does not coordinate the access of multiple processes to the same tdb directory, which corrupts the store. Other processes
+     * (e.g. trigger clients) never open the store implicitly.
+     *
+     * @throws IOException is thrown in case the tdb directory could not be created or the dataset could not be opened.
+     */
+    public static synchronized void open() throws IOException {
+        if (dataset == null) {
+            final Path directory = Paths.get(OntConfig.getTdbDirectory());
+
+            try {
+                Files.createDirectories(directory);
+                dataset = TDBFactory.createDataset(directory.toString());
+            } catch (JenaException ex) {
+                throw new IOException("Could not open embedded triple store in " + directory, ex);
+            }
+        }
+    }
+
+    /**
+     * Method returns whether the embedded triple store is opened by this process (see {@link #open()}).
+     *
+     * @return {@code true}, if the store is opened by this process. Otherwise {@code false}.
+     */
+    public static synchronized boolean isOpen() {
+        return dataset != null;
+    }
+
+    /**
+     * Method returns the embedded dataset, which is opened by the ontology manager process.
+     *
+     * @return the embedded dataset.
+     * @throws IOException is thrown in case the dataset is not opened by this process.
+     */
+    private static synchronized Dataset getDataset() throws IOException {
+        if (dataset == null) {
+            throw new IOException("Embedded triple store in " + OntConfig.getTdbDirectory() + " is not opened by this process. Only the ontology manager "
+                    + "process may open it!");
+        }
+        return dataset;
+    }
+
+    /**
+     * Method executes a sparql update in a write transaction of the embedded triple store. The transaction is aborted in case of an error.
+     *
+     * @param sparql is the sparql update string.
+     * @throws IOException is thrown in case the embedded triple store is not available.
+     * @throws CouldNotPerformException is thrown in case the sparql update could not be executed (e.g. wrong sparql string...).
+     */
+    public static void update(final String sparql) throws IOException, CouldNotPerformException {
+        final Dataset tdb = getDataset();
+
+        tdb.begin(ReadWrite.WRITE);
+        try {
+            UpdateAction.parseExecute(sparql, tdb);
+            tdb.commit();
+        } catch (JenaException ex) {
+            tdb.abort();
+            throw new CouldNotPerformException("Could not execute sparql update on embedded triple store: " + sparql, ex);
+        } finally {
+            tdb.end();
+        }
+    }
+
+    /**
+     * Method returns the result of a sparql SELECT query, which is executed in a read transaction of the embedded triple store. The result is copied into
+     * memory, because the transaction is closed before the caller iterates the result.
+     *
+     * @param query is the SELECT query.
+     * @return the result of the SELECT query.
+     * @throws IOException is thrown in case the embedded triple store is not available.
+     */
+    public static ResultSet select(final String query) throws IOException {
+        final Dataset tdb = getDataset();
+
+        tdb.begin(ReadWrite.READ);
+        try {
+            final QueryExecution queryExecution = QueryExecutionFactory.create(QueryFactory.create(query), tdb);
+
+            try {
+                return ResultSetFactory.copyResults(queryExecution.execSelect());
+            } finally {
+                queryExecution.close();
+            }
+        } finally {
+            tdb.end();
+        }
+    }
+
+    /**
+     * Method returns the result of a sparql ASK query, which is executed in a read transaction of the embedded triple store.
+     *
+     * @param query is the ASK query.
+     * @return the result of the ASK query.
+     * @throws IOException is thrown in case the embedded triple store is not available.
+     */
+    public static boolean ask(final String query) throws IOException {
+        final Dataset tdb = getDataset();
+
+        tdb.begin(ReadWrite.READ);
+        try {
+            final QueryExecution queryExecution = QueryExecutionFactory.create(QueryFactory.create(query), tdb);
+
+            try {
+                return queryExecution.execAsk();
+            } finally {
+                queryExecution.close();
+            }
+        } finally {
+            tdb.end();
+        }
+    }
+
+    /**
+     * Method returns the result of a sparql CONSTRUCT query, which is executed in a read transaction of the embedded triple store. The constructed model
+     * is held in memory and can be used after the read.
+     *
+     * @param query is the CONSTRUCT query.
+     * @return the constructed model.
+     * @throws IOException is thrown in case the embedded triple store is not available.
+     */
+    public static Model construct(final String query) throws IOException {
+        final Dataset tdb = getDataset();
+
+        tdb.begin(ReadWrite.READ);
+        try {
+            final QueryExecution queryExecution = QueryExecutionFactory.create(QueryFactory.create(query), tdb);
+
+            try {
+                return queryExecution.execConstruct();
+            } finally {
+                queryExecution.close();
+            }
+        } finally {
+            tdb.end();
+        }
+    }
+
+    /**
+     * Method returns a copy of the default graph of the embedded triple store. The copy is independent of the transaction and can be used after the read.
+     *
+     * @return the copied default model, which is empty in case the store contains no ontology.
+     * @throws IOException is thrown in case the embedded triple store is not available.
+     */
+    public static Model getModel() throws IOException {
+        final Dataset tdb = getDataset();
+
+        tdb.begin(ReadWrite.READ);
+        try {
+            return ModelFactory.createDefaultModel().add(tdb.getDefaultModel());
+        } finally {
+            tdb.end();
+        }
+    }
+
+    /**
+     * Method adds (NOT replaces) the model to the default graph of the embedded triple store.
+     *
+     * @param model is the model, which should be added.
+     * @throws IOException is thrown in case the embedded triple store is not available or the model could not be added.
+     */
+    public static void addModel(final Model model) throws IOException {
+        final Dataset tdb = getDataset();
+
+        tdb.begin(ReadWrite.WRITE);
+        try {
+            tdb.getDefaultModel().add(model);
+            tdb.commit();
+        } catch (JenaException ex) {
+            tdb.abort();
+            throw new IOException("Could not add model to embedded triple store!", ex);
+        } finally {
+            tdb.end();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.commun.web;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.apache.jena.riot.web.HttpOp;
+import org.openbase.bco.ontology.lib.system.config.OntConfig;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class keeps one shared http client, which is based on a connection pool with keep-alive connections. All http requests to the ontology server (sparql
+ * updates, queries and pings) should use this client to reuse the tcp connections instead of creating a new client (and connection) per request. The pool
+ * is configured via the jp properties max connections, keep-alive, connect timeout and socket timeout (see {@link OntConfig}).
+ *
+ * @author agent on 18.10.26.
+ */
+public final class HttpConnectionPool {
+
+    private static final PoolingHttpClientConnectionManager CONNECTION_MANAGER = new PoolingHttpClientConnectionManager();
+    private static final CloseableHttpClient HTTP_CLIENT;
+
+    static {
+        CONNECTION_MANAGER.setDefaultMaxPerRoute(OntConfig.getHttpMaxConnections());
+        // the ontology manager addresses few routes only (update, query, ping), which are all based on the same server
+        CONNECTION_MANAGER.setMaxTotal(OntConfig.getHttpMaxConnections() * OntConfig.ServerService.values().length);
+
+        final RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(OntConfig.getHttpConnectTimeoutMilliS())
+                .setConnectionRequestTimeout(OntConfig.getHttpConnectTimeoutMilliS())
+                .setSocketTimeout(OntConfig.getHttpSocketTimeoutMilliS()).build();
+
+        final ConnectionKeepAliveStrategy keepAliveStrategy = (httpResponse, httpContext) -> {
+            final long keepAliveMilliS = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(httpResponse, httpContext);
+            return (keepAliveMilliS > 0) ? keepAliveMilliS : OntConfig.getHttpKeepAliveMilliS();
+        };
+
+        HTTP_CLIENT = HttpClients.custom()
+                .setConnectionManager(CONNECTION_MANAGER)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .evictExpiredConnections()
+                .evictIdleConnections((long) OntConfig.getHttpKeepAliveMilliS(), TimeUnit.MILLISECONDS)
+                .build();
+
+        // jena queries and graph store requests (e.g. SparqlHttp.sparqlQuery, OntModelHttp) use the same pool
+        HttpOp.setDefaultHttpClient(HTTP_CLIENT);
+    }
+
+    private HttpConnectionPool() {
+    }
+
+    /**
+     * Method initializes the connection pool and registers the shared http client as default client of jena. Jena requests (e.g. the upload of the
+     * ontology model) don't load this class, so that the method should be called at startup before the first request. Repeated calls have no effect.
+     */
+    public static void init() {
+        // the pool is built once by the static initializer of this class
+    }
+
+    /**
+     * Method returns the shared http client of the connection pool. Consider to close the response or to consume the response entity (see
+     * {@link #consume(HttpEntity)}) to release the connection back to the pool. Don't close the client itself.
+     *
+     * @return the shared http client.
+     */
+    public static CloseableHttpClient getHttpClient() {
+        return HTTP_CLIENT;
+    }
+
+    /**
+     * Method consumes the content of the http entity completely, so that the underlying connection can be reused by the pool.
+     *
+     * @param httpEntity is the entity of the http response. Can be null.
+     * @throws IOException is thrown in case the content of the entity could not be read.
+     */
+    public static void consume(final HttpEntity httpEntity) throws IOException {
+        EntityUtils.consume(httpEntity);
+    }
+
+}
@@ -52,6 +52,7 @@ public interface OntModelHttp {
 
     /**
      * Method returns the ontology model from the ontology server. Consider correct url. Consider the possible big size of the ontology (and download time).
+     * If the ontology backend is the embedded triple store, the model is read locally and the url is ignored.
      *
      * @param url is the url of the ontology database server without suffix (server service form).
      * @return the ontModel from the server.
@@ -60,7 +61,8 @@ public interface OntModelHttp {
      */
     static OntModel downloadModelFromServer(final String url) throws IOException, NotAvailableException {
         try {
-            Model model = DatasetAccessorFactory.createHTTP(url + OntConfig.ServerService.DATA.getName()).getModel();
+            Model model = (OntConfig.getOntologyBackend() == OntConfig.OntologyBackend.TDB) ? EmbeddedTripleStore.getModel()
+                    : DatasetAccessorFactory.createHTTP(url + OntConfig.ServerService.DATA.getName()).getModel();
 
             if (model.isEmpty()) {
                 throw new NotAvailableException("The server contains no ontology!");
@@ -108,7 +110,8 @@ public interface OntModelHttp {
     }
 
     /**
-     * Method adds (NOT replaces) the ontModel to the server.
+     * Method adds (NOT replaces) the ontModel to the server. If the ontology backend is the embedded triple store, the ontModel is added locally and the url
+     * is ignored.
      *
      * @param ontModel is the ontModel, which should be added to the server.
      * @param url is the url of the ontology database server without suffix (server service form).
@@ -122,6 +125,11 @@ public interface OntModelHttp {
             throw new NotAvailableException("OntModel is null.");
         }
 
+        if (OntConfig.getOntologyBackend() == OntConfig.OntologyBackend.TDB) {
+            EmbeddedTripleStore.addModel(ontModel);
+            return;
+        }
+
         try {
             DatasetAccessorFactory.createHTTP(url + OntConfig.ServerService.DATA.getName()).add(ontModel);
         } catch (Exception ex) {
@@ -20,21 +20,26 @@ package org.openbase.bco.ontology.lib.commun.web;
 
 import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
-import org.apache.http.client.HttpClient;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.impl.client.HttpClients;
+import org.apache.http.entity.EntityTemplate;
 import org.apache.http.message.BasicNameValuePair;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryExecution;
 import org.apache.jena.query.QueryExecutionFactory;
 import org.apache.jena.query.QueryFactory;
 import org.apache.jena.query.ResultSet;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.rdf.model.Model;
 import org.apache.jena.sparql.engine.http.QueryExceptionHTTP;
+import org.openbase.bco.ontology.lib.commun.trigger.OntologyUpdateStream;
 import org.openbase.bco.ontology.lib.manager.buffer.TransactionBuffer;
 import org.openbase.bco.ontology.lib.system.config.OntConfig;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.OntologyBackend;
 import org.openbase.bco.ontology.lib.system.config.OntConfig.ServerService;
 import org.openbase.bco.ontology.lib.utility.ThreadUtility;
+import org.openbase.bco.ontology.lib.utility.sparql.SparqlUpdateWriter;
 import org.openbase.jul.exception.CouldNotPerformException;
 import org.openbase.jul.exception.printer.ExceptionPrinter;
 import org.openbase.jul.exception.printer.LogLevel;
@@ -64,25 +69,75 @@ final class SparqlHttpLogger {
 public interface SparqlHttp {
 
     /**
-     * Method executes a sparql update/query to the ontology server.
+     * Content type of streamed sparql update requests.
+     */
+    String SPARQL_UPDATE_CONTENT_TYPE = "application/sparql-update; charset=UTF-8";
+
+    /**
+     * Method executes a sparql update/query to the ontology server. If the ontology backend is the embedded triple store, the update is executed locally
+     * (see {@link EmbeddedTripleStore}) and the url is ignored.
+     *
+     * The committed update is published to the trigger replicas (see {@link OntologyUpdateStream}).
      *
      * @param sparql is the sparql update/request string.
      * @param url is the url of the ontology database server without suffix (server service form).
-     * @throws IOException is thrown in case there is no connection to the ontology server.
+     * @throws IOException is thrown in case there is no connection to the ontology server or the server responds with a server error.
      * @throws CouldNotPerformException is thrown in case the httpResponse was not successfully (e.g. wrong sparql string...).
      */
     static void uploadSparqlRequest(final String sparql, final String url) throws IOException, CouldNotPerformException {
 
+        if (OntConfig.getOntologyBackend() == OntologyBackend.TDB) {
+            EmbeddedTripleStore.update(sparql);
+            OntologyUpdateStream.publish(sparql);
+            return;
+        }
+
         String serverServiceName = ServerService.UPDATE.getName();
-        HttpClient httpclient = HttpClients.createDefault();
         HttpPost httpPost = new HttpPost(url + serverServiceName);
 
         List<NameValuePair> params = new ArrayList<>();
         params.add(new BasicNameValuePair(serverServiceName, sparql));
 
         httpPost.setEntity(new UrlEncodedFormEntity(params, "UTF-8"));
-        HttpResponse httpResponse = httpclient.execute(httpPost);
-        checkHttpRequest(httpResponse, sparql);
+
+        try (CloseableHttpResponse httpResponse = HttpConnectionPool.getHttpClient().execute(httpPost)) {
+            // consume the response to release the connection back to the pool
+            HttpConnectionPool.consume(httpResponse.getEntity());
+            checkHttpRequest(httpResponse, sparql);
+        }
+        OntologyUpdateStream.publish(sparql);
+    }
+
+    /**
+     * Method executes a sparql update request to the ontology server. The request is streamed from the writer to the http request (content type
+     * application/sparql-update) without building the whole request as string. If the ontology backend is the embedded triple store, the update is
+     * executed locally and the url is ignored. The committed update is published to the trigger replicas (see {@link OntologyUpdateStream}).
+     *
+     * @param sparqlUpdateWriter is the writer, which contains the sparql update request.
+     * @param url is the url of the ontology database server without suffix (server service form).
+     * @throws IOException is thrown in case there is no connection to the ontology server or the server responds with a server error.
+     * @throws CouldNotPerformException is thrown in case the httpResponse was not successfully (e.g. wrong sparql string...).
+     */
+    static void uploadSparqlRequest(final SparqlUpdateWriter sparqlUpdateWriter, final String url) throws IOException, CouldNotPerformException {
+
+        if (OntConfig.getOntologyBackend() == OntologyBackend.TDB) {
+            EmbeddedTripleStore.update(sparqlUpdateWriter.toString());
+            OntologyUpdateStream.publish(sparqlUpdateWriter);
+            return;
+        }
+
+        final HttpPost httpPost = new HttpPost(url + ServerService.UPDATE.getName());
+        final EntityTemplate entityTemplate = new EntityTemplate(sparqlUpdateWriter::writeTo);
+        entityTemplate.setContentType(SPARQL_UPDATE_CONTENT_TYPE);
+        httpPost.setEntity(entityTemplate);
+
+        try (CloseableHttpResponse httpResponse = HttpConnectionPool.getHttpClient().execute(httpPost)) {
+            // consume the response to release the connection back to the pool
+            HttpConnectionPool.consume(httpResponse.getEntity());
+            // the request string is build by the caller in case of bad request only
+            checkHttpRequest(httpResponse, null);
+        }
+        OntologyUpdateStream.publish(sparqlUpdateWriter);
     }
 
     /**
@@ -138,7 +193,8 @@ public interface SparqlHttp {
     }
 
     /**
-     * Method returns the result of a sparql SELECT query, which is send to the ontology server.
+     * Method returns the result of a sparql SELECT query, which is send to the ontology server. If the ontology backend is the embedded triple store, the
+     * query is executed locally and the url is ignored.
      *
      * @param query is the SELECT query.
      * @param url is the url of the ontology database server without suffix (server service form).
@@ -146,14 +202,79 @@ public interface SparqlHttp {
      * @throws IOException is thrown in case there is no connection to the ontology server.
      */
     static ResultSet sparqlQuery(final String query, final String url) throws IOException {
+        if (OntConfig.getOntologyBackend() == OntologyBackend.TDB) {
+            return EmbeddedTripleStore.select(query);
+        }
+
+        QueryExecution queryExecution = null;
+
         try {
             String serverServiceName = ServerService.SPARQL.getName();
             Query queryObject = QueryFactory.create(query);
-            QueryExecution queryExecution = QueryExecutionFactory.sparqlService(url + serverServiceName, queryObject);
+            queryExecution = QueryExecutionFactory.sparqlService(url + serverServiceName, queryObject);
 
-            return queryExecution.execSelect();
+            // the result is copied, so that the query execution can be closed and the http connection is released to the pool
+            return ResultSetFactory.copyResults(queryExecution.execSelect());
         } catch (QueryExceptionHTTP ex) {
             throw new IOException("Connection establishment refused. Server offline?");
+        } finally {
+            if (queryExecution != null) {
+                queryExecution.close();
+            }
+        }
+    }
+
+    /**
+     * Method returns the result of a sparql ASK query.
+     *
+     * @param query is the ASK query.
+     * @param url is the url of the ontology database server without suffix (server service form).
+     * @return the result of the ASK query.
+     * @throws IOException is thrown in case there is no connection to the ontology server.
+     */
+    static boolean sparqlAsk(final String query, final String url) throws IOException {
+        if (OntConfig.getOntologyBackend() == OntologyBackend.TDB) {
+            return EmbeddedTripleStore.ask(query);
+        }
+
+        QueryExecution queryExecution = null;
+
+        try {
+            queryExecution = QueryExecutionFactory.sparqlService(url + ServerService.SPARQL.getName(), QueryFactory.create(query));
+            return queryExecution.execAsk();
+        } catch (QueryExceptionHTTP ex) {
+            throw new IOException("Connection establishment refused. Server offline?");
+        } finally {
+            if (queryExecution != null) {
+                queryExecution.close();
+            }
+        }
+    }
+
+    /**
+     * Method returns the result of a sparql CONSTRUCT query.
+     *
+     * @param query is the CONSTRUCT query.
+     * @param url is the url of the ontology database server without suffix (server service form).
+     * @return the constructed model.
+     * @throws IOException is thrown in case there is no connection to the ontology server.
+     */
+    static Model sparqlConstruct(final String query, final String url) throws IOException {
+        if (OntConfig.getOntologyBackend() == OntologyBackend.TDB) {
+            return EmbeddedTripleStore.construct(query);
+        }
+
+        QueryExecution queryExecution = null;
+
+        try {
+            queryExecution = QueryExecutionFactory.sparqlService(url + ServerService.SPARQL.getName(), QueryFactory.create(query));
+            return queryExecution.execConstruct();
+        } catch (QueryExceptionHTTP ex) {
+            throw new IOException("Connection establishment refused. Server offline?");
+        } finally {
+            if (queryExecution != null) {
+                queryExecution.close();
+            }
         }
     }
 
@@ -190,13 +311,15 @@ public interface SparqlHttp {
 
     /**
      * Method verifies the http response code. If the http request was not successfully an exception is thrown. Otherwise void. Consider that a httpResponse
-     * based on connection. That means the method do not identify an possibly IOException!
+     * based on connection. A server error (5xx) is handled like a missing connection, because the server is overloaded or unavailable and the request
+     * should be repeated later.
      *
      * @param httpResponse is the response of the http request.
      * @param sparql is the sparql update string, which is used for terminal information in case of bad request. Set to null, if not necessary.
+     * @throws IOException is thrown in case of a server error code.
      * @throws CouldNotPerformException is thrown in case the http request was not successfully.
      */
-    static void checkHttpRequest(final HttpResponse httpResponse, final String sparql) throws CouldNotPerformException {
+    static void checkHttpRequest(final HttpResponse httpResponse, final String sparql) throws IOException, CouldNotPerformException {
 
         int responseCode = httpResponse.getStatusLine().getStatusCode();
         int reducedCode = Integer.parseInt(Integer.toString(responseCode).substring(0, 1));
@@ -210,7 +333,7 @@ public interface SparqlHttp {
             case 4: // client error
                 throw new CouldNotPerformException("Client error code. Possibly sparql update string is wrong: " + stringBuf);
             case 5: // server error
-                throw new CouldNotPerformException("Server error code. Possibly server is unavailable! Or sparql update bad?! " + stringBuf);
+                throw new IOException("Server error code " + responseCode + ". Server is overloaded or unavailable!");
             default: // unknown error
                 throw new CouldNotPerformException("Unknown status code. Sparql update string: " + stringBuf);
         }
@@ -0,0 +1,50 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.jp;
+
+import org.openbase.jps.exception.JPNotAvailableException;
+import org.openbase.jps.preset.AbstractJPInteger;
+
+/**
+ * @author agent on 18.10.26.
+ */
+public class JPOntologyAggregationParallelism extends AbstractJPInteger {
+
+    /**
+     * Command line argument strings.
+     */
+    public static final String[] COMMAND_IDENTIFIERS = {"--ontology-aggregation-parallelism"};
+
+    /**
+     * Constructor for the JPOntologyAggregationParallelism class.
+     */
+    public JPOntologyAggregationParallelism() {
+        super(COMMAND_IDENTIFIERS);
+    }
+
+    @Override
+    protected Integer getPropertyDefaultValue() throws JPNotAvailableException {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public String getDescription() {
+        return "AggregationParallelism property is used to set the number of threads, which aggregate the units in parallel.";
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.jp;
+
+import org.openbase.jps.exception.JPNotAvailableException;
+import org.openbase.jps.preset.AbstractJPString;
+
+import java.time.ZoneId;
+
+/**
+ * @author agent on 18.10.26.
+ */
+public class JPOntologyAggregationTimeZone extends AbstractJPString {
+
+    /**
+     * Command line argument strings.
+     */
+    public static final String[] COMMAND_IDENTIFIERS = {"--ontology-aggregation-time-zone"};
+
+    /**
+     * Constructor for the JPOntologyAggregationTimeZone class.
+     */
+    public JPOntologyAggregationTimeZone() {
+        super(COMMAND_IDENTIFIERS);
+    }
+
+    @Override
+    protected String getPropertyDefaultValue() throws JPNotAvailableException {
+        return ZoneId.systemDefault().getId();
+    }
+
+    @Override
+    public String getDescription() {
+        return "AggregationTimeZone property is used to set the time zone (e.g. Europe/Berlin), which aligns the aggregation periods to the calendar.";
+    }
+}
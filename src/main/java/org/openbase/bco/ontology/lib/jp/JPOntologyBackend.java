@@ -0,0 +1,55 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.jp;
+
+import org.openbase.jps.exception.JPNotAvailableException;
+import org.openbase.jps.preset.AbstractJPString;
+
+/**
+ * The embedded triple store (TDB) must be opened by a single process only. Therefore TDB is opened by the ontology manager process and trigger in other
+ * processes (see {@link org.openbase.bco.ontology.lib.trigger.TriggerFactory}) require the ontology backend FUSEKI.
+ *
+ * @author agent on 18.10.26.
+ */
+public class JPOntologyBackend extends AbstractJPString {
+
+    /**
+     * Command line argument strings.
+     */
+    public static final String[] COMMAND_IDENTIFIERS = {"--ontology-backend"};
+
+    /**
+     * Constructor for the JPOntologyBackend class.
+     */
+    public JPOntologyBackend() {
+        super(COMMAND_IDENTIFIERS);
+    }
+
+    @Override
+    protected String getPropertyDefaultValue() throws JPNotAvailableException {
+        return "FUSEKI";
+    }
+
+    @Override
+    public String getDescription() {
+        return "OntologyBackend property is used to select the storage of the ontology. Valid values are FUSEKI (remote ontology server, see "
+                + "--ontology-db-url) and TDB (embedded triple store on local disk, see --ontology-tdb-directory). TDB is opened by the ontology manager "
+                + "process only, trigger in other processes require FUSEKI.";
+    }
+}
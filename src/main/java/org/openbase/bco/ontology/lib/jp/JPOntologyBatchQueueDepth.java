@@ -0,0 +1,51 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.jp;
+
+import org.openbase.jps.exception.JPNotAvailableException;
+import org.openbase.jps.preset.AbstractJPInteger;
+
+/**
+ * @author agent on 18.10.26.
+ */
+public class JPOntologyBatchQueueDepth extends AbstractJPInteger {
+
+    /**
+     * Command line argument strings.
+     */
+    public static final String[] COMMAND_IDENTIFIERS = {"--ontology-batch-queue-depth"};
+
+    /**
+     * Constructor for the JPOntologyBatchQueueDepth class.
+     */
+    public JPOntologyBatchQueueDepth() {
+        super(COMMAND_IDENTIFIERS);
+    }
+
+    @Override
+    protected Integer getPropertyDefaultValue() throws JPNotAvailableException {
+        return 10000;
+    }
+
+    @Override
+    public String getDescription() {
+        return "BatchQueueDepth property is used to set the maximal number of pending sparql updates, which wait for batching. If the queue "
+                + "is full, the producers are blocked.";
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.jp;
+
+import org.openbase.jps.exception.JPNotAvailableException;
+import org.openbase.jps.preset.AbstractJPString;
+
+/**
+ * @author agent on 18.10.26.
+ */
+public class JPOntologyBufferOverflowPolicy extends AbstractJPString {
+
+    /**
+     * Command line argument strings.
+     */
+    public static final String[] COMMAND_IDENTIFIERS = {"--ontology-buffer-overflow-policy"};
+
+    /**
+     * Constructor for the JPOntologyBufferOverflowPolicy class.
+     */
+    public JPOntologyBufferOverflowPolicy() {
+        super(COMMAND_IDENTIFIERS);
+    }
+
+    @Override
+    protected String getPropertyDefaultValue() throws JPNotAvailableException {
+        return "DROP_OLDEST";
+    }
+
+    @Override
+    public String getDescription() {
+        return "BufferOverflowPolicy property is used to set the behavior, if the transaction buffer is full. Valid values are BLOCK, DROP_OLDEST, "
+                + "DROP_NEWEST and COALESCE_BY_SUBJECT (keeps the latest observation per unit and service only).";
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.jp;
+
+import org.openbase.jps.exception.JPNotAvailableException;
+import org.openbase.jps.preset.AbstractJPString;
+
+/**
+ * @author agent on 18.10.26.
+ */
+public class JPOntologyGraphPartition extends AbstractJPString {
+
+    /**
+     * Command line argument strings.
+     */
+    public static final String[] COMMAND_IDENTIFIERS = {"--ontology-graph-partition"};
+
+    /**
+     * Constructor for the JPOntologyGraphPartition class.
+     */
+    public JPOntologyGraphPartition() {
+        super(COMMAND_IDENTIFIERS);
+    }
+
+    @Override
+    protected String getPropertyDefaultValue() throws JPNotAvailableException {
+        return "OFF";
+    }
+
+    @Override
+    public String getDescription() {
+        return "GraphPartition property is used to store the observations and aggregation observations in time-partitioned named graphs, so that time frame "
+                + "queries touch the relevant graphs only and the retention drops whole graphs. Valid values are OFF (default graph), DAY, WEEK and MONTH "
+                + "(length of a partition). Queries, which are not graph-aware (e.g. trigger), require the union default graph of the ontology server.";
+    }
+}
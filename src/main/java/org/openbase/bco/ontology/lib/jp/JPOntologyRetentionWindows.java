@@ -0,0 +1,53 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.jp;
+
+import org.openbase.jps.exception.JPNotAvailableException;
+import org.openbase.jps.preset.AbstractJPString;
+
+/**
+ * @author agent on 18.10.26.
+ */
+public class JPOntologyRetentionWindows extends AbstractJPString {
+
+    /**
+     * Command line argument strings.
+     */
+    public static final String[] COMMAND_IDENTIFIERS = {"--ontology-retention-windows"};
+
+    /**
+     * Constructor for the JPOntologyRetentionWindows class.
+     */
+    public JPOntologyRetentionWindows() {
+        super(COMMAND_IDENTIFIERS);
+    }
+
+    @Override
+    protected String getPropertyDefaultValue() throws JPNotAvailableException {
+        return "";
+    }
+
+    @Override
+    public String getDescription() {
+        return "RetentionWindows property is used to set how long the data of a period are kept, after they are aggregated to the next greater period. "
+                + "Format is a comma separated list of PERIOD=ISO-8601-duration (e.g. HOUR=P7D,DAY=P90D). HOUR describes the raw data (observations, "
+                + "connection phases and heartbeat phases) and the hour aggregation observations of the online aggregation. Without entry the raw data are kept and the aggregation observations are deleted directly "
+                + "after they are aggregated to the next greater period. Default is no retention window, means the retention is opt-in.";
+    }
+}
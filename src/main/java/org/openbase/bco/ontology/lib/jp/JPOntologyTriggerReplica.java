@@ -0,0 +1,52 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.jp;
+
+import org.openbase.jps.exception.JPNotAvailableException;
+import org.openbase.jps.preset.AbstractJPBoolean;
+
+/**
+ * @author agent on 18.10.26.
+ */
+public class JPOntologyTriggerReplica extends AbstractJPBoolean {
+
+    /**
+     * Command line argument strings.
+     */
+    public static final String[] COMMAND_IDENTIFIERS = {"--ontology-trigger-replica"};
+
+    /**
+     * Constructor for the JPOntologyTriggerReplica class.
+     */
+    public JPOntologyTriggerReplica() {
+        super(COMMAND_IDENTIFIERS);
+    }
+
+    @Override
+    protected Boolean getPropertyDefaultValue() throws JPNotAvailableException {
+        return false;
+    }
+
+    @Override
+    public String getDescription() {
+        return "TriggerReplica property is used to enable the local replica of the ontology for the trigger evaluation. If bool property is true, "
+                + "the ontology manager publishes the committed sparql updates and the triggers evaluate their queries on a local replica, which is kept "
+                + "up to date by the published updates. Otherwise (DEFAULT false) the trigger queries are sent to the ontology server.";
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.manager.abox.observation;
+
+/**
+ * An extractor provides the state source(s) of one individual state type (e.g. batteryState) and writes their state values into the (reused) state source
+ * buffer. The extractors are assigned to their service types via {@link StateSources#registerStateExtractor(rst.domotic.service.ServiceTemplateType
+ * .ServiceTemplate.ServiceType, StateExtractor)}.
+ *
+ * @author agent on 18.10.26.
+ */
+@FunctionalInterface
+public interface StateExtractor {
+
+    /**
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input state object to the buffer.
+     *
+     * @param stateObject is the state object, which contains the needed state value(s).
+     * @param stateSourceBuffer is the buffer, which the state sources are written to. The buffer is cleared before.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false} (e.g. by unknown data unit), whereby the observation is dropped.
+     */
+    boolean extract(final Object stateObject, final StateSourceBuffer stateSourceBuffer);
+}
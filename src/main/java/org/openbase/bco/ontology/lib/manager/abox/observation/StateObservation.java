@@ -19,9 +19,11 @@
 package org.openbase.bco.ontology.lib.manager.abox.observation;
 
 import org.openbase.bco.dal.lib.layer.unit.UnitRemote;
-import org.openbase.bco.ontology.lib.commun.web.SparqlHttp;
+import org.openbase.bco.ontology.lib.manager.aggregation.OnlineAggregator;
+import org.openbase.bco.ontology.lib.manager.buffer.SparqlUpdateBatcher;
+import org.openbase.bco.ontology.lib.manager.buffer.TransactionBuffer;
 import org.openbase.bco.ontology.lib.utility.ReflectionUtility;
-import org.openbase.bco.ontology.lib.utility.rdf.RdfNodeObject;
+import org.openbase.bco.ontology.lib.utility.sparql.GraphPartitions;
 import org.openbase.bco.ontology.lib.utility.sparql.QueryExpression;
 import org.openbase.bco.ontology.lib.utility.sparql.RdfTriple;
 import org.openbase.bco.ontology.lib.system.config.OntConfig;
@@ -38,8 +40,6 @@ import org.openbase.jul.exception.InstantiationException;
 import org.openbase.jul.exception.MultiException;
 import org.openbase.jul.exception.printer.ExceptionPrinter;
 import org.openbase.jul.exception.printer.LogLevel;
-import org.openbase.jul.extension.rsb.com.RSBFactoryImpl;
-import org.openbase.jul.extension.rsb.iface.RSBInformer;
 import org.openbase.jul.extension.rst.processing.TimestampJavaTimeTransform;
 import org.openbase.jul.pattern.Observable;
 import org.openbase.jul.pattern.Observer;
@@ -70,10 +70,18 @@ import java.util.regex.Pattern;
 public class StateObservation<T> extends StateSources {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(StateObservation.class);
+
+    /**
+     * Is true, if the transaction buffer is under pressure. In this case the state changes are observed with reduced rate.
+     */
+    private static volatile boolean reducedSampling;
+
+    static {
+        TransactionBuffer.PRESSURE_OBSERVABLE.addObserver((source, underPressure) -> reducedSampling = underPressure);
+    }
     private final SimpleDateFormat dateFormat;
     private final String unitRemoteId;
 //    private final Stopwatch stopwatch;
-    private final RSBInformer<OntologyChange> rsbInformer;
     private final UnitType unitType;
     private final ConnectionPhase connectionPhase;
     private T providerServiceObj;
@@ -87,7 +95,6 @@ public class StateObservation<T> extends StateSources {
     public StateObservation(final UnitRemote unitRemote) throws InstantiationException {
         try {
             this.unitType = unitRemote.getUnitType();
-            this.rsbInformer = RSBFactoryImpl.getInstance().createSynchronizedInformer(OntConfig.getOntologyRsbScope(), OntologyChange.class);
 //            this.stopwatch = new Stopwatch();
             this.unitRemoteId = unitRemote.getId().toString();
             this.connectionPhase = new ConnectionPhase(unitRemote);
@@ -116,7 +123,15 @@ public class StateObservation<T> extends StateSources {
             final String serviceTypeName = StringModifier.getServiceTypeNameFromStateMethodName(getGenericStateService.getName());
             final ServiceType serviceType = OntConfig.SERVICE_NAME_MAP.get(serviceTypeName);
 
-            final RecurrenceEventFilter recurrenceEventFilter = new RecurrenceEventFilter(200) {
+            final RecurrenceEventFilter recurrenceEventFilter = new RecurrenceEventFilter(OntConfig.OBSERVATION_PERIOD_MILLISECONDS) {
+                @Override
+                public void relay() {
+                    serviceStateChangeProcessing(providerServiceObj, serviceType, serviceTypeName);
+                }
+            };
+
+            // used instead of the default filter, if the transaction buffer is under pressure
+            final RecurrenceEventFilter reducedRecurrenceEventFilter = new RecurrenceEventFilter(OntConfig.OBSERVATION_REDUCED_PERIOD_MILLISECONDS) {
                 @Override
                 public void relay() {
                     serviceStateChangeProcessing(providerServiceObj, serviceType, serviceTypeName);
@@ -125,7 +140,12 @@ public class StateObservation<T> extends StateSources {
 
             final Observer<T> serviceStateObserver = (final Observable<T> observable, final T providerServiceData) -> {
                 this.providerServiceObj = providerServiceData;
-                recurrenceEventFilter.trigger();
+
+                if (reducedSampling) {
+                    reducedRecurrenceEventFilter.trigger();
+                } else {
+                    recurrenceEventFilter.trigger();
+                }
             };
 
             unitRemote.addServiceStateObserver(OntConfig.SERVICE_NAME_MAP.get(serviceTypeName), serviceStateObserver);
@@ -155,25 +175,31 @@ public class StateObservation<T> extends StateSources {
     private void serviceStateChangeProcessing(final T providerServiceData, final ServiceType serviceType, final String serviceTypeName) {
         final List<RdfTriple> insert = new ArrayList<>();
         final List<RdfTriple> delete = new ArrayList<>();
+        String graph = null;
 
         try {
             final TimestampType.Timestamp stateTimestamp = (TimestampType.Timestamp) ReflectionUtility
-                    .invokeMethod(providerServiceData, MethodRegEx.GET_TIMESTAMP.getName(), Pattern.CASE_INSENSITIVE);
+                    .invokeCachedMethod(providerServiceData, MethodRegEx.GET_TIMESTAMP.getName(), Pattern.CASE_INSENSITIVE);
 
             if (!stateTimestamp.hasTime() || stateTimestamp.getTime() == 0) {
                 return; // no valid timestamp
             }
 
-            final List<RdfNodeObject> stateSourcesResult = identifyStateType(OntConfig.SERVICE_NAME_MAP.get(serviceTypeName), providerServiceData);
+            final StateSourceBuffer stateSources = getStateSourceBuffer();
 
-            if (stateSourcesResult == null) {
+            if (!identifyStateType(serviceType, providerServiceData, stateSources)) {
                 return; // incomplete observation instance, because could not identify state value
             }
 
             final Timestamp timestamp = new Timestamp(TimestampJavaTimeTransform.transform(stateTimestamp));
             final String timestampLiteral = StringModifier.convertToLiteral(dateFormat.format(timestamp), XsdType.DATE_TIME);
 
-            for (final RdfNodeObject nodeObject : stateSourcesResult) {
+            if (OntConfig.getOntologyManagerMode()) {
+                // historic observations are stored in the graph partition of their timestamp (default graph, if the graph partitions are disabled)
+                graph = GraphPartitions.getObservationGraph(timestamp.getTime());
+            }
+
+            for (int source = 0; source < stateSources.getSourceCount(); source++) {
                 final String obsInstName;
 
                 if (OntConfig.getOntologyManagerMode()) {
@@ -192,13 +218,18 @@ public class StateObservation<T> extends StateSources {
                 insert.add(new RdfTriple(obsInstName, OntProp.TIME_STAMP.getName(), timestampLiteral));
                 insert.add(new RdfTriple(obsInstName, OntProp.PROVIDER_SERVICE.getName(), serviceTypeName));
 
-                for (final String stateValue : nodeObject.getStateValues()) {
+                for (int index = stateSources.getValueStart(source); index < stateSources.getValueEnd(source); index++) {
+                    final String stateValue = stateSources.getStateValue(index);
                     // if value is literal (continuous value like hsb), the input string is correct.
                     // Otherwise (resource/discrete value ike ON, OFF, OPEN, ...) the naming convention of the ontology is performed
-                    final String stateValueName = (nodeObject.isLiteral()) ? stateValue : StringModifier.firstCharToLowerCase(StringModifier.getCamelCaseName(stateValue));
+                    final String stateValueName = (stateSources.isLiteral(source)) ? stateValue : StringModifier.firstCharToLowerCase(StringModifier.getCamelCaseName(stateValue));
                     insert.add(new RdfTriple(obsInstName, OntProp.STATE_VALUE.getName(), stateValueName));
                 }
             }
+
+            if (OntConfig.getOnlineAggregationPeriod() != null) {
+                OnlineAggregator.addStateSources(unitRemoteId, serviceTypeName, timestamp.getTime(), stateSources);
+            }
         } catch (MultiException ex) {
             ExceptionPrinter.printHistory("Dropped observation individual.", ex, LOGGER, LogLevel.ERROR);
         } catch (CouldNotPerformException ex) {
@@ -206,36 +237,24 @@ public class StateObservation<T> extends StateSources {
                     + ". Dropped.", ex, LOGGER, LogLevel.ERROR);
         }
 
+        // the ontologyChange is published via rsb (to all listening trigger) after the batch, which contains the state change, is committed
+        final OntologyChange ontologyChange = OntologyChange.newBuilder().addUnitType(unitType).addServiceType(serviceType).build();
+
         try {
-            final String sparql = (OntConfig.getOntologyManagerMode()) ? SparqlUpdateExpression.getSparqlInsertExpression(insert)
-                    : SparqlUpdateExpression.getConnectedSparqlUpdateExpression(delete, insert, QueryExpression.getNullWhereExpression());
-            LOGGER.info(sparql);
-            if (SparqlHttp.uploadSparqlRequest(sparql)) {
-                rsbNotification(serviceType);
+            final String subject = unitRemoteId + serviceTypeName;
+
+            if (OntConfig.getOntologyManagerMode()) {
+                SparqlUpdateBatcher.submitInsert(insert, graph, ontologyChange, subject);
+            } else {
+                SparqlUpdateBatcher.submitUpdate(SparqlUpdateExpression
+                        .getConnectedSparqlUpdateExpression(delete, insert, QueryExpression.getNullWhereExpression()), ontologyChange, subject);
             }
         } catch (CouldNotPerformException ex) {
             ExceptionPrinter.printHistory(ex, LOGGER, LogLevel.ERROR);
         } catch (InterruptedException ex) {
+            // the observation is dropped. The interruption is kept for the rsb thread
             Thread.currentThread().interrupt();
-            throw new RuntimeException(ex);
         }
     }
 
-    /**
-     * After successfully updating of the state change(s) the method sends finally a rsb notification (to all listening trigger). The notification contains
-     * the ontologyChange, which describes the kind of state change.
-     *
-     * @param serviceType is the type of service and part of the ontologyChange.
-     * @throws InterruptedException is thrown in case the rsb notification failed by interrupting.
-     * @throws CouldNotPerformException is thrown in case the rsb notification failed by processing the rsb instance.
-     */
-    private void rsbNotification(final ServiceType serviceType) throws InterruptedException, CouldNotPerformException {
-
-        final OntologyChange ontologyChange = OntologyChange.newBuilder().addUnitType(unitType).addServiceType(serviceType).build();
-        // publish notification via rsb
-        rsbInformer.activate();
-        rsbInformer.publish(ontologyChange);
-        rsbInformer.deactivate();
-    }
-
 }
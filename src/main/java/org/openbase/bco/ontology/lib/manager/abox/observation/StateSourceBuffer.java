@@ -0,0 +1,151 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.manager.abox.observation;
+
+import java.util.Arrays;
+
+/**
+ * This class keeps the state sources of a state object, which are written by a {@link StateExtractor}. Each state source contains one (e.g. battery level)
+ * or multiple (e.g. color hsb) state value(s) and the information, whether the values are literals (continuous) or resources (discrete). The buffer is
+ * reused for each state change to avoid the allocation of lists per state change and is not thread-safe.
+ *
+ * @author agent on 18.10.26.
+ */
+public final class StateSourceBuffer {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private String[] stateValues;
+    private int[] sourceEnds;
+    private boolean[] literals;
+    private int valueCount;
+    private int sourceCount;
+
+    /**
+     * Constructor creates an empty state source buffer.
+     */
+    public StateSourceBuffer() {
+        this.stateValues = new String[INITIAL_CAPACITY];
+        this.sourceEnds = new int[INITIAL_CAPACITY];
+        this.literals = new boolean[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Method clears the buffer. The capacity is kept.
+     */
+    public void clear() {
+        Arrays.fill(stateValues, 0, valueCount, null);
+        valueCount = 0;
+        sourceCount = 0;
+    }
+
+    /**
+     * Method adds a state source with one state value.
+     *
+     * @param isLiteral describes the kind of the state source. See {@link org.openbase.bco.ontology.lib.utility.rdf.RdfNodeObject}.
+     * @param stateValue is the state value of the state source.
+     * @return this buffer.
+     */
+    public StateSourceBuffer addSource(final boolean isLiteral, final String stateValue) {
+        addValue(stateValue);
+        return closeSource(isLiteral);
+    }
+
+    /**
+     * Method adds a state source with three state values (e.g. color hsb).
+     *
+     * @param isLiteral describes the kind of the state source. See {@link org.openbase.bco.ontology.lib.utility.rdf.RdfNodeObject}.
+     * @param firstStateValue is the first state value of the state source.
+     * @param secondStateValue is the second state value of the state source.
+     * @param thirdStateValue is the third state value of the state source.
+     * @return this buffer.
+     */
+    public StateSourceBuffer addSource(final boolean isLiteral, final String firstStateValue, final String secondStateValue, final String thirdStateValue) {
+        addValue(firstStateValue);
+        addValue(secondStateValue);
+        addValue(thirdStateValue);
+        return closeSource(isLiteral);
+    }
+
+    /**
+     * Method returns the number of state sources in the buffer.
+     *
+     * @return the number of state sources.
+     */
+    public int getSourceCount() {
+        return sourceCount;
+    }
+
+    /**
+     * Method provides the kind of the state source.
+     *
+     * @param source is the index of the state source.
+     * @return {@code true} if the state value(s) based on literal (continuous). Otherwise {@code false} if based on resource (discrete).
+     */
+    public boolean isLiteral(final int source) {
+        return literals[source];
+    }
+
+    /**
+     * Method returns the index of the first state value of the state source.
+     *
+     * @param source is the index of the state source.
+     * @return the index of the first state value (inclusive).
+     */
+    public int getValueStart(final int source) {
+        return (source == 0) ? 0 : sourceEnds[source - 1];
+    }
+
+    /**
+     * Method returns the index after the last state value of the state source.
+     *
+     * @param source is the index of the state source.
+     * @return the index of the last state value (exclusive).
+     */
+    public int getValueEnd(final int source) {
+        return sourceEnds[source];
+    }
+
+    /**
+     * Method returns the state value of the input index.
+     *
+     * @param index is the index of the state value, which is between {@link #getValueStart(int)} and {@link #getValueEnd(int)} of the state source.
+     * @return the state value.
+     */
+    public String getStateValue(final int index) {
+        return stateValues[index];
+    }
+
+    private void addValue(final String stateValue) {
+        if (valueCount == stateValues.length) {
+            stateValues = Arrays.copyOf(stateValues, stateValues.length * 2);
+        }
+        stateValues[valueCount++] = stateValue;
+    }
+
+    private StateSourceBuffer closeSource(final boolean isLiteral) {
+        if (sourceCount == sourceEnds.length) {
+            sourceEnds = Arrays.copyOf(sourceEnds, sourceEnds.length * 2);
+            literals = Arrays.copyOf(literals, literals.length * 2);
+        }
+        sourceEnds[sourceCount] = valueCount;
+        literals[sourceCount++] = isLiteral;
+        return this;
+    }
+}
@@ -20,7 +20,6 @@ package org.openbase.bco.ontology.lib.manager.abox.observation;
 
 import org.apache.poi.util.NotImplemented;
 import org.openbase.bco.ontology.lib.system.config.OntConfig;
-import org.openbase.bco.ontology.lib.utility.rdf.RdfNodeObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rst.domotic.service.ServiceTemplateType.ServiceTemplate.ServiceType;
@@ -56,9 +55,8 @@ import rst.domotic.state.UserPresenceStateType.UserPresenceState;
 import rst.domotic.state.WindowStateType.WindowState;
 
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * This class implements methods to provide the state values of the state sources. A state source is part of each individual state type. For example is the
@@ -69,6 +67,9 @@ import java.util.List;
  * any changes of the current BCO states were appeared, the new value can be easily pushed to the declared list in the affected method. Only in case of a
  * literal data (e.g. id's, names, etc.) the ontology model must be adapted, whether the literal data type (e.g. "Hue") isn't available. Take a look at the
  * available methods in this class for examples.
+ * The assignation is table-driven: each service type is mapped to a {@link StateExtractor}, which writes the state sources into a reused
+ * {@link StateSourceBuffer}. Service types without extractor (e.g. the alarm, intensity and target temperature services) are not observed, until an
+ * extractor is registered via {@link #registerStateExtractor(ServiceType, StateExtractor)}.
  *
  * @author agatting on 22.02.17.
  */
@@ -78,232 +79,215 @@ public class StateSources {
     private static final Logger LOGGER = LoggerFactory.getLogger(StateSources.class);
 
     /**
-     * Method identifies the input service type and assigns the input state object.
+     * Assignation of the service types to their state extractors. The map is replaced by each registration (copy on write), so that the lookup of the
+     * observations needs no synchronization.
+     */
+    private static volatile Map<ServiceType, StateExtractor> stateExtractors = new EnumMap<>(ServiceType.class);
+
+    /**
+     * State source buffer of the observing thread, which is reused for each state change.
+     */
+    private static final ThreadLocal<StateSourceBuffer> STATE_SOURCE_BUFFER = ThreadLocal.withInitial(StateSourceBuffer::new);
+
+    static {
+        registerStateExtractor(ServiceType.ACTIVATION_STATE_SERVICE, (stateObject, stateSources) -> activationStateSources((ActivationState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.BATTERY_STATE_SERVICE, (stateObject, stateSources) -> batteryStateSources((BatteryState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.BLIND_STATE_SERVICE, (stateObject, stateSources) -> blindStateSources((BlindState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.BRIGHTNESS_STATE_SERVICE, (stateObject, stateSources) -> brightnessStateSources((BrightnessState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.BUTTON_STATE_SERVICE, (stateObject, stateSources) -> buttonStateSources((ButtonState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.COLOR_STATE_SERVICE, (stateObject, stateSources) -> colorStateSources((ColorState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.CONTACT_STATE_SERVICE, (stateObject, stateSources) -> contactStateSources((ContactState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.DOOR_STATE_SERVICE, (stateObject, stateSources) -> doorStateSources((DoorState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.EMPHASIS_STATE_SERVICE, (stateObject, stateSources) -> emphasisStateSources((EmphasisState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.HANDLE_STATE_SERVICE, (stateObject, stateSources) -> handleStateSources((HandleState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.ILLUMINANCE_STATE_SERVICE, (stateObject, stateSources) -> illuminanceStateSources((IlluminanceState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.MOTION_STATE_SERVICE, (stateObject, stateSources) -> motionStateSources((MotionState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.PASSAGE_STATE_SERVICE, (stateObject, stateSources) -> passageStateSources((PassageState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.POWER_CONSUMPTION_STATE_SERVICE, (stateObject, stateSources) -> powerConsumptionStateSources((PowerConsumptionState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.POWER_STATE_SERVICE, (stateObject, stateSources) -> powerStateSources((PowerState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.PRESENCE_STATE_SERVICE, (stateObject, stateSources) -> presenceStateSources((PresenceState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.RFID_STATE_SERVICE, (stateObject, stateSources) -> rfidStateSources((RFIDState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.SMOKE_STATE_SERVICE, (stateObject, stateSources) -> smokeStateSources((SmokeState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.STANDBY_STATE_SERVICE, (stateObject, stateSources) -> standbyStateSources((StandbyState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.SWITCH_STATE_SERVICE, (stateObject, stateSources) -> switchStateSources((SwitchState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.TAMPER_STATE_SERVICE, (stateObject, stateSources) -> tamperStateSources((TamperState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.TEMPERATURE_STATE_SERVICE, (stateObject, stateSources) -> temperatureStateSources((TemperatureState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.USER_ACTIVITY_STATE_SERVICE, (stateObject, stateSources) -> userActivityStateSources((UserActivityState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.USER_PRESENCE_STATE_SERVICE, (stateObject, stateSources) -> userPresenceStateSources((UserPresenceState) stateObject, stateSources));
+        registerStateExtractor(ServiceType.WINDOW_STATE_SERVICE, (stateObject, stateSources) -> windowStateSources((WindowState) stateObject, stateSources));
+    }
+
+    /**
+     * Method registers the state extractor of the input service type. An already registered extractor of the service type is replaced.
+     *
+     * @param serviceType is the service type, which should be observed via the state extractor.
+     * @param stateExtractor is the state extractor, which writes the state sources of the service type's state object.
+     */
+    public static synchronized void registerStateExtractor(final ServiceType serviceType, final StateExtractor stateExtractor) {
+        final Map<ServiceType, StateExtractor> extractors = new EnumMap<>(stateExtractors);
+        extractors.put(serviceType, stateExtractor);
+        stateExtractors = extractors;
+    }
+
+    /**
+     * Method returns the state source buffer of the current thread.
+     *
+     * @return the reused state source buffer.
+     */
+    static StateSourceBuffer getStateSourceBuffer() {
+        return STATE_SOURCE_BUFFER.get();
+    }
+
+    /**
+     * Method identifies the input service type and writes the state sources of the input state object to the buffer.
      *
      * @param serviceType is the service type to identify the state object.
      * @param stateObject is the state object, which contains the needed state value(s).
-     * @return ontology state values of the input state object, which include the state values itself and literal or resource information for each entry. By
-     * incomplete or missing information NULL is returned.
-     */
-    List<RdfNodeObject> identifyStateType(final ServiceType serviceType, final Object stateObject) {
-
-        switch (serviceType) {
-            case ACTIVATION_STATE_SERVICE:
-                return activationStateSources((ActivationState) stateObject);
-            case BATTERY_STATE_SERVICE:
-                return batteryStateSources((BatteryState) stateObject);
-            case BLIND_STATE_SERVICE:
-                return blindStateSources((BlindState) stateObject);
-            case BRIGHTNESS_STATE_SERVICE:
-                return brightnessStateSources((BrightnessState) stateObject);
-            case BUTTON_STATE_SERVICE:
-                return buttonStateSources((ButtonState) stateObject);
-            case COLOR_STATE_SERVICE:
-                return colorStateSources((ColorState) stateObject);
-            case CONTACT_STATE_SERVICE:
-                return contactStateSources((ContactState) stateObject);
-            case DOOR_STATE_SERVICE:
-                return doorStateSources((DoorState) stateObject);
-            case EARTHQUAKE_ALARM_STATE_SERVICE:
-                return null;
-            case EMPHASIS_STATE_SERVICE:
-                return emphasisStateSources((EmphasisState) stateObject);
-            case FIRE_ALARM_STATE_SERVICE:
-                return null;
-            case HANDLE_STATE_SERVICE:
-                return handleStateSources((HandleState) stateObject);
-            case ILLUMINANCE_STATE_SERVICE:
-                return illuminanceStateSources((IlluminanceState) stateObject);
-            case INTENSITY_STATE_SERVICE:
-                return null;
-            case INTRUSION_ALARM_STATE_SERVICE:
-                return null;
-            case MEDICAL_EMERGENCY_ALARM_STATE_SERVICE:
-                return null;
-            case MOTION_STATE_SERVICE:
-                return motionStateSources((MotionState) stateObject);
-            case PASSAGE_STATE_SERVICE:
-                return passageStateSources((PassageState) stateObject);
-            case POWER_CONSUMPTION_STATE_SERVICE:
-                return powerConsumptionStateSources((PowerConsumptionState) stateObject);
-            case POWER_STATE_SERVICE:
-                return powerStateSources((PowerState) stateObject);
-            case PRESENCE_STATE_SERVICE:
-                return presenceStateSources((PresenceState) stateObject);
-            case RFID_STATE_SERVICE:
-                return rfidStateSources((RFIDState) stateObject);
-            case SMOKE_ALARM_STATE_SERVICE:
-                return null;
-            case SMOKE_STATE_SERVICE:
-                return smokeStateSources((SmokeState) stateObject);
-            case STANDBY_STATE_SERVICE:
-                return standbyStateSources((StandbyState) stateObject);
-            case SWITCH_STATE_SERVICE:
-                return switchStateSources((SwitchState) stateObject);
-            case TAMPER_STATE_SERVICE:
-                return tamperStateSources((TamperState) stateObject);
-            case TARGET_TEMPERATURE_STATE_SERVICE:
-                return null;
-            case TEMPERATURE_ALARM_STATE_SERVICE:
-                return null;
-            case TEMPERATURE_STATE_SERVICE:
-                return temperatureStateSources((TemperatureState) stateObject);
-            case TEMPEST_ALARM_STATE_SERVICE:
-                return null;
-            case USER_ACTIVITY_STATE_SERVICE:
-                return userActivityStateSources((UserActivityState) stateObject);
-            case USER_PRESENCE_STATE_SERVICE:
-                return userPresenceStateSources((UserPresenceState) stateObject);
-            case WATER_ALARM_STATE_SERVICE:
-                return null;
-            case WINDOW_STATE_SERVICE:
-                return windowStateSources((WindowState) stateObject);
-            case UNKNOWN:
-                LOGGER.error("Could not assign state object, because input service type is UNKNOWN!");
-                return null;
-            default:
-                LOGGER.error("Could not identify stateType. Please check implementation or rather integrate " + serviceType + " to method body.");
-                return null;
+     * @param stateSourceBuffer is the buffer, which the ontology state values are written to. The buffer includes the state values itself and literal or
+     *                          resource information for each entry.
+     * @return {@code true} if the state sources are written. By incomplete or missing information (or rather missing state extractor) {@code false}.
+     */
+    boolean identifyStateType(final ServiceType serviceType, final Object stateObject, final StateSourceBuffer stateSourceBuffer) {
+
+        if (serviceType == null || serviceType == ServiceType.UNKNOWN) {
+            LOGGER.error("Could not assign state object, because input service type is UNKNOWN!");
+            return false;
         }
+
+        final StateExtractor stateExtractor = stateExtractors.get(serviceType);
+
+        if (stateExtractor == null) {
+            LOGGER.debug("There is no state extractor of " + serviceType + ". Dropped state object.");
+            return false;
+        }
+
+        stateSourceBuffer.clear();
+        return stateExtractor.extract(stateObject, stateSourceBuffer);
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input actionState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input actionState.
      *
      * @param actionState is the ActionState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> actionStateSources(final ActionState actionState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean actionStateSources(final ActionState actionState, final StateSourceBuffer stateSources) {
         final String actionStateVal = actionState.getValue().toString();
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(actionStateVal);}}, false));
-
-        return stateSources;
+        stateSources.addSource(false, actionStateVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input activationState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input activationState.
      *
      * @param activationState The ActivationState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> activationStateSources(final ActivationState activationState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean activationStateSources(final ActivationState activationState, final StateSourceBuffer stateSources) {
         final String activationStateVal = activationState.getValue().toString();
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(activationStateVal);}}, false));
-
-        return stateSources;
+        stateSources.addSource(false, activationStateVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input alarmState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input alarmState.
      *
      * @param alarmState The AlarmState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> alarmStateSources(final AlarmState alarmState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean alarmStateSources(final AlarmState alarmState, final StateSourceBuffer stateSources) {
         final String alarmStateVal = alarmState.getValue().toString();
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(alarmStateVal);}}, false));
-
-        return stateSources;
+        stateSources.addSource(false, alarmStateVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input batteryState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input batteryState.
      *
      * @param batteryState The BatteryState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> batteryStateSources(final BatteryState batteryState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean batteryStateSources(final BatteryState batteryState, final StateSourceBuffer stateSources) {
         final String batteryStateVal = batteryState.getValue().toString();
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(batteryStateVal);}}, false));
+        stateSources.addSource(false, batteryStateVal);
         final String batteryLevelVal = "\"" + String.valueOf(batteryState.getLevel()) + "\"^^NS:Percent";
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(batteryLevelVal);}}, true));
-
-        return stateSources;
+        stateSources.addSource(true, batteryLevelVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input blindState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input blindState.
      *
      * @param blindState The BlindState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> blindStateSources(final BlindState blindState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean blindStateSources(final BlindState blindState, final StateSourceBuffer stateSources) {
 
         final String blindMovementStateVal = blindState.getMovementState().toString();
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(blindMovementStateVal);}}, false));
+        stateSources.addSource(false, blindMovementStateVal);
         final String blindOpeningRationVal = "\"" + String.valueOf(blindState.getOpeningRatio()) + "\"^^NS:Percent";
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(blindOpeningRationVal);}}, true));
-
-        return stateSources;
+        stateSources.addSource(true, blindOpeningRationVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input brightnessState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input brightnessState.
      *
      * @param brightnessState The BrightnessState.
-     * @return state source(s) result(s) of the input state. Return null if dataUnit could not be identified.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false} if the dataUnit could not be identified.
      */
-    private List<RdfNodeObject> brightnessStateSources(final BrightnessState brightnessState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean brightnessStateSources(final BrightnessState brightnessState, final StateSourceBuffer stateSources) {
         final BrightnessState.DataUnit dataUnit = brightnessState.getBrightnessDataUnit();
 
         switch (dataUnit) {
             case PERCENT:
                 final String brightnessVal = "\"" + String.valueOf(brightnessState.getBrightness()) + "\"^^NS:Percent";
-                stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(brightnessVal);}}, true));
+                stateSources.addSource(true, brightnessVal);
                 break;
             case UNKNOWN:
                 LOGGER.warn("Dropped brightness state value, cause dataUnit is UNKNOWN.");
-                return null;
+                return false;
             default:
                 LOGGER.warn("DataUnit of brightness state could not be detected. Please add " + dataUnit + " to ontologyManager implementation.");
-                return null;
+                return false;
         }
-        return stateSources;
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input buttonState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input buttonState.
      *
      * @param buttonState The ButtonState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> buttonStateSources(final ButtonState buttonState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean buttonStateSources(final ButtonState buttonState, final StateSourceBuffer stateSources) {
         final String buttonStateVal = buttonState.getValue().toString();
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(buttonStateVal);}}, false));
-
-        return stateSources;
+        stateSources.addSource(false, buttonStateVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input colorState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input colorState.
      *
      * @param colorState The ColorState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> colorStateSources(final ColorState colorState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean colorStateSources(final ColorState colorState, final StateSourceBuffer stateSources) {
 
         if (colorState.getColor().hasHsbColor()) {
             final String hue = "\"" + colorState.getColor().getHsbColor().getHue() + "\"^^NS:Hue";
             final String saturation = "\"" + colorState.getColor().getHsbColor().getSaturation() + "\"^^NS:Saturation";
             final String brightness = "\"" + colorState.getColor().getHsbColor().getBrightness() + "\"^^NS:Brightness";
 
-            stateSources.add(new RdfNodeObject(new ArrayList<String>() {{addAll(Arrays.asList(hue, saturation, brightness));}}, true));
+            stateSources.addSource(true, hue, saturation, brightness);
         } else if (colorState.getColor().hasRgbColor()) {
             final int red = colorState.getColor().getRgbColor().getRed();
             final int green = colorState.getColor().getRgbColor().getGreen();
@@ -314,315 +298,278 @@ public class StateSources {
             final String saturation = "\"" + hsb[1] + "\"^^NS:Saturation";
             final String brightness = "\"" + hsb[2] + "\"^^NS:Brightness";
 
-            stateSources.add(new RdfNodeObject(new ArrayList<String>() {{addAll(Arrays.asList(brightness, saturation, hue));}}, true));
+            stateSources.addSource(true, brightness, saturation, hue);
         } else {
             LOGGER.error("Could not set colorValue of colorState. Color is not set!");
         }
-
-        return stateSources;
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input contactState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input contactState.
      *
      * @param contactState The ContactState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> contactStateSources(final ContactState contactState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean contactStateSources(final ContactState contactState, final StateSourceBuffer stateSources) {
         final String contactStateVal = contactState.getValue().toString();
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(contactStateVal);}}, false));
-
-        return stateSources;
+        stateSources.addSource(false, contactStateVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input doorState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input doorState.
      *
      * @param doorState The DoorState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> doorStateSources(final DoorState doorState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean doorStateSources(final DoorState doorState, final StateSourceBuffer stateSources) {
         final String doorStateVal = doorState.getValue().toString();
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(doorStateVal);}}, false));
-
-        return stateSources;
+        stateSources.addSource(false, doorStateVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input emphasisState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input emphasisState.
      *
      * @param emphasisState The EnablingState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> emphasisStateSources(final EmphasisState emphasisState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean emphasisStateSources(final EmphasisState emphasisState, final StateSourceBuffer stateSources) {
         final String comfortVal = "\"" + String.valueOf(emphasisState.getComfort()) + "\"^^xsd:double";
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(comfortVal);}}, true));
+        stateSources.addSource(true, comfortVal);
         final String energySavingVal = "\"" + String.valueOf(emphasisState.getEnergy()) + "\"^^xsd:double";
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(energySavingVal);}}, true));
+        stateSources.addSource(true, energySavingVal);
         final String securityVal = "\"" + String.valueOf(emphasisState.getSecurity()) + "\"^^xsd:double";
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(securityVal);}}, true));
-
-        return stateSources;
+        stateSources.addSource(true, securityVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input enablingState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input enablingState.
      *
      * @param enablingState The EnablingState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> enablingStateSources(final EnablingState enablingState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean enablingStateSources(final EnablingState enablingState, final StateSourceBuffer stateSources) {
         final String enablingStateVal = enablingState.getValue().toString();
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(enablingStateVal);}}, false));
-
-        return stateSources;
+        stateSources.addSource(false, enablingStateVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input handleState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input handleState.
      *
      * @param handleState The HandleState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> handleStateSources(final HandleState handleState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean handleStateSources(final HandleState handleState, final StateSourceBuffer stateSources) {
         final String handlePositionVal = "\"" + String.valueOf(handleState.getPosition()) + "\"^^xsd:double";
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(handlePositionVal);}}, true));
-
-        return stateSources;
+        stateSources.addSource(true, handlePositionVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input illuminanceState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input illuminanceState.
      *
      * @param illuminanceState The IlluminanceState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> illuminanceStateSources(final IlluminanceState illuminanceState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean illuminanceStateSources(final IlluminanceState illuminanceState, final StateSourceBuffer stateSources) {
         final IlluminanceState.DataUnit dataUnit = illuminanceState.getIlluminanceDataUnit();
 
         switch (dataUnit) {
             case LUX:
                 final String illuminanceStateVal = "\"" + String.valueOf(illuminanceState.getIlluminance()) + "\"^^NS:Lux";
-                stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(illuminanceStateVal);}}, true));
+                stateSources.addSource(true, illuminanceStateVal);
                 break;
             case UNKNOWN:
                 LOGGER.warn("Dropped illuminance state value, cause dataUnit is UNKNOWN.");
-                return null;
+                return false;
             default:
                 LOGGER.warn("DataUnit of intensity state could not be detected. Please add " + dataUnit + " to ontologyManager implementation.");
-                return null;
+                return false;
         }
-        return stateSources;
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input inventoryState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input inventoryState.
      *
      * @param intensityState is the intensityState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
     @NotImplemented
-    private List<RdfNodeObject> intensityStateSources(final IntensityState intensityState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
-
-        return stateSources;
+    private static boolean intensityStateSources(final IntensityState intensityState, final StateSourceBuffer stateSources) {
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input inventoryState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input inventoryState.
      *
      * @param inventoryState The InventoryState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
     @NotImplemented
-    private List<RdfNodeObject> inventoryStateValue(final InventoryState inventoryState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean inventoryStateValue(final InventoryState inventoryState, final StateSourceBuffer stateSources) {
         final String inventoryStateVal = inventoryState.getValue().toString();
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(inventoryStateVal);}}, false));
+        stateSources.addSource(false, inventoryStateVal);
 //        final String inventoryLocationId = "\"" + inventoryState.getLocationId() + "\"^^xsd:string";
 //        final String inventoryOwnerId = "\"" + inventoryState.getOwnerId() + "\"^^xsd:string";
-//        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(inventoryLocationId);}}, true));
-//        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(inventoryOwnerId);}}, true));
-
-        return stateSources;
+//        stateSources.addSource(true, inventoryLocationId);
+//        stateSources.addSource(true, inventoryOwnerId);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input motionState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input motionState.
      *
      * @param motionState The MotionState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> motionStateSources(final MotionState motionState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean motionStateSources(final MotionState motionState, final StateSourceBuffer stateSources) {
         final String motionStateVal = motionState.getValue().toString();
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(motionStateVal);}}, false));
-
-        return stateSources;
+        stateSources.addSource(false, motionStateVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input passageState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input passageState.
      *
      * @param passageState The PassageState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
     @NotImplemented
-    private List<RdfNodeObject> passageStateSources(final PassageState passageState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
-
-        return stateSources;
+    private static boolean passageStateSources(final PassageState passageState, final StateSourceBuffer stateSources) {
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input powerConsumptionState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input powerConsumptionState.
      *
      * @param powerConsumptionState The PowerConsumptionState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> powerConsumptionStateSources(final PowerConsumptionState powerConsumptionState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean powerConsumptionStateSources(final PowerConsumptionState powerConsumptionState, final StateSourceBuffer stateSources) {
         final String voltageVal = "\"" + String.valueOf(powerConsumptionState.getVoltage()) + "\"^^NS:Voltage";
         final String consumptionVal = "\"" + String.valueOf(powerConsumptionState.getConsumption()) + "\"^^NS:Watt";
         final String currentVal = "\"" + String.valueOf(powerConsumptionState.getCurrent()) + "\"^^NS:Ampere";
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{addAll(Arrays.asList(voltageVal, consumptionVal, currentVal));}}, true));
-
-        return stateSources;
+        stateSources.addSource(true, voltageVal, consumptionVal, currentVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input powerState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input powerState.
      *
      * @param powerState The PowerState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> powerStateSources(final PowerState powerState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean powerStateSources(final PowerState powerState, final StateSourceBuffer stateSources) {
         final String powerStateVal = powerState.getValue().toString();
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(powerStateVal);}}, false));
-
-        return stateSources;
+        stateSources.addSource(false, powerStateVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input presenceState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input presenceState.
      *
      * @param presenceState The PresenceState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> presenceStateSources(final PresenceState presenceState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean presenceStateSources(final PresenceState presenceState, final StateSourceBuffer stateSources) {
         final String presenceStateVal = presenceState.getValue().toString();
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(presenceStateVal);}}, false));
-
-        return stateSources;
+        stateSources.addSource(false, presenceStateVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input rfidState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input rfidState.
      *
      * @param rfidState The RFIDState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> rfidStateSources(final RFIDState rfidState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean rfidStateSources(final RFIDState rfidState, final StateSourceBuffer stateSources) {
         final String rfidData = "\"" + rfidState.getData().toString()  + "\"^^xsd:string";
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(rfidData);}}, true));
-
-        return stateSources;
+        stateSources.addSource(true, rfidData);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input smokeState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input smokeState.
      *
      * @param smokeState The SmokeState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> smokeStateSources(final SmokeState smokeState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean smokeStateSources(final SmokeState smokeState, final StateSourceBuffer stateSources) {
         final String smokeStateVal = smokeState.getValue().toString();
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(smokeStateVal);}}, false));
+        stateSources.addSource(false, smokeStateVal);
         final String smokeLevelVal = "\"" + String.valueOf(smokeState.getSmokeLevel()) + "\"^^NS:Percent";
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(smokeLevelVal);}}, true));
-
-        return stateSources;
+        stateSources.addSource(true, smokeLevelVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input standbyState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input standbyState.
      *
      * @param standbyState The StandbyState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> standbyStateSources(final StandbyState standbyState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean standbyStateSources(final StandbyState standbyState, final StateSourceBuffer stateSources) {
         final String standbyStateVal = standbyState.getValue().toString();
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(standbyStateVal);}}, false));
-
-        return stateSources;
+        stateSources.addSource(false, standbyStateVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input switchState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input switchState.
      *
      * @param switchState The SwitchState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> switchStateSources(final SwitchState switchState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean switchStateSources(final SwitchState switchState, final StateSourceBuffer stateSources) {
         final String switchPositionVal = "\"" + String.valueOf(switchState.getPosition()) + "\"^^xsd:double";
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(switchPositionVal);}}, true));
-
-        return stateSources;
+        stateSources.addSource(true, switchPositionVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input tamperState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input tamperState.
      *
      * @param tamperState The TamperState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> tamperStateSources(final TamperState tamperState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean tamperStateSources(final TamperState tamperState, final StateSourceBuffer stateSources) {
         final String tamperStateVal = tamperState.getValue().toString();
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(tamperStateVal);}}, false));
-
-        return stateSources;
+        stateSources.addSource(false, tamperStateVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input temperatureState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input temperatureState.
      *
      * @param temperatureState The TemperatureState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> temperatureStateSources(final TemperatureState temperatureState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean temperatureStateSources(final TemperatureState temperatureState, final StateSourceBuffer stateSources) {
         final TemperatureState.DataUnit dataUnit = temperatureState.getTemperatureDataUnit();
         double temperature;
         String temperatureVal;
@@ -631,71 +578,64 @@ public class StateSources {
             case CELSIUS:
                 temperature = temperatureState.getTemperature();
                 temperatureVal = "\"" + String.valueOf(temperature) + "\"^^NS:Celsius";
-                stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(temperatureVal);}}, true));
+                stateSources.addSource(true, temperatureVal);
                 break;
             case FAHRENHEIT:
                 temperature = ((temperatureState.getTemperature() - OntConfig.FREEZING_POINT_FAHRENHEIT) / OntConfig.FAHRENHEIT_DIVISOR);
                 temperatureVal = "\"" + String.valueOf(temperature) + "\"^^NS:Celsius";
-                stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(temperatureVal);}}, true));
+                stateSources.addSource(true, temperatureVal);
                 break;
             case KELVIN:
                 temperature = temperatureState.getTemperature() - OntConfig.ABSOLUTE_ZERO_POINT_CELSIUS;
                 temperatureVal = "\"" + String.valueOf(temperature) + "\"^^NS:Celsius";
-                stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(temperatureVal);}}, true));
+                stateSources.addSource(true, temperatureVal);
                 break;
             case UNKNOWN:
                 LOGGER.warn("Dropped temperature state value, cause dataUnit is UNKNOWN.");
-                return null;
+                return false;
             default:
                 LOGGER.warn("DataUnit of temperature state could not be detected. Please add " + dataUnit + " to ontologyManager implementation.");
-                return null;
+                return false;
         }
-
-        return stateSources;
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input userActivityState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input userActivityState.
      *
      * @param userActivityState The UserActivityState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> userActivityStateSources(final UserActivityState userActivityState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean userActivityStateSources(final UserActivityState userActivityState, final StateSourceBuffer stateSources) {
         final String activityIdVal = "\"" + userActivityState.getActivityId() + "\"^^NS:ActivityId";
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(activityIdVal);}}, true));
-
-        return stateSources;
+        stateSources.addSource(true, activityIdVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input userPresenceState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input userPresenceState.
      *
      * @param userPresenceState The UserPresenceState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> userPresenceStateSources(final UserPresenceState userPresenceState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean userPresenceStateSources(final UserPresenceState userPresenceState, final StateSourceBuffer stateSources) {
         final String userPresenceStateVal = userPresenceState.getValue().toString();
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(userPresenceStateVal);}}, false));
-
-        return stateSources;
+        stateSources.addSource(false, userPresenceStateVal);
+        return true;
     }
 
     /**
-     * Method returns the state source(s) result(s) (contains state value(s)) of the input windowState.
+     * Method writes the state source(s) result(s) (contains state value(s)) of the input windowState.
      *
      * @param windowState The WindowState.
-     * @return state source(s) result(s) of the input state.
+     * @param stateSources is the buffer, which the state source(s) result(s) are written to.
+     * @return {@code true} if the state sources are complete. Otherwise {@code false}.
      */
-    private List<RdfNodeObject> windowStateSources(final WindowState windowState) {
-
-        final List<RdfNodeObject> stateSources = new ArrayList<>();
+    private static boolean windowStateSources(final WindowState windowState, final StateSourceBuffer stateSources) {
         final String windowStateVal = windowState.getValue().toString();
-        stateSources.add(new RdfNodeObject(new ArrayList<String>() {{add(windowStateVal);}}, false));
-
-        return stateSources;
+        stateSources.addSource(false, windowStateVal);
+        return true;
     }
 }
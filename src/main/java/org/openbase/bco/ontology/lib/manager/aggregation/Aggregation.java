@@ -19,6 +19,7 @@
 package org.openbase.bco.ontology.lib.manager.aggregation;
 
 import org.openbase.bco.ontology.lib.system.config.OntConfig.AggregationTense;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.Period;
 import org.openbase.jul.exception.CouldNotPerformException;
 
 import java.time.OffsetDateTime;
@@ -29,15 +30,16 @@ import java.util.concurrent.ExecutionException;
  */
 public interface Aggregation {
 
+    void startAggregation(final OffsetDateTime dateTimeFrom, final OffsetDateTime dateTimeUntil, final AggregationTense aggregationTense);
+
     /**
-     * Method starts the aggregation of the ontology content.
+     * Method aggregates the ontology content of the time frame of the aggregation to the input period. A day aggregates the observations, the other
+     * periods aggregate the aggregation observations of the next smaller period (e.g. a week aggregates the days).
      *
-     * @param currentDays currentDays
-     * @throws CouldNotPerformException CouldNotPerformException
-     * @throws InterruptedException InterruptedException
-     * @throws ExecutionException ExecutionException
+     * @param period is the period of the resulting aggregation observations.
+     * @throws CouldNotPerformException is thrown in case the aggregation could not be performed.
+     * @throws InterruptedException is thrown in case the application was interrupted.
+     * @throws ExecutionException is thrown in case the aggregation of an unit failed.
      */
-    void startAggregation(int currentDays) throws CouldNotPerformException, InterruptedException, ExecutionException;
-
-    void startAggregation(final OffsetDateTime dateTimeFrom, final OffsetDateTime dateTimeUntil, final AggregationTense aggregationTense);
+    void startAggregation(final Period period) throws CouldNotPerformException, InterruptedException, ExecutionException;
 }
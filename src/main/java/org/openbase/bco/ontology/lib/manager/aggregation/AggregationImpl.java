@@ -22,32 +22,42 @@ import org.openbase.bco.ontology.lib.commun.web.SparqlHttp;
 import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntObservation;
 import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntProviderServices;
 import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateChange;
-import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateChangeBuf;
+import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateChangeTypes.AggregatedContinuous;
+import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateChangeTypes.AggregatedDiscrete;
+import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateColumns;
+import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntUnitColumns;
 import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntUnitConnectionTimes;
 import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntUnits;
 import org.openbase.bco.ontology.lib.utility.StringModifier;
 import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntAggregatedStateChange;
+import org.openbase.bco.ontology.lib.utility.sparql.GraphPartitions;
 import org.openbase.bco.ontology.lib.utility.sparql.QueryExpression;
 import org.openbase.bco.ontology.lib.utility.sparql.RdfTriple;
 import org.openbase.bco.ontology.lib.utility.sparql.SparqlUpdateExpression;
+import org.openbase.bco.ontology.lib.utility.time.CalendarPeriods;
 import org.openbase.bco.ontology.lib.system.config.OntConfig;
 import org.openbase.bco.ontology.lib.system.config.OntConfig.AggregationTense;
 import org.openbase.bco.ontology.lib.system.config.OntConfig.XsdType;
 import org.openbase.bco.ontology.lib.system.config.OntConfig.Period;
 import org.openbase.jul.exception.CouldNotPerformException;
 import org.openbase.jul.exception.InitializationException;
-import org.openbase.jul.exception.MultiException;
 import org.openbase.jul.exception.NotAvailableException;
+import org.openbase.jul.exception.printer.ExceptionPrinter;
+import org.openbase.jul.exception.printer.LogLevel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 /**
  * @author agatting on 01.04.17.
@@ -56,13 +66,27 @@ public class AggregationImpl extends DataAssignation implements Aggregation {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AggregationImpl.class);
 
+    /**
+     * Pool, which aggregates the units in parallel. Each unit is an independent task, the resulting triples are merged afterwards.
+     */
+    private static final ForkJoinPool AGGREGATION_POOL = new ForkJoinPool(Math.max(1, OntConfig.getAggregationParallelism()));
+
+    /**
+     * Maximal number of units, which are queued or in progress at the same time. Limits the observations kept in memory while streaming.
+     */
+    private static final int MAX_PENDING_UNITS = 2 * AGGREGATION_POOL.getParallelism();
+
     private final DataProviding dataProviding;
+    private final OffsetDateTime dateTimeFrom;
+    private final OffsetDateTime dateTimeUntil;
 
-    public AggregationImpl(OffsetDateTime dateTimeFrom, OffsetDateTime dateTimeUntil, Period currentPeriod)
+    public AggregationImpl(OffsetDateTime dateTimeFrom, OffsetDateTime dateTimeUntil, Period currentPeriod, Period aggregationPeriod)
             throws CouldNotPerformException {
-        super(dateTimeFrom, dateTimeUntil, currentPeriod);
+        super(dateTimeFrom, dateTimeUntil, currentPeriod, aggregationPeriod);
 
         this.dataProviding = new DataProviding(dateTimeFrom, dateTimeUntil);
+        this.dateTimeFrom = dateTimeFrom;
+        this.dateTimeUntil = dateTimeUntil;
     }
 
     public void startAggregation(final OffsetDateTime dateTimeFrom, final OffsetDateTime dateTimeUntil,
@@ -70,33 +94,9 @@ public class AggregationImpl extends DataAssignation implements Aggregation {
 
     }
 
-    public void startAggregation(int currentDays) throws CouldNotPerformException, InterruptedException, ExecutionException {
-
-
-        final OffsetDateTime dateTimeFromTest = OffsetDateTime.of(LocalDateTime.parse("2017-01-01T00:00:00.000"), OffsetDateTime.now().getOffset());
-        final OffsetDateTime dateTimeUntilTest = OffsetDateTime.of(LocalDateTime.parse("2018-01-01T00:00:00.000"), OffsetDateTime.now().getOffset());
-        currentDays += 1;
-
-        if (currentDays % 7 == 0) {
-            final Period periodTest = Period.WEEK;
-            System.out.println("Start aggregation at day: " + currentDays + " : " + periodTest.toString());
-
-            dataTripleCollection(dateTimeFromTest, dateTimeUntilTest, periodTest);
-        }
-        if (currentDays % 28 == 0) {
-            final Period periodTest = Period.MONTH;
-            System.out.println("Start aggregation at day: " + currentDays + " : " + periodTest.toString());
-            dataTripleCollection(dateTimeFromTest, dateTimeUntilTest, periodTest);
-        }
-        if (currentDays % 364 == 0) {
-            final Period periodTest = Period.YEAR;
-            System.out.println("Start aggregation at day: " + currentDays + " : " + periodTest.toString());
-            dataTripleCollection(dateTimeFromTest, dateTimeUntilTest, periodTest);
-        }
-
-//        final Period periodTest = Period.DAY;
-//        new AggregationImpl(dateTimeFrom, dateTimeUntil, period);
-//        new AggregationImpl(dateTimeFromTest, dateTimeUntilTest, periodTest);
+    @Override
+    public void startAggregation(final Period period) throws CouldNotPerformException, InterruptedException, ExecutionException {
+        dataTripleCollection(dateTimeFrom, dateTimeUntil, period);
     }
 
 //    private void initParameters(final OffsetDateTime dateTimeFrom, final OffsetDateTime dateTimeUntil) throws InterruptedException, ExecutionException,
@@ -125,7 +125,25 @@ public class AggregationImpl extends DataAssignation implements Aggregation {
             throws CouldNotPerformException, InterruptedException, ExecutionException {
 
         if (period.equals(Period.DAY)) {
-            final String sparqlUpdateExpr = SparqlUpdateExpression.getSparqlInsertExpression(collectDataForEachUnit());
+            if (OntConfig.getOnlineAggregationPeriod() == Period.DAY) {
+                LOGGER.info("Skip aggregation of observations, because they are aggregated online.");
+                return;
+            }
+            final String graph = GraphPartitions.getAggregationGraph(period.getName(), dateTimeFrom.toInstant().toEpochMilli());
+
+            if (OntConfig.getOnlineAggregationPeriod() == Period.HOUR) {
+                // the hours are aggregated online, so that the day is aggregated from the hour aggregations instead of the observations. The last hour of
+                // the day must be closed and stored before, otherwise it is missing in the day and is deleted with the hour aggregations afterwards
+                OnlineAggregator.flushPeriods(dateTimeUntil.toInstant().toEpochMilli());
+                final String sparqlUpdateExpr = SparqlUpdateExpression.getSparqlInsertExpression(graph, collectAggDataForEachUnit(Period.HOUR));
+                SparqlHttp.uploadSparqlRequest(sparqlUpdateExpr, OntConfig.getOntologyDbUrl(), 0);
+
+                if (OntConfig.getRetentionWindow(Period.HOUR) == null) {
+                    deleteAggregations(Period.HOUR, dateTimeFrom.toZonedDateTime(), dateTimeUntil.toZonedDateTime());
+                }
+                return;
+            }
+            final String sparqlUpdateExpr = SparqlUpdateExpression.getSparqlInsertExpression(graph, collectDataForEachUnit());
 
             // send aggregated values ...
             SparqlHttp.uploadSparqlRequest(sparqlUpdateExpr, OntConfig.getOntologyDbUrl(), 0);
@@ -145,7 +163,8 @@ public class AggregationImpl extends DataAssignation implements Aggregation {
                     oldPeriod = Period.DAY;
                     break;
                 case MONTH:
-                    oldPeriod = Period.WEEK;
+                    // the weeks are not aligned to the month borders
+                    oldPeriod = Period.DAY;
                     break;
                 case YEAR:
                     oldPeriod = Period.MONTH;
@@ -155,131 +174,207 @@ public class AggregationImpl extends DataAssignation implements Aggregation {
                     break;
             }
 
-            final String sparqlUpdateExpr = SparqlUpdateExpression.getSparqlInsertExpression(collectAggDataForEachUnit(oldPeriod));
+            final String graph = GraphPartitions.getAggregationGraph(period.getName(), dateTimeFrom.toInstant().toEpochMilli());
+            final String sparqlUpdateExpr = SparqlUpdateExpression.getSparqlInsertExpression(graph, collectAggDataForEachUnit(oldPeriod));
 
             // send aggregated aggregations ...
-            System.out.println("Send AggData...");
+            LOGGER.debug("Send aggregated data of period " + period.getName() + "...");
             SparqlHttp.uploadSparqlRequest(sparqlUpdateExpr, OntConfig.getOntologyDbUrl(), 0);
 
-            // delete unused aggregations (old)
-            final String dateTimeFromLiteral = StringModifier.convertToLiteral(dateTimeFrom.toString(), XsdType.DATE_TIME);
-            final String dateTimeUntilLiteral = StringModifier.convertToLiteral(dateTimeUntil.toString(), XsdType.DATE_TIME);
-            final String sparql = QueryExpression.deleteUnusedAggObs(oldPeriod.toString(), dateTimeFromLiteral, dateTimeUntilLiteral);
-            // upload ...
-            SparqlHttp.uploadSparqlRequest(sparql, OntConfig.getOntologyDbUrl(), 0);
+            if (OntConfig.getRetentionWindow(oldPeriod) != null) {
+                return; // the old aggregations are deleted by the retention service after the retention window
+            }
+            if (period == Period.WEEK) {
+                return; // the day aggregations are aggregated by the month too and are deleted there
+            }
+
+            // delete unused aggregations (old). The days of a month are kept until their week is aggregated, means the days of the last (incomplete) week
+            // of the month are deleted with the following month
+            final ZonedDateTime deleteFrom = (period == Period.MONTH)
+                    ? CalendarPeriods.getPeriodBegin(dateTimeFrom.toZonedDateTime(), Period.WEEK) : dateTimeFrom.toZonedDateTime();
+            final ZonedDateTime deleteUntil = (period == Period.MONTH)
+                    ? CalendarPeriods.getPeriodBegin(dateTimeUntil.toZonedDateTime(), Period.WEEK) : dateTimeUntil.toZonedDateTime();
+            deleteAggregations(oldPeriod, deleteFrom, deleteUntil);
         }
     }
 
+    /**
+     * Method deletes the aggregation observations of the input period, which begin in the input time frame.
+     *
+     * @param oldPeriod is the period of the aggregation observations, which are deleted.
+     * @param deleteFrom is the beginning of the time frame (inclusive).
+     * @param deleteUntil is the end of the time frame (exclusive).
+     * @throws CouldNotPerformException is thrown in case the deletion could not be uploaded.
+     * @throws InterruptedException is thrown in case the application was interrupted.
+     */
+    private void deleteAggregations(final Period oldPeriod, final ZonedDateTime deleteFrom, final ZonedDateTime deleteUntil)
+            throws CouldNotPerformException, InterruptedException {
+        final String dateTimeFromLiteral = StringModifier.convertToLiteral(deleteFrom.toOffsetDateTime().toString(), XsdType.DATE_TIME);
+        final String dateTimeUntilLiteral = StringModifier.convertToLiteral(deleteUntil.toOffsetDateTime().toString(), XsdType.DATE_TIME);
+        final List<String> oldGraphs = GraphPartitions.getAggregationGraphs(oldPeriod.getName(), deleteFrom, deleteUntil);
+        final String sparql = QueryExpression.deleteUnusedAggObs(oldPeriod.toString(), dateTimeFromLiteral, dateTimeUntilLiteral, oldGraphs);
+        // upload ...
+        SparqlHttp.uploadSparqlRequest(sparql, OntConfig.getOntologyDbUrl(), 0);
+    }
+
     /**
      * Method starts the aggregation process of normal observations (not aggregated). Means for each unit the associated observations are collected/sorted in
-     * the following (called) methods to calculate and build the ontology triples to insert aggregated observations.
+     * the following (called) methods to calculate and build the ontology triples to insert aggregated observations. The observations are streamed unit by
+     * unit into primitive columns (see {@link OntStateColumns}), so only the observations of the current unit are kept in memory. Completed units are aggregated in parallel by the aggregation pool.
      *
      * @return a list of triples to insert aggregation observations.
      * @throws InitializationException is thrown in case the needed information are not available.
      * @throws InterruptedException is thrown in case the application was interrupted.
      */
     private List<RdfTriple> collectDataForEachUnit() throws InitializationException, InterruptedException {
-        final List<RdfTriple> triples = new ArrayList<>();
+        final List<Future<List<RdfTriple>>> unitTasks = new ArrayList<>();
+        final Semaphore pendingUnits = new Semaphore(MAX_PENDING_UNITS);
         final OntUnitConnectionTimes ontUnitConnectionTimes = dataProviding.selectConnectionPhases();
-        final OntUnits ontUnits = dataProviding.selectObservations();
-
-        final Set<String> unitIds = ontUnits.getOntUnits().keySet();
         final HashMap<String, Long> ontConnectionTimesMillis = ontUnitConnectionTimes.getOntConnectionTimesMilli();
+        final OntUnitColumns currentUnit = new OntUnitColumns();
+
+        try {
+            dataProviding.selectObservations(new ObservationConsumer() {
+                @Override
+                public void consume(final String unitId, final String providerService, final OntStateChange ontStateChange)
+                        throws CouldNotPerformException {
+                    currentUnit.addOntStateChange(unitId, providerService, ontStateChange);
+                }
 
-        for (final String unitId : unitIds) {
-            if (ontConnectionTimesMillis.containsKey(unitId)) {
-                final OntProviderServices ontProviderServices = ontUnits.getOntProviderServices(unitId);
-                final long unitConnectionTimeMillis = ontConnectionTimesMillis.get(unitId);
-
-                if (ontProviderServices != null) {
-                    triples.addAll(collectDataForEachService(unitId, unitConnectionTimeMillis, ontProviderServices));
-                } else {
-                    //TODO
+                @Override
+                public void unitCompleted(final String unitId) throws InterruptedException {
+                    final HashMap<String, OntStateColumns> serviceColumns = currentUnit.removeOntProviderServiceColumns(unitId);
+
+                    if (ontConnectionTimesMillis.containsKey(unitId)) {
+                        final long unitConnectionTimeMillis = ontConnectionTimesMillis.get(unitId);
+
+                        if (serviceColumns != null) {
+                            // wait until a pending unit is finished, otherwise the streamed observations would pile up in the task queue
+                            pendingUnits.acquire();
+                            unitTasks.add(AGGREGATION_POOL.submit(() -> {
+                                try {
+                                    return collectDataForEachService(unitId, unitConnectionTimeMillis, serviceColumns);
+                                } finally {
+                                    pendingUnits.release();
+                                }
+                            }));
+                        } else {
+                            //TODO
+                        }
+                    } else {
+                        //TODO
+                        LOGGER.info("The unit with ID >> " + unitId + " << has no state value for aggregation.");
+                    }
                 }
-            } else {
-                //TODO
-                LOGGER.info("The unit with ID >> " + unitId + " << has no state value for aggregation.");
-            }
+            });
+        } catch (InitializationException | InterruptedException ex) {
+            unitTasks.forEach(unitTask -> unitTask.cancel(true));
+            throw ex;
         }
 
-        return triples;
+        return joinUnitTasks(unitTasks);
     }
 
     private List<RdfTriple> collectAggDataForEachUnit(final Period period) throws InitializationException, InterruptedException
             , ExecutionException {
-        final List<RdfTriple> triples = new ArrayList<>();
+        final List<Future<List<RdfTriple>>> unitTasks = new ArrayList<>();
         final OntUnits ontUnits = dataProviding.selectAggregatedObservations(period);
 
         final Set<String> unitIds = ontUnits.getOntUnits().keySet();
 
         for (final String unitId : unitIds) {
             final OntProviderServices ontProviderServices = ontUnits.getOntProviderServices(unitId);
-            triples.addAll(collectAggDataForEachService(unitId, ontProviderServices));
+            unitTasks.add(AGGREGATION_POOL.submit(() -> collectAggDataForEachService(unitId, ontProviderServices)));
         }
 
+        return joinUnitTasks(unitTasks);
+    }
+
+    /**
+     * Method waits for the aggregation tasks of the units and merges the resulting triples in order of the tasks. Units, which could not be aggregated, are
+     * dropped and the associated exceptions are logged.
+     *
+     * @param unitTasks are the aggregation tasks of the units.
+     * @return a list of triples to insert aggregation observations.
+     * @throws InterruptedException is thrown in case the application was interrupted. Remaining tasks are cancelled.
+     */
+    private List<RdfTriple> joinUnitTasks(final List<Future<List<RdfTriple>>> unitTasks) throws InterruptedException {
+        final List<RdfTriple> triples = new ArrayList<>();
+
+        try {
+            for (final Future<List<RdfTriple>> unitTask : unitTasks) {
+                try {
+                    triples.addAll(unitTask.get());
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof InterruptedException) {
+                        throw (InterruptedException) ex.getCause();
+                    }
+                    ExceptionPrinter.printHistory("Could not aggregate unit. Dropped data...", ex.getCause(), LOGGER, LogLevel.ERROR);
+                }
+            }
+        } catch (InterruptedException ex) {
+            unitTasks.forEach(unitTask -> unitTask.cancel(true));
+            throw ex;
+        }
         return triples;
     }
 
     private List<RdfTriple> collectAggDataForEachService(final String unitId, final OntProviderServices ontProviderServices)
             throws InterruptedException {
-        final HashMap<String, List<OntAggregatedStateChange>> ontAggStateChanges = new HashMap<>();
-
         final Set<String> providerServices = ontProviderServices.getOntProviderServices().keySet();
         final List<RdfTriple> triples = new ArrayList<>();
 
         for (final String providerService : providerServices) {
-            final List<OntStateChange> ontStateChanges = ontProviderServices.getOntStateChanges(providerService);
+            final List<OntAggregatedStateChange> ontAggStateChanges = new ArrayList<>();
 
-            triples.addAll(identifyServiceType(providerService, ontStateChanges, 0, unitId));
+            for (final OntStateChange ontStateChange : ontProviderServices.getOntStateChanges(providerService)) {
+                try {
+                    ontAggStateChanges.add(toAggregatedStateChange(ontStateChange));
+                } catch (CouldNotPerformException ex) {
+                    ExceptionPrinter.printHistory("Could not read aggregation observation of unit " + unitId + ". Dropped data...", ex, LOGGER, LogLevel.WARN);
+                }
+            }
+
+            if (!ontAggStateChanges.isEmpty()) {
+                triples.addAll(identifyServiceType(providerService, ontAggStateChanges, 0, unitId));
+            }
         }
         return triples;
+    }
 
-//        for (final OntAggregatedObservation ontAggObservation : ontAggObservations) {
-//            final OntAggregatedStateChange ontAggStateChange = new OntAggregatedStateChange(ontAggObservation.getStateValue(),ontAggObservation.getQuantity()
-//                    , ontAggObservation.getActivityTime(), ontAggObservation.getVariance(), ontAggObservation.getStandardDeviation(), ontAggObservation.getMean(), ontAggObservation.getTimeWeighting());
-//
-//            if (ontAggStateChanges.containsKey(ontAggObservation.getProviderService())) {
-//                // there is an entry: add data
-//                final List<OntAggregatedStateChange> arrayList = ontAggStateChanges.get(ontAggObservation.getProviderService());
-//                arrayList.add(ontAggStateChange);
-//                ontAggStateChanges.put(ontAggObservation.getProviderService(), arrayList);
-//            } else {
-//                // there is no entry: put data
-//                ontAggStateChanges.put(ontAggObservation.getProviderService(), new ArrayList<OntAggregatedStateChange>() {{add(ontAggStateChange);}});
-//            }
-//        }
-//        return identifyServiceType(ontAggStateChanges, 0, unitId);
+    /**
+     * Method converts the state change of an aggregation observation into the data type, which is used by the aggregation of aggregated observations.
+     *
+     * @param ontStateChange is the state change of the aggregation observation.
+     * @return the aggregated state change.
+     * @throws CouldNotPerformException is thrown in case the state change is not based on an aggregation observation.
+     */
+    private static OntAggregatedStateChange toAggregatedStateChange(final OntStateChange ontStateChange) throws CouldNotPerformException {
+        switch (ontStateChange.getObservationType()) {
+            case AGGREGATED_DISCRETE:
+                final AggregatedDiscrete discrete = (AggregatedDiscrete) ontStateChange.getOntStateChange();
+                return new OntAggregatedStateChange(discrete.getStateValue(), String.valueOf(discrete.getQuantity()),
+                        String.valueOf(discrete.getActivityTime()), null, null, null, String.valueOf(discrete.getTimeWeighting()));
+            case AGGREGATED_CONTINUOUS:
+                final AggregatedContinuous continuous = (AggregatedContinuous) ontStateChange.getOntStateChange();
+                final boolean extremaAvailable = continuous.getMinimum() != null && continuous.getMaximum() != null && continuous.getIntegral() != null;
+                return new OntAggregatedStateChange(continuous.getStateValue(), String.valueOf(continuous.getQuantity()), null,
+                        String.valueOf(continuous.getVariance()), String.valueOf(continuous.getStandardDeviation()), String.valueOf(continuous.getMean()),
+                        String.valueOf(continuous.getTimeWeighting()), extremaAvailable ? String.valueOf(continuous.getMinimum()) : null,
+                        extremaAvailable ? String.valueOf(continuous.getMaximum()) : null, extremaAvailable ? String.valueOf(continuous.getIntegral()) : null);
+            default:
+                throw new CouldNotPerformException("State change of type " + ontStateChange.getObservationType() + " is not aggregated.");
+        }
     }
 
     private List<RdfTriple> collectDataForEachService(final String unitId, final long unitConnectionTimeMilli,
-                                                      final OntProviderServices ontProviderServices) throws InterruptedException {
+                                                      final HashMap<String, OntStateColumns> serviceColumns) throws InterruptedException {
         final List<RdfTriple> triples = new ArrayList<>();
-        final Set<String> providerServices = ontProviderServices.getOntProviderServices().keySet();
 
-        for (final String providerService : providerServices) {
-            final List<OntStateChange> ontStateChanges = ontProviderServices.getOntStateChanges(providerService);
-
-            triples.addAll(identifyServiceType(providerService, ontStateChanges, unitConnectionTimeMilli, unitId));
+        for (final Entry<String, OntStateColumns> providerService : serviceColumns.entrySet()) {
+            triples.addAll(identifyServiceType(providerService.getKey(), providerService.getValue(), unitConnectionTimeMilli, unitId));
         }
 
-//        final HashMap<String, List<OntStateChangeBuf>> serviceStateChangeMap = new HashMap<>();
-//
-//
-//        for (final OntObservation ontObservation : ontObservations) {
-//            final OntStateChangeBuf ontStateChangeBuf = new OntStateChangeBuf(ontObservation.getStateValues(), ontObservation.getTimestamp());
-//
-//            if (serviceStateChangeMap.containsKey(ontObservation.getProviderService())) {
-//                // there is an entry: add data
-//                final List<OntStateChangeBuf> arrayList = serviceStateChangeMap.get(ontObservation.getProviderService());
-//                arrayList.add(ontStateChangeBuf);
-//                serviceStateChangeMap.put(ontObservation.getProviderService(), arrayList);
-//            } else {
-//                // there is no entry: put data
-//                serviceStateChangeMap.put(ontObservation.getProviderService(), new ArrayList<OntStateChangeBuf>() {{add(ontStateChangeBuf);}});
-//            }
-//        }
-//        triples.addAll(identifyServiceType(serviceStateChangeMap, unitConnectionTimeMilli, unitId));
-
         return triples;
     }
 
@@ -0,0 +1,456 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.manager.aggregation;
+
+import org.apache.jena.query.ResultSet;
+import org.openbase.bco.ontology.lib.commun.web.SparqlHttp;
+import org.openbase.bco.ontology.lib.system.config.OntConfig;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.Period;
+import org.openbase.bco.ontology.lib.utility.sparql.GraphPartitions;
+import org.openbase.bco.ontology.lib.utility.sparql.QueryExpression;
+import org.openbase.bco.ontology.lib.utility.time.CalendarPeriods;
+import org.openbase.jul.exception.CouldNotPerformException;
+import org.openbase.jul.exception.InitializationException;
+import org.openbase.jul.exception.NotAvailableException;
+import org.openbase.jul.exception.printer.ExceptionPrinter;
+import org.openbase.jul.exception.printer.LogLevel;
+import org.openbase.jul.schedule.GlobalCachedExecutorService;
+import org.openbase.jul.schedule.GlobalScheduledExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class schedules the aggregation of the periods day, week, month and year. The periods are aligned to the calendar in the time zone
+ * {@link OntConfig#getAggregationTimeZone()} (see {@link CalendarPeriods}) and a period is aggregated after its end. The end of the last completed period
+ * of each period type is persisted in the file {@link OntConfig#getAggregationStateFile()}.
+ *
+ * After a downtime, the missed periods are aggregated one by one, means each period is an own aggregation with its own time frame. At most
+ * {@link OntConfig#getAggregationCatchUpLimit()} periods are aggregated in parallel. The period types are aggregated in ascending order, because a period
+ * aggregates the aggregation observations of a smaller period (e.g. a week and a month aggregate the days). If a period could not be aggregated, the greater
+ * period types are postponed and the aggregation is retried later. If the graph partitions are enabled, the latest observations are carried over into each
+ * new graph partition before the aggregation.
+ *
+ * @author agent on 18.10.26.
+ */
+public class AggregationScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AggregationScheduler.class);
+
+    /**
+     * The scheduled period types in ascending order.
+     */
+    private static final Period[] SCHEDULED_PERIODS = {Period.DAY, Period.WEEK, Period.MONTH, Period.YEAR};
+
+    /**
+     * Delay after the end of a period, so that late observations (e.g. batched or buffered observations) are part of the aggregation.
+     */
+    private static final long END_OF_PERIOD_DELAY_MILLISECONDS = 60000;
+
+    /**
+     * Delay of the next trial, if a period could not be aggregated.
+     */
+    private static final long RETRY_DELAY_MILLISECONDS = 60L * OntConfig.SMALL_RETRY_PERIOD_MILLISECONDS;
+
+    /**
+     * Suffix of the state key, which keeps the beginning of the first scheduled period of a period type.
+     */
+    private static final String SINCE_SUFFIX = ".since";
+
+    private final Path stateFile;
+    private final Properties state;
+    private final Semaphore catchUpPermits;
+
+    /**
+     * The beginnings (epoch milliseconds) of the periods, which are completed after a failed period. They are skipped by the next trial.
+     */
+    private final EnumMap<Period, Set<Long>> completedPeriodBegins;
+
+    /**
+     * The graph partitions of the observations, which contain the carried over observations of the previous graph partition.
+     */
+    private final Set<String> carriedOverGraphs;
+    private Future future;
+    private boolean shutdown;
+
+    /**
+     * Constructor initializes the aggregation scheduler: the state file is loaded and the aggregation of the next (or missed) period is scheduled.
+     *
+     * @throws InitializationException is thrown in case the state file could not be loaded or the aggregation could not be scheduled.
+     */
+    public AggregationScheduler() throws InitializationException {
+        try {
+            this.stateFile = Paths.get(OntConfig.getAggregationStateFile());
+            this.state = new Properties();
+            this.catchUpPermits = new Semaphore(Math.max(1, OntConfig.getAggregationCatchUpLimit()));
+            this.completedPeriodBegins = new EnumMap<>(Period.class);
+            this.carriedOverGraphs = new HashSet<>();
+
+            if (Files.exists(stateFile)) {
+                try (Reader reader = Files.newBufferedReader(stateFile, StandardCharsets.UTF_8)) {
+                    state.load(reader);
+                }
+            }
+            scheduleAggregation(false);
+        } catch (IOException | InvalidPathException | CouldNotPerformException ex) {
+            throw new InitializationException(this, ex);
+        }
+    }
+
+    /**
+     * Method schedules the aggregation of the period, which ends next. Missed periods are aggregated immediately.
+     *
+     * @param retry is {@code true}, if the last aggregation failed. In this case the next trial is delayed.
+     * @throws CouldNotPerformException is thrown in case the aggregation could not be scheduled.
+     */
+    private synchronized void scheduleAggregation(final boolean retry) throws CouldNotPerformException {
+        if (shutdown) {
+            return;
+        }
+        long nextPeriodEndMilliS = Long.MAX_VALUE;
+
+        for (final Period period : SCHEDULED_PERIODS) {
+            final ZonedDateTime periodEnd = CalendarPeriods.getPeriodEnd(getLastCompletedPeriodEnd(period), period);
+            nextPeriodEndMilliS = Math.min(nextPeriodEndMilliS, periodEnd.toInstant().toEpochMilli());
+        }
+
+        long delayMilliS = Math.max(0, nextPeriodEndMilliS + END_OF_PERIOD_DELAY_MILLISECONDS - System.currentTimeMillis());
+
+        if (retry) {
+            delayMilliS = Math.max(delayMilliS, RETRY_DELAY_MILLISECONDS);
+        }
+
+        try {
+            future = GlobalScheduledExecutorService.schedule(this::aggregateMissedPeriods, delayMilliS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            throw new CouldNotPerformException("Could not schedule aggregation!", ex);
+        }
+    }
+
+    /**
+     * Method stops the scheduling of the aggregation. A running aggregation is completed, but the next aggregation is not scheduled anymore.
+     */
+    public synchronized void shutdown() {
+        shutdown = true;
+
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    private void aggregateMissedPeriods() {
+        boolean completed = true;
+
+        try {
+            final ZonedDateTime now = ZonedDateTime.now(OntConfig.getAggregationTimeZone()).minusNanos(END_OF_PERIOD_DELAY_MILLISECONDS * 1000000L);
+
+            carryOverObservations(now);
+
+            for (final Period period : SCHEDULED_PERIODS) {
+                if (!aggregateMissedPeriods(period, now)) {
+                    completed = false;
+                    break; // the greater periods base on the aggregation observations of this period
+                }
+            }
+        } catch (CouldNotPerformException ex) {
+            ExceptionPrinter.printHistory("Could not aggregate missed periods.", ex, LOGGER, LogLevel.ERROR);
+            completed = false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        try {
+            scheduleAggregation(!completed);
+        } catch (CouldNotPerformException ex) {
+            ExceptionPrinter.printHistory("Could not schedule next aggregation. Aggregation is stopped!", ex, LOGGER, LogLevel.ERROR);
+        }
+    }
+
+    /**
+     * Method copies the latest observation of each unit and provider service into the graph partitions of the observations, which are not aggregated so far
+     * (see {@link QueryExpression#carryOverObservations(String, String)}), if the graph partitions are enabled. The source of a graph partition is the latest
+     * existing graph partition before. Thereby, the aggregation of a time frame reads the graph partitions of the time frame only.
+     *
+     * @param now is the current time minus the end of period delay.
+     * @throws CouldNotPerformException is thrown in case the observations could not be carried over.
+     */
+    private void carryOverObservations(final ZonedDateTime now) throws CouldNotPerformException {
+        final List<String> targetGraphs = GraphPartitions.getObservationGraphs(getLastCompletedPeriodEnd(Period.DAY), now);
+
+        if (targetGraphs == null) {
+            return;
+        }
+
+        final String currentGraph = GraphPartitions.getObservationGraph(now.toInstant().toEpochMilli());
+
+        if (!targetGraphs.contains(currentGraph)) {
+            targetGraphs.add(currentGraph);
+        }
+        targetGraphs.removeAll(carriedOverGraphs);
+
+        if (targetGraphs.isEmpty()) {
+            return;
+        }
+
+        try {
+            final TreeSet<String> existingGraphs = selectGraphs(GraphPartitions.getObservationGraphPrefix());
+
+            for (final String targetGraph : targetGraphs) {
+                final String sourceGraph = existingGraphs.lower(targetGraph);
+
+                if (sourceGraph != null) {
+                    SparqlHttp.uploadSparqlRequest(QueryExpression.carryOverObservations(sourceGraph, targetGraph), OntConfig.getOntologyDbUrl());
+                    existingGraphs.add(targetGraph);
+                }
+                carriedOverGraphs.add(targetGraph);
+            }
+        } catch (IOException ex) {
+            throw new CouldNotPerformException("Could not carry over the observations to the graph partitions " + targetGraphs + "!", ex);
+        }
+    }
+
+    /**
+     * Method selects the existing graphs (e.g. graph partitions) of the ontology server, whose IRI starts with the input prefix.
+     *
+     * @param graphPrefix is the prefix (full IRI) of the graphs.
+     * @return the full IRIs of the graphs. The graph partitions are sorted by time, because their names end with the date of the partition.
+     * @throws IOException is thrown in case the ontology server could not be reached.
+     */
+    static TreeSet<String> selectGraphs(final String graphPrefix) throws IOException {
+        final TreeSet<String> graphs = new TreeSet<>();
+        final ResultSet resultSet = SparqlHttp.sparqlQuery(QueryExpression.selectGraphs(graphPrefix), OntConfig.getOntologyDbUrl());
+
+        while (resultSet.hasNext()) {
+            graphs.add(resultSet.next().getResource("graph").getURI());
+        }
+        return graphs;
+    }
+
+    /**
+     * Method aggregates all periods of the input period type, which are ended before the input time and are not completed so far. The periods are aggregated
+     * in parallel, bounded by the catch-up limit. The last completed period is persisted afterwards.
+     *
+     * @param period is the period type.
+     * @param now is the current time minus the end of period delay.
+     * @return {@code true}, if all missed periods are completed. Otherwise {@code false}.
+     * @throws CouldNotPerformException is thrown in case the periods could not be identified or the state could not be persisted.
+     * @throws InterruptedException is thrown in case the application was interrupted.
+     */
+    private boolean aggregateMissedPeriods(final Period period, final ZonedDateTime now) throws CouldNotPerformException, InterruptedException {
+        final Set<Long> completedBegins = completedPeriodBegins.computeIfAbsent(period, key -> new HashSet<>());
+        final List<ZonedDateTime> periodBegins = new ArrayList<>();
+        ZonedDateTime periodBegin = getLastCompletedPeriodEnd(period);
+        ZonedDateTime periodEnd = CalendarPeriods.getPeriodEnd(periodBegin, period);
+
+        while (!periodEnd.isAfter(now)) {
+            if (!completedBegins.contains(periodBegin.toInstant().toEpochMilli())) {
+                periodBegins.add(periodBegin);
+            }
+            periodBegin = periodEnd;
+            periodEnd = CalendarPeriods.getPeriodEnd(periodBegin, period);
+        }
+
+        if (periodBegins.isEmpty()) {
+            return true;
+        }
+        if (periodBegins.size() > 1) {
+            LOGGER.info("Catch up " + periodBegins.size() + " missed aggregations of period " + period.getName() + ".");
+        }
+
+        final List<Future<Void>> periodTasks = new ArrayList<>();
+
+        for (final ZonedDateTime begin : periodBegins) {
+            catchUpPermits.acquire();
+
+            try {
+                periodTasks.add(GlobalCachedExecutorService.submit(() -> {
+                    try {
+                        aggregatePeriod(begin, period);
+                    } finally {
+                        catchUpPermits.release();
+                    }
+                    return null;
+                }));
+            } catch (RejectedExecutionException ex) {
+                catchUpPermits.release();
+                throw new CouldNotPerformException("Could not submit aggregation of period " + period.getName() + "!", ex);
+            }
+        }
+
+        boolean completed = true;
+
+        for (int i = 0; i < periodTasks.size(); i++) {
+            try {
+                periodTasks.get(i).get();
+                completedBegins.add(periodBegins.get(i).toInstant().toEpochMilli());
+            } catch (ExecutionException ex) {
+                completed = false;
+                ExceptionPrinter.printHistory("Could not aggregate period " + period.getName() + " beginning at " + periodBegins.get(i) + ". Retry later.",
+                        ex, LOGGER, LogLevel.ERROR);
+            }
+        }
+
+        // the persisted state is the end of the last period, until which all periods are completed
+        ZonedDateTime lastCompletedPeriodEnd = getLastCompletedPeriodEnd(period);
+
+        while (completedBegins.remove(lastCompletedPeriodEnd.toInstant().toEpochMilli())) {
+            lastCompletedPeriodEnd = CalendarPeriods.getPeriodEnd(lastCompletedPeriodEnd, period);
+        }
+        setLastCompletedPeriodEnd(period, lastCompletedPeriodEnd);
+
+        return completed;
+    }
+
+    private void aggregatePeriod(final ZonedDateTime periodBegin, final Period period) throws CouldNotPerformException, InterruptedException,
+            ExecutionException {
+        final OffsetDateTime dateTimeFrom = periodBegin.toOffsetDateTime();
+        final OffsetDateTime dateTimeUntil = CalendarPeriods.getPeriodEnd(periodBegin, period).toOffsetDateTime();
+
+        new AggregationImpl(dateTimeFrom, dateTimeUntil, getSourcePeriod(period), period).startAggregation(period);
+    }
+
+    /**
+     * Method returns the period of the data, which are aggregated to the input period. A day is aggregated from the observations or, in case the hours
+     * are aggregated online, from the hour aggregations. A month is aggregated from the days, because the weeks are not aligned to the month borders.
+     *
+     * @param period is the period of the resulting aggregation observations.
+     * @return the period of the aggregated data.
+     * @throws NotAvailableException is thrown in case the period is not scheduled.
+     */
+    private Period getSourcePeriod(final Period period) throws NotAvailableException {
+        switch (period) {
+            case DAY:
+                return Period.HOUR;
+            case WEEK:
+                return Period.DAY;
+            case MONTH:
+                return Period.DAY;
+            case YEAR:
+                return Period.MONTH;
+            default:
+                throw new NotAvailableException("Could not identify source period of " + period + "!");
+        }
+    }
+
+    /**
+     * Method returns the end of the last completed period of the input period type. If there is no valid persisted state (e.g. first start), the beginning
+     * of the current period is used, so that the history before the first start is not aggregated.
+     *
+     * @param period is the period type.
+     * @return the end of the last completed period in the aggregation time zone.
+     * @throws NotAvailableException is thrown in case the period could not be aligned to the calendar.
+     */
+    private ZonedDateTime getLastCompletedPeriodEnd(final Period period) throws NotAvailableException {
+        final String lastCompletedPeriodEnd = state.getProperty(period.getName());
+
+        if (lastCompletedPeriodEnd != null) {
+            try {
+                return OffsetDateTime.parse(lastCompletedPeriodEnd).atZoneSameInstant(OntConfig.getAggregationTimeZone());
+            } catch (DateTimeParseException ex) {
+                ExceptionPrinter.printHistory("Invalid aggregation state of period " + period.getName() + ". Reset to current period.", ex, LOGGER,
+                        LogLevel.WARN);
+            }
+        }
+
+        final ZonedDateTime periodBegin = CalendarPeriods.getPeriodBegin(ZonedDateTime.now(OntConfig.getAggregationTimeZone()), period);
+        state.setProperty(period.getName(), periodBegin.toOffsetDateTime().toString());
+        state.setProperty(period.getName() + SINCE_SUFFIX, periodBegin.toOffsetDateTime().toString());
+        return periodBegin;
+    }
+
+    /**
+     * Method returns the beginning of the first period of the input period type, which is aggregated by the scheduler. The data before are not aggregated.
+     *
+     * @param period is the period type.
+     * @return the beginning of the first scheduled period or {@code null}, if it is unknown.
+     */
+    ZonedDateTime getAggregatedSince(final Period period) {
+        return parseState(period.getName() + SINCE_SUFFIX);
+    }
+
+    /**
+     * Method returns the end of the last completed period of the input period type. All periods between {@link #getAggregatedSince(Period)} and this end
+     * are aggregated.
+     *
+     * @param period is the period type.
+     * @return the end of the last completed period or {@code null}, if it is unknown.
+     */
+    ZonedDateTime getAggregatedUntil(final Period period) {
+        return parseState(period.getName());
+    }
+
+    private ZonedDateTime parseState(final String key) {
+        final String value = state.getProperty(key);
+
+        try {
+            return (value == null) ? null : OffsetDateTime.parse(value).atZoneSameInstant(OntConfig.getAggregationTimeZone());
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Method sets and persists the end of the last completed period of the input period type. The state file is replaced atomically.
+     *
+     * @param period is the period type.
+     * @param lastCompletedPeriodEnd is the end of the last completed period.
+     * @throws CouldNotPerformException is thrown in case the state could not be persisted.
+     */
+    private void setLastCompletedPeriodEnd(final Period period, final ZonedDateTime lastCompletedPeriodEnd) throws CouldNotPerformException {
+        state.setProperty(period.getName(), lastCompletedPeriodEnd.toOffsetDateTime().toString());
+
+        try {
+            final Path directory = stateFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            final Path tempFile = Files.createTempFile(directory, stateFile.getFileName().toString(), ".tmp");
+
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                state.store(writer, "end of the last completed aggregation period");
+            }
+            Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new CouldNotPerformException("Could not persist aggregation state to " + stateFile + "!", ex);
+        }
+    }
+}
@@ -18,12 +18,13 @@
  */
 package org.openbase.bco.ontology.lib.manager.aggregation;
 
-import org.apache.commons.math3.stat.StatUtils;
-import org.apache.commons.math3.util.FastMath;
 import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntAggregatedStateChange;
-import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateChangeBuf;
+import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateColumns;
+import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateColumns.ContinuousColumn;
+import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateColumns.DiscreteColumn;
 import org.openbase.bco.ontology.lib.utility.StringModifier;
 import org.openbase.bco.ontology.lib.system.config.OntConfig;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.AggregationWeighting;
 import org.openbase.bco.ontology.lib.system.config.OntConfig.Period;
 import org.openbase.jul.exception.CouldNotPerformException;
 import org.openbase.jul.exception.MultiException;
@@ -31,7 +32,7 @@ import org.openbase.jul.exception.NotAvailableException;
 import org.openbase.jul.exception.VerificationFailedException;
 
 import java.time.OffsetDateTime;
-import java.util.Comparator;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -45,9 +46,20 @@ public class DataAggregation {
     private OffsetDateTime dateTimeFrom;
     private OffsetDateTime dateTimeUntil;
     private final Period currentPeriod;
+    private final Period aggregationPeriod;
     private long timeFrameMilliS;
 
-    public DataAggregation(final OffsetDateTime dateTimeFrom, final OffsetDateTime dateTimeUntil, final Period currentPeriod) throws CouldNotPerformException  {
+    /**
+     * Constructor for DataAggregation.
+     *
+     * @param dateTimeFrom is the beginning of the aggregation time frame.
+     * @param dateTimeUntil is the end of the aggregation time frame.
+     * @param currentPeriod is the period of the aggregated data (e.g. day observations, which are aggregated to a month).
+     * @param aggregationPeriod is the period of the resulting aggregation observations.
+     * @throws CouldNotPerformException is thrown in case the current period is null.
+     */
+    public DataAggregation(final OffsetDateTime dateTimeFrom, final OffsetDateTime dateTimeUntil, final Period currentPeriod, final Period aggregationPeriod)
+            throws CouldNotPerformException  {
 
         if (currentPeriod == null) {
             throw new CouldNotPerformException("Could not perform aggregation of aggregated data, because current period is null!");
@@ -56,6 +68,7 @@ public class DataAggregation {
         this.dateTimeFrom = dateTimeFrom;
         this.dateTimeUntil = dateTimeUntil;
         this.currentPeriod = currentPeriod;
+        this.aggregationPeriod = aggregationPeriod;
         this.timeFrameMilliS = dateTimeUntil.toInstant().toEpochMilli() - dateTimeFrom.toInstant().toEpochMilli();
     }
 
@@ -68,16 +81,17 @@ public class DataAggregation {
         // the quantity of activation for each state value
         private final HashMap<String, Integer> quantityMap = new HashMap<>();
 
-        public DiscreteStateValues(final List<OntStateChangeBuf> stateChanges, final long unitConnectionTime) throws CouldNotPerformException {
+        public DiscreteStateValues(final DiscreteColumn column, final int beginIndex, final long unitConnectionTime) throws CouldNotPerformException {
             this.unitTimeWeighting = calcTimeWeighting(unitConnectionTime);
             this.nextPeriod = Period.DAY;
 
-            computeMetadata(preparingStateChanges(unitConnectionTime, stateChanges));
+            verifyStateChanges(unitConnectionTime, column.size() - beginIndex, (column.size() > beginIndex) ? column.getTimestampMilliS(beginIndex) : 0);
+            computeMetadata(column, beginIndex);
         }
 
         public DiscreteStateValues(final List<OntAggregatedStateChange> stateChanges) throws CouldNotPerformException {
-            this.unitTimeWeighting = calcTimeWeighting(getTimeWeightingArray(stateChanges), getPeriodLength(currentPeriod));
-            this.nextPeriod = setNextPeriod();
+            this.unitTimeWeighting = calcTimeWeighting(getTimeWeightingArray(stateChanges));
+            this.nextPeriod = aggregationPeriod;
 
             computeAggregatedMetadata(stateChanges);
         }
@@ -119,48 +133,46 @@ public class DataAggregation {
         }
 
         /**
-         * Method computes all metadata (aggregation components) of the input discrete state changes.
-         * Via iteration over the input state change list, the metadata are collected like the quantity for each individual state value.
-         * More metadata should be implemented here if it based on the state changes explicitly.
+         * Method computes all metadata (aggregation components) of the input discrete column. Via iteration over the state changes, the metadata are
+         * collected like the quantity for each individual state value. The active times and quantities are summed up in primitive arrays, which are indexed by the dictionary codes of
+         * the state values.
          *
-         * @param stateChanges are the state changes to compute the aggregated metadata.
-         * @throws NotAvailableException is thrown in case the state change could not be transformed into a string.
+         * @param column is the column of the discrete state changes, sorted ascending.
+         * @param beginIndex is the index of the first relevant state change (chronological before/equal the beginning aggregation time frame).
          */
-        private void computeMetadata(final List<OntStateChangeBuf> stateChanges) throws NotAvailableException {
-            // special case: there is no new state change. The single list entry is the state change before the aggregation time frame
-            if (stateChanges.size() == 1) {
-                final String stateValue = StringModifier.getLocalName(stateChanges.get(0).getStateValues().get(0).asResource().toString());
-                // add metadata solution to the hash maps
-                registerActiveTime(stateValue, timeFrameMilliS);
-                registerQuantity(stateValue, 0); // old state change so that quantity is zero
-                return;
+        private void computeMetadata(final DiscreteColumn column, final int beginIndex) {
+            final int size = column.size();
+            final long[] activeTimes = new long[OntStateColumns.getStateValueCount()];
+            final int[] quantities = new int[activeTimes.length];
+            final boolean[] occurred = new boolean[activeTimes.length];
+
+            // special case: there is no new state change. The single state change is the state change before the aggregation time frame
+            if (size - beginIndex == 1) {
+                final int stateValueCode = column.getStateValueCode(beginIndex);
+                activeTimes[stateValueCode] = timeFrameMilliS;
+                occurred[stateValueCode] = true; // old state change so that quantity is zero
+            } else {
+                final long timeFrameFromMilliS = dateTimeFrom.toInstant().toEpochMilli();
+                final long timeFrameUntilMilliS = dateTimeUntil.toInstant().toEpochMilli();
+
+                for (int i = beginIndex; i < size; i++) {
+                    // consider border cases, which are represented by the aggregation time frame (from and until)
+                    final long beginMilliS = (i == beginIndex) ? timeFrameFromMilliS : column.getTimestampMilliS(i);
+                    final long endMilliS = (i == size - 1) ? timeFrameUntilMilliS : column.getTimestampMilliS(i + 1);
+                    final int stateValueCode = column.getStateValueCode(i);
+
+                    activeTimes[stateValueCode] += endMilliS - beginMilliS;
+                    quantities[stateValueCode]++;
+                    occurred[stateValueCode] = true;
+                }
             }
 
-            long currentTimestampMilliS = 0;
-            long nextTimestampMilliS = 0;
-            long stateValueTimeMilliS;
-
-            // principle: for each current state change (value) the time borders are taken. Means the current state change (i) and the timestamp of the next 
-            // state change (i + 1)
-            for (int i = 0; i < stateChanges.size(); i++) {
-                // consider border cases, which are represented by the aggregation time frame (from and until)
-                if (i == 0) {
-                    nextTimestampMilliS = OffsetDateTime.parse(stateChanges.get(i + 1).getTimestamp()).toInstant().toEpochMilli();
-                    stateValueTimeMilliS = nextTimestampMilliS - dateTimeFrom.toInstant().toEpochMilli();
-                } else if (i == stateChanges.size() - 1) {
-                    stateValueTimeMilliS = dateTimeUntil.toInstant().toEpochMilli() - currentTimestampMilliS;
-                } else {
-                    nextTimestampMilliS = OffsetDateTime.parse(stateChanges.get(i + 1).getTimestamp()).toInstant().toEpochMilli();
-                    stateValueTimeMilliS = nextTimestampMilliS - currentTimestampMilliS;
+            for (int stateValueCode = 0; stateValueCode < occurred.length; stateValueCode++) {
+                if (occurred[stateValueCode]) {
+                    final String stateValue = OntStateColumns.getStateValueName(stateValueCode);
+                    registerActiveTime(stateValue, activeTimes[stateValueCode]);
+                    registerQuantity(stateValue, quantities[stateValueCode]);
                 }
-
-                currentTimestampMilliS = nextTimestampMilliS;
-                // discrete state changes contains one value only
-                final String stateValue = StringModifier.getLocalName(stateChanges.get(i).getStateValues().get(0).asResource().toString());
-
-                // add metadata solution of this loop pass to the hash maps
-                registerActiveTime(stateValue, stateValueTimeMilliS);
-                registerQuantity(stateValue, 1);
             }
         }
 
@@ -227,22 +239,40 @@ public class DataAggregation {
         private final double mean;
         private final double variance;
         private final double standardDeviation;
+        private final double minimum;
+        private final double maximum;
+        private final double integral;
         private final double timeWeighting;
         private final int quantity;
         private final Period nextPeriod;
 
-        public ContinuousStateValues(List<OntStateChangeBuf> stateChanges, final long unitConnectionTime) throws CouldNotPerformException {
-            stateChanges = preparingStateChanges(unitConnectionTime, stateChanges);
+        public ContinuousStateValues(final ContinuousColumn column, final int beginIndex, final long unitConnectionTime) throws CouldNotPerformException {
+            final int size = column.size();
+            verifyStateChanges(unitConnectionTime, size - beginIndex, (size > beginIndex) ? column.getTimestampMilliS(beginIndex) : 0);
+
+            final StatisticsAccumulator accumulator = new StatisticsAccumulator();
 
-            final List<String> stateValuesString = getStateValues(stateChanges);
-            final List<Double> stateValuesDouble = convertStringToDouble(stateValuesString);
-            final double stateValuesArray[] = convertToArray(stateValuesDouble);
+            for (int i = beginIndex; i < size; i++) {
+                accumulator.add(column.getValue(i));
+            }
 
-            this.mean = calcMean(stateValuesArray);
-            this.variance = calcVariance(stateValuesArray);
-            this.standardDeviation = calcStandardDeviation(stateValuesArray);
+            final TimeWeightedStatistics timeWeightedStatistics = TimeWeightedStatistics.compute(column.getTimestampsMilliS(), column.getValues(),
+                    beginIndex, size, dateTimeFrom.toInstant().toEpochMilli(), dateTimeUntil.toInstant().toEpochMilli());
+
+            if (OntConfig.getAggregationWeighting() == AggregationWeighting.TIME && timeWeightedStatistics.getTotalTimeMilliS() > 0) {
+                this.mean = timeWeightedStatistics.getMean();
+                this.variance = timeWeightedStatistics.getVariance();
+                this.standardDeviation = timeWeightedStatistics.getStandardDeviation();
+            } else {
+                this.mean = accumulator.getMean();
+                this.variance = accumulator.getVariance();
+                this.standardDeviation = accumulator.getStandardDeviation();
+            }
+            this.minimum = timeWeightedStatistics.getMinimum();
+            this.maximum = timeWeightedStatistics.getMaximum();
+            this.integral = timeWeightedStatistics.getIntegral();
             this.timeWeighting = calcTimeWeighting(unitConnectionTime);
-            this.quantity = calcQuantity(stateValuesString);
+            this.quantity = (int) accumulator.getQuantity();
             this.nextPeriod = Period.DAY;
         }
 
@@ -251,12 +281,43 @@ public class DataAggregation {
                 throw new CouldNotPerformException("Could not perform aggregation of aggregated data, because current period is null!");
             }
 
-            this.mean = calcMean(getMeanList(stateChanges));
-            this.variance = calcVariance(getVarianceList(stateChanges));
-            this.standardDeviation = calcStandardDeviation(getStandardDeviationList(stateChanges));
-            this.timeWeighting = calcTimeWeighting(getTimeWeightingArray(stateChanges), getPeriodLength(currentPeriod));
-            this.quantity = calcQuantity(getQuantity(stateChanges));
-            this.nextPeriod = setNextPeriod();
+            // the partial statistics of the aggregated observations are merged exactly. Averaging the variances would be wrong for different means
+            final StatisticsAccumulator accumulator = new StatisticsAccumulator();
+            // in case of time weighting the partial statistics are weighted by the covered time of the aggregated observations
+            final TimeWeightedStatistics timeWeightedStatistics = new TimeWeightedStatistics();
+            final long periodMilliS = getPeriodMilliS(currentPeriod);
+            double timeWeightingSum = 0.0;
+            boolean extremaAvailable = true;
+
+            for (final OntAggregatedStateChange stateChange : stateChanges) {
+                final double stateChangeTimeWeighting = parseDouble(stateChange.getTimeWeighting());
+                extremaAvailable &= stateChange.getMinimum() != null && stateChange.getMaximum() != null && stateChange.getIntegral() != null;
+
+                accumulator.merge(getStatistics(stateChange));
+                timeWeightedStatistics.merge(TimeWeightedStatistics.of(Math.round(stateChangeTimeWeighting * periodMilliS),
+                        parseDouble(stateChange.getMean()), parseDouble(stateChange.getVariance()),
+                        extremaAvailable ? parseDouble(stateChange.getMinimum()) : Double.NaN,
+                        extremaAvailable ? parseDouble(stateChange.getMaximum()) : Double.NaN,
+                        extremaAvailable ? parseDouble(stateChange.getIntegral()) : 0.0));
+                timeWeightingSum += stateChangeTimeWeighting;
+            }
+
+            if (OntConfig.getAggregationWeighting() == AggregationWeighting.TIME && timeWeightedStatistics.getTotalTimeMilliS() > 0) {
+                this.mean = timeWeightedStatistics.getMean();
+                this.variance = timeWeightedStatistics.getVariance();
+                this.standardDeviation = timeWeightedStatistics.getStandardDeviation();
+            } else {
+                this.mean = accumulator.getMean();
+                this.variance = accumulator.getVariance();
+                this.standardDeviation = accumulator.getStandardDeviation();
+            }
+            // the extrema and the integral are not available, if at least one aggregated observation does not contain them (older aggregations)
+            this.minimum = extremaAvailable ? timeWeightedStatistics.getMinimum() : Double.NaN;
+            this.maximum = extremaAvailable ? timeWeightedStatistics.getMaximum() : Double.NaN;
+            this.integral = extremaAvailable ? timeWeightedStatistics.getIntegral() : Double.NaN;
+            this.timeWeighting = timeWeightingSum * periodMilliS / timeFrameMilliS;
+            this.quantity = (int) accumulator.getQuantity();
+            this.nextPeriod = aggregationPeriod;
         }
 
         public Period getNextPeriod() {
@@ -275,56 +336,62 @@ public class DataAggregation {
             return standardDeviation;
         }
 
-        public double getTimeWeighting() {
-            return timeWeighting;
+        /**
+         * Getter for the minimal state value.
+         *
+         * @return the minimum or NaN in case it is not available (aggregated state changes without minimum).
+         */
+        public double getMinimum() {
+            return minimum;
         }
 
-        public int getQuantity() {
-            return quantity;
+        /**
+         * Getter for the maximal state value.
+         *
+         * @return the maximum or NaN in case it is not available (aggregated state changes without maximum).
+         */
+        public double getMaximum() {
+            return maximum;
         }
 
-        private double[] getMeanList(final List<OntAggregatedStateChange> aggDataList) throws CouldNotPerformException {
-            final List<String> aggMeanBuf = aggDataList.stream().map(OntAggregatedStateChange::getMean).collect(Collectors.toList());
-            return convertToArray(convertStringToDouble(aggMeanBuf));
+        /**
+         * Getter for the integral of the state values over the time in (state value unit) * hours, e.g. the energy of the power consumption.
+         *
+         * @return the integral or NaN in case it is not available (aggregated state changes without integral).
+         */
+        public double getIntegral() {
+            return integral;
         }
 
-        private double[] getVarianceList(final List<OntAggregatedStateChange> aggDataList) throws CouldNotPerformException {
-            final List<String> aggVarianceBuf = aggDataList.stream().map(OntAggregatedStateChange::getVariance).collect(Collectors.toList());
-            return convertToArray(convertStringToDouble(aggVarianceBuf));
+        public double getTimeWeighting() {
+            return timeWeighting;
         }
 
-        private double[] getStandardDeviationList(final List<OntAggregatedStateChange> aggDataList) throws CouldNotPerformException {
-            final List<String> aggStandardDeviationBuf = aggDataList.stream().map(OntAggregatedStateChange::getStandardDeviation).collect(Collectors.toList());
-            return convertToArray(convertStringToDouble(aggStandardDeviationBuf));
+        public int getQuantity() {
+            return quantity;
         }
 
-        private List<Integer> getQuantity(final List<OntAggregatedStateChange> aggDataList) throws CouldNotPerformException {
-            final List<String> aggQuantityBuf = aggDataList.stream().map(OntAggregatedStateChange::getQuantity).collect(Collectors.toList());
-            return convertStringToInteger(aggQuantityBuf);
-        }
+        private StatisticsAccumulator getStatistics(final OntAggregatedStateChange stateChange) throws CouldNotPerformException {
+            final long aggQuantity;
 
-        private List<String> getStateValues(final List<OntStateChangeBuf> stateValueDataCollectionList) throws NotAvailableException {
-            return stateValueDataCollectionList.stream().map(ontStateChangeBuf -> {
-                try {
-                    return StringModifier.getLocalName(ontStateChangeBuf.getStateValues().get(0).asLiteral().getLexicalForm()); //TODO extend to list...
-                } catch (NotAvailableException ex) {
-                    return ""; //TODO
-                }
-            }).collect(Collectors.toList());
+            try {
+                aggQuantity = Long.parseLong(stateChange.getQuantity());
+            } catch (NumberFormatException ex) {
+                throw new CouldNotPerformException("Could not perform aggregation because the quantity is invalid: " + stateChange.getQuantity(), ex);
+            }
+            return StatisticsAccumulator.of(aggQuantity, parseDouble(stateChange.getMean()), parseDouble(stateChange.getVariance()));
         }
-
     }
 
     /**
-     * Method is used to check and prepare the input information, which should be aggregated.
+     * Method is used to check the input information, which should be aggregated.
      *
-     * @param unitConnectionTime is the time, which describes the connection time in milliseconds between unit and bco. Inconspicuous connection states should
-     *                           have connection times equal the time frame of aggregation.
-     * @param stateChanges are the state changes, which should be sorted ascending by including timestamp.
-     * @return the sorted list of state changes.
+     * @param unitConnectionTime is the time, which describes the connection time in milliseconds between unit and bco.
+     * @param size is the number of state changes.
+     * @param firstTimestampMilliS is the timestamp of the oldest state change in epoch milliseconds.
      * @throws MultiException is thrown in case the verification of input information, which should be aggregated, is invalid.
      */
-    private List<OntStateChangeBuf> preparingStateChanges(final long unitConnectionTime, final List<OntStateChangeBuf> stateChanges) throws MultiException {
+    private void verifyStateChanges(final long unitConnectionTime, final int size, final long firstTimestampMilliS) throws MultiException {
         MultiException.ExceptionStack exceptionStack = null;
 
         try {
@@ -335,14 +402,10 @@ public class DataAggregation {
             exceptionStack = MultiException.push(this, e, null);
         }
         try {
-            if (stateChanges.isEmpty()) {
+            if (size <= 0) {
                 throw new VerificationFailedException("The list of state changes is empty!");
             }
-        } catch (VerificationFailedException e) {
-            exceptionStack = MultiException.push(this, e, exceptionStack);
-        }
-        try {
-            if (OffsetDateTime.parse(stateChanges.get(0).getTimestamp()).isAfter(dateTimeFrom)) {
+            if (firstTimestampMilliS > dateTimeFrom.toInstant().toEpochMilli()) {
                 throw new VerificationFailedException("First state change is after the beginning aggregation time frame! No information about the state in " +
                         "the beginning time frame! First state change entry should be, chronological, before/equal the beginning time frame.");
             }
@@ -351,40 +414,30 @@ public class DataAggregation {
         }
 
         MultiException.checkAndThrow("Could not perform aggregation!", exceptionStack);
-
-        // sort ascending (old to young)
-        stateChanges.sort(Comparator.comparing(OntStateChangeBuf::getTimestamp));
-
-        return stateChanges;
-    }
-
-    private Period setNextPeriod() {
-        switch (currentPeriod) {
-            case DAY:
-                return Period.WEEK;
-            case WEEK:
-                return Period.MONTH;
-            case MONTH:
-                return Period.YEAR;
-            default:
-                return null; //TODO
-        }
     }
 
-    private int getPeriodLength(final OntConfig.Period period) throws NotAvailableException {
-        //TODO develop logic unit to get the real number dependent on current moment ...
+    /**
+     * Method returns the nominal duration of the input period, which is used to weight aggregated observations by their covered time (time weighting *
+     * duration). Months and years are estimated by their average duration.
+     *
+     * @param period is the period of the aggregated observations.
+     * @return the duration in milliseconds.
+     * @throws NotAvailableException is thrown in case the period could not be identified.
+     */
+    private long getPeriodMilliS(final OntConfig.Period period) throws NotAvailableException {
         switch (period) {
+            case HOUR:
+                return ChronoUnit.HOURS.getDuration().toMillis();
             case DAY:
-                return 24;
+                return ChronoUnit.DAYS.getDuration().toMillis();
             case WEEK:
-                return 7;
+                return ChronoUnit.WEEKS.getDuration().toMillis();
             case MONTH:
-                return 4;
+                return ChronoUnit.MONTHS.getDuration().toMillis();
             case YEAR:
-                return 12;
+                return ChronoUnit.YEARS.getDuration().toMillis();
             default:
-                throw new NotAvailableException("Could not perform adaption of dateTime for aggregation. Cause period time "
-                        + period.toString() + " could not be identified!");
+                throw new NotAvailableException("Could not identify duration of period " + period + "!");
         }
     }
 
@@ -401,11 +454,11 @@ public class DataAggregation {
         }
     }
 
-    private List<Integer> convertStringToInteger(final List<String> stringValues) throws CouldNotPerformException {
+    private double parseDouble(final String stringValue) throws CouldNotPerformException {
         try {
-            return stringValues.stream().map(Integer::parseInt).collect(Collectors.toList());
-        } catch (Exception ex) {
-            throw new CouldNotPerformException("Could not perform aggregation because stateValueList contains discrete values: " + stringValues);
+            return Double.parseDouble(stringValue);
+        } catch (NumberFormatException | NullPointerException ex) {
+            throw new CouldNotPerformException("Could not perform aggregation because stateValue is discrete: " + stringValue);
         }
     }
 
@@ -420,24 +473,16 @@ public class DataAggregation {
         return Double.parseDouble(OntConfig.decimalFormat().format((double) unitConnectionTime / (double) timeFrameMilliS));
     }
 
-    private double calcTimeWeighting(final double[] timeWeightingArray, final int periodLength) {
-        return DoubleStream.of(timeWeightingArray).sum() / periodLength;
-    }
-
-    private double calcVariance(final double stateValuesArray[]) {
-        return StatUtils.variance(stateValuesArray);
-    }
-
-    private double calcStandardDeviation(final double stateValuesArray[]) {
-        return FastMath.sqrt(StatUtils.variance(stateValuesArray));
-    }
-
-    private double calcMean(final double stateValuesArray[]) {
-        return StatUtils.mean(stateValuesArray);
-    }
-
-    private int calcQuantity(final List<?> stateValues) {
-        return stateValues.size();
+    /**
+     * Method calculates the time weighting of aggregated observations. Means the ratio of the covered time of the aggregated observations (time weighting *
+     * duration of the current period) and the aggregation time frame.
+     *
+     * @param timeWeightingArray are the time weightings of the aggregated observations.
+     * @return the time weighting in the range of [0..1].
+     * @throws NotAvailableException is thrown in case the duration of the current period could not be identified.
+     */
+    private double calcTimeWeighting(final double[] timeWeightingArray) throws NotAvailableException {
+        return DoubleStream.of(timeWeightingArray).sum() * getPeriodMilliS(currentPeriod) / timeFrameMilliS;
     }
 
     private double[] convertToArray(final List<Double> stateValues) {
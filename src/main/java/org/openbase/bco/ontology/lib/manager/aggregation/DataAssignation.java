@@ -19,8 +19,9 @@
 package org.openbase.bco.ontology.lib.manager.aggregation;
 
 import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntAggregatedStateChange;
-import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateChange;
-import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateChangeBuf;
+import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateColumns;
+import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateColumns.ContinuousColumn;
+import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateColumns.DiscreteColumn;
 import org.openbase.bco.ontology.lib.utility.StringModifier;
 import org.openbase.bco.ontology.lib.utility.ontology.OntNodeHandler;
 import org.openbase.bco.ontology.lib.utility.sparql.RdfTriple;
@@ -38,15 +39,14 @@ import org.openbase.jul.exception.MultiException.ExceptionStack;
 import org.openbase.jul.exception.NotAvailableException;
 import org.openbase.jul.exception.printer.ExceptionPrinter;
 import org.openbase.jul.exception.printer.LogLevel;
-import org.openbase.jul.schedule.Stopwatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author agatting on 25.03.17.
@@ -58,77 +58,96 @@ public class DataAssignation extends DataAggregation {
     private final OffsetDateTime dateTimeFrom;
     private final OffsetDateTime dateTimeUntil;
     private final long dateTimeFromMillis;
-    private final Stopwatch stopwatch;
-    private String unitId;
-    private long unitConnectionTimeMilli;
-    private String serviceType;
 
-    public DataAssignation(final OffsetDateTime dateTimeFrom, final OffsetDateTime dateTimeUntil, final Period currentPeriod) throws CouldNotPerformException {
-        super(dateTimeFrom, dateTimeUntil, currentPeriod);
+    /**
+     * Sequence number to guarantee, that aggregationObservation instances of the same unit and millisecond are unique.
+     */
+    private static final AtomicLong AGG_OBS_SEQUENCE = new AtomicLong();
+
+    public DataAssignation(final OffsetDateTime dateTimeFrom, final OffsetDateTime dateTimeUntil, final Period currentPeriod, final Period aggregationPeriod)
+            throws CouldNotPerformException {
+        super(dateTimeFrom, dateTimeUntil, currentPeriod, aggregationPeriod);
 
         this.dateTimeFrom = dateTimeFrom;
         this.dateTimeUntil = dateTimeUntil;
         this.dateTimeFromMillis = dateTimeFrom.toInstant().toEpochMilli();
-        this.stopwatch = new Stopwatch();
     }
 
     /**
      * Method identifies the based service type and relates associated aggregation processes to get ontology triples for aggregation observations. This method
-     * call based on unit (id) level. Incorrect calculations are dropped and associated exceptions are logged.
+     * call based on unit (id) level. Incorrect calculations are dropped and associated exceptions are logged. The method keeps no state, so the services of
+     * different units can be aggregated in parallel.
      *
      * @param providerService is the providerService.
-     * @param ontStateChanges are the associated state changes.
+     * @param ontStateChanges are the associated state changes of the aggregation observations.
      * @param unitConnectionTimeMilli is the whole connection time in milliseconds of the current unit. If the state changes based on aggregated observations
      *                                the value will be ignored. Instead the value of the aggregated observations are taken in DataAggregation.
      * @param unitId is the id of the current based unit, which contains the input services and state changes.
      * @return a list of triples to insert the aggregation observation in the ontology.
      * @throws InterruptedException is thrown in case the application was interrupted.
      */
-    List<RdfTriple> identifyServiceType(final String providerService, final List<OntStateChange> ontStateChanges,
+    List<RdfTriple> identifyServiceType(final String providerService, final List<OntAggregatedStateChange> ontStateChanges,
                                         final long unitConnectionTimeMilli, final String unitId) throws InterruptedException {
+        return assignServiceType(ontStateChanges, new ServiceContext(unitId, providerService, unitConnectionTimeMilli));
+    }
 
-        this.unitId = unitId;
-        this.unitConnectionTimeMilli = unitConnectionTimeMilli;
-        this.serviceType = providerService;
+    /**
+     * Method identifies the based service type and relates associated aggregation processes like
+     * {@link #identifyServiceType(String, List, long, String)}. The (not aggregated) state changes are stored in primitive columns.
+     *
+     * @param providerService is the providerService.
+     * @param ontStateColumns are the associated state changes in columns.
+     * @param unitConnectionTimeMilli is the whole connection time in milliseconds of the current unit.
+     * @param unitId is the id of the current based unit, which contains the input services and state changes.
+     * @return a list of triples to insert the aggregation observation in the ontology.
+     * @throws InterruptedException is thrown in case the application was interrupted.
+     */
+    List<RdfTriple> identifyServiceType(final String providerService, final OntStateColumns ontStateColumns,
+                                        final long unitConnectionTimeMilli, final String unitId) throws InterruptedException {
+        return assignServiceType(ontStateColumns, new ServiceContext(unitId, providerService, unitConnectionTimeMilli));
+    }
+
+    private List<RdfTriple> assignServiceType(final Object ontStateChanges, final ServiceContext context) throws InterruptedException {
+        final String providerService = context.getProviderService();
         final List<RdfTriple> triples = new ArrayList<>();
         ExceptionStack exceptionStack = null;
 
         try {
-            switch (OntConfig.SERVICE_NAME_MAP.get(StringModifier.firstCharToLowerCase(serviceType))) {
+            switch (OntConfig.SERVICE_NAME_MAP.get(StringModifier.firstCharToLowerCase(providerService))) {
                 case ACTIVATION_STATE_SERVICE:
-                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges));
+                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges, context));
                     break;
                 case BATTERY_STATE_SERVICE:
-                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges));
-                    triples.addAll(aggregateContinuousStateValue(ontStateChanges, StateValueType.PERCENT));
+                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges, context));
+                    triples.addAll(aggregateContinuousStateValue(ontStateChanges, StateValueType.PERCENT, context));
                     break;
                 case BLIND_STATE_SERVICE:
-                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges));
-                    triples.addAll(aggregateContinuousStateValue(ontStateChanges, StateValueType.PERCENT));
+                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges, context));
+                    triples.addAll(aggregateContinuousStateValue(ontStateChanges, StateValueType.PERCENT, context));
                     break;
                 case BRIGHTNESS_STATE_SERVICE:
                     break;
                 case BUTTON_STATE_SERVICE:
-                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges));
+                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges, context));
                     break;
                 case COLOR_STATE_SERVICE:
-                    triples.addAll(hsbStateValue(ontStateChanges));
+                    triples.addAll(hsbStateValue(ontStateChanges, context));
                     break;
                 case CONTACT_STATE_SERVICE:
-                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges));
+                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges, context));
                     break;
                 case DOOR_STATE_SERVICE:
-                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges));
+                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges, context));
                     break;
                 case EARTHQUAKE_ALARM_STATE_SERVICE:
                     break;
                 case FIRE_ALARM_STATE_SERVICE:
                     break;
                 case HANDLE_STATE_SERVICE:
-                    triples.addAll(aggregateContinuousStateValue(ontStateChanges, StateValueType.DOUBLE));
+                    triples.addAll(aggregateContinuousStateValue(ontStateChanges, StateValueType.DOUBLE, context));
                     break;
                 case ILLUMINANCE_STATE_SERVICE:
-                    triples.addAll(aggregateContinuousStateValue(ontStateChanges, StateValueType.LUX));
+                    triples.addAll(aggregateContinuousStateValue(ontStateChanges, StateValueType.LUX, context));
                     break;
                 case INTENSITY_STATE_SERVICE:
                     break;
@@ -137,57 +156,56 @@ public class DataAssignation extends DataAggregation {
                 case MEDICAL_EMERGENCY_ALARM_STATE_SERVICE:
                     break;
                 case MOTION_STATE_SERVICE:
-                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges));
+                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges, context));
                     break;
                 case PASSAGE_STATE_SERVICE:
                     break;
                 case POWER_CONSUMPTION_STATE_SERVICE:
-                    triples.addAll(powerStateValue(ontStateChanges));
+                    triples.addAll(powerStateValue(ontStateChanges, context));
                     break;
                 case POWER_STATE_SERVICE:
-                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges));
+                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges, context));
                     break;
                 case PRESENCE_STATE_SERVICE:
-                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges));
+                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges, context));
                     break;
                 case RFID_STATE_SERVICE:
-//                    triples.addAll(rfidStateValue(serviceStateChangeMap.get(serviceType)));
                     break;
                 case SMOKE_ALARM_STATE_SERVICE:
                     break;
                 case SMOKE_STATE_SERVICE:
-                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges));
-                    triples.addAll(aggregateContinuousStateValue(ontStateChanges, StateValueType.PERCENT));
+                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges, context));
+                    triples.addAll(aggregateContinuousStateValue(ontStateChanges, StateValueType.PERCENT, context));
                     break;
                 case STANDBY_STATE_SERVICE:
-                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges));
+                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges, context));
                     break;
                 case SWITCH_STATE_SERVICE:
-                    triples.addAll(aggregateContinuousStateValue(ontStateChanges, StateValueType.DOUBLE));
+                    triples.addAll(aggregateContinuousStateValue(ontStateChanges, StateValueType.DOUBLE, context));
                     break;
                 case TAMPER_STATE_SERVICE:
-                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges));
+                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges, context));
                     break;
                 case TARGET_TEMPERATURE_STATE_SERVICE:
                     break;
                 case TEMPERATURE_ALARM_STATE_SERVICE:
                     break;
                 case TEMPERATURE_STATE_SERVICE:
-                    triples.addAll(aggregateContinuousStateValue(ontStateChanges, StateValueType.CELSIUS));
+                    triples.addAll(aggregateContinuousStateValue(ontStateChanges, StateValueType.CELSIUS, context));
                     break;
                 case TEMPEST_ALARM_STATE_SERVICE:
                     break;
                 case WATER_ALARM_STATE_SERVICE:
                     break;
                 case WINDOW_STATE_SERVICE:
-                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges));
+                    triples.addAll(aggregateDiscreteStateValue(ontStateChanges, context));
                     break;
                 case UNKNOWN:
                     // invalid service state
                     throw new NotAvailableException("Could not assign to providerService UNKNOWN");
                 default:
                     // no matched providerService
-                    throw new NotAvailableException("Could not assign to providerService. Add" + OntConfig.SERVICE_NAME_MAP.get(serviceType));
+                    throw new NotAvailableException("Could not assign to providerService. Add" + OntConfig.SERVICE_NAME_MAP.get(providerService));
             }
         } catch (CouldNotPerformException ex) {
             exceptionStack = MultiException.push(this, ex, exceptionStack);
@@ -204,83 +222,76 @@ public class DataAssignation extends DataAggregation {
 
     /**
      * Method collects and calculates the state changes to an aggregated observation. State changes based on discrete state values (/bco state values
-     * like on, off, open, ...). The state changes can be not processed observations (OntStateChangeBuf) or aggregated observations (OntAggregatedStateChange).
+     * like on, off, open, ...). The state changes can be not processed observations (OntStateColumns) or aggregated observations (OntAggregatedStateChange).
      *
      * @param stateChanges are the discrete state values.
+     * @param context is the unit and provider service of the state changes.
      * @return rdf triples to insert aggregated information which are calculated from the input state changes.
-     * @throws CouldNotPerformException is thrown in case the parameter type is unknown.
+     * @throws CouldNotPerformException is thrown in case the state changes could not be aggregated.
      * @throws InterruptedException is thrown in case the application was interrupted.
      */
-    private List<RdfTriple> aggregateDiscreteStateValue(final List<?> stateChanges) throws CouldNotPerformException, InterruptedException {
-
-        //TODO replace data type!!!
-        if (stateChanges.get(0) instanceof OntStateChangeBuf) {
-            final List<OntStateChangeBuf> bco = OntNodeHandler.getResourceElements((List<OntStateChangeBuf>) stateChanges);
-            return buildAggObsOfDiscreteValues(dismissUnusedStateValues(bco));
+    private List<RdfTriple> aggregateDiscreteStateValue(final Object stateChanges, final ServiceContext context) throws CouldNotPerformException, InterruptedException {
 
-        } else if (stateChanges.get(0) instanceof OntAggregatedStateChange) {
-            final List<OntAggregatedStateChange> bco = OntNodeHandler.getAggResourceElements((List<OntAggregatedStateChange>) stateChanges);
-            return buildAggObsOfDiscreteValues(bco);
+        if (stateChanges instanceof OntStateColumns) {
+            final DiscreteColumn column = ((OntStateColumns) stateChanges).getDiscreteColumn();
 
+            if (column == null) {
+                throw new CouldNotPerformException("There is no state value. Empty list!");
+            }
+            return buildAggObsOfDiscreteValues(new DiscreteStateValues(column, column.getFirstRelevantIndex(dateTimeFromMillis),
+                    context.getUnitConnectionTimeMilli()), context);
         }
-        throw new CouldNotPerformException("Could not identify parameter type. Dropped data...");
+
+        final List<OntAggregatedStateChange> bco = OntNodeHandler.getAggResourceElements((List<OntAggregatedStateChange>) stateChanges);
+        return buildAggObsOfDiscreteValues(bco, context);
     }
 
     /**
      * Method collects and calculates the state changes to an aggregated observation. State changes based on continuous state values. The state changes can
-     * be not processed observations (OntStateChangeBuf) or aggregated observations (OntAggregatedStateChange).
+     * be not processed observations (OntStateColumns) or aggregated observations (OntAggregatedStateChange).
      *
      * @param stateChanges are the continuous state values.
      * @param stateValueType is the kind of state value to filter and attach the information to the aggregation observation.
+     * @param context is the unit and provider service of the state changes.
      * @return rdf triples to insert an aggregated observation, which are calculated from the input state changes.
-     * @throws CouldNotPerformException is thrown in case the parameter type is unknown.
+     * @throws CouldNotPerformException is thrown in case the state changes could not be aggregated.
      * @throws InterruptedException is thrown in case the application was interrupted.
      */
-    private List<RdfTriple> aggregateContinuousStateValue(final List<?> stateChanges, final StateValueType stateValueType)
-            throws CouldNotPerformException, InterruptedException {
+    private List<RdfTriple> aggregateContinuousStateValue(final Object stateChanges, final StateValueType stateValueType,
+                                                          final ServiceContext context) throws CouldNotPerformException, InterruptedException {
 
-        if (stateChanges.get(0) instanceof OntStateChangeBuf) {
-            final List<OntStateChangeBuf> stateTypeValue = OntNodeHandler.getLiteralElements((List<OntStateChangeBuf>) stateChanges, stateValueType);
-            return buildAggObsOfContinuousValue(dismissUnusedStateValues(stateTypeValue), stateValueType);
-
-        } else if (stateChanges.get(0) instanceof OntAggregatedStateChange) {
-            final List<OntAggregatedStateChange> stateTypeValue = OntNodeHandler.getAggLiteralElements((List<OntAggregatedStateChange>) stateChanges, stateValueType);
-            return buildAggObsOfContinuousValue(stateTypeValue, stateValueType);
+        if (stateChanges instanceof OntStateColumns) {
+            return aggregateContinuousColumn((OntStateColumns) stateChanges, stateValueType, context);
         }
-        throw new CouldNotPerformException("Could not identify parameter type. Dropped data...");
+
+        final List<OntAggregatedStateChange> stateTypeValue = OntNodeHandler.getAggLiteralElements((List<OntAggregatedStateChange>) stateChanges, stateValueType);
+        return buildAggObsOfContinuousValue(stateTypeValue, stateValueType, context);
     }
 
     /**
      * Method identifies and aggregates state values based on data type hsb - hue, saturation, brightness (continuous).
      *
      * @param stateChanges are the continuous state values.
+     * @param context is the unit and provider service of the state changes.
      * @return rdf triples to insert aggregated information which are calculated from the input state values.
-     * @throws CouldNotPerformException is thrown in case the parameter type is unknown.
+     * @throws CouldNotPerformException is thrown in case the state changes could not be aggregated.
      * @throws InterruptedException is thrown in case the application was interrupted.
      */
-    private List<RdfTriple> hsbStateValue(final List<?> stateChanges) throws CouldNotPerformException, InterruptedException {
+    private List<RdfTriple> hsbStateValue(final Object stateChanges, final ServiceContext context) throws CouldNotPerformException, InterruptedException {
         final List<RdfTriple> triples = new ArrayList<>();
 
-        if (stateChanges.get(0) instanceof OntStateChangeBuf) {
-            final List<OntStateChangeBuf> brightness = OntNodeHandler.getLiteralElements((List<OntStateChangeBuf>) stateChanges, StateValueType.BRIGHTNESS);
-            final List<OntStateChangeBuf> hue = OntNodeHandler.getLiteralElements((List<OntStateChangeBuf>) stateChanges, StateValueType.HUE);
-            final List<OntStateChangeBuf> saturation = OntNodeHandler.getLiteralElements((List<OntStateChangeBuf>) stateChanges, StateValueType.SATURATION);
-
-            triples.addAll(buildAggObsOfContinuousValue(dismissUnusedStateValues(hue), StateValueType.HUE));
-            triples.addAll(buildAggObsOfContinuousValue(dismissUnusedStateValues(saturation), StateValueType.SATURATION));
-            triples.addAll(buildAggObsOfContinuousValue(dismissUnusedStateValues(brightness), StateValueType.BRIGHTNESS));
-
-        } else if (stateChanges.get(0) instanceof OntAggregatedStateChange) {
+        if (stateChanges instanceof OntStateColumns) {
+            triples.addAll(aggregateContinuousColumn((OntStateColumns) stateChanges, StateValueType.HUE, context));
+            triples.addAll(aggregateContinuousColumn((OntStateColumns) stateChanges, StateValueType.SATURATION, context));
+            triples.addAll(aggregateContinuousColumn((OntStateColumns) stateChanges, StateValueType.BRIGHTNESS, context));
+        } else {
             final List<OntAggregatedStateChange> brightness = OntNodeHandler.getAggLiteralElements((List<OntAggregatedStateChange>) stateChanges, StateValueType.BRIGHTNESS);
             final List<OntAggregatedStateChange> hue = OntNodeHandler.getAggLiteralElements((List<OntAggregatedStateChange>) stateChanges, StateValueType.HUE);
             final List<OntAggregatedStateChange> saturation = OntNodeHandler.getAggLiteralElements((List<OntAggregatedStateChange>) stateChanges, StateValueType.SATURATION);
 
-            triples.addAll(buildAggObsOfContinuousValue(hue, StateValueType.HUE));
-            triples.addAll(buildAggObsOfContinuousValue(saturation, StateValueType.SATURATION));
-            triples.addAll(buildAggObsOfContinuousValue(brightness, StateValueType.BRIGHTNESS));
-
-        } else {
-            throw new CouldNotPerformException("Could not identify parameter type. Dropped data...");
+            triples.addAll(buildAggObsOfContinuousValue(hue, StateValueType.HUE, context));
+            triples.addAll(buildAggObsOfContinuousValue(saturation, StateValueType.SATURATION, context));
+            triples.addAll(buildAggObsOfContinuousValue(brightness, StateValueType.BRIGHTNESS, context));
         }
         return triples;
     }
@@ -289,50 +300,50 @@ public class DataAssignation extends DataAggregation {
      * Method identifies and aggregates state values based on power - voltage, watt, ampere (continuous).
      *
      * @param stateChanges are the continuous state values.
+     * @param context is the unit and provider service of the state changes.
      * @return rdf triples to insert aggregated information which are calculated from the input state values.
-     * @throws CouldNotPerformException is thrown in case the parameter type is unknown.
+     * @throws CouldNotPerformException is thrown in case the state changes could not be aggregated.
      * @throws InterruptedException is thrown in case the application was interrupted.
      */
-    private List<RdfTriple> powerStateValue(final List<?> stateChanges) throws CouldNotPerformException, InterruptedException {
+    private List<RdfTriple> powerStateValue(final Object stateChanges, final ServiceContext context) throws CouldNotPerformException, InterruptedException {
         final List<RdfTriple> triples = new ArrayList<>();
 
-        if (stateChanges.get(0) instanceof OntStateChangeBuf) {
-            final List<OntStateChangeBuf> voltage = OntNodeHandler.getLiteralElements((List<OntStateChangeBuf>) stateChanges, StateValueType.VOLTAGE);
-            final List<OntStateChangeBuf> watt = OntNodeHandler.getLiteralElements((List<OntStateChangeBuf>) stateChanges, StateValueType.WATT);
-            final List<OntStateChangeBuf> ampere = OntNodeHandler.getLiteralElements((List<OntStateChangeBuf>) stateChanges, StateValueType.AMPERE);
-
-            triples.addAll(buildAggObsOfContinuousValue(dismissUnusedStateValues(voltage), StateValueType.VOLTAGE));
-            triples.addAll(buildAggObsOfContinuousValue(dismissUnusedStateValues(watt), StateValueType.WATT));
-            triples.addAll(buildAggObsOfContinuousValue(dismissUnusedStateValues(ampere), StateValueType.AMPERE));
-
-        } else if (stateChanges.get(0) instanceof OntAggregatedStateChange) {
+        if (stateChanges instanceof OntStateColumns) {
+            triples.addAll(aggregateContinuousColumn((OntStateColumns) stateChanges, StateValueType.VOLTAGE, context));
+            triples.addAll(aggregateContinuousColumn((OntStateColumns) stateChanges, StateValueType.WATT, context));
+            triples.addAll(aggregateContinuousColumn((OntStateColumns) stateChanges, StateValueType.AMPERE, context));
+        } else {
             final List<OntAggregatedStateChange> voltage = OntNodeHandler.getAggLiteralElements((List<OntAggregatedStateChange>) stateChanges, StateValueType.VOLTAGE);
             final List<OntAggregatedStateChange> watt = OntNodeHandler.getAggLiteralElements((List<OntAggregatedStateChange>) stateChanges, StateValueType.WATT);
             final List<OntAggregatedStateChange> ampere = OntNodeHandler.getAggLiteralElements((List<OntAggregatedStateChange>) stateChanges, StateValueType.AMPERE);
 
-            triples.addAll(buildAggObsOfContinuousValue(voltage, StateValueType.VOLTAGE));
-            triples.addAll(buildAggObsOfContinuousValue(watt, StateValueType.WATT));
-            triples.addAll(buildAggObsOfContinuousValue(ampere, StateValueType.AMPERE));
-
-        } else {
-            throw new CouldNotPerformException("Could not identify parameter type. Dropped data...");
+            triples.addAll(buildAggObsOfContinuousValue(voltage, StateValueType.VOLTAGE, context));
+            triples.addAll(buildAggObsOfContinuousValue(watt, StateValueType.WATT, context));
+            triples.addAll(buildAggObsOfContinuousValue(ampere, StateValueType.AMPERE, context));
         }
         return triples;
     }
 
-    private List<RdfTriple> rfidStateValue(final List<?> serviceDataCollList) throws CouldNotPerformException {
-        //TODO aggregate string...?!
-        final List<RdfTriple> triples = new ArrayList<>();
-
-        if (serviceDataCollList.get(0) instanceof OntStateChangeBuf) {
-            List<OntStateChangeBuf> rfidValueList = dismissUnusedStateValues((List<OntStateChangeBuf>) serviceDataCollList);
-
-        } else if (serviceDataCollList.get(0) instanceof OntAggregatedStateChange) {
+    /**
+     * Method aggregates the continuous state values of the input type, which are stored in a column.
+     *
+     * @param ontStateColumns are the (not aggregated) state changes in columns.
+     * @param stateValueType is the kind of state value to aggregate and attach the information to the aggregation observation.
+     * @param context is the unit and provider service of the state changes.
+     * @return rdf triples to insert an aggregated observation, which are calculated from the state values.
+     * @throws CouldNotPerformException is thrown in case there is no state value of the input type or the information could not be aggregated.
+     */
+    private List<RdfTriple> aggregateContinuousColumn(final OntStateColumns ontStateColumns, final StateValueType stateValueType,
+                                                      final ServiceContext context) throws CouldNotPerformException {
+        final ContinuousColumn column = ontStateColumns.getContinuousColumn(stateValueType);
 
-        } else {
-            throw new CouldNotPerformException("Could not identify parameter type. Dropped data...");
+        if (column == null) {
+            throw new CouldNotPerformException("There is no state value of kind " + stateValueType.name() + ".");
         }
-        return triples;
+
+        final ContinuousStateValues continuousStateValues = new ContinuousStateValues(column, column.getFirstRelevantIndex(dateTimeFromMillis),
+                context.getUnitConnectionTimeMilli());
+        return buildAggObsOfContinuousValue(continuousStateValues, stateValueType, context);
     }
 
 //    private HashMap<Triple<Integer, Integer, Integer>, Integer> getAggColorValues(final List<OntStateChangeBuf> hueList
@@ -402,24 +413,29 @@ public class DataAssignation extends DataAggregation {
      * multiple state values like powerState source get the values ON and OFF. Therefore there are multiple aggregated observations, which are set in a loop.
      *
      * @param stateChanges are the discrete state changes.
+     * @param context is the unit and provider service of the state changes.
      * @return a list of triples to insert aggregated observations to the ontology.
      * @throws CouldNotPerformException is thrown in case the input list is empty or the information could not be aggregated.
      * @throws InterruptedException is thrown in case the application was interrupted.
      */
-    private List<RdfTriple> buildAggObsOfDiscreteValues(final List<?> stateChanges) throws CouldNotPerformException, InterruptedException {
+    private List<RdfTriple> buildAggObsOfDiscreteValues(final List<OntAggregatedStateChange> stateChanges, final ServiceContext context) throws CouldNotPerformException, InterruptedException {
 
         if (stateChanges.isEmpty()) {
             throw new CouldNotPerformException("There is no state value. Empty list!");
         }
+        return buildAggObsOfDiscreteValues(new DiscreteStateValues(stateChanges), context);
+    }
 
-        final DiscreteStateValues discreteStateValues;
-
-        if (stateChanges.get(0) instanceof OntStateChangeBuf) {
-            discreteStateValues = new DiscreteStateValues((List<OntStateChangeBuf>) stateChanges, unitConnectionTimeMilli);
-        } else {
-            discreteStateValues = new DiscreteStateValues((List<OntAggregatedStateChange>) stateChanges);
-        }
-
+    /**
+     * Method builds triples to insert aggregated observations based on the input aggregated discrete state values.
+     *
+     * @param discreteStateValues are the aggregated discrete state values.
+     * @param context is the unit and provider service of the state changes.
+     * @return a list of triples to insert aggregated observations to the ontology.
+     * @throws NotAvailableException is thrown in case a literal could not be built.
+     */
+    private List<RdfTriple> buildAggObsOfDiscreteValues(final DiscreteStateValues discreteStateValues, final ServiceContext context)
+            throws NotAvailableException {
         final HashMap<String, Long> activationTimeMap = discreteStateValues.getActiveTimes();
         final HashMap<String, Integer> quantityMap = discreteStateValues.getQuantities();
         final double timeWeighting = discreteStateValues.getUnitTimeWeighting();
@@ -427,19 +443,19 @@ public class DataAssignation extends DataAggregation {
 
         for (final String discreteStateType : activationTimeMap.keySet()) {
             // every aggregated state value has his own aggObs instance! A state source keeps multiple discrete values like a powerState ON and OFF.
-            final String aggObs = getAggObsInstanceName(unitId);
+            final String aggObs = getAggObsInstanceName(context.getUnitId());
             // ontology resources
             triples.add(new RdfTriple(aggObs, OntExpr.IS_A.getName(), OntCl.AGGREGATION_OBSERVATION.getName()));
-            triples.add(new RdfTriple(aggObs, OntProp.UNIT_ID.getName(), unitId));
-            triples.add(new RdfTriple(aggObs, OntProp.PROVIDER_SERVICE.getName(), serviceType));
+            triples.add(new RdfTriple(aggObs, OntProp.UNIT_ID.getName(), context.getUnitId()));
+            triples.add(new RdfTriple(aggObs, OntProp.PROVIDER_SERVICE.getName(), context.getProviderService()));
             triples.add(new RdfTriple(aggObs, OntProp.PERIOD.getName(), discreteStateValues.getNextPeriod().toString().toLowerCase()));
             triples.add(new RdfTriple(aggObs, OntProp.STATE_VALUE.getName(), discreteStateType));
             // ontology literals
             triples.add(new RdfTriple(aggObs, OntProp.QUANTITY.getName(), StringModifier.convertToLiteral(quantityMap.get(discreteStateType), XsdType.INT)));
             triples.add(new RdfTriple(aggObs, OntProp.ACTIVITY_TIME.getName(), StringModifier.convertToLiteral(activationTimeMap.get(discreteStateType), XsdType.LONG)));
             triples.add(new RdfTriple(aggObs, OntProp.TIME_WEIGHTING.getName(), StringModifier.convertToLiteral(timeWeighting, XsdType.DOUBLE)));
-            //TODO optional timestamp...necessary by another aggregation process (time frame)?
-//            triples.add(new RdfTriple(aggObs, OntProp.TIME_STAMP.getName(), StringModifier.convertToLiteral(dateTimeFrom.toString(), XsdType.DATE_TIME)));
+            // the timestamp (beginning of the time frame) is used to select the aggregation observations by the following aggregation and the retention
+            triples.add(new RdfTriple(aggObs, OntProp.TIME_STAMP.getName(), StringModifier.convertToLiteral(dateTimeFrom.toString(), XsdType.DATE_TIME)));
         }
         return triples;
     }
@@ -450,12 +466,13 @@ public class DataAssignation extends DataAggregation {
      *
      * @param stateChanges are the continuous state changes.
      * @param stateValueType is the type of the state changes.
+     * @param context is the unit and provider service of the state changes.
      * @return a list of triples to insert aggregated observations to the ontology.
      * @throws CouldNotPerformException is thrown in case the input list is empty, the stateValueType is discrete or the information could not be aggregated.
      * @throws InterruptedException is thrown in case the application was interrupted.
      */
-    private List<RdfTriple> buildAggObsOfContinuousValue(final List<?> stateChanges, final StateValueType stateValueType)
-            throws CouldNotPerformException, InterruptedException {
+    private List<RdfTriple> buildAggObsOfContinuousValue(final List<OntAggregatedStateChange> stateChanges, final StateValueType stateValueType,
+                                                         final ServiceContext context) throws CouldNotPerformException, InterruptedException {
 
         if (stateValueType.equals(StateValueType.BCO_VALUE)) {
             throw new CouldNotPerformException("Could not perform aggregation of continuous values because the state value type is discrete...!");
@@ -464,21 +481,26 @@ public class DataAssignation extends DataAggregation {
         if (stateChanges.isEmpty()) {
             throw new CouldNotPerformException("There is no state value of kind " + stateValueType.name() + ".");
         }
+        return buildAggObsOfContinuousValue(new ContinuousStateValues(stateChanges), stateValueType, context);
+    }
 
-        final ContinuousStateValues continuousStateValues;
-
-        if (stateChanges.get(0) instanceof OntStateChangeBuf) {
-            continuousStateValues = new ContinuousStateValues((List<OntStateChangeBuf>) stateChanges, unitConnectionTimeMilli);
-        } else {
-            continuousStateValues = new ContinuousStateValues((List<OntAggregatedStateChange>) stateChanges);
-        }
-
-        final String aggObs = getAggObsInstanceName(unitId);
+    /**
+     * Method builds triples to insert an aggregated observation based on the input aggregated continuous state values.
+     *
+     * @param continuousStateValues are the aggregated continuous state values.
+     * @param stateValueType is the type of the state values.
+     * @param context is the unit and provider service of the state changes.
+     * @return a list of triples to insert aggregated observations to the ontology.
+     * @throws NotAvailableException is thrown in case a literal could not be built.
+     */
+    private List<RdfTriple> buildAggObsOfContinuousValue(final ContinuousStateValues continuousStateValues, final StateValueType stateValueType,
+                                                         final ServiceContext context) throws NotAvailableException {
+        final String aggObs = getAggObsInstanceName(context.getUnitId());
         final List<RdfTriple> triples = new ArrayList<>();
         // ontology resources
         triples.add(new RdfTriple(aggObs, OntExpr.IS_A.getName(), OntConfig.OntCl.AGGREGATION_OBSERVATION.getName()));
-        triples.add(new RdfTriple(aggObs, OntProp.UNIT_ID.getName(), unitId));
-        triples.add(new RdfTriple(aggObs, OntProp.PROVIDER_SERVICE.getName(), serviceType));
+        triples.add(new RdfTriple(aggObs, OntProp.UNIT_ID.getName(), context.getUnitId()));
+        triples.add(new RdfTriple(aggObs, OntProp.PROVIDER_SERVICE.getName(), context.getProviderService()));
         triples.add(new RdfTriple(aggObs, OntProp.PERIOD.getName(), continuousStateValues.getNextPeriod().toString().toLowerCase()));
         // ontology literals
         triples.add(new RdfTriple(aggObs, OntProp.STATE_VALUE.getName(), StringModifier.convertToLiteral(stateValueType.name(), XsdType.STRING)));
@@ -487,57 +509,55 @@ public class DataAssignation extends DataAggregation {
         triples.add(new RdfTriple(aggObs, OntProp.STANDARD_DEVIATION.getName(), StringModifier.convertToLiteral(continuousStateValues.getStandardDeviation(), XsdType.DOUBLE)));
         triples.add(new RdfTriple(aggObs, OntProp.QUANTITY.getName(), StringModifier.convertToLiteral(continuousStateValues.getQuantity(), XsdType.INT)));
         triples.add(new RdfTriple(aggObs, OntProp.TIME_WEIGHTING.getName(), StringModifier.convertToLiteral(continuousStateValues.getTimeWeighting(), XsdType.DOUBLE)));
-        //TODO optional timestamp...necessary by another aggregation process (time frame)?
-//        triples.add(new RdfTriple(aggObs, OntProp.TIME_STAMP.getName(), StringModifier.convertToLiteral(dateTimeFrom.toString(), XsdType.DATE_TIME)));
+
+        if (!Double.isNaN(continuousStateValues.getMinimum())) {
+            triples.add(new RdfTriple(aggObs, OntProp.MINIMUM.getName(), StringModifier.convertToLiteral(continuousStateValues.getMinimum(), XsdType.DOUBLE)));
+            triples.add(new RdfTriple(aggObs, OntProp.MAXIMUM.getName(), StringModifier.convertToLiteral(continuousStateValues.getMaximum(), XsdType.DOUBLE)));
+            triples.add(new RdfTriple(aggObs, OntProp.INTEGRAL.getName(), StringModifier.convertToLiteral(continuousStateValues.getIntegral(), XsdType.DOUBLE)));
+        }
+        // the timestamp (beginning of the time frame) is used to select the aggregation observations by the following aggregation and the retention
+        triples.add(new RdfTriple(aggObs, OntProp.TIME_STAMP.getName(), StringModifier.convertToLiteral(dateTimeFrom.toString(), XsdType.DATE_TIME)));
 
         return triples;
     }
 
     /**
-     * Method returns the instance name of the aggregation observation based on the unit id and the current time.
+     * Method returns the instance name of the aggregation observation based on the unit id, the current time and a sequence number.
      *
      * @param unitId is the unit id.
      * @return the instance name of the aggregation observation.
-     * @throws InterruptedException is thrown in case the application was interrupted.
      */
-    private String getAggObsInstanceName(final String unitId) throws InterruptedException {
-        // wait one millisecond to guarantee, that aggregationObservation instances are unique
-        stopwatch.waitForStop(1);
-
+    private String getAggObsInstanceName(final String unitId) {
+        // the sequence number guarantees, that aggregationObservation instances are unique (also if the units are aggregated in parallel)
         final String dateTimeNow = OffsetDateTime.now().toString();
-        return OntPrefix.AGGREGATION_OBSERVATION + unitId + dateTimeNow.substring(0, dateTimeNow.indexOf("+"));
+        return OntPrefix.AGGREGATION_OBSERVATION + unitId + dateTimeNow.substring(0, dateTimeNow.indexOf("+")) + "_" + AGG_OBS_SEQUENCE.incrementAndGet();
     }
 
     /**
-     * Method dismisses all state values, which are not in the time frame (from - until), besides the oldest. Main problem/idea is that the oldest timestamp
-     * before the time frame must be known to keep state value information about the whole time frame. The first (/oldest) timestamp inside the time frame can
-     * be start, maybe, 5 seconds after the start timestamp of aggregation. Without the state value (+ timestamp) before the time frame, the information is
-     * missing.
-     *
-     * @param stateChanges are the state values of an unit.
-     * @return a reduced list with state values, which are relevant for the aggregation time frame.
+     * The unit and provider service, which state changes are aggregated.
      */
-    private List<OntStateChangeBuf> dismissUnusedStateValues(final List<OntStateChangeBuf> stateChanges) {
-        // sort ascending (old to young)
-        stateChanges.sort(Comparator.comparing(OntStateChangeBuf::getTimestamp));
-
-        final List<OntStateChangeBuf> bufDataList = new ArrayList<>();
-        OntStateChangeBuf bufData = null;
-
-        for (final OntStateChangeBuf stateChange : stateChanges) {
-            final long timestampMillis = OffsetDateTime.parse(stateChange.getTimestamp()).toInstant().toEpochMilli();
-
-            if (timestampMillis <= dateTimeFromMillis) {
-                bufData = stateChange;
-            } else {
-                if (bufData != null) {
-                    bufDataList.add(bufData);
-                    bufData = null;
-                }
-                bufDataList.add(stateChange);
-            }
+    private static final class ServiceContext {
+
+        private final String unitId;
+        private final String providerService;
+        private final long unitConnectionTimeMilli;
+
+        private ServiceContext(final String unitId, final String providerService, final long unitConnectionTimeMilli) {
+            this.unitId = unitId;
+            this.providerService = providerService;
+            this.unitConnectionTimeMilli = unitConnectionTimeMilli;
+        }
+
+        private String getUnitId() {
+            return unitId;
         }
-        return bufDataList;
-    }
 
+        private String getProviderService() {
+            return providerService;
+        }
+
+        private long getUnitConnectionTimeMilli() {
+            return unitConnectionTimeMilli;
+        }
+    }
 }
@@ -22,8 +22,9 @@ import org.apache.jena.query.QuerySolution;
 import org.apache.jena.query.ResultSet;
 import org.apache.jena.rdf.model.RDFNode;
 import org.openbase.bco.ontology.lib.commun.web.SparqlHttp;
+import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntObservation;
 import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateChange;
-import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateChangeTypes.*;
+import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntUnitColumns;
 import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntUnitConnectionTimes;
 import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntUnits;
 import org.openbase.bco.ontology.lib.utility.Preconditions;
@@ -32,10 +33,10 @@ import org.openbase.bco.ontology.lib.utility.time.Interval;
 import org.openbase.bco.ontology.lib.utility.StringModifier;
 import org.openbase.bco.ontology.lib.system.config.OntConfig;
 
-import static org.openbase.bco.ontology.lib.system.config.OntConfig.ObservationType.CONTINUOUS;
 import org.openbase.bco.ontology.lib.system.config.OntConfig.XsdType;
 import org.openbase.bco.ontology.lib.system.config.OntConfig.Period;
 import static org.openbase.bco.ontology.lib.system.config.OntConfig.SparqlVariable.*;
+import org.openbase.bco.ontology.lib.utility.sparql.GraphPartitions;
 import org.openbase.bco.ontology.lib.utility.sparql.QueryExpression;
 import org.openbase.jul.exception.CouldNotPerformException;
 import org.openbase.jul.exception.InitializationException;
@@ -44,6 +45,7 @@ import org.openbase.jul.exception.MultiException.ExceptionStack;
 import org.openbase.jul.exception.NotAvailableException;
 
 import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -60,6 +62,13 @@ public class DataProviding {
     private final String dateTimeFrom;
     private final String dateTimeUntil;
     private final Interval interval;
+    private final ZonedDateTime frameBegin;
+    private final ZonedDateTime frameEnd;
+
+    /**
+     * The graph partitions of the observations of the time frame. Is {@code null}, if the observations are stored in the default graph.
+     */
+    private final List<String> observationGraphs;
 
     public DataProviding(final OffsetDateTime dateTimeFrom, final OffsetDateTime dateTimeUntil)
             throws NotAvailableException {
@@ -70,6 +79,9 @@ public class DataProviding {
         this.dateTimeFrom = StringModifier.convertToLiteral(dateTimeFormatFrom, XsdType.DATE_TIME);
         this.dateTimeUntil = StringModifier.convertToLiteral(dateTimeFormatUntil, XsdType.DATE_TIME);
         this.interval = new Interval(dateTimeFrom.toInstant().toEpochMilli(), dateTimeUntil.toInstant().toEpochMilli());
+        this.frameBegin = dateTimeFrom.toZonedDateTime();
+        this.frameEnd = dateTimeUntil.toZonedDateTime();
+        this.observationGraphs = GraphPartitions.getObservationGraphs(frameBegin, frameEnd);
     }
 
     /**
@@ -135,91 +147,165 @@ public class DataProviding {
 
     /**
      * Method selects all observations (without aggregated) from the BCO ontology by query. The result will be
-     * processed and collected into the data structure {@link OntUnits}.
+     * processed and collected into the columnar data structure {@link OntUnitColumns}. Consider {@link #selectObservations(ObservationConsumer)} to
+     * process the observations without collecting the whole history.
      *
-     * @return the data structure {@link OntUnits}.
+     * @return the data structure {@link OntUnitColumns}.
      * @throws InitializationException is thrown in case the BCO ontology isn't reachable or the processing of the
      * result couldn't be done.
      */
-    public OntUnits selectObservations() throws InitializationException {
+    public OntUnitColumns selectObservations() throws InitializationException {
+        final OntUnitColumns ontUnitColumns = new OntUnitColumns();
+
+        try {
+            selectObservations(ontUnitColumns::addOntStateChange);
+        } catch (InterruptedException e) {
+            throw new InitializationException("Couldn't get a result from ontology server via SPARQL query.", e);
+        }
+        return ontUnitColumns;
+    }
+
+    /**
+     * Method selects the observations (without aggregated) of the time frame from the BCO ontology and passes them to the consumer. For each unit the
+     * initial state (latest observation before the time frame of each provider service) is passed first. The observations of the time frame are selected
+     * unit by unit via paginated queries (see {@link OntConfig#SELECT_PAGE_SIZE}), so only one page of the query result is kept in memory.
+     *
+     * @param observationConsumer is the consumer, which gets the observations as they arrive.
+     * @throws InitializationException is thrown in case the BCO ontology isn't reachable or the processing of the
+     * result couldn't be done.
+     * @throws InterruptedException is thrown in case the application is interrupted.
+     */
+    public void selectObservations(final ObservationConsumer observationConsumer) throws InitializationException, InterruptedException {
         try {
-            final OntUnits ontUnits = new OntUnits();
-            final String query = QueryExpression.selectObservations(dateTimeUntil);
             final String url = OntConfig.getOntologyDbUrl();
+
+            for (final String unitId : selectObservedUnits(url)) {
+                selectUnitObservations(unitId, url, observationConsumer);
+                observationConsumer.unitCompleted(unitId);
+            }
+        } catch (ExecutionException e) {
+            throw new InitializationException("Couldn't get a result from ontology server via SPARQL query.", e);
+        } catch (CouldNotPerformException e) {
+            throw new InitializationException("Couldn't dissolve data. At least one parameter is invalid.", e);
+        }
+    }
+
+    private List<String> selectObservedUnits(final String url) throws InterruptedException, ExecutionException, NotAvailableException {
+        final ResultSet resultSet = SparqlHttp.sparqlQuery(QueryExpression.selectObservedUnits(dateTimeUntil, observationGraphs), url, 0);
+        final List<String> unitIds = new ArrayList<>();
+
+        while (resultSet.hasNext()) {
+            unitIds.add(OntNodeHandler.getRDFLocalName(resultSet.nextSolution(), UNIT.getName()));
+        }
+        return unitIds;
+    }
+
+    private void selectUnitObservations(final String unitId, final String url, final ObservationConsumer observationConsumer)
+            throws InterruptedException, ExecutionException, CouldNotPerformException {
+
+        selectInitialObservations(unitId, url, observationConsumer);
+
+        String lastTimestamp = null;
+        String lastObservationUri = null;
+        boolean lastPage = false;
+
+        while (!lastPage) {
+            final String query = QueryExpression.selectObservationPage(unitId, dateTimeFrom, dateTimeUntil, lastTimestamp, lastObservationUri,
+                    OntConfig.SELECT_PAGE_SIZE, observationGraphs);
             final ResultSet resultSet = SparqlHttp.sparqlQuery(query, url, 0);
-//            ResultSetFormatter.out(System.out, resultSet); // Testing
 
-            // thanks to SPARQL mightiness the result entries are sorted by observationId (see SPARQL query). In this
-            // case all state values, belonging to the same state change, are listed one after another. Therefore, same
-            // id means equal state change (e.g. in case of HSB - three values, one state change). Another id means
-            // another state change.
-            final ExceptionStack exceptionStack = new ExceptionStack();
-            String currentObservationId = "";
+            // thanks to the keyset order (timestamp, observation) all state values, belonging to the same state change, are listed one after another.
+            // Therefore, same observation means equal state change (e.g. in case of HSB - three values, one state change).
+            OntObservation pendingObservation = null;
+            String pendingObservationUri = null;
+            boolean consumedObservation = false;
+            int rowCount = 0;
 
             while (resultSet.hasNext()) {
                 final QuerySolution querySolution = resultSet.nextSolution();
+                final String observationUri = querySolution.getResource(OBSERVATION.getName()).getURI();
+                final RDFNode stateValue = Preconditions.checkNotNull(querySolution.get(STATE_VALUE.getName()), "StateValue is null.");
+                rowCount++;
 
-                final String nextObservationId = Preconditions.BiFunction.apply(OntNodeHandler::getRDFLocalName,
-                        querySolution, OBSERVATION.getName(), this, exceptionStack);
-                final String unitId = Preconditions.BiFunction.apply(OntNodeHandler::getRDFLocalName,
-                        querySolution, UNIT.getName(), this, exceptionStack);
-                final String providerService = Preconditions.BiFunction.apply(OntNodeHandler::getRDFLocalName,
-                        querySolution, PROVIDER_SERVICE.getName(), this, exceptionStack);
+                if (observationUri.equals(pendingObservationUri)) {
+                    pendingObservation.addValue(stateValue);
+                    continue;
+                }
 
-                MultiException.checkAndThrow("Invalid parameters or variables in sparql query.", exceptionStack);
+                if (pendingObservation != null) {
+                    consumeObservation(unitId, pendingObservation, observationConsumer);
+                    lastTimestamp = pendingObservation.getTimestamp();
+                    lastObservationUri = pendingObservationUri;
+                    consumedObservation = true;
+                }
 
-                final RDFNode stateValue = querySolution.get(STATE_VALUE.getName());
-                Preconditions.checkNotNull(nextObservationId,"NextObservationId is null.");
+                final String providerService = OntNodeHandler.getRDFLocalName(querySolution, PROVIDER_SERVICE.getName());
+                final String timestamp = OntNodeHandler.getRDFLocalName(querySolution, TIMESTAMP.getName());
+                final List<RDFNode> stateValues = new ArrayList<>();
+                stateValues.add(stateValue);
 
-                // because of SPARQL query command (ORDER BY) the results are sorted by observationId
-                if (nextObservationId.equals(currentObservationId)) {
-                    // the same observationId means the identical observation node or rather state value (e.g. HSB)
-                    addStateValueToStateChange(ontUnits, unitId, providerService, stateValue);
-                } else {
-                    // different observationId means a new/another observation node
-                    final String timestamp = OntNodeHandler.getRDFLocalName(querySolution, TIMESTAMP.getName());
-                    createAndAddOntStateChange(ontUnits, unitId, providerService, timestamp, stateValue);
-                }
-                currentObservationId = nextObservationId;
+                pendingObservation = new OntObservation(providerService, stateValues, timestamp);
+                pendingObservationUri = observationUri;
+            }
+
+            lastPage = rowCount < OntConfig.SELECT_PAGE_SIZE;
+
+            // the last observation of a full page may be incomplete and is selected again by the next page. Only if the page contains one observation
+            // only (more state values than the page size), the observation is consumed anyway to guarantee progress.
+            if (pendingObservation != null && (lastPage || !consumedObservation)) {
+                consumeObservation(unitId, pendingObservation, observationConsumer);
+                lastTimestamp = pendingObservation.getTimestamp();
+                lastObservationUri = pendingObservationUri;
             }
-            return ontUnits;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new InitializationException("Couldn't get a result from ontology server via SPARQL query.", e);
-        } catch (CouldNotPerformException e) {
-            throw new InitializationException("Couldn't dissolve data. At least one parameter is invalid.", e);
         }
     }
 
-    private void addStateValueToStateChange(final OntUnits ontUnits, final String unitId, final String providerService,
-                                            final RDFNode stateValue) throws CouldNotPerformException {
+    private void selectInitialObservations(final String unitId, final String url, final ObservationConsumer observationConsumer)
+            throws InterruptedException, ExecutionException, CouldNotPerformException {
+        final ResultSet resultSet = SparqlHttp.sparqlQuery(QueryExpression.selectInitialObservations(unitId, dateTimeFrom, observationGraphs), url, 0);
+        OntObservation pendingObservation = null;
+        String pendingObservationUri = null;
 
-        final List<OntStateChange> stateChanges =
-                ontUnits.getOntProviderServices(unitId).getOntStateChanges(providerService);
-        final OntStateChange ontStateChange = stateChanges.get(stateChanges.size() - 1);
+        while (resultSet.hasNext()) {
+            final QuerySolution querySolution = resultSet.nextSolution();
+            final String observationUri = querySolution.getResource(OBSERVATION.getName()).getURI();
+            final RDFNode stateValue = Preconditions.checkNotNull(querySolution.get(STATE_VALUE.getName()), "StateValue is null.");
 
-        if (ontStateChange.getObservationType().equals(CONTINUOUS)) {
-            // add state value to last cycle
-            ((Continuous) ontUnits.getOntProviderServices(unitId).getOntStateChanges(providerService)
-                    .get(stateChanges.size() - 1).getOntStateChange()).addStateValue(stateValue);
-        } else {
-            throw new CouldNotPerformException("Latest result entry has same observationId but different "
-                    + "observation type. Should be continuous.class. Maybe SPARQL query wrong (no SORT BY)?");
+            if (observationUri.equals(pendingObservationUri)) {
+                pendingObservation.addValue(stateValue);
+                continue;
+            }
+
+            if (pendingObservation != null) {
+                consumeObservation(unitId, pendingObservation, observationConsumer);
+            }
+
+            final List<RDFNode> stateValues = new ArrayList<>();
+            stateValues.add(stateValue);
+
+            pendingObservation = new OntObservation(OntNodeHandler.getRDFLocalName(querySolution, PROVIDER_SERVICE.getName()), stateValues,
+                    OntNodeHandler.getRDFLocalName(querySolution, TIMESTAMP.getName()));
+            pendingObservationUri = observationUri;
+        }
+
+        if (pendingObservation != null) {
+            consumeObservation(unitId, pendingObservation, observationConsumer);
         }
     }
 
-    private void createAndAddOntStateChange(final OntUnits ontUnits, final String unitId,
-                                            final String providerService, final String timestamp,
-                                            final RDFNode stateValue) throws CouldNotPerformException {
-        if (stateValue.isLiteral()) {
-            final List<RDFNode> stateValues = new ArrayList<RDFNode>() {{add(stateValue);}};
-            final OntStateChange ontStateChange = OntStateChange.asContinuous(timestamp, stateValues);
+    private void consumeObservation(final String unitId, final OntObservation ontObservation, final ObservationConsumer observationConsumer)
+            throws CouldNotPerformException, InterruptedException {
+        final List<RDFNode> stateValues = ontObservation.getStateValues();
+        final OntStateChange ontStateChange;
 
-            ontUnits.addOntProviderService(unitId, providerService, ontStateChange);
+        if (stateValues.get(0).isLiteral()) {
+            ontStateChange = OntStateChange.asContinuous(ontObservation.getTimestamp(), stateValues);
+        } else if (stateValues.size() == 1) {
+            ontStateChange = OntStateChange.asDiscrete(ontObservation.getTimestamp(), stateValues.get(0));
         } else {
-            final OntStateChange ontStateChange = OntStateChange.asDiscrete(timestamp, stateValue);
-
-            ontUnits.addOntProviderService(unitId, providerService, ontStateChange);
+            throw new CouldNotPerformException("Observation has multiple state values but discrete observation type. Should be continuous.class.");
         }
+        observationConsumer.consume(unitId, ontObservation.getProviderService(), ontStateChange);
     }
 
     /**
@@ -241,7 +327,8 @@ public class DataProviding {
             //### Testing ###//
 
             final String periodName = period.getName();
-            final String query = QueryExpression.selectAggregatedObservations(periodName, dateTimeFrom, dateTimeUntil);
+            final List<String> graphs = GraphPartitions.getAggregationGraphs(periodName, frameBegin, frameEnd);
+            final String query = QueryExpression.selectAggregatedObservations(periodName, dateTimeFrom, dateTimeUntil, graphs);
             final String url = OntConfig.getOntologyDbUrl();
             final ResultSet resultSet = SparqlHttp.sparqlQuery(query, url, 0);
             ExceptionStack exceptionStack = new ExceptionStack();
@@ -277,6 +364,8 @@ public class DataProviding {
             return ontUnits;
         } catch (InterruptedException | ExecutionException e) {
             throw new InitializationException("Couldn't get a result from ontology server via SPARQL query.", e);
+        } catch (NotAvailableException e) {
+            throw new InitializationException("Couldn't identify the graph partitions of the time frame.", e);
         } catch (MultiException e) {
             throw new InitializationException("Couldn't dissolve data. At least one parameter is invalid.", e);
         }
@@ -297,8 +386,13 @@ public class DataProviding {
         // depend on the classification the aggregated values shouldn't be null
         MultiException.checkAndThrow("Invalid parameters or variables in sparql query.", exceptionStack);
 
+        // the extrema and the integral are optional, because older aggregation observations don't contain them
+        final String minimum = getOptionalLocalName(querySolution, MINIMUM.getName());
+        final String maximum = getOptionalLocalName(querySolution, MAXIMUM.getName());
+        final String integral = getOptionalLocalName(querySolution, INTEGRAL.getName());
+
         final OntStateChange ontStateChange = OntStateChange.asAggregatedContinuous(mean, variance, standardDeviation,
-                timeWeighting, quantity, stateValue);
+                timeWeighting, quantity, stateValue, minimum, maximum, integral);
 
         // insert collected information
         ontUnits.addOntProviderService(unitId, providerService, ontStateChange);
@@ -322,4 +416,9 @@ public class DataProviding {
         ontUnits.addOntProviderService(unitId, providerService, ontStateChange);
     }
 
+    private String getOptionalLocalName(final QuerySolution querySolution, final String name) {
+        return (querySolution.get(name) == null) ? null : Preconditions.BiFunction.apply(OntNodeHandler::getRDFLocalName,
+                querySolution, name, this, null);
+    }
+
 }
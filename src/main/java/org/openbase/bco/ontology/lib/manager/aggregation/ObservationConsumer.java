@@ -0,0 +1,54 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.manager.aggregation;
+
+import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateChange;
+import org.openbase.jul.exception.CouldNotPerformException;
+
+/**
+ * Consumer of the observations, which are streamed by {@link DataProviding#selectObservations(ObservationConsumer)}. The observations are passed unit by
+ * unit. The observations of one unit are passed in order of their timestamps and the unit is completed, before the observations of the next unit are
+ * passed.
+ *
+ * @author agent on 18.10.26.
+ */
+public interface ObservationConsumer {
+
+    /**
+     * Method consumes an observation (state change) of the unit.
+     *
+     * @param unitId is the id of the unit.
+     * @param providerService is the provider service of the observation.
+     * @param ontStateChange is the state change of the observation.
+     * @throws CouldNotPerformException is thrown in case the observation could not be consumed.
+     * @throws InterruptedException is thrown in case the application is interrupted.
+     */
+    void consume(final String unitId, final String providerService, final OntStateChange ontStateChange) throws CouldNotPerformException,
+            InterruptedException;
+
+    /**
+     * Method is called after all observations of the unit are consumed.
+     *
+     * @param unitId is the id of the unit.
+     * @throws CouldNotPerformException is thrown in case the unit could not be completed.
+     * @throws InterruptedException is thrown in case the application is interrupted.
+     */
+    default void unitCompleted(final String unitId) throws CouldNotPerformException, InterruptedException {
+    }
+}
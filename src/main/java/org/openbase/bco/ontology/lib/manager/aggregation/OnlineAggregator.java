@@ -0,0 +1,502 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.manager.aggregation;
+
+import org.apache.commons.math3.util.FastMath;
+import org.openbase.bco.ontology.lib.commun.web.SparqlHttp;
+import org.openbase.bco.ontology.lib.manager.abox.observation.StateSourceBuffer;
+import org.openbase.bco.ontology.lib.system.config.OntConfig;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.AggregationWeighting;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.OntCl;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.OntExpr;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.OntPrefix;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.OntProp;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.StateValueType;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.XsdType;
+import org.openbase.bco.ontology.lib.utility.StringModifier;
+import org.openbase.bco.ontology.lib.utility.sparql.GraphPartitions;
+import org.openbase.bco.ontology.lib.utility.sparql.RdfTriple;
+import org.openbase.bco.ontology.lib.utility.sparql.SparqlUpdateExpression;
+import org.openbase.bco.ontology.lib.utility.time.CalendarPeriods;
+import org.openbase.jul.exception.CouldNotPerformException;
+import org.openbase.jul.exception.NotAvailableException;
+import org.openbase.jul.exception.printer.ExceptionPrinter;
+import org.openbase.jul.exception.printer.LogLevel;
+import org.openbase.jul.schedule.GlobalScheduledExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class aggregates the state changes online, means while they are observed. For each unit and provider service the metadata of the current period (hour
+ * or day, see {@link OntConfig#getOnlineAggregationPeriod()}) are kept in running accumulators: the active time and quantity of each discrete state value
+ * and the statistics (see {@link StatisticsAccumulator} and {@link TimeWeightedStatistics}) of each continuous state value. If the period is closed, by a
+ * state change of a following period or by the periodic check of the system time, the aggregation observations of the period are queued and uploaded
+ * by the periodic check. In contrast to the batch aggregation, the observations must not be read back from the ontology server.
+ *
+ * The aggregation of a greater period, which is based on the online aggregation observations, must flush the online aggregation synchronously before (see
+ * {@link #flushPeriods(long)}). Otherwise the last period could be closed after the greater period is aggregated and is not part of it.
+ *
+ * The last state value of a period is carried into the next period, so that the state at the beginning of the period is known. The time weighting is the
+ * ratio of the time, in which the state value was known, and the period length. The accumulators of the open period are kept in memory only.
+ *
+ * @author agent on 18.10.26.
+ */
+public final class OnlineAggregator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OnlineAggregator.class);
+
+    /**
+     * Period of the check, which closes the periods of provider services without state changes.
+     */
+    private static final long CLOSE_CHECK_PERIOD_SECONDS = 60;
+
+    /**
+     * Sequence number, which guarantees unique aggregationObservation instances.
+     */
+    private static final AtomicLong AGG_OBS_SEQUENCE = new AtomicLong();
+
+    /**
+     * Accumulators of the current period for each provider service of an unit (key: unit id + provider service).
+     */
+    private static final ConcurrentHashMap<String, ServiceAccumulator> SERVICE_ACCUMULATORS = new ConcurrentHashMap<>();
+
+    /**
+     * Sparql updates of the aggregation observations of closed periods, which are not uploaded so far. The updates are kept until they are uploaded.
+     */
+    private static final Queue<String> CLOSED_PERIOD_UPDATES = new ConcurrentLinkedQueue<>();
+
+    static {
+        try {
+            GlobalScheduledExecutorService.scheduleWithFixedDelay(() -> {
+                try {
+                    flushPeriods(System.currentTimeMillis());
+                } catch (CouldNotPerformException ex) {
+                    ExceptionPrinter.printHistory("Could not upload online aggregation observations. Retry later.", ex, LOGGER, LogLevel.WARN);
+                }
+            }, CLOSE_CHECK_PERIOD_SECONDS, CLOSE_CHECK_PERIOD_SECONDS, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException | IllegalArgumentException | CouldNotPerformException ex) {
+            ExceptionPrinter.printHistory("Could not start period check of online aggregation!", ex, LOGGER, LogLevel.ERROR);
+        }
+    }
+
+    private OnlineAggregator() {
+    }
+
+    /**
+     * Method adds the state sources of a state change to the accumulators of the unit and provider service. If the state change belongs to a following
+     * period, the current period is closed and the resulting aggregation observations are queued for the upload. State changes of an already closed period
+     * are dropped.
+     *
+     * @param unitId is the id of the unit.
+     * @param providerService is the provider service of the state change in ontology string form.
+     * @param timestampMilliS is the timestamp of the state change in epoch milliseconds.
+     * @param stateSources are the state sources of the state change. Literals, which are no numbers (e.g. strings), are ignored.
+     * @throws NotAvailableException is thrown in case the name of a discrete state value could not be built.
+     */
+    public static void addStateSources(final String unitId, final String providerService, final long timestampMilliS, final StateSourceBuffer stateSources)
+            throws NotAvailableException {
+        final ServiceAccumulator serviceAccumulator = SERVICE_ACCUMULATORS
+                .computeIfAbsent(unitId + providerService, key -> new ServiceAccumulator(unitId, providerService));
+
+        synchronized (serviceAccumulator) {
+            queue(serviceAccumulator.add(timestampMilliS, stateSources));
+        }
+    }
+
+    /**
+     * Method closes all periods, which are ended at the input time, and uploads the aggregation observations of all closed periods synchronously. If the
+     * method returns, the online aggregation observations of all periods, which end before/equal the input time, are stored on the ontology server.
+     *
+     * @param timestampMilliS is the time in epoch milliseconds (e.g. the end of the day, which is aggregated from the online aggregation observations).
+     * @throws CouldNotPerformException is thrown in case the aggregation observations could not be uploaded. They are kept and uploaded by the next trial.
+     */
+    public static void flushPeriods(final long timestampMilliS) throws CouldNotPerformException {
+        for (final ServiceAccumulator serviceAccumulator : SERVICE_ACCUMULATORS.values()) {
+            try {
+                synchronized (serviceAccumulator) {
+                    queue(serviceAccumulator.closePeriods(timestampMilliS));
+                }
+            } catch (NotAvailableException ex) {
+                ExceptionPrinter.printHistory("Could not close period of online aggregation.", ex, LOGGER, LogLevel.ERROR);
+            }
+        }
+        uploadClosedPeriods();
+    }
+
+    /**
+     * Method queues the triples of the closed periods for the upload. The updates are queued under the lock of the service accumulator, so that the order
+     * of the periods is kept for each provider service.
+     *
+     * @param graphTriples are the triples of the aggregation observations mapped by their graph (see {@link GraphPartitions}). The {@code null} key
+     * describes the default graph.
+     * @throws NotAvailableException is thrown in case the sparql update could not be built.
+     */
+    private static void queue(final Map<String, List<RdfTriple>> graphTriples) throws NotAvailableException {
+        for (final Entry<String, List<RdfTriple>> entry : graphTriples.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                CLOSED_PERIOD_UPDATES.add(SparqlUpdateExpression.getSparqlInsertExpression(entry.getKey(), entry.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Method uploads the queued aggregation observations in order. An update is removed from the queue after it is uploaded, so that it is retried after
+     * a connection or server error.
+     *
+     * @throws CouldNotPerformException is thrown in case the ontology server could not be reached.
+     */
+    private static synchronized void uploadClosedPeriods() throws CouldNotPerformException {
+        String update;
+
+        while ((update = CLOSED_PERIOD_UPDATES.peek()) != null) {
+            try {
+                SparqlHttp.uploadSparqlRequest(update, OntConfig.getOntologyDbUrl());
+            } catch (IOException ex) {
+                throw new CouldNotPerformException("Could not upload " + CLOSED_PERIOD_UPDATES.size() + " queued online aggregation updates!", ex);
+            } catch (CouldNotPerformException ex) {
+                // client error - the update is bad. It is dropped, otherwise it blocks the following updates
+                ExceptionPrinter.printHistory("Dropped bad online aggregation update! SPARQL String: " + update, ex, LOGGER, LogLevel.ERROR);
+            }
+            CLOSED_PERIOD_UPDATES.poll();
+        }
+    }
+
+    /**
+     * Method returns the beginning of the period (see {@link CalendarPeriods}), which contains the input timestamp.
+     *
+     * @param timestampMilliS is the timestamp in epoch milliseconds.
+     * @return the beginning of the period in epoch milliseconds.
+     * @throws NotAvailableException is thrown in case the period could not be aligned to the calendar.
+     */
+    private static long getPeriodBeginMilliS(final long timestampMilliS) throws NotAvailableException {
+        final ZonedDateTime dateTime = Instant.ofEpochMilli(timestampMilliS).atZone(OntConfig.getAggregationTimeZone());
+        return CalendarPeriods.getPeriodBegin(dateTime, OntConfig.getOnlineAggregationPeriod()).toInstant().toEpochMilli();
+    }
+
+    private static long getPeriodEndMilliS(final long periodBeginMilliS) throws NotAvailableException {
+        final ZonedDateTime periodBegin = Instant.ofEpochMilli(periodBeginMilliS).atZone(OntConfig.getAggregationTimeZone());
+        return CalendarPeriods.getPeriodEnd(periodBegin, OntConfig.getOnlineAggregationPeriod()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Method identifies the type of a continuous state value based on the datatype of the literal (e.g. NS:Hue or xsd:double).
+     *
+     * @param datatype is the datatype of the literal.
+     * @return the state value type or {@code null}, if the datatype is not numeric (e.g. xsd:string).
+     */
+    private static StateValueType getStateValueType(final String datatype) {
+        try {
+            return StateValueType.valueOf(datatype.substring(datatype.indexOf(':') + 1).toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Accumulators of the state values of one provider service of an unit. The accumulators are indexed by the position of the state value in the
+     * {@link StateSourceBuffer}. The class is not thread-safe.
+     */
+    private static final class ServiceAccumulator {
+
+        private final String unitId;
+        private final String providerService;
+        private ValueAccumulator[] valueAccumulators;
+        private boolean periodOpen;
+        private long periodBeginMilliS;
+        private long periodEndMilliS;
+
+        private ServiceAccumulator(final String unitId, final String providerService) {
+            this.unitId = unitId;
+            this.providerService = providerService;
+            this.valueAccumulators = new ValueAccumulator[0];
+            this.periodOpen = false;
+        }
+
+        private Map<String, List<RdfTriple>> add(final long timestampMilliS, final StateSourceBuffer stateSources) throws NotAvailableException {
+            final Map<String, List<RdfTriple>> graphTriples;
+
+            if (periodOpen) {
+                graphTriples = closePeriods(timestampMilliS);
+            } else {
+                graphTriples = new HashMap<>();
+                periodBeginMilliS = getPeriodBeginMilliS(timestampMilliS);
+                periodEndMilliS = getPeriodEndMilliS(periodBeginMilliS);
+                periodOpen = true;
+            }
+
+            if (timestampMilliS < periodBeginMilliS) {
+                LOGGER.debug("Dropped state change of " + unitId + " " + providerService + ", because the period of the state change is already closed.");
+                return graphTriples;
+            }
+
+            for (int source = 0; source < stateSources.getSourceCount(); source++) {
+                for (int index = stateSources.getValueStart(source); index < stateSources.getValueEnd(source); index++) {
+                    final String stateValue = stateSources.getStateValue(index);
+
+                    if (index >= valueAccumulators.length) {
+                        valueAccumulators = Arrays.copyOf(valueAccumulators, index + 1);
+                    }
+
+                    if (!stateSources.isLiteral(source)) {
+                        if (!(valueAccumulators[index] instanceof DiscreteAccumulator)) {
+                            valueAccumulators[index] = new DiscreteAccumulator();
+                        }
+                        // naming convention of the ontology like the observations (e.g. ON to on)
+                        final String stateValueName = StringModifier.firstCharToLowerCase(StringModifier.getCamelCaseName(stateValue));
+                        ((DiscreteAccumulator) valueAccumulators[index]).add(timestampMilliS, stateValueName, periodBeginMilliS);
+                        continue;
+                    }
+
+                    // literal has the form "value"^^prefix:datatype
+                    final int datatypeIndex = stateValue.lastIndexOf("\"^^");
+                    final StateValueType stateValueType = (datatypeIndex > 0) ? getStateValueType(stateValue.substring(datatypeIndex + 3)) : null;
+
+                    if (stateValueType == null) {
+                        continue; // not a continuous state value
+                    }
+
+                    final double value;
+                    try {
+                        value = Double.parseDouble(stateValue.substring(1, datatypeIndex));
+                    } catch (NumberFormatException ex) {
+                        continue;
+                    }
+
+                    if (!(valueAccumulators[index] instanceof ContinuousAccumulator)
+                            || ((ContinuousAccumulator) valueAccumulators[index]).stateValueType != stateValueType) {
+                        valueAccumulators[index] = new ContinuousAccumulator(stateValueType);
+                    }
+                    ((ContinuousAccumulator) valueAccumulators[index]).add(timestampMilliS, value, periodBeginMilliS);
+                }
+            }
+            return graphTriples;
+        }
+
+        private Map<String, List<RdfTriple>> closePeriods(final long timestampMilliS) throws NotAvailableException {
+            final Map<String, List<RdfTriple>> graphTriples = new HashMap<>();
+
+            // periods without state changes are closed too, because the carried state value is valid the whole period
+            while (periodOpen && timestampMilliS >= periodEndMilliS) {
+                final String graph = GraphPartitions.getAggregationGraph(OntConfig.getOnlineAggregationPeriod().getName(), periodBeginMilliS);
+                final List<RdfTriple> triples = graphTriples.computeIfAbsent(graph, key -> new ArrayList<>());
+
+                for (final ValueAccumulator valueAccumulator : valueAccumulators) {
+                    if (valueAccumulator != null) {
+                        valueAccumulator.closePeriod(this, triples);
+                    }
+                }
+                periodBeginMilliS = periodEndMilliS;
+                periodEndMilliS = getPeriodEndMilliS(periodBeginMilliS);
+            }
+            return graphTriples;
+        }
+
+        /**
+         * Method adds the triples of a new aggregation observation, which are independent of the state value, and returns the instance name.
+         *
+         * @param triples is the list to add the triples.
+         * @param firstTimestampMilliS is the timestamp of the first known state value in epoch milliseconds.
+         * @return the instance name of the aggregation observation.
+         * @throws NotAvailableException is thrown in case a literal could not be built.
+         */
+        private String addAggObs(final List<RdfTriple> triples, final long firstTimestampMilliS) throws NotAvailableException {
+            final String aggObs = OntPrefix.AGGREGATION_OBSERVATION.getName() + unitId + "_" + periodBeginMilliS + "_" + AGG_OBS_SEQUENCE.incrementAndGet();
+            final long knownTimeMilliS = periodEndMilliS - FastMath.max(firstTimestampMilliS, periodBeginMilliS);
+            final double timeWeighting = Double.parseDouble(OntConfig.decimalFormat().format((double) knownTimeMilliS / (periodEndMilliS - periodBeginMilliS)));
+            final String periodBegin = OffsetDateTime.ofInstant(Instant.ofEpochMilli(periodBeginMilliS), OntConfig.getAggregationTimeZone()).toString();
+
+            triples.add(new RdfTriple(aggObs, OntExpr.IS_A.getName(), OntCl.AGGREGATION_OBSERVATION.getName()));
+            triples.add(new RdfTriple(aggObs, OntProp.UNIT_ID.getName(), unitId));
+            triples.add(new RdfTriple(aggObs, OntProp.PROVIDER_SERVICE.getName(), providerService));
+            triples.add(new RdfTriple(aggObs, OntProp.PERIOD.getName(), OntConfig.getOnlineAggregationPeriod().getName()));
+            triples.add(new RdfTriple(aggObs, OntProp.TIME_WEIGHTING.getName(), StringModifier.convertToLiteral(timeWeighting, XsdType.DOUBLE)));
+            triples.add(new RdfTriple(aggObs, OntProp.TIME_STAMP.getName(), StringModifier.convertToLiteral(periodBegin, XsdType.DATE_TIME)));
+            return aggObs;
+        }
+    }
+
+    /**
+     * Accumulator of one state value of a provider service.
+     */
+    private abstract static class ValueAccumulator {
+
+        /**
+         * Timestamp of the first state change in epoch milliseconds. Is the beginning of the time, in which the state value is known.
+         */
+        protected long firstTimestampMilliS;
+
+        /**
+         * Timestamp of the last state change in epoch milliseconds.
+         */
+        protected long lastTimestampMilliS;
+
+        /**
+         * Method returns the duration between the last state change (or the beginning of the period) and the input timestamp.
+         *
+         * @param timestampMilliS is the timestamp in epoch milliseconds.
+         * @param periodBeginMilliS is the beginning of the current period in epoch milliseconds.
+         * @return the duration in milliseconds, which is zero for state changes out of order.
+         */
+        protected long getDurationMilliS(final long timestampMilliS, final long periodBeginMilliS) {
+            return FastMath.max(0, timestampMilliS - FastMath.max(lastTimestampMilliS, periodBeginMilliS));
+        }
+
+        /**
+         * Method closes the current period: the triples of the aggregation observation(s) are added and the accumulator is reset, whereby the last state value
+         * is carried into the next period.
+         *
+         * @param serviceAccumulator is the accumulator of the provider service, which contains the current period.
+         * @param triples is the list to add the triples.
+         * @throws NotAvailableException is thrown in case a literal could not be built.
+         */
+        protected abstract void closePeriod(final ServiceAccumulator serviceAccumulator, final List<RdfTriple> triples) throws NotAvailableException;
+    }
+
+    /**
+     * Accumulator of a discrete state value (e.g. ON, OFF, ...).
+     */
+    private static final class DiscreteAccumulator extends ValueAccumulator {
+
+        // the active time in milliseconds (index 0) and the quantity of activation (index 1) for each state value (e.g. on)
+        private final HashMap<String, long[]> metadata = new HashMap<>();
+        private String lastStateValue;
+        private int stateChangeCount;
+
+        private void add(final long timestampMilliS, final String stateValue, final long periodBeginMilliS) {
+            if (lastStateValue == null) {
+                firstTimestampMilliS = timestampMilliS;
+            } else {
+                metadata.get(lastStateValue)[0] += getDurationMilliS(timestampMilliS, periodBeginMilliS);
+            }
+            metadata.computeIfAbsent(stateValue, key -> new long[2])[1]++;
+            stateChangeCount++;
+            lastStateValue = stateValue;
+            lastTimestampMilliS = FastMath.max(lastTimestampMilliS, timestampMilliS);
+        }
+
+        @Override
+        protected void closePeriod(final ServiceAccumulator serviceAccumulator, final List<RdfTriple> triples) throws NotAvailableException {
+            if (lastStateValue == null) {
+                return;
+            }
+            metadata.get(lastStateValue)[0] += getDurationMilliS(serviceAccumulator.periodEndMilliS, serviceAccumulator.periodBeginMilliS);
+
+            if (stateChangeCount == 0) {
+                // no state change in the period. The carried state value is an old state change so that quantity is zero
+                metadata.get(lastStateValue)[1] = 0;
+            }
+
+            for (final Entry<String, long[]> entry : metadata.entrySet()) {
+                final String aggObs = serviceAccumulator.addAggObs(triples, firstTimestampMilliS);
+
+                triples.add(new RdfTriple(aggObs, OntProp.STATE_VALUE.getName(), entry.getKey()));
+                triples.add(new RdfTriple(aggObs, OntProp.QUANTITY.getName(), StringModifier.convertToLiteral((int) entry.getValue()[1], XsdType.INT)));
+                triples.add(new RdfTriple(aggObs, OntProp.ACTIVITY_TIME.getName(), StringModifier.convertToLiteral(entry.getValue()[0], XsdType.LONG)));
+            }
+
+            metadata.clear();
+            metadata.put(lastStateValue, new long[]{0, 1});
+            stateChangeCount = 0;
+        }
+    }
+
+    /**
+     * Accumulator of a continuous state value (e.g. hue, temperature, ...).
+     */
+    private static final class ContinuousAccumulator extends ValueAccumulator {
+
+        private final StateValueType stateValueType;
+        private StatisticsAccumulator sampleStatistics;
+        private TimeWeightedStatistics timeWeightedStatistics;
+        private double lastValue;
+
+        private ContinuousAccumulator(final StateValueType stateValueType) {
+            this.stateValueType = stateValueType;
+            this.sampleStatistics = new StatisticsAccumulator();
+            this.timeWeightedStatistics = new TimeWeightedStatistics();
+            this.lastValue = Double.NaN;
+        }
+
+        private void add(final long timestampMilliS, final double value, final long periodBeginMilliS) {
+            if (Double.isNaN(lastValue)) {
+                firstTimestampMilliS = timestampMilliS;
+            } else {
+                timeWeightedStatistics.add(lastValue, getDurationMilliS(timestampMilliS, periodBeginMilliS));
+            }
+            sampleStatistics.add(value);
+            lastValue = value;
+            lastTimestampMilliS = FastMath.max(lastTimestampMilliS, timestampMilliS);
+        }
+
+        @Override
+        protected void closePeriod(final ServiceAccumulator serviceAccumulator, final List<RdfTriple> triples) throws NotAvailableException {
+            if (Double.isNaN(lastValue)) {
+                return;
+            }
+            timeWeightedStatistics.add(lastValue, getDurationMilliS(serviceAccumulator.periodEndMilliS, serviceAccumulator.periodBeginMilliS));
+
+            final double mean;
+            final double variance;
+            final double standardDeviation;
+
+            if (OntConfig.getAggregationWeighting() == AggregationWeighting.TIME && timeWeightedStatistics.getTotalTimeMilliS() > 0) {
+                mean = timeWeightedStatistics.getMean();
+                variance = timeWeightedStatistics.getVariance();
+                standardDeviation = timeWeightedStatistics.getStandardDeviation();
+            } else {
+                mean = sampleStatistics.getMean();
+                variance = sampleStatistics.getVariance();
+                standardDeviation = sampleStatistics.getStandardDeviation();
+            }
+
+            final String aggObs = serviceAccumulator.addAggObs(triples, firstTimestampMilliS);
+
+            triples.add(new RdfTriple(aggObs, OntProp.STATE_VALUE.getName(), StringModifier.convertToLiteral(stateValueType.name(), XsdType.STRING)));
+            triples.add(new RdfTriple(aggObs, OntProp.MEAN.getName(), StringModifier.convertToLiteral(mean, XsdType.DOUBLE)));
+            triples.add(new RdfTriple(aggObs, OntProp.VARIANCE.getName(), StringModifier.convertToLiteral(variance, XsdType.DOUBLE)));
+            triples.add(new RdfTriple(aggObs, OntProp.STANDARD_DEVIATION.getName(), StringModifier.convertToLiteral(standardDeviation, XsdType.DOUBLE)));
+            triples.add(new RdfTriple(aggObs, OntProp.QUANTITY.getName(), StringModifier.convertToLiteral((int) sampleStatistics.getQuantity(), XsdType.INT)));
+            triples.add(new RdfTriple(aggObs, OntProp.MINIMUM.getName(), StringModifier.convertToLiteral(timeWeightedStatistics.getMinimum(), XsdType.DOUBLE)));
+            triples.add(new RdfTriple(aggObs, OntProp.MAXIMUM.getName(), StringModifier.convertToLiteral(timeWeightedStatistics.getMaximum(), XsdType.DOUBLE)));
+            triples.add(new RdfTriple(aggObs, OntProp.INTEGRAL.getName(), StringModifier.convertToLiteral(timeWeightedStatistics.getIntegral(), XsdType.DOUBLE)));
+
+            // the last state value is carried into the next period like the state change before the time frame of the batch aggregation
+            sampleStatistics = new StatisticsAccumulator();
+            sampleStatistics.add(lastValue);
+            timeWeightedStatistics = new TimeWeightedStatistics();
+        }
+    }
+}
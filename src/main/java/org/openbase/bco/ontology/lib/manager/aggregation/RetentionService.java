@@ -0,0 +1,340 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.manager.aggregation;
+
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Resource;
+import org.openbase.bco.ontology.lib.commun.web.SparqlHttp;
+import org.openbase.bco.ontology.lib.system.config.OntConfig;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.Period;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.XsdType;
+import org.openbase.bco.ontology.lib.utility.StringModifier;
+import org.openbase.bco.ontology.lib.utility.sparql.GraphPartitions;
+import org.openbase.bco.ontology.lib.utility.sparql.QueryExpression;
+import org.openbase.bco.ontology.lib.utility.sparql.SparqlUpdateExpression;
+import org.openbase.bco.ontology.lib.utility.time.CalendarPeriods;
+import org.openbase.bco.ontology.lib.utility.time.TimestampCodec;
+import org.openbase.jul.exception.CouldNotPerformException;
+import org.openbase.jul.exception.InitializationException;
+import org.openbase.jul.exception.NotAvailableException;
+import org.openbase.jul.exception.printer.ExceptionPrinter;
+import org.openbase.jul.exception.printer.LogLevel;
+import org.openbase.jul.schedule.GlobalScheduledExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class deletes the data of a period, if they are older than the retention window of the period (see {@link OntConfig#getRetentionWindow(Period)}) and
+ * their aggregation to the next greater period is confirmed. Confirmed means, that the aggregation period is completed by the {@link AggregationScheduler}
+ * and the aggregation observations are stored on the ontology server. The period hour describes the raw data (observations, connection phases and
+ * heartbeat phases) and the hour aggregation observations of the online aggregation, which are aggregated to days. The data are deleted in chunks of {@link OntConfig#getRetentionChunkSize()} instances, so that each
+ * sparql update is bounded. If the graph partitions are enabled (see {@link GraphPartitions}), the observations and aggregation observations are dropped
+ * graph by graph instead. The number of reclaimed triples is logged.
+ *
+ * @author agent on 18.10.26.
+ */
+public class RetentionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetentionService.class);
+
+    /**
+     * Period of the retention runs.
+     */
+    private static final long RETENTION_PERIOD_MINUTES = 60;
+
+    private final AggregationScheduler aggregationScheduler;
+    private Future future;
+
+    /**
+     * Constructor initializes the retention service, which runs periodically.
+     *
+     * @param aggregationScheduler is the scheduler, which confirms the completed aggregation periods.
+     * @throws InitializationException is thrown in case the retention could not be scheduled.
+     */
+    public RetentionService(final AggregationScheduler aggregationScheduler) throws InitializationException {
+        this.aggregationScheduler = aggregationScheduler;
+
+        try {
+            future = GlobalScheduledExecutorService.scheduleWithFixedDelay(() -> {
+                try {
+                    reclaim();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }, RETENTION_PERIOD_MINUTES, RETENTION_PERIOD_MINUTES, TimeUnit.MINUTES);
+        } catch (RejectedExecutionException | IllegalArgumentException | CouldNotPerformException ex) {
+            throw new InitializationException(this, ex);
+        }
+    }
+
+    /**
+     * Method stops the periodic retention runs. A running retention is completed.
+     */
+    public void shutdown() {
+        future.cancel(false);
+    }
+
+    /**
+     * Method deletes the expired data of all periods, which have a retention window.
+     *
+     * @return the number of reclaimed triples.
+     * @throws InterruptedException is thrown in case the application was interrupted.
+     */
+    public long reclaim() throws InterruptedException {
+        long reclaimedTriples = 0;
+
+        for (final Period period : Period.values()) {
+            final Duration retentionWindow = OntConfig.getRetentionWindow(period);
+
+            if (retentionWindow == null) {
+                continue;
+            }
+
+            try {
+                reclaimedTriples += reclaim(period, retentionWindow);
+            } catch (CouldNotPerformException ex) {
+                ExceptionPrinter.printHistory("Could not delete expired data of period " + period.getName() + ". Retry later.", ex, LOGGER, LogLevel.WARN);
+            }
+        }
+        return reclaimedTriples;
+    }
+
+    private long reclaim(final Period period, final Duration retentionWindow) throws CouldNotPerformException, InterruptedException {
+        final Period aggregationPeriod = getAggregationPeriod(period);
+        ZonedDateTime aggregatedSince = aggregationScheduler.getAggregatedSince(aggregationPeriod);
+        ZonedDateTime aggregatedUntil = getConfirmedAggregationEnd(aggregationPeriod);
+
+        if (period == Period.DAY && aggregatedSince != null && aggregatedUntil != null) {
+            // the days are aggregated by the week and by the month, so they expire not until both aggregations are confirmed
+            final ZonedDateTime monthAggregatedSince = aggregationScheduler.getAggregatedSince(Period.MONTH);
+            final ZonedDateTime monthAggregatedUntil = getConfirmedAggregationEnd(Period.MONTH);
+
+            aggregatedSince = (monthAggregatedSince == null || monthAggregatedSince.isBefore(aggregatedSince)) ? aggregatedSince : monthAggregatedSince;
+            aggregatedUntil = (monthAggregatedUntil == null || monthAggregatedUntil.isAfter(aggregatedUntil)) ? monthAggregatedUntil : aggregatedUntil;
+        }
+
+        if (aggregatedSince == null || aggregatedUntil == null) {
+            return 0; // there is no confirmed aggregation so far
+        }
+
+        final ZonedDateTime expiration = ZonedDateTime.now(OntConfig.getAggregationTimeZone()).minus(retentionWindow);
+        final ZonedDateTime until = expiration.isBefore(aggregatedUntil) ? expiration : aggregatedUntil;
+
+        if (!until.isAfter(aggregatedSince)) {
+            return 0;
+        }
+
+        final String fromLiteral = StringModifier.convertToLiteral(aggregatedSince.toOffsetDateTime().toString(), XsdType.DATE_TIME);
+        final String untilLiteral = StringModifier.convertToLiteral(until.toOffsetDateTime().toString(), XsdType.DATE_TIME);
+        final int limit = Math.max(1, OntConfig.getRetentionChunkSize());
+
+        final boolean partitioned = OntConfig.getGraphPartitionPeriod() != null;
+
+        if (period == Period.HOUR) {
+            final long observationTriples = (partitioned) ? dropGraphs(GraphPartitions.getObservationGraphPrefix(), aggregatedSince, until)
+                    : deleteInChunks(QueryExpression.selectExpiredObservations(fromLiteral, untilLiteral, limit));
+            final long connectionPhaseTriples = deleteInChunks(QueryExpression.selectExpiredConnectionPhases(fromLiteral, untilLiteral, limit));
+            final long heartbeatPhaseTriples = deleteInChunks(QueryExpression.selectExpiredHeartbeatPhases(fromLiteral, untilLiteral, limit));
+            // the hour aggregations of the online aggregation are aggregated to the day like the raw data, so they share the retention window
+            final long hourAggObsTriples = (partitioned) ? dropGraphs(GraphPartitions.getAggregationGraphPrefix(period.getName()), aggregatedSince, until)
+                    : deleteInChunks(QueryExpression.selectExpiredAggObs(period.getName(), fromLiteral, untilLiteral, limit));
+
+            LOGGER.info("Retention reclaimed " + observationTriples + " triples of observations, " + connectionPhaseTriples + " triples of connection "
+                    + "phases, " + heartbeatPhaseTriples + " triples of heartbeat phases and " + hourAggObsTriples + " triples of hour aggregation "
+                    + "observations until " + until + ".");
+            return observationTriples + connectionPhaseTriples + heartbeatPhaseTriples + hourAggObsTriples;
+        }
+
+        final long aggObsTriples = (partitioned) ? dropGraphs(GraphPartitions.getAggregationGraphPrefix(period.getName()), aggregatedSince, until)
+                : deleteInChunks(QueryExpression.selectExpiredAggObs(period.getName(), fromLiteral, untilLiteral, limit));
+
+        LOGGER.info("Retention reclaimed " + aggObsTriples + " triples of aggregation observations (period " + period.getName() + ") until " + until + ".");
+        return aggObsTriples;
+    }
+
+    /**
+     * Method deletes the subjects, which are selected by the input query, chunk by chunk until there is no subject anymore.
+     *
+     * @param selectQuery is the query, which selects a chunk of subjects (?subject) and their number of triples (?tripleCount).
+     * @return the number of deleted triples.
+     * @throws CouldNotPerformException is thrown in case the ontology server could not be reached or the update failed.
+     * @throws InterruptedException is thrown in case the application was interrupted.
+     */
+    private long deleteInChunks(final String selectQuery) throws CouldNotPerformException, InterruptedException {
+        long reclaimedTriples = 0;
+
+        while (true) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+
+            final List<String> subjects = new ArrayList<>();
+            long chunkTriples = 0;
+
+            try {
+                final ResultSet resultSet = SparqlHttp.sparqlQuery(selectQuery, OntConfig.getOntologyDbUrl());
+
+                while (resultSet.hasNext()) {
+                    final QuerySolution querySolution = resultSet.next();
+                    final Resource subject = querySolution.getResource("subject");
+
+                    if (subject != null && subject.isURIResource()) {
+                        subjects.add(subject.getURI());
+                        chunkTriples += querySolution.getLiteral("tripleCount").getLong();
+                    }
+                }
+
+                if (subjects.isEmpty()) {
+                    return reclaimedTriples;
+                }
+                SparqlHttp.uploadSparqlRequest(QueryExpression.deleteSubjects(subjects), OntConfig.getOntologyDbUrl());
+            } catch (IOException ex) {
+                throw new CouldNotPerformException("Could not delete expired data, because there is no connection to the ontology server!", ex);
+            }
+            reclaimedTriples += chunkTriples;
+        }
+    }
+
+    /**
+     * Method drops the graph partitions, which are completely inside the input time frame. The latest graph partition is kept, because it contains the
+     * latest observation of each unit and provider service (see {@link QueryExpression#carryOverObservations(String, String)}).
+     *
+     * @param graphPrefix is the prefix (full IRI) of the graph partitions.
+     * @param dateTimeFrom is the beginning of the time frame (inclusive).
+     * @param dateTimeUntil is the end of the time frame (exclusive).
+     * @return the number of deleted triples.
+     * @throws CouldNotPerformException is thrown in case the ontology server could not be reached or the update failed.
+     * @throws InterruptedException is thrown in case the application was interrupted.
+     */
+    private long dropGraphs(final String graphPrefix, final ZonedDateTime dateTimeFrom, final ZonedDateTime dateTimeUntil)
+            throws CouldNotPerformException, InterruptedException {
+        long reclaimedTriples = 0;
+
+        try {
+            final TreeSet<String> graphs = AggregationScheduler.selectGraphs(graphPrefix);
+
+            if (!graphs.isEmpty()) {
+                graphs.remove(graphs.last());
+            }
+
+            for (final String graph : graphs) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+
+                if (GraphPartitions.getPartitionBegin(graph).isBefore(dateTimeFrom) || GraphPartitions.getPartitionEnd(graph).isAfter(dateTimeUntil)) {
+                    continue;
+                }
+
+                final ResultSet resultSet = SparqlHttp.sparqlQuery(QueryExpression.countGraphTriples(graph), OntConfig.getOntologyDbUrl());
+                final long graphTriples = resultSet.hasNext() ? resultSet.next().getLiteral("tripleCount").getLong() : 0;
+
+                SparqlHttp.uploadSparqlRequest(SparqlUpdateExpression.getDropGraphExpression(graph), OntConfig.getOntologyDbUrl());
+                reclaimedTriples += graphTriples;
+            }
+        } catch (IOException ex) {
+            throw new CouldNotPerformException("Could not drop expired graphs, because there is no connection to the ontology server!", ex);
+        }
+        return reclaimedTriples;
+    }
+
+    /**
+     * Method returns the end of the last aggregation period, which is completed by the scheduler and stored on the ontology server.
+     *
+     * @param aggregationPeriod is the period of the aggregation.
+     * @return the end of the confirmed aggregation or {@code null}, if there is no confirmed aggregation.
+     * @throws CouldNotPerformException is thrown in case the stored aggregation could not be queried.
+     */
+    private ZonedDateTime getConfirmedAggregationEnd(final Period aggregationPeriod) throws CouldNotPerformException {
+        final ZonedDateTime completedUntil = aggregationScheduler.getAggregatedUntil(aggregationPeriod);
+
+        if (completedUntil == null) {
+            return null;
+        }
+
+        final ResultSet resultSet;
+        try {
+            List<String> graphs = null;
+
+            if (OntConfig.getGraphPartitionPeriod() != null) {
+                // the latest aggregation observations are part of the latest graph partition
+                final String graphPrefix = GraphPartitions.getAggregationGraphPrefix(aggregationPeriod.getName());
+                final TreeSet<String> aggregationGraphs = AggregationScheduler.selectGraphs(graphPrefix);
+
+                if (aggregationGraphs.isEmpty()) {
+                    return null;
+                }
+                graphs = Collections.singletonList(aggregationGraphs.last());
+            }
+            final String query = QueryExpression.selectLatestAggObsTimestamp(aggregationPeriod.getName(), graphs);
+            resultSet = SparqlHttp.sparqlQuery(query, OntConfig.getOntologyDbUrl());
+        } catch (IOException ex) {
+            throw new CouldNotPerformException("Could not query the latest aggregation of period " + aggregationPeriod.getName() + "!", ex);
+        }
+
+        final Literal timestamp = resultSet.hasNext() ? resultSet.next().getLiteral("timestamp") : null;
+
+        if (timestamp == null) {
+            return null;
+        }
+
+        final ZonedDateTime latestPeriodBegin = Instant.ofEpochMilli(TimestampCodec.parseEpochMilli(timestamp.getLexicalForm()))
+                .atZone(OntConfig.getAggregationTimeZone());
+        final ZonedDateTime storedUntil = CalendarPeriods.getPeriodEnd(latestPeriodBegin, aggregationPeriod);
+
+        return storedUntil.isBefore(completedUntil) ? storedUntil : completedUntil;
+    }
+
+    /**
+     * Method returns the period, which aggregates the data of the input period.
+     *
+     * @param period is the period of the data.
+     * @return the period of the aggregation.
+     * @throws NotAvailableException is thrown in case the data of the period are not aggregated.
+     */
+    private Period getAggregationPeriod(final Period period) throws NotAvailableException {
+        switch (period) {
+            case HOUR:
+                return Period.DAY;
+            case DAY:
+                return Period.WEEK;
+            case WEEK:
+                // the month is aggregated from the days, but the weeks expire not before the month of their time frame is aggregated
+                return Period.MONTH;
+            case MONTH:
+                return Period.YEAR;
+            default:
+                throw new NotAvailableException("Could not identify aggregation period of " + period + "!");
+        }
+    }
+}
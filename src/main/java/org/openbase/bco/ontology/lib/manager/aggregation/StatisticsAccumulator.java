@@ -0,0 +1,148 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.manager.aggregation;
+
+import org.apache.commons.math3.util.FastMath;
+import org.openbase.jul.exception.VerificationFailedException;
+
+/**
+ * Streaming accumulator for the statistics (quantity, mean, variance, standard deviation) of continuous state values. The values are added one by one via
+ * the Welford update and the accumulator holds constant state only. Two accumulators are merged exactly via the parallel formula of Chan et al., so that
+ * aggregated observations of a smaller period (e.g. day) can be combined to the statistics of a bigger period (e.g. week) without the raw state values.
+ * The variance is the bias-corrected sample variance, like the variance of the apache commons math StatUtils.
+ *
+ * @author agent on 18.10.26.
+ */
+public final class StatisticsAccumulator {
+
+    private long quantity;
+    private double mean;
+    private double sumOfSquaredDeviations;
+
+    /**
+     * Constructor creates an empty accumulator.
+     */
+    public StatisticsAccumulator() {
+        this.quantity = 0;
+        this.mean = 0.0;
+        this.sumOfSquaredDeviations = 0.0;
+    }
+
+    /**
+     * Method creates an accumulator of already aggregated statistics, e.g. the statistics of an aggregated observation.
+     *
+     * @param quantity is the number of state values, which are described by the statistics.
+     * @param mean is the mean of the state values.
+     * @param variance is the (bias-corrected) variance of the state values.
+     * @return an accumulator, which can be merged with other accumulators.
+     * @throws VerificationFailedException is thrown in case the quantity is negative or the variance is negative.
+     */
+    public static StatisticsAccumulator of(final long quantity, final double mean, final double variance) throws VerificationFailedException {
+        if (quantity < 0) {
+            throw new VerificationFailedException("The quantity of the statistics is negative!");
+        }
+        if (variance < 0.0) {
+            throw new VerificationFailedException("The variance of the statistics is negative!");
+        }
+
+        final StatisticsAccumulator accumulator = new StatisticsAccumulator();
+
+        if (quantity > 0) {
+            accumulator.quantity = quantity;
+            accumulator.mean = mean;
+            accumulator.sumOfSquaredDeviations = (quantity > 1) ? variance * (quantity - 1) : 0.0;
+        }
+        return accumulator;
+    }
+
+    /**
+     * Method adds a state value to the statistics.
+     *
+     * @param value is the continuous state value.
+     */
+    public void add(final double value) {
+        quantity++;
+        final double delta = value - mean;
+        mean += delta / quantity;
+        sumOfSquaredDeviations += delta * (value - mean);
+    }
+
+    /**
+     * Method merges the statistics of another accumulator into this accumulator. The other accumulator is not changed.
+     *
+     * @param other is the accumulator, which should be merged.
+     */
+    public void merge(final StatisticsAccumulator other) {
+        if (other.quantity == 0) {
+            return;
+        }
+        if (quantity == 0) {
+            quantity = other.quantity;
+            mean = other.mean;
+            sumOfSquaredDeviations = other.sumOfSquaredDeviations;
+            return;
+        }
+
+        final long mergedQuantity = quantity + other.quantity;
+        final double delta = other.mean - mean;
+
+        mean += delta * other.quantity / mergedQuantity;
+        sumOfSquaredDeviations += other.sumOfSquaredDeviations + delta * delta * ((double) quantity * other.quantity / mergedQuantity);
+        quantity = mergedQuantity;
+    }
+
+    /**
+     * Getter for the number of state values.
+     *
+     * @return the quantity.
+     */
+    public long getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Getter for the mean of the state values.
+     *
+     * @return the mean or NaN in case there is no state value.
+     */
+    public double getMean() {
+        return (quantity == 0) ? Double.NaN : mean;
+    }
+
+    /**
+     * Getter for the bias-corrected variance of the state values.
+     *
+     * @return the variance, zero in case of a single state value or NaN in case there is no state value.
+     */
+    public double getVariance() {
+        if (quantity == 0) {
+            return Double.NaN;
+        }
+        return (quantity == 1) ? 0.0 : sumOfSquaredDeviations / (quantity - 1);
+    }
+
+    /**
+     * Getter for the standard deviation of the state values.
+     *
+     * @return the standard deviation, zero in case of a single state value or NaN in case there is no state value.
+     */
+    public double getStandardDeviation() {
+        return FastMath.sqrt(getVariance());
+    }
+}
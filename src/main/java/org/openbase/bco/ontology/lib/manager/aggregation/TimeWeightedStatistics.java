@@ -0,0 +1,220 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.manager.aggregation;
+
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * Time-weighted statistics (mean, variance, standard deviation, minimum, maximum and integral) of continuous state values. A state value is valid until the
+ * next state change, so that each state value is weighted by its duration in milliseconds. The first state change is, chronological, before/equal the
+ * beginning of the aggregation time frame and is weighted from the beginning of the time frame. The last state change is weighted until the end of the
+ * time frame. The statistics are computed in a single pass (weighted Welford update) over primitive timestamp and value arrays.
+ *
+ * @author agent on 18.10.26.
+ */
+public final class TimeWeightedStatistics {
+
+    private static final double MILLIS_PER_HOUR = 3600000.0;
+
+    private long totalTimeMilliS;
+    private double mean;
+    private double sumOfWeightedSquaredDeviations;
+    private double minimum;
+    private double maximum;
+    private double integral;
+
+    /**
+     * Constructor creates empty statistics, which are filled incrementally via {@link #add(double, long)} (e.g. by the {@link OnlineAggregator}).
+     */
+    TimeWeightedStatistics() {
+        this.totalTimeMilliS = 0;
+        this.mean = 0.0;
+        this.sumOfWeightedSquaredDeviations = 0.0;
+        this.minimum = Double.NaN;
+        this.maximum = Double.NaN;
+        this.integral = 0.0;
+    }
+
+    /**
+     * Method computes the time-weighted statistics of the input state changes.
+     *
+     * @param timestampsMilliS are the timestamps of the state changes in milliseconds, sorted ascending (old to young).
+     * @param values are the continuous state values of the state changes.
+     * @param beginIndex is the index of the first state change (inclusive).
+     * @param endIndex is the index after the last state change (exclusive).
+     * @param timeFrameFromMilliS is the beginning of the aggregation time frame in milliseconds.
+     * @param timeFrameUntilMilliS is the end of the aggregation time frame in milliseconds.
+     * @return the time-weighted statistics.
+     */
+    public static TimeWeightedStatistics compute(final long[] timestampsMilliS, final double[] values, final int beginIndex, final int endIndex,
+                                                 final long timeFrameFromMilliS, final long timeFrameUntilMilliS) {
+        final TimeWeightedStatistics statistics = new TimeWeightedStatistics();
+
+        for (int i = beginIndex; i < endIndex; i++) {
+            // consider border cases, which are represented by the aggregation time frame (from and until)
+            final long beginMilliS = FastMath.max(timestampsMilliS[i], timeFrameFromMilliS);
+            final long endMilliS = (i == endIndex - 1) ? timeFrameUntilMilliS : FastMath.min(timestampsMilliS[i + 1], timeFrameUntilMilliS);
+
+            statistics.add(values[i], FastMath.max(0, endMilliS - beginMilliS));
+        }
+        return statistics;
+    }
+
+    /**
+     * Method creates time-weighted statistics of already aggregated statistics, e.g. the statistics of an aggregated observation, which can be merged via
+     * {@link #merge(TimeWeightedStatistics)}.
+     *
+     * @param totalTimeMilliS is the time in milliseconds, which is covered by the statistics.
+     * @param mean is the time-weighted mean.
+     * @param variance is the time-weighted variance.
+     * @param minimum is the minimal state value or NaN, if not available.
+     * @param maximum is the maximal state value or NaN, if not available.
+     * @param integral is the integral in (state value unit) * hours or NaN, if not available.
+     * @return the time-weighted statistics.
+     */
+    static TimeWeightedStatistics of(final long totalTimeMilliS, final double mean, final double variance, final double minimum, final double maximum,
+                                     final double integral) {
+        final TimeWeightedStatistics statistics = new TimeWeightedStatistics();
+
+        if (totalTimeMilliS > 0) {
+            statistics.totalTimeMilliS = totalTimeMilliS;
+            statistics.mean = mean;
+            statistics.sumOfWeightedSquaredDeviations = variance * totalTimeMilliS;
+        }
+        statistics.minimum = minimum;
+        statistics.maximum = maximum;
+        statistics.integral = integral * MILLIS_PER_HOUR;
+        return statistics;
+    }
+
+    /**
+     * Method merges the statistics of another time frame into this statistics. The mean and variance are weighted by the covered times, the minimum and
+     * maximum are the extrema of both and the integrals are summed up. The other statistics are not changed.
+     *
+     * @param other are the statistics, which should be merged.
+     */
+    void merge(final TimeWeightedStatistics other) {
+        if (Double.isNaN(minimum) || other.minimum < minimum) {
+            minimum = other.minimum;
+        }
+        if (Double.isNaN(maximum) || other.maximum > maximum) {
+            maximum = other.maximum;
+        }
+        integral += other.integral;
+
+        if (other.totalTimeMilliS == 0) {
+            return;
+        }
+
+        final long mergedTimeMilliS = totalTimeMilliS + other.totalTimeMilliS;
+        final double delta = other.mean - mean;
+
+        mean += delta * other.totalTimeMilliS / mergedTimeMilliS;
+        sumOfWeightedSquaredDeviations += other.sumOfWeightedSquaredDeviations
+                + delta * delta * ((double) totalTimeMilliS * other.totalTimeMilliS / mergedTimeMilliS);
+        totalTimeMilliS = mergedTimeMilliS;
+    }
+
+    /**
+     * Method adds a state value, which was valid for the input duration.
+     *
+     * @param value is the continuous state value.
+     * @param durationMilliS is the duration of the state value in milliseconds.
+     */
+    void add(final double value, final long durationMilliS) {
+        if (Double.isNaN(minimum) || value < minimum) {
+            minimum = value;
+        }
+        if (Double.isNaN(maximum) || value > maximum) {
+            maximum = value;
+        }
+        if (durationMilliS == 0) {
+            return;
+        }
+
+        totalTimeMilliS += durationMilliS;
+        final double delta = value - mean;
+        mean += delta * durationMilliS / totalTimeMilliS;
+        sumOfWeightedSquaredDeviations += durationMilliS * delta * (value - mean);
+        integral += value * durationMilliS;
+    }
+
+    /**
+     * Getter for the total time of the state values.
+     *
+     * @return the total time in milliseconds.
+     */
+    public long getTotalTimeMilliS() {
+        return totalTimeMilliS;
+    }
+
+    /**
+     * Getter for the time-weighted mean.
+     *
+     * @return the mean or NaN in case the state values have no duration.
+     */
+    public double getMean() {
+        return (totalTimeMilliS == 0) ? Double.NaN : mean;
+    }
+
+    /**
+     * Getter for the time-weighted variance. The variance is not bias-corrected, because the weights are durations and not frequencies.
+     *
+     * @return the variance or NaN in case the state values have no duration.
+     */
+    public double getVariance() {
+        return (totalTimeMilliS == 0) ? Double.NaN : sumOfWeightedSquaredDeviations / totalTimeMilliS;
+    }
+
+    /**
+     * Getter for the time-weighted standard deviation.
+     *
+     * @return the standard deviation or NaN in case the state values have no duration.
+     */
+    public double getStandardDeviation() {
+        return FastMath.sqrt(getVariance());
+    }
+
+    /**
+     * Getter for the minimal state value.
+     *
+     * @return the minimum or NaN in case there is no state value.
+     */
+    public double getMinimum() {
+        return minimum;
+    }
+
+    /**
+     * Getter for the maximal state value.
+     *
+     * @return the maximum or NaN in case there is no state value.
+     */
+    public double getMaximum() {
+        return maximum;
+    }
+
+    /**
+     * Getter for the integral of the state values over the time, e.g. the energy of the power consumption.
+     *
+     * @return the integral in (state value unit) * hours.
+     */
+    public double getIntegral() {
+        return integral / MILLIS_PER_HOUR;
+    }
+}
@@ -32,6 +32,9 @@ public class OntAggregatedStateChange {
     private final String quantity;
     private final String variance;
     private final String mean;
+    private final String minimum;
+    private final String maximum;
+    private final String integral;
 
     /**
      * Method creates an aggregated ontology observation. It contains aggregated values of state changes from a providerService in a specific
@@ -49,6 +52,28 @@ public class OntAggregatedStateChange {
      */
     public OntAggregatedStateChange(final RDFNode stateValue, final String quantity, final String activityTime, final String variance
             , final String standardDeviation, final String mean, final String timeWeighting) {
+        this(stateValue, quantity, activityTime, variance, standardDeviation, mean, timeWeighting, null, null, null);
+    }
+
+    /**
+     * Method creates an aggregated ontology observation like {@link #OntAggregatedStateChange(RDFNode, String, String, String, String, String, String)}
+     * with the extrema and the integral of continuous state values.
+     *
+     * @param stateValue is the state value (discrete or continuous) of an state change to a specific time.
+     * @param quantity is a statistical value to describe the quantity of fulfilled state changes.
+     * @param activityTime is a statistical value to describe the duration of the state value in milliseconds.
+     * @param variance is a statistical value to describe the variance of the state value.
+     * @param standardDeviation is a statistical value to describe the standard deviation of the state value
+     * @param mean is a statistical value to describe the mean of continuous state values.
+     * @param timeWeighting is a statistical value to describe the duration of connection of the unit. 1 means max connection time in a specific period and
+     *                      0 zero connection time.
+     * @param minimum is the minimal continuous state value. Null, if not available.
+     * @param maximum is the maximal continuous state value. Null, if not available.
+     * @param integral is the integral of the continuous state values over the time in (state value unit) * hours. Null, if not available.
+     */
+    public OntAggregatedStateChange(final RDFNode stateValue, final String quantity, final String activityTime, final String variance
+            , final String standardDeviation, final String mean, final String timeWeighting, final String minimum, final String maximum
+            , final String integral) {
         this.standardDeviation = standardDeviation;
         this.timeWeighting = timeWeighting;
         this.activityTime = activityTime;
@@ -56,6 +81,9 @@ public class OntAggregatedStateChange {
         this.quantity = quantity;
         this.variance = variance;
         this.mean = mean;
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.integral = integral;
         //TODO insert period?
     }
 
@@ -114,4 +142,28 @@ public class OntAggregatedStateChange {
      */
     public String getTimeWeighting() {
         return timeWeighting; }
+
+    /**
+     * Getter for aggregated observation data: minimum.
+     *
+     * @return the minimal continuous state value or null, if not available.
+     */
+    public String getMinimum() {
+        return minimum; }
+
+    /**
+     * Getter for aggregated observation data: maximum.
+     *
+     * @return the maximal continuous state value or null, if not available.
+     */
+    public String getMaximum() {
+        return maximum; }
+
+    /**
+     * Getter for aggregated observation data: integral.
+     *
+     * @return the integral of the continuous state values in (state value unit) * hours or null, if not available.
+     */
+    public String getIntegral() {
+        return integral; }
 }
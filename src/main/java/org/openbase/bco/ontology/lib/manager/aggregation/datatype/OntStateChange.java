@@ -66,7 +66,7 @@ public interface OntStateChange {
     /**
      * Method is used to generate an ontStateChange instance based on the type {@link Discrete}.
      *
-     * @param timestamp is the timestamp at which the state change occurred. Must be parsable to OffsetDateTime.
+     * @param timestamp is the timestamp at which the state change occurred. Must be based on the pattern "yyyy-MM-dd'T'HH:mm:ss.SSSXXX".
      * @param stateValue is the value (resource type) of the state change. Must be based on rdf resource.
      * @return an ontStateChange object based on {@link Discrete}.
      * @throws MultiException is thrown in case at least one input parameter is null/invalid or the state value
@@ -99,7 +99,7 @@ public interface OntStateChange {
     /**
      * Method is used to generate an ontStateChange instance based on the type {@link Continuous}.
      *
-     * @param timestamp is the timestamp at which the state change occurred. Must be parsable to OffsetDateTime.
+     * @param timestamp is the timestamp at which the state change occurred. Must be based on the pattern "yyyy-MM-dd'T'HH:mm:ss.SSSXXX".
      * @param stateValues is the value (literal type) of the state change. The rdf nodes must be based on literals.
      * @return an ontStateChange object based on {@link Continuous}.
      * @throws MultiException is thrown in case at least one input parameter is null/invalid or one state value
@@ -192,9 +192,33 @@ public interface OntStateChange {
                                                  final String standardDeviation, final String timeWeighting,
                                                  final String quantity,
                                                  final RDFNode stateValue) throws MultiException {
+        return asAggregatedContinuous(mean, variance, standardDeviation, timeWeighting, quantity, stateValue, null, null, null);
+    }
+
+    /**
+     * Method is used to generate an ontStateChange instance based on the type {@link AggregatedContinuous} with the optional extrema and integral.
+     *
+     * @param mean is the mean value. Look at {@link #asAggregatedContinuous(String, String, String, String, String, RDFNode)}.
+     * @param variance is the variance. Look at {@link #asAggregatedContinuous(String, String, String, String, String, RDFNode)}.
+     * @param standardDeviation is the standard deviation. Look at {@link #asAggregatedContinuous(String, String, String, String, String, RDFNode)}.
+     * @param timeWeighting is the time weighting. Look at {@link #asAggregatedContinuous(String, String, String, String, String, RDFNode)}.
+     * @param quantity is the quantity. Look at {@link #asAggregatedContinuous(String, String, String, String, String, RDFNode)}.
+     * @param stateValue is the specific continuous state value.
+     * @param minimum is the minimum of the state values in the aggregated time frame. Can be null.
+     * @param maximum is the maximum of the state values in the aggregated time frame. Can be null.
+     * @param integral is the integral of the state values about the aggregated time frame in hours. Can be null.
+     * @return an ontStateChange object based on {@link AggregatedContinuous}.
+     * @throws MultiException is thrown in case at least one mandatory input parameter is null/invalid or the state value
+     * isn't a literal (/continuous value).
+     */
+    static OntStateChange asAggregatedContinuous(final String mean, final String variance,
+                                                 final String standardDeviation, final String timeWeighting,
+                                                 final String quantity, final RDFNode stateValue,
+                                                 final String minimum, final String maximum,
+                                                 final String integral) throws MultiException {
 
-        final AggregatedContinuous aggregatedContinuousState =
-                new AggregatedContinuous(mean, variance, standardDeviation, timeWeighting, quantity, stateValue);
+        final AggregatedContinuous aggregatedContinuousState = new AggregatedContinuous(mean, variance, standardDeviation,
+                timeWeighting, quantity, stateValue, minimum, maximum, integral);
 
         return new OntStateChange() {
 
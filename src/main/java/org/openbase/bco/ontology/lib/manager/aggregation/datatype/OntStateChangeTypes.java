@@ -22,11 +22,11 @@ import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
 import org.openbase.bco.ontology.lib.utility.Preconditions;
+import org.openbase.bco.ontology.lib.utility.time.TimestampCodec;
 import org.openbase.jul.exception.MultiException.ExceptionStack;
 import org.openbase.jul.exception.MultiException;
 import org.openbase.jul.exception.NotAvailableException;
 
-import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -46,7 +46,7 @@ public class OntStateChangeTypes {
      */
     public static class Discrete {
 
-        private final OffsetDateTime timestamp;
+        private final long timestampMilliS;
         private final Resource stateValue;
 
         /**
@@ -54,7 +54,7 @@ public class OntStateChangeTypes {
          * ON, OFF, ...) to store them. The information parts (input argument) will be convert to specific data types
          * (see getter of this class).
          *
-         * @param timestamp is the timestamp at which the state change occurred. Must be parsable to OffsetDateTime.
+         * @param timestamp is the timestamp at which the state change occurred. Must be based on the pattern "yyyy-MM-dd'T'HH:mm:ss.SSSXXX".
          * @param stateValue is the value (resource type) of the state change. Must be based on rdf resource.
          * @throws MultiException is thrown in case at least one input parameter is null/invalid or the state value
          * isn't a resource (/discrete value).
@@ -63,7 +63,7 @@ public class OntStateChangeTypes {
             final MultiException.ExceptionStack exceptionStack =
                     Preconditions.multipleCheckNotNull(this, null, timestamp, stateValue);
 
-            this.timestamp = Preconditions.Function.apply(OffsetDateTime::parse, timestamp, this, exceptionStack);
+            this.timestampMilliS = parseTimestamp(timestamp, this, exceptionStack);
             this.stateValue = Preconditions.Supplier.get(stateValue::asResource, this, exceptionStack);
 
             MultiException.checkAndThrow("Input argument invalid. Null or no resource type!", exceptionStack);
@@ -72,10 +72,10 @@ public class OntStateChangeTypes {
         /**
          * Method returns the timestamp at which the state change occurred.
          *
-         * @return the timestamp with the format "yyyy-MM-dd'T'HH:mm:ss.SSSXXX".
+         * @return the timestamp in epoch milliseconds.
          */
-        public OffsetDateTime getTimestamp() {
-            return timestamp;
+        public long getTimestampMilliS() {
+            return timestampMilliS;
         }
 
         /**
@@ -95,7 +95,7 @@ public class OntStateChangeTypes {
      */
     public static class Continuous {
 
-        private final OffsetDateTime timestamp;
+        private final long timestampMilliS;
         private final List<Literal> stateValues;
 
         /**
@@ -103,7 +103,7 @@ public class OntStateChangeTypes {
          * (literals like e.g. 17.35^^xsd:int) to store them. The information parts (input argument) will be convert
          * to specific data types (see getter of this class).
          *
-         * @param timestamp is the timestamp at which the state change occurred. Must be parsable to OffsetDateTime.
+         * @param timestamp is the timestamp at which the state change occurred. Must be based on the pattern "yyyy-MM-dd'T'HH:mm:ss.SSSXXX".
          * @param stateValues is the value (literal type) of the state change. The rdf nodes must be based on literals.
          * @throws MultiException is thrown in case at least one input parameter is null/invalid or one state value
          * isn't a literal (/continuous value).
@@ -112,7 +112,7 @@ public class OntStateChangeTypes {
             final MultiException.ExceptionStack exceptionStack =
                     Preconditions.multipleCheckNotNull(this, null, timestamp, stateValues);
 
-            this.timestamp = Preconditions.Function.apply(OffsetDateTime::parse, timestamp, this, exceptionStack);
+            this.timestampMilliS = parseTimestamp(timestamp, this, exceptionStack);
             this.stateValues = new ArrayList<>();
 
             for (final RDFNode stateValue : stateValues) {
@@ -129,10 +129,10 @@ public class OntStateChangeTypes {
         /**
          * Method returns the timestamp at which the state change occurred.
          *
-         * @return the timestamp with the format "yyyy-MM-dd'T'HH:mm:ss.SSSXXX".
+         * @return the timestamp in epoch milliseconds.
          */
-        public OffsetDateTime getTimestamp() {
-            return timestamp;
+        public long getTimestampMilliS() {
+            return timestampMilliS;
         }
 
         /**
@@ -250,6 +250,9 @@ public class OntStateChangeTypes {
         private final double timeWeighting;
         private final int quantity;
         private final Literal stateValue;
+        private final Double minimum;
+        private final Double maximum;
+        private final Double integral;
 
         /**
          * Constructor creates an continuous state change instance, which based on manipulated (already aggregated)
@@ -274,6 +277,30 @@ public class OntStateChangeTypes {
         public AggregatedContinuous(final String mean, final String variance,
                                     final String standardDeviation, final String timeWeighting,
                                     final String quantity, final RDFNode stateValue) throws MultiException {
+            this(mean, variance, standardDeviation, timeWeighting, quantity, stateValue, null, null, null);
+        }
+
+        /**
+         * Constructor creates an continuous state change instance like
+         * {@link AggregatedContinuous#AggregatedContinuous(String, String, String, String, String, RDFNode)} with the time weighted extrema and the
+         * integral. These values are optional, because older aggregation observations don't contain them.
+         *
+         * @param mean is the mean value. Look at the other constructor.
+         * @param variance is the variance. Look at the other constructor.
+         * @param standardDeviation is the standard deviation. Look at the other constructor.
+         * @param timeWeighting is the time weighting. Look at the other constructor.
+         * @param quantity is the quantity. Look at the other constructor.
+         * @param stateValue is the specific continuous state value.
+         * @param minimum is the minimum of the state values in the aggregated time frame. Can be null.
+         * @param maximum is the maximum of the state values in the aggregated time frame. Can be null.
+         * @param integral is the integral of the state values about the aggregated time frame in hours. Can be null.
+         * @throws MultiException is thrown in case at least one mandatory input parameter is null/invalid or the state value
+         * isn't a literal (/continuous value).
+         */
+        public AggregatedContinuous(final String mean, final String variance,
+                                    final String standardDeviation, final String timeWeighting,
+                                    final String quantity, final RDFNode stateValue, final String minimum,
+                                    final String maximum, final String integral) throws MultiException {
             final ExceptionStack exceptionStack = Preconditions.multipleCheckNotNull(this, null, mean, variance,
                     standardDeviation, timeWeighting, quantity, stateValue);
 
@@ -288,6 +315,9 @@ public class OntStateChangeTypes {
             this.quantity = Optional.ofNullable(Preconditions.Function.apply(Integer::parseInt, quantity, this,
                     exceptionStack)).orElse(0);
             this.stateValue = Preconditions.Supplier.get(stateValue::asLiteral, this, exceptionStack);
+            this.minimum = (minimum == null) ? null : Preconditions.Function.apply(Double::parseDouble, minimum, this, exceptionStack);
+            this.maximum = (maximum == null) ? null : Preconditions.Function.apply(Double::parseDouble, maximum, this, exceptionStack);
+            this.integral = (integral == null) ? null : Preconditions.Function.apply(Double::parseDouble, integral, this, exceptionStack);
 
             MultiException.checkAndThrow("Input is invalid.", exceptionStack);
         }
@@ -345,5 +375,53 @@ public class OntStateChangeTypes {
         public Literal getStateValue() {
             return stateValue;
         }
+
+        /**
+         * Method returns the minimum. Look at argument {@link AggregatedContinuous#minimum}.
+         *
+         * @return the minimum or null, if the aggregation observation doesn't contain it.
+         */
+        public Double getMinimum() {
+            return minimum;
+        }
+
+        /**
+         * Method returns the maximum. Look at argument {@link AggregatedContinuous#maximum}.
+         *
+         * @return the maximum or null, if the aggregation observation doesn't contain it.
+         */
+        public Double getMaximum() {
+            return maximum;
+        }
+
+        /**
+         * Method returns the integral. Look at argument {@link AggregatedContinuous#integral}.
+         *
+         * @return the integral or null, if the aggregation observation doesn't contain it.
+         */
+        public Double getIntegral() {
+            return integral;
+        }
+    }
+
+    /**
+     * Method parses the timestamp of a state change into epoch milliseconds. A possible exception is stacked on the input exceptionStack.
+     *
+     * @param timestamp is the timestamp of the state change.
+     * @param source is the source of the timestamp.
+     * @param exceptionStack is used to bundle possible exception.
+     * @return the timestamp in epoch milliseconds or zero in case the timestamp could not be parsed. Check exceptionStack.
+     */
+    private static long parseTimestamp(final String timestamp, final Object source, final ExceptionStack exceptionStack) {
+        if (timestamp == null) {
+            // already stacked by the null check
+            return 0L;
+        }
+        try {
+            return TimestampCodec.parseEpochMilli(timestamp);
+        } catch (NotAvailableException ex) {
+            MultiException.push(source, ex, exceptionStack);
+            return 0L;
+        }
     }
 }
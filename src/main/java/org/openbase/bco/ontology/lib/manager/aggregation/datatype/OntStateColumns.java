@@ -0,0 +1,369 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.manager.aggregation.datatype;
+
+import org.apache.jena.rdf.model.Literal;
+import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateChangeTypes.Continuous;
+import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateChangeTypes.Discrete;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.StateValueType;
+import org.openbase.bco.ontology.lib.utility.StringModifier;
+import org.openbase.jul.exception.CouldNotPerformException;
+import org.openbase.jul.exception.NotAvailableException;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class is a columnar, primitive representation of the (not aggregated) state changes of one providerService of
+ * one unit. Instead of a list of {@link OntStateChange} objects, which wrap rdf nodes and timestamps, the state
+ * changes are stored in primitive arrays, which grow in chunks:
+ *
+ * - discrete state changes as timestamps (long, epoch milliseconds) and dictionary codes (int) of the state values.
+ * - continuous state changes as timestamps (long, epoch milliseconds) and values (double) for each
+ *   {@link StateValueType} (e.g. HSB is stored in three columns hue, saturation and brightness).
+ *
+ * The columns are sorted ascending by timestamp (old to young). Consider in addition the data type
+ * {@link OntUnitColumns}.
+ *
+ * @author agent on 18.10.26.
+ */
+public class OntStateColumns {
+
+    /**
+     * Initial capacity and minimal growth of the columns.
+     */
+    private static final int CHUNK_SIZE = 64;
+
+    private static final Map<String, Integer> STATE_VALUE_CODES = new HashMap<>();
+    private static volatile String[] stateValueNames = new String[0];
+
+    private DiscreteColumn discreteColumn;
+    private final EnumMap<StateValueType, ContinuousColumn> continuousColumns;
+
+    /**
+     * Constructor creates empty columns.
+     */
+    public OntStateColumns() {
+        this.discreteColumn = null;
+        this.continuousColumns = new EnumMap<>(StateValueType.class);
+    }
+
+    /**
+     * Method adds the state change to the columns. The rdf nodes of the state change are converted to primitives, so
+     * the state change object itself is not referenced afterwards.
+     *
+     * @param ontStateChange is the state change of type {@link Discrete} or {@link Continuous}.
+     * @throws CouldNotPerformException is thrown in case the state change is aggregated or a state value could not be
+     * converted.
+     */
+    public void addOntStateChange(final OntStateChange ontStateChange) throws CouldNotPerformException {
+        switch (ontStateChange.getObservationType()) {
+            case DISCRETE:
+                final Discrete discrete = (Discrete) ontStateChange.getOntStateChange();
+                addDiscrete(discrete.getTimestampMilliS(), StringModifier.getLocalName(discrete.getStateValue().toString()));
+                break;
+            case CONTINUOUS:
+                final Continuous continuous = (Continuous) ontStateChange.getOntStateChange();
+
+                for (final Literal literal : continuous.getStateValues()) {
+                    addContinuous(continuous.getTimestampMilliS(), getStateValueType(literal), parseValue(literal));
+                }
+                break;
+            default:
+                throw new CouldNotPerformException("Could not add state change of type " + ontStateChange.getObservationType()
+                        + ". Aggregated state changes are not stored in columns.");
+        }
+    }
+
+    /**
+     * Method adds a discrete state change.
+     *
+     * @param timestampMilliS is the timestamp of the state change in epoch milliseconds.
+     * @param stateValue is the name of the discrete state value (e.g. ON).
+     */
+    public void addDiscrete(final long timestampMilliS, final String stateValue) {
+        if (discreteColumn == null) {
+            discreteColumn = new DiscreteColumn();
+        }
+        discreteColumn.add(timestampMilliS, encodeStateValue(stateValue));
+    }
+
+    /**
+     * Method adds a continuous state value.
+     *
+     * @param timestampMilliS is the timestamp of the state change in epoch milliseconds.
+     * @param stateValueType is the type of the continuous state value.
+     * @param value is the continuous state value.
+     */
+    public void addContinuous(final long timestampMilliS, final StateValueType stateValueType, final double value) {
+        continuousColumns.computeIfAbsent(stateValueType, type -> new ContinuousColumn()).add(timestampMilliS, value);
+    }
+
+    /**
+     * Method returns the column of the discrete state changes.
+     *
+     * @return the discrete column or null, if there is no discrete state change.
+     */
+    public DiscreteColumn getDiscreteColumn() {
+        return discreteColumn;
+    }
+
+    /**
+     * Method returns the column of the continuous state values of the input type.
+     *
+     * @param stateValueType is the type of the continuous state values (e.g. HUE).
+     * @return the continuous column or null, if there is no state value of the input type.
+     */
+    public ContinuousColumn getContinuousColumn(final StateValueType stateValueType) {
+        return continuousColumns.get(stateValueType);
+    }
+
+    /**
+     * Method returns the name of the discrete state value, which is encoded by the input dictionary code.
+     *
+     * @param stateValueCode is the dictionary code of the state value.
+     * @return the name of the state value (e.g. ON).
+     */
+    public static String getStateValueName(final int stateValueCode) {
+        return stateValueNames[stateValueCode];
+    }
+
+    /**
+     * Method returns the number of discrete state values in the dictionary. All dictionary codes are smaller than this
+     * number.
+     *
+     * @return the number of dictionary codes.
+     */
+    public static int getStateValueCount() {
+        return stateValueNames.length;
+    }
+
+    private static synchronized int encodeStateValue(final String stateValue) {
+        Integer stateValueCode = STATE_VALUE_CODES.get(stateValue);
+
+        if (stateValueCode == null) {
+            stateValueCode = stateValueNames.length;
+            STATE_VALUE_CODES.put(stateValue, stateValueCode);
+
+            final String[] names = Arrays.copyOf(stateValueNames, stateValueCode + 1);
+            names[stateValueCode] = stateValue;
+            stateValueNames = names;
+        }
+        return stateValueCode;
+    }
+
+    private static StateValueType getStateValueType(final Literal literal) throws CouldNotPerformException {
+        final String dataType = StringModifier.getLocalName(literal.getDatatypeURI());
+
+        try {
+            return StateValueType.valueOf(dataType.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new NotAvailableException("StateValueType of data type " + dataType, ex);
+        }
+    }
+
+    private static double parseValue(final Literal literal) throws CouldNotPerformException {
+        try {
+            return Double.parseDouble(literal.getLexicalForm());
+        } catch (NumberFormatException ex) {
+            throw new CouldNotPerformException("Could not convert continuous state value " + literal.getLexicalForm(), ex);
+        }
+    }
+
+    /**
+     * Method returns the insert position of the timestamp, so that the timestamps keep sorted. Usually the state
+     * changes arrive sorted, so the position is the end of the column.
+     */
+    private static int insertIndex(final long[] timestampsMilliS, final int size, final long timestampMilliS) {
+        if (size == 0 || timestampsMilliS[size - 1] <= timestampMilliS) {
+            return size;
+        }
+
+        int index = Arrays.binarySearch(timestampsMilliS, 0, size, timestampMilliS);
+
+        if (index < 0) {
+            return -index - 1;
+        }
+        // keep insertion order of equal timestamps
+        while (index < size && timestampsMilliS[index] == timestampMilliS) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int grownCapacity(final int capacity) {
+        return capacity + Math.max(CHUNK_SIZE, capacity >> 1);
+    }
+
+    /**
+     * Base of the columns: the timestamps of the state changes in epoch milliseconds, sorted ascending.
+     */
+    private abstract static class TimestampColumn {
+
+        protected long[] timestampsMilliS = new long[CHUNK_SIZE];
+        protected int size = 0;
+
+        /**
+         * Method returns the number of state changes.
+         *
+         * @return the size of the column.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Method returns the timestamp of the state change at the input index.
+         *
+         * @param index is the index of the state change.
+         * @return the timestamp in epoch milliseconds.
+         */
+        public long getTimestampMilliS(final int index) {
+            return timestampsMilliS[index];
+        }
+
+        /**
+         * Method returns the backing timestamp array. Only the first {@link #size()} entries are valid.
+         *
+         * @return the timestamps in epoch milliseconds.
+         */
+        public long[] getTimestampsMilliS() {
+            return timestampsMilliS;
+        }
+
+        /**
+         * Method returns the index of the last state change, which is before/equal the input time. The state changes
+         * before this index are not relevant for an aggregation time frame, which starts at the input time.
+         *
+         * @param timeFrameFromMilliS is the beginning of the aggregation time frame in epoch milliseconds.
+         * @return the index of the last state change before/equal the input time or zero, if there is none.
+         */
+        public int getFirstRelevantIndex(final long timeFrameFromMilliS) {
+            final int index = insertIndex(timestampsMilliS, size, timeFrameFromMilliS);
+            return Math.max(0, index - 1);
+        }
+
+        protected int prepareInsert(final long timestampMilliS) {
+            if (size == timestampsMilliS.length) {
+                grow(grownCapacity(size));
+            }
+
+            final int index = insertIndex(timestampsMilliS, size, timestampMilliS);
+
+            if (index < size) {
+                shift(index);
+            }
+            timestampsMilliS[index] = timestampMilliS;
+            size++;
+            return index;
+        }
+
+        protected void grow(final int capacity) {
+            timestampsMilliS = Arrays.copyOf(timestampsMilliS, capacity);
+        }
+
+        protected void shift(final int index) {
+            System.arraycopy(timestampsMilliS, index, timestampsMilliS, index + 1, size - index);
+        }
+    }
+
+    /**
+     * Column of discrete state changes: timestamps and dictionary codes of the state values.
+     */
+    public static class DiscreteColumn extends TimestampColumn {
+
+        private int[] stateValueCodes = new int[CHUNK_SIZE];
+
+        private void add(final long timestampMilliS, final int stateValueCode) {
+            // the insert may grow the arrays, so the index is determined before the array is referenced
+            final int index = prepareInsert(timestampMilliS);
+            stateValueCodes[index] = stateValueCode;
+        }
+
+        /**
+         * Method returns the dictionary code of the state value at the input index. Use
+         * {@link OntStateColumns#getStateValueName(int)} to get the name of the state value.
+         *
+         * @param index is the index of the state change.
+         * @return the dictionary code of the state value.
+         */
+        public int getStateValueCode(final int index) {
+            return stateValueCodes[index];
+        }
+
+        @Override
+        protected void grow(final int capacity) {
+            super.grow(capacity);
+            stateValueCodes = Arrays.copyOf(stateValueCodes, capacity);
+        }
+
+        @Override
+        protected void shift(final int index) {
+            super.shift(index);
+            System.arraycopy(stateValueCodes, index, stateValueCodes, index + 1, size - index);
+        }
+    }
+
+    /**
+     * Column of continuous state values of one {@link StateValueType}: timestamps and values.
+     */
+    public static class ContinuousColumn extends TimestampColumn {
+
+        private double[] values = new double[CHUNK_SIZE];
+
+        private void add(final long timestampMilliS, final double value) {
+            // the insert may grow the arrays, so the index is determined before the array is referenced
+            final int index = prepareInsert(timestampMilliS);
+            values[index] = value;
+        }
+
+        /**
+         * Method returns the state value at the input index.
+         *
+         * @param index is the index of the state change.
+         * @return the continuous state value.
+         */
+        public double getValue(final int index) {
+            return values[index];
+        }
+
+        /**
+         * Method returns the backing value array. Only the first {@link #size()} entries are valid.
+         *
+         * @return the continuous state values.
+         */
+        public double[] getValues() {
+            return values;
+        }
+
+        @Override
+        protected void grow(final int capacity) {
+            super.grow(capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        protected void shift(final int index) {
+            super.shift(index);
+            System.arraycopy(values, index, values, index + 1, size - index);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.manager.aggregation.datatype;
+
+import org.openbase.bco.ontology.lib.utility.Preconditions;
+import org.openbase.jul.exception.CouldNotPerformException;
+
+import java.util.HashMap;
+
+/**
+ * This class is the columnar counterpart of {@link OntUnits} for not aggregated state changes. It maps the unitIds to
+ * their providerServices and the providerServices to their {@link OntStateColumns}.
+ *
+ *           1       :      N                            1       :      1
+ * {@link OntUnitColumns} --- (includes) --- providerService --- (includes) --- {@link OntStateColumns}
+ *
+ * @author agent on 18.10.26.
+ */
+public class OntUnitColumns {
+
+    private final HashMap<String, HashMap<String, OntStateColumns>> ontUnitColumns;
+
+    /**
+     * Constructor creates a hashMap to describe the unitId's as key and their related providerServices with columns as
+     * value.
+     */
+    public OntUnitColumns() {
+        this.ontUnitColumns = new HashMap<>();
+    }
+
+    /**
+     * Method returns the unitIds with the related providerServices and columns.
+     *
+     * @return the hashMap with unitIds and related providerServices.
+     */
+    public HashMap<String, HashMap<String, OntStateColumns>> getOntUnitColumns() {
+        return ontUnitColumns;
+    }
+
+    /**
+     * Method provides the providerServices with columns based on the input unitId.
+     *
+     * @param unitId is the unit, which associated providerServices are needed.
+     * @return a mapping of providerServices and their columns by match. Otherwise null.
+     */
+    public HashMap<String, OntStateColumns> getOntProviderServiceColumns(final String unitId) {
+        return (unitId == null) ? null : ontUnitColumns.get(unitId);
+    }
+
+    /**
+     * Method removes the unit and returns the providerServices with columns of the unit.
+     *
+     * @param unitId is the unit, which should be removed.
+     * @return a mapping of providerServices and their columns by match. Otherwise null.
+     */
+    public HashMap<String, OntStateColumns> removeOntProviderServiceColumns(final String unitId) {
+        return (unitId == null) ? null : ontUnitColumns.remove(unitId);
+    }
+
+    /**
+     * Method adds the state change to the columns of the unit and providerService. Missing entries are created.
+     *
+     * @param unitId is the unitId extracted from the ontology.
+     * @param ontProviderService is the providerService extracted from the ontology.
+     * @param ontStateChange is the (not aggregated) stateChange extracted from the ontology.
+     * @throws CouldNotPerformException is thrown in case at least one parameter is null or the state change could not
+     * be added to the columns.
+     */
+    public void addOntStateChange(final String unitId, final String ontProviderService,
+                                  final OntStateChange ontStateChange) throws CouldNotPerformException {
+        Preconditions.multipleCheckNotNullAndThrow(this, unitId, ontProviderService, ontStateChange);
+
+        ontUnitColumns.computeIfAbsent(unitId, key -> new HashMap<>())
+                .computeIfAbsent(ontProviderService, key -> new OntStateColumns()).addOntStateChange(ontStateChange);
+    }
+}
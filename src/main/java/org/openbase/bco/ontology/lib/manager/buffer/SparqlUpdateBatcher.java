@@ -0,0 +1,355 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.manager.buffer;
+
+import org.openbase.bco.ontology.lib.commun.web.SparqlHttp;
+import org.openbase.bco.ontology.lib.system.config.OntConfig;
+import org.openbase.bco.ontology.lib.utility.sparql.GraphPartitions;
+import org.openbase.bco.ontology.lib.utility.sparql.RdfTriple;
+import org.openbase.bco.ontology.lib.utility.sparql.SparqlUpdateExpression;
+import org.openbase.bco.ontology.lib.utility.sparql.SparqlUpdateWriter;
+import org.openbase.jul.exception.CouldNotPerformException;
+import org.openbase.jul.exception.NotAvailableException;
+import org.openbase.jul.exception.printer.ExceptionPrinter;
+import org.openbase.jul.exception.printer.LogLevel;
+import org.openbase.jul.extension.rsb.com.RSBFactoryImpl;
+import org.openbase.jul.extension.rsb.iface.RSBInformer;
+import org.openbase.jul.schedule.GlobalCachedExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rst.domotic.ontology.OntologyChangeType.OntologyChange;
+import rst.domotic.service.ServiceTemplateType.ServiceTemplate.ServiceType;
+import rst.domotic.unit.UnitTemplateType.UnitTemplate.UnitType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class collects sparql updates of different producers (e.g. state observations) and sends them as one http request to the ontology server. A batch is
+ * committed, if the linger time is expired or the maximal number of triples is reached (see {@link OntConfig#getBatchLingerMilliS()} and
+ * {@link OntConfig#getBatchSize()}). Consecutive insert data updates of the same graph are merged to one INSERT DATA block, other updates are joined via
+ * ";". The updates are sent in order of submission, so the order per unit is kept. The ontologyChanges of the batch are published via rsb after the batch
+ * is committed. The batch is written via {@link SparqlUpdateWriter} and streamed to the ontology server.
+ *
+ * @author agent on 18.10.26.
+ */
+public final class SparqlUpdateBatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SparqlUpdateBatcher.class);
+    /**
+     * Writer of the batch requests, which is reused by the consumer thread.
+     */
+    private static final SparqlUpdateWriter BATCH_WRITER = new SparqlUpdateWriter();
+    private static final BlockingQueue<BatchEntry> QUEUE = new LinkedBlockingQueue<>(OntConfig.getBatchQueueDepth());
+    private static RSBInformer<OntologyChange> rsbInformer;
+
+    static {
+        try {
+            rsbInformer = RSBFactoryImpl.getInstance().createSynchronizedInformer(OntConfig.getOntologyRsbScope(), OntologyChange.class);
+            rsbInformer.activate();
+        } catch (CouldNotPerformException ex) {
+            rsbInformer = null;
+            ExceptionPrinter.printHistory("Could not start informer of sparql update batcher! Ontology changes are not published.", ex, LOGGER,
+                    LogLevel.ERROR);
+        } catch (InterruptedException ex) {
+            rsbInformer = null;
+            Thread.currentThread().interrupt();
+        }
+
+        // the consumer is started in any case, otherwise the producers block on the full queue
+        GlobalCachedExecutorService.submit(() -> {
+            try {
+                processBatches();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+    }
+
+    private SparqlUpdateBatcher() {
+    }
+
+    /**
+     * Method submits insert data triples to the batcher. Consecutive insert data triples are merged to one INSERT DATA block. If the queue is full, the method
+     * blocks until there is free space.
+     *
+     * @param insert is the insert triple list (with or without namespace).
+     * @param ontologyChange is the change, which is published after the batch is committed. Can be set to {@code null}, if not necessary.
+     * @param subject is the subject of the update (e.g. unit id and service type), which is used by the transaction buffer to coalesce entries. Can be set
+     * to {@code null}, if not necessary.
+     * @throws InterruptedException is thrown in case the thread is interrupted while waiting for free space.
+     */
+    public static void submitInsert(final List<RdfTriple> insert, final OntologyChange ontologyChange, final String subject) throws InterruptedException {
+        submitInsert(insert, null, ontologyChange, subject);
+    }
+
+    /**
+     * Method submits insert data triples of a named graph to the batcher. Consecutive insert data triples of the same graph are merged to one INSERT DATA
+     * block. If the queue is full, the method blocks until there is free space.
+     *
+     * @param insert is the insert triple list (with or without namespace).
+     * @param graph is the full IRI of the graph (e.g. a graph partition, see {@link GraphPartitions}). Can be set to {@code null}, which leads to the
+     * default graph.
+     * @param ontologyChange is the change, which is published after the batch is committed. Can be set to {@code null}, if not necessary.
+     * @param subject is the subject of the update (e.g. unit id and service type), which is used by the transaction buffer to coalesce entries. Can be set
+     * to {@code null}, if not necessary.
+     * @throws InterruptedException is thrown in case the thread is interrupted while waiting for free space.
+     */
+    public static void submitInsert(final List<RdfTriple> insert, final String graph, final OntologyChange ontologyChange, final String subject)
+            throws InterruptedException {
+        QUEUE.put(new BatchEntry(insert, graph, null, ontologyChange, subject));
+    }
+
+    /**
+     * Method submits a complete sparql update expression to the batcher. The expression is joined with the other updates of the batch via ";". If the queue
+     * is full, the method blocks until there is free space.
+     *
+     * @param sparql is the sparql update expression.
+     * @param ontologyChange is the change, which is published after the batch is committed. Can be set to {@code null}, if not necessary.
+     * @param subject is the subject of the update (e.g. unit id and service type), which is used by the transaction buffer to coalesce entries. Can be set
+     * to {@code null}, if not necessary.
+     * @throws InterruptedException is thrown in case the thread is interrupted while waiting for free space.
+     */
+    public static void submitUpdate(final String sparql, final OntologyChange ontologyChange, final String subject) throws InterruptedException {
+        QUEUE.put(new BatchEntry(null, null, sparql, ontologyChange, subject));
+    }
+
+    private static void processBatches() throws InterruptedException {
+        final List<BatchEntry> batch = new ArrayList<>();
+
+        while (!Thread.currentThread().isInterrupted()) {
+            final BatchEntry firstEntry = QUEUE.take();
+            final long deadline = System.currentTimeMillis() + OntConfig.getBatchLingerMilliS();
+            int tripleCount = firstEntry.getTripleCount();
+
+            batch.add(firstEntry);
+
+            while (tripleCount < OntConfig.getBatchSize()) {
+                final long remainingMilliS = deadline - System.currentTimeMillis();
+
+                if (remainingMilliS <= 0) {
+                    break;
+                }
+
+                final BatchEntry nextEntry = QUEUE.poll(remainingMilliS, TimeUnit.MILLISECONDS);
+
+                if (nextEntry == null) {
+                    break;
+                }
+                batch.add(nextEntry);
+                tripleCount += nextEntry.getTripleCount();
+            }
+
+            try {
+                commitBatch(batch);
+            } catch (RuntimeException ex) {
+                // the consumer thread must survive, otherwise all producers block on the full queue
+                ExceptionPrinter.printHistory("Could not commit batch. Insert batch to transaction buffer.", ex, LOGGER, LogLevel.ERROR);
+                bufferBatchSafely(batch);
+            }
+            batch.clear();
+        }
+    }
+
+    private static void bufferBatchSafely(final List<BatchEntry> batch) {
+        try {
+            bufferBatch(batch);
+        } catch (RuntimeException ex) {
+            ExceptionPrinter.printHistory("Dropped batch, because it could not be inserted to transaction buffer!", ex, LOGGER, LogLevel.ERROR);
+        }
+    }
+
+    private static void commitBatch(final List<BatchEntry> batch) throws InterruptedException {
+        try {
+            writeBatch(batch);
+        } catch (NotAvailableException ex) {
+            ExceptionPrinter.printHistory("Dropped batch, because at least one element is null!", ex, LOGGER, LogLevel.ERROR);
+            return;
+        }
+
+        try {
+            SparqlHttp.uploadSparqlRequest(BATCH_WRITER, OntConfig.getOntologyDbUrl());
+            publishOntologyChange(batch);
+        } catch (IOException ex) {
+            // could not send to server or server error (e.g. overloaded) - insert the entries separately to buffer queue, so the buffer can apply the
+            // overflow policy per subject
+            bufferBatch(batch);
+        } catch (CouldNotPerformException ex) {
+            if (batch.size() == 1) {
+                printBadEntry(batch.get(0), ex);
+                return;
+            }
+            // client error - at least one update is bad. Commit the entries separately to drop the bad one(s) only
+            for (final BatchEntry batchEntry : batch) {
+                final List<BatchEntry> singleBatch = new ArrayList<>();
+                singleBatch.add(batchEntry);
+                commitBatch(singleBatch);
+            }
+        }
+    }
+
+    private static void bufferBatch(final List<BatchEntry> batch) {
+        final List<String> sparqls = new ArrayList<>();
+        final List<String> subjects = new ArrayList<>();
+
+        for (final BatchEntry batchEntry : batch) {
+            try {
+                sparqls.add(getSparql(batchEntry));
+                subjects.add(batchEntry.getSubject());
+            } catch (NotAvailableException ex) {
+                ExceptionPrinter.printHistory("Dropped batch entry, because at least one element is null!", ex, LOGGER, LogLevel.ERROR);
+            }
+        }
+        // the overflow policy BLOCK waits once for the whole batch
+        TransactionBuffer.insertData(sparqls, subjects);
+    }
+
+    private static void printBadEntry(final BatchEntry batchEntry, final CouldNotPerformException ex) {
+        try {
+            ExceptionPrinter.printHistory("Update string is bad! SPARQL String: " + getSparql(batchEntry), ex, LOGGER, LogLevel.ERROR);
+        } catch (NotAvailableException notAvailableException) {
+            ExceptionPrinter.printHistory("Update string is bad!", ex, LOGGER, LogLevel.ERROR);
+        }
+    }
+
+    private static String getSparql(final BatchEntry batchEntry) throws NotAvailableException {
+        return (batchEntry.getInsert() == null) ? batchEntry.getSparql()
+                : SparqlUpdateExpression.getSparqlInsertExpression(batchEntry.getGraph(), batchEntry.getInsert());
+    }
+
+    private static void writeBatch(final List<BatchEntry> batch) throws NotAvailableException {
+        final List<RdfTriple> insertRun = new ArrayList<>();
+        String insertRunGraph = null;
+
+        BATCH_WRITER.reset();
+
+        for (final BatchEntry batchEntry : batch) {
+            if (batchEntry.getInsert() != null) {
+                if (!Objects.equals(insertRunGraph, batchEntry.getGraph())) {
+                    writeInsertRun(insertRunGraph, insertRun);
+                    insertRunGraph = batchEntry.getGraph();
+                }
+                insertRun.addAll(batchEntry.getInsert());
+                continue;
+            }
+            writeInsertRun(insertRunGraph, insertRun);
+            // each operation of a sparql update request may have its own prologue (prefixes)
+            BATCH_WRITER.update(batchEntry.getSparql());
+        }
+        writeInsertRun(insertRunGraph, insertRun);
+    }
+
+    private static void writeInsertRun(final String graph, final List<RdfTriple> insertRun) throws NotAvailableException {
+        if (!insertRun.isEmpty()) {
+            BATCH_WRITER.insertData(graph, insertRun);
+            insertRun.clear();
+        }
+    }
+
+    private static void publishOntologyChange(final List<BatchEntry> batch) throws InterruptedException {
+        final OntologyChange.Builder ontologyChangeBuilder = OntologyChange.newBuilder();
+        boolean hasChange = false;
+
+        for (final BatchEntry batchEntry : batch) {
+            final OntologyChange ontologyChange = batchEntry.getOntologyChange();
+
+            if (ontologyChange == null) {
+                continue;
+            }
+            hasChange = true;
+
+            for (final OntologyChange.Category category : ontologyChange.getCategoryList()) {
+                if (!ontologyChangeBuilder.getCategoryList().contains(category)) {
+                    ontologyChangeBuilder.addCategory(category);
+                }
+            }
+            for (final UnitType unitType : ontologyChange.getUnitTypeList()) {
+                if (!ontologyChangeBuilder.getUnitTypeList().contains(unitType)) {
+                    ontologyChangeBuilder.addUnitType(unitType);
+                }
+            }
+            for (final ServiceType serviceType : ontologyChange.getServiceTypeList()) {
+                if (!ontologyChangeBuilder.getServiceTypeList().contains(serviceType)) {
+                    ontologyChangeBuilder.addServiceType(serviceType);
+                }
+            }
+        }
+
+        if (!hasChange || rsbInformer == null) {
+            return;
+        }
+
+        try {
+            rsbInformer.publish(ontologyChangeBuilder.build());
+        } catch (CouldNotPerformException ex) {
+            ExceptionPrinter.printHistory("Could not publish ontologyChange of committed batch!", ex, LOGGER, LogLevel.ERROR);
+        }
+    }
+
+    /**
+     * Entry of the batch queue. Keeps either insert data triples (and their graph) or a complete sparql update expression.
+     */
+    private static final class BatchEntry {
+
+        private final List<RdfTriple> insert;
+        private final String graph;
+        private final String sparql;
+        private final OntologyChange ontologyChange;
+        private final String subject;
+
+        private BatchEntry(final List<RdfTriple> insert, final String graph, final String sparql, final OntologyChange ontologyChange,
+                           final String subject) {
+            this.insert = insert;
+            this.graph = graph;
+            this.sparql = sparql;
+            this.ontologyChange = ontologyChange;
+            this.subject = subject;
+        }
+
+        private List<RdfTriple> getInsert() {
+            return insert;
+        }
+
+        private String getGraph() {
+            return graph;
+        }
+
+        private String getSparql() {
+            return sparql;
+        }
+
+        private OntologyChange getOntologyChange() {
+            return ontologyChange;
+        }
+
+        private String getSubject() {
+            return subject;
+        }
+
+        private int getTripleCount() {
+            return (insert == null) ? 1 : insert.size();
+        }
+    }
+}
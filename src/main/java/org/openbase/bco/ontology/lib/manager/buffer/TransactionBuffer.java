@@ -26,30 +26,68 @@ import org.openbase.jul.exception.printer.ExceptionPrinter;
 import org.openbase.jul.exception.printer.LogLevel;
 import org.openbase.jul.extension.rsb.com.RSBFactoryImpl;
 import org.openbase.jul.extension.rsb.iface.RSBInformer;
+import org.openbase.jul.pattern.ObservableImpl;
+import org.openbase.jul.schedule.GlobalCachedExecutorService;
 import org.openbase.jul.schedule.GlobalScheduledExecutorService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rst.domotic.ontology.OntologyChangeType.OntologyChange;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.Queue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 /**
+ * The transaction buffer keeps the sparql updates, which could not be send to the ontology server. The entries are stored persistently in a transaction log
+ * on the local disk (see {@link OntConfig#getBufferDirectory()}) and are uploaded in order, if the server is reachable again (also after a restart).
+ *
+ * The entries, which are coalesced by the overflow policy COALESCE_BY_SUBJECT, are kept in memory until there is free space in the log. They are appended
+ * to the log at the shutdown of the application, but are lost in case the application crashes.
+ *
  * @author agatting on 17.01.17.
  */
 public final class TransactionBuffer {
 
+    /**
+     * Informs about the pressure of the transaction buffer: true, if the fill level crosses the high watermark and false, if the fill level crosses the low
+     * watermark afterwards. Producers can reduce their rate under pressure.
+     */
+    public static final ObservableImpl<Boolean> PRESSURE_OBSERVABLE = new ObservableImpl<>(false);
+
     private static final Logger LOGGER = LoggerFactory.getLogger(TransactionBuffer.class);
-    private static final Queue<String> QUEUE = new LinkedBlockingQueue<>();
+    private static TransactionLog transactionLog;
+    private static final Pattern INSERT_DATA_PATTERN = Pattern.compile("INSERT\\s+DATA", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ORDER_DEPENDENT_PATTERN = Pattern.compile("\\b(DELETE|WHERE|CLEAR|DROP|LOAD|CREATE|ADD|MOVE|COPY)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Map<String, String> COALESCED_ENTRIES = new LinkedHashMap<>();
     private static RSBInformer<OntologyChange> rsbInformer;
+    private static volatile boolean underPressure;
+    private static volatile long droppedEntries;
+    private static volatile boolean replaying;
+    private static volatile long replayedEntries;
+    private static volatile long replayStartMilliS;
+    private static volatile boolean coalescingWarned;
 
     static {
         try {
-            new TransactionBuffer();
+            transactionLog = new TransactionLog(new File(OntConfig.getBufferDirectory()), OntConfig.TRANSACTION_BUFFER_SEGMENT_SIZE);
+            Runtime.getRuntime().addShutdownHook(new Thread(TransactionBuffer::persistCoalescedEntries, "TransactionBufferShutdown"));
             rsbInformer = RSBFactoryImpl.getInstance().createSynchronizedInformer(OntConfig.getOntologyRsbScope(), OntologyChange.class);
+            rsbInformer.activate();
+            new TransactionBuffer();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ex) {
+            ExceptionPrinter.printHistory("Could not open transaction log!", ex, LOGGER, LogLevel.ERROR);
         } catch (CouldNotPerformException ex) {
             ExceptionPrinter.printHistory(ex, LOGGER, LogLevel.ERROR);
         }
@@ -67,32 +105,14 @@ public final class TransactionBuffer {
     private void startUploadQueueEntriesThread() throws CouldNotPerformException {
         try {
             GlobalScheduledExecutorService.scheduleWithFixedDelay(() -> {
-                while (!QUEUE.isEmpty()) {
-                    final String sparql = QUEUE.peek();
-
-                    try {
-                        SparqlHttp.uploadSparqlRequest(sparql, OntConfig.getOntologyDbUrl());
-                        QUEUE.poll();
-                    } catch (CouldNotPerformException ex) {
-                        QUEUE.poll();
-                        ExceptionPrinter.printHistory("Dropped broken QUEUE entry.", ex, LOGGER, LogLevel.ERROR);
-                    } catch (IOException ex) {
-                        LOGGER.warn("IOException: no connection...Retry...");
-                        break;
-                    }
-
-                    try {
-                        if (QUEUE.isEmpty()) {
-                            final OntologyChange ontologyChange = OntologyChange.newBuilder().addCategory(OntologyChange.Category.UNKNOWN).build();
-
-                            rsbInformer.activate();
-                            rsbInformer.publish(ontologyChange);
-                            rsbInformer.deactivate();
-                            LOGGER.info("Transaction buffer is empty. All entries send to server.");
-                        }
-                    } catch (InterruptedException | CouldNotPerformException ex) {
-                        ExceptionPrinter.printHistory(ex, LOGGER, LogLevel.ERROR);
-                    }
+                try {
+                    replayEntries();
+                } catch (IOException ex) {
+                    ExceptionPrinter.printHistory("Could not read transaction log!", ex, LOGGER, LogLevel.ERROR);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    replaying = false;
                 }
             }, 0, OntConfig.SMALL_RETRY_PERIOD_SECONDS, TimeUnit.SECONDS);
         } catch (RejectedExecutionException | IllegalArgumentException | CouldNotPerformException ex) {
@@ -101,14 +121,483 @@ public final class TransactionBuffer {
     }
 
     /**
-     * Method inserts a sparql expression to the transaction buffer (QUEUE). If the QUEUE reaches the capacity than the first entry is removed to avoid overflow.
+     * Method replays the buffered entries in bulk mode: the entries are grouped to multi-statement sparql requests and several requests are sent in parallel.
+     * Requests, which contain insert data updates only, are independent of their order. All other requests are barriers: they are sent after the previous
+     * requests are committed. Entries are removed from the buffer in order after the requests are committed. If the buffer is empty, one summarizing
+     * ontologyChange is published.
+     *
+     * @throws IOException is thrown in case the transaction log could not be read.
+     * @throws InterruptedException is thrown in case the thread is interrupted.
+     */
+    private static void replayEntries() throws IOException, InterruptedException {
+        if (transactionLog.isEmpty()) {
+            return;
+        }
+
+        replaying = true;
+        replayedEntries = 0;
+        replayStartMilliS = System.currentTimeMillis();
+        LOGGER.info("Replay " + transactionLog.size() + " entries of transaction buffer...");
+
+        while (true) {
+            final long headSequence;
+            final List<String> entries;
+
+            synchronized (transactionLog) {
+                headSequence = transactionLog.getHeadSequence();
+                entries = transactionLog.peek(OntConfig.TRANSACTION_BUFFER_REPLAY_BATCH_SIZE * OntConfig.TRANSACTION_BUFFER_REPLAY_PARALLELISM);
+            }
+
+            if (entries.isEmpty()) {
+                publishOntologyChange();
+                LOGGER.info("Transaction buffer is empty. All entries send to server. Replayed " + replayedEntries + " entries ("
+                        + (long) getReplayThroughput() + " entries/s).");
+                return;
+            }
+
+            final long committedEntries = replayBatches(getReplayBatches(entries));
+            transactionLog.removeUntil(headSequence + committedEntries);
+            releaseSpace();
+            replayedEntries += committedEntries;
+
+            if (committedEntries < entries.size()) {
+                LOGGER.warn("IOException: no connection...Retry...");
+                return;
+            }
+            LOGGER.info("Replayed " + replayedEntries + " entries of transaction buffer. Remaining: " + transactionLog.size() + " ("
+                    + (long) getReplayThroughput() + " entries/s).");
+        }
+    }
+
+    /**
+     * Method sends the batches and returns the number of entries, which are committed in order (beginning with the first entry).
+     *
+     * @param replayBatches are the batches in order of the buffer.
+     * @return the number of committed entries.
+     * @throws InterruptedException is thrown in case the thread is interrupted.
+     */
+    private static long replayBatches(final List<ReplayBatch> replayBatches) throws InterruptedException {
+        final List<Future<Boolean>> futures = new ArrayList<>();
+        final List<ReplayBatch> parallelBatches = new ArrayList<>();
+        long committedEntries = 0;
+
+        for (final ReplayBatch replayBatch : replayBatches) {
+            if (replayBatch.isInsertDataOnly()) {
+                futures.add(GlobalCachedExecutorService.submit(() -> uploadBatch(replayBatch.getEntries())));
+                parallelBatches.add(replayBatch);
+                continue;
+            }
+
+            // barrier: all previous batches have to be committed before
+            final long parallelCommittedEntries = awaitBatches(futures, parallelBatches);
+            committedEntries += parallelCommittedEntries;
+
+            if (parallelCommittedEntries < getEntryCount(parallelBatches) || !uploadBatch(replayBatch.getEntries())) {
+                return committedEntries;
+            }
+            committedEntries += replayBatch.getEntries().size();
+            futures.clear();
+            parallelBatches.clear();
+        }
+        return committedEntries + awaitBatches(futures, parallelBatches);
+    }
+
+    private static long awaitBatches(final List<Future<Boolean>> futures, final List<ReplayBatch> replayBatches) throws InterruptedException {
+        long committedEntries = 0;
+        boolean inOrder = true;
+
+        for (int i = 0; i < futures.size(); i++) {
+            boolean isCommitted;
+
+            try {
+                isCommitted = futures.get(i).get();
+            } catch (ExecutionException ex) {
+                ExceptionPrinter.printHistory("Could not replay batch of transaction buffer!", ex, LOGGER, LogLevel.ERROR);
+                isCommitted = false;
+            }
+
+            // wait for all batches, but count the committed entries in order only
+            inOrder = inOrder && isCommitted;
+
+            if (inOrder) {
+                committedEntries += replayBatches.get(i).getEntries().size();
+            }
+        }
+        return committedEntries;
+    }
+
+    /**
+     * Method uploads the entries as one sparql request. If the server rejects the request with a client error, the entries are uploaded separately to drop
+     * the broken entries only. A server error (e.g. overloaded server) is handled like a missing connection, so that the persisted entries are kept for the
+     * next replay.
+     *
+     * @param entries are the sparql update expressions.
+     * @return {@code true} if the entries are committed (or dropped, because broken). Otherwise {@code false}, because there is no connection or the server
+     * is unavailable.
+     */
+    private static boolean uploadBatch(final List<String> entries) {
+        try {
+            // each operation of a sparql update request may have its own prologue (prefixes)
+            SparqlHttp.uploadSparqlRequest(String.join(" ; ", entries), OntConfig.getOntologyDbUrl());
+            return true;
+        } catch (IOException ex) {
+            // no connection or server error (5xx, see SparqlHttp#checkHttpRequest) - keep the entries and don't split the batch
+            return false;
+        } catch (CouldNotPerformException ex) {
+            // client error - at least one entry is broken
+            if (entries.size() == 1) {
+                ExceptionPrinter.printHistory("Dropped broken transaction buffer entry: " + entries.get(0), ex, LOGGER, LogLevel.ERROR);
+                return true;
+            }
+
+            for (final String entry : entries) {
+                if (!uploadBatch(Collections.singletonList(entry))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static List<ReplayBatch> getReplayBatches(final List<String> entries) {
+        final List<ReplayBatch> replayBatches = new ArrayList<>();
+        ReplayBatch replayBatch = null;
+
+        for (final String entry : entries) {
+            final boolean isInsertDataOnly = isInsertDataOnly(entry);
+
+            if (replayBatch == null || replayBatch.isInsertDataOnly() != isInsertDataOnly
+                    || replayBatch.getEntries().size() >= OntConfig.TRANSACTION_BUFFER_REPLAY_BATCH_SIZE) {
+                replayBatch = new ReplayBatch(isInsertDataOnly);
+                replayBatches.add(replayBatch);
+            }
+            replayBatch.getEntries().add(entry);
+        }
+        return replayBatches;
+    }
+
+    private static long getEntryCount(final List<ReplayBatch> replayBatches) {
+        long entryCount = 0;
+
+        for (final ReplayBatch replayBatch : replayBatches) {
+            entryCount += replayBatch.getEntries().size();
+        }
+        return entryCount;
+    }
+
+    /**
+     * Method checks, if the sparql expression contains insert data operations only. In doubt (e.g. keyword in literal) the method returns false, which is
+     * safe, because the entry is replayed in order.
+     *
+     * @param sparql is the sparql update expression.
+     * @return {@code true} if the expression contains insert data operations only. Otherwise {@code false}.
+     */
+    private static boolean isInsertDataOnly(final String sparql) {
+        return INSERT_DATA_PATTERN.matcher(sparql).find() && !ORDER_DEPENDENT_PATTERN.matcher(sparql).find();
+    }
+
+    private static void publishOntologyChange() {
+        try {
+            final OntologyChange ontologyChange = OntologyChange.newBuilder().addCategory(OntologyChange.Category.UNKNOWN).build();
+            rsbInformer.publish(ontologyChange);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (CouldNotPerformException ex) {
+            ExceptionPrinter.printHistory(ex, LOGGER, LogLevel.ERROR);
+        }
+    }
+
+    /**
+     * Method returns the number of entries, which are currently buffered.
+     *
+     * @return the number of buffered entries.
+     */
+    public static long getSize() {
+        return (transactionLog == null) ? 0 : transactionLog.size();
+    }
+
+    /**
+     * Method returns true, if the buffered entries are currently replayed to the ontology server.
+     *
+     * @return {@code true} if the buffer is replayed. Otherwise {@code false}.
+     */
+    public static boolean isReplaying() {
+        return replaying;
+    }
+
+    /**
+     * Method returns the number of entries, which are replayed since the start of the current (or last) replay.
+     *
+     * @return the number of replayed entries.
+     */
+    public static long getReplayedEntries() {
+        return replayedEntries;
+    }
+
+    /**
+     * Method returns the throughput of the current (or last) replay.
+     *
+     * @return the number of replayed entries per second.
+     */
+    public static double getReplayThroughput() {
+        final long durationMilliS = Math.max(1, System.currentTimeMillis() - replayStartMilliS);
+        return replayedEntries * 1000.0 / durationMilliS;
+    }
+
+    /**
+     * Method inserts a sparql expression to the transaction buffer. If the buffer reaches the capacity, the overflow policy is applied (see
+     * {@link OntConfig#getBufferOverflowPolicy()}).
      *
      * @param sparql is the sparql update expression.
      */
     public static void insertData(final String sparql) {
-        if (QUEUE.size() > OntConfig.TRANSACTION_BUFFER_SIZE) {
-            QUEUE.poll();
+        insertData(sparql, null);
+    }
+
+    /**
+     * Method inserts a sparql expression to the transaction buffer. If the buffer reaches the capacity, the overflow policy is applied (see
+     * {@link OntConfig#getBufferOverflowPolicy()}). The subject is used by the policy COALESCE_BY_SUBJECT to keep the latest entry per subject only.
+     *
+     * @param sparql is the sparql update expression.
+     * @param subject is the subject of the entry (e.g. unit id and service type of an observation). Can be set to {@code null}, if not necessary.
+     */
+    public static void insertData(final String sparql, final String subject) {
+        insertData(sparql, subject, System.currentTimeMillis() + OntConfig.TRANSACTION_BUFFER_BLOCK_TIMEOUT_MILLISECONDS);
+    }
+
+    /**
+     * Method inserts the sparql expressions of a batch to the transaction buffer like {@link #insertData(String, String)}. The policy BLOCK waits for free
+     * space at most {@link OntConfig#TRANSACTION_BUFFER_BLOCK_TIMEOUT_MILLISECONDS} for the whole batch (not per entry). Entries, which still don't fit after
+     * the timeout, are dropped without further waiting.
+     *
+     * @param sparqls are the sparql update expressions in order.
+     * @param subjects are the subjects of the entries (same order and size as the expressions). A subject can be {@code null}, if not necessary.
+     */
+    public static void insertData(final List<String> sparqls, final List<String> subjects) {
+        final long deadline = System.currentTimeMillis() + OntConfig.TRANSACTION_BUFFER_BLOCK_TIMEOUT_MILLISECONDS;
+
+        for (int i = 0; i < sparqls.size(); i++) {
+            insertData(sparqls.get(i), subjects.get(i), deadline);
+        }
+    }
+
+    private static void insertData(final String sparql, final String subject, final long deadline) {
+        if (transactionLog == null) {
+            LOGGER.error("Transaction log is not available. Dropped sparql update: " + sparql);
+            return;
+        }
+
+        try {
+            synchronized (transactionLog) {
+                if (replaceCoalescedEntry(sparql, subject)) {
+                    return;
+                }
+
+                if (transactionLog.size() < OntConfig.TRANSACTION_BUFFER_SIZE || handleOverflow(sparql, subject, deadline)) {
+                    transactionLog.append(sparql);
+                }
+            }
+        } catch (IOException ex) {
+            ExceptionPrinter.printHistory("Could not insert sparql update to transaction log. Dropped: " + sparql, ex, LOGGER, LogLevel.ERROR);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            LOGGER.error("Interrupted while waiting for free transaction buffer space. Dropped sparql update: " + sparql);
+        } finally {
+            updatePressure();
+        }
+    }
+
+    /**
+     * Method replaces the coalesced entry of the subject, if there is one. Otherwise the newer entry would be stored before the older (coalesced) entry.
+     *
+     * @param sparql is the new sparql update expression.
+     * @param subject is the subject of the new entry. Can be {@code null}.
+     * @return {@code true} if the coalesced entry is replaced. Otherwise {@code false}.
+     */
+    private static boolean replaceCoalescedEntry(final String sparql, final String subject) {
+        if (subject == null) {
+            return false;
+        }
+
+        synchronized (COALESCED_ENTRIES) {
+            if (!COALESCED_ENTRIES.containsKey(subject)) {
+                return false;
+            }
+            COALESCED_ENTRIES.remove(subject);
+            COALESCED_ENTRIES.put(subject, sparql);
+            droppedEntries++;
+            return true;
+        }
+    }
+
+    /**
+     * Method applies the overflow policy. Consider that the caller holds the lock of the transaction log.
+     *
+     * @param sparql is the new sparql update expression.
+     * @param subject is the subject of the new entry. Can be {@code null}.
+     * @param deadline is the time in milliseconds, until the policy BLOCK waits for free space.
+     * @return {@code true} if the new entry should be appended to the log. Otherwise {@code false}, because the entry is dropped or coalesced.
+     * @throws IOException is thrown in case the oldest entry could not be removed.
+     * @throws InterruptedException is thrown in case the thread is interrupted while waiting for free space.
+     */
+    private static boolean handleOverflow(final String sparql, final String subject, final long deadline) throws IOException, InterruptedException {
+        switch (OntConfig.getBufferOverflowPolicy()) {
+            case BLOCK:
+                long remainingMilliS = deadline - System.currentTimeMillis();
+
+                while (transactionLog.size() >= OntConfig.TRANSACTION_BUFFER_SIZE && remainingMilliS > 0) {
+                    // notified by the replay, if entries are removed
+                    transactionLog.wait(remainingMilliS);
+                    remainingMilliS = deadline - System.currentTimeMillis();
+                }
+
+                if (transactionLog.size() < OntConfig.TRANSACTION_BUFFER_SIZE) {
+                    return true;
+                }
+                dropEntry(sparql);
+                return false;
+            case DROP_NEWEST:
+                dropEntry(sparql);
+                return false;
+            case COALESCE_BY_SUBJECT:
+                if (subject == null) {
+                    // entries without subject (e.g. unit configurations) can't be coalesced and are kept
+                    return true;
+                }
+                if (!coalescingWarned) {
+                    coalescingWarned = true;
+                    LOGGER.warn("Transaction buffer is full. Coalesced entries are kept in memory until there is free space and are lost in case of a crash.");
+                }
+                synchronized (COALESCED_ENTRIES) {
+                    COALESCED_ENTRIES.put(subject, sparql);
+                }
+                return false;
+            case DROP_OLDEST:
+            default:
+                final String oldestEntry = transactionLog.poll();
+
+                if (oldestEntry != null) {
+                    dropEntry(oldestEntry);
+                }
+                return true;
+        }
+    }
+
+    private static void dropEntry(final String sparql) {
+        droppedEntries++;
+        LOGGER.warn("Transaction buffer is full. Dropped sparql update: " + sparql);
+    }
+
+    /**
+     * Method is called after entries are removed from the log. Waiting producers are notified and coalesced entries are moved to the log, if there is free
+     * space.
+     *
+     * @throws IOException is thrown in case a coalesced entry could not be appended to the log.
+     */
+    private static void releaseSpace() throws IOException {
+        synchronized (transactionLog) {
+            synchronized (COALESCED_ENTRIES) {
+                final Iterator<String> iterator = COALESCED_ENTRIES.values().iterator();
+
+                while (iterator.hasNext() && transactionLog.size() < OntConfig.TRANSACTION_BUFFER_SIZE) {
+                    transactionLog.append(iterator.next());
+                    iterator.remove();
+                }
+            }
+            transactionLog.notifyAll();
+        }
+        updatePressure();
+    }
+
+    /**
+     * Method appends the coalesced entries to the log regardless of the capacity, so that they are replayed after a restart. The method is called at the
+     * shutdown of the application.
+     */
+    private static void persistCoalescedEntries() {
+        synchronized (transactionLog) {
+            synchronized (COALESCED_ENTRIES) {
+                if (COALESCED_ENTRIES.isEmpty()) {
+                    return;
+                }
+
+                try {
+                    for (final String sparql : COALESCED_ENTRIES.values()) {
+                        transactionLog.append(sparql);
+                    }
+                    LOGGER.info("Persisted " + COALESCED_ENTRIES.size() + " coalesced entries of transaction buffer.");
+                    COALESCED_ENTRIES.clear();
+                } catch (IOException ex) {
+                    ExceptionPrinter.printHistory("Could not persist coalesced entries of transaction buffer. Dropped " + COALESCED_ENTRIES.size()
+                            + " entries.", ex, LOGGER, LogLevel.ERROR);
+                }
+            }
+        }
+    }
+
+    /**
+     * Method notifies the observers of {@link #PRESSURE_OBSERVABLE}, if the fill level of the buffer crosses the high watermark (pressure) or the low
+     * watermark (no pressure anymore).
+     */
+    private static void updatePressure() {
+        final double fillLevel = (double) getSize() / OntConfig.TRANSACTION_BUFFER_SIZE;
+        final Boolean newPressure;
+
+        synchronized (PRESSURE_OBSERVABLE) {
+            if (!underPressure && fillLevel >= OntConfig.TRANSACTION_BUFFER_HIGH_WATERMARK) {
+                newPressure = true;
+            } else if (underPressure && fillLevel <= OntConfig.TRANSACTION_BUFFER_LOW_WATERMARK) {
+                newPressure = false;
+            } else {
+                return;
+            }
+            underPressure = newPressure;
+        }
+
+        try {
+            LOGGER.info("Transaction buffer " + ((newPressure) ? "is under pressure." : "is relieved."));
+            PRESSURE_OBSERVABLE.notifyObservers(newPressure);
+        } catch (CouldNotPerformException ex) {
+            ExceptionPrinter.printHistory("Could not notify transaction buffer pressure!", ex, LOGGER, LogLevel.ERROR);
+        }
+    }
+
+    /**
+     * Method returns the number of entries, which are dropped by the overflow policy.
+     *
+     * @return the number of dropped entries.
+     */
+    public static long getDroppedEntries() {
+        return droppedEntries;
+    }
+
+    /**
+     * Method returns true, if the buffer is filled over the high watermark and did not reach the low watermark again.
+     *
+     * @return {@code true} if the buffer is under pressure. Otherwise {@code false}.
+     */
+    public static boolean isUnderPressure() {
+        return underPressure;
+    }
+
+    /**
+     * Batch of transaction buffer entries, which are replayed in one sparql request.
+     */
+    private static final class ReplayBatch {
+
+        private final List<String> entries;
+        private final boolean insertDataOnly;
+
+        private ReplayBatch(final boolean insertDataOnly) {
+            this.entries = new ArrayList<>();
+            this.insertDataOnly = insertDataOnly;
+        }
+
+        private List<String> getEntries() {
+            return entries;
+        }
+
+        private boolean isInsertDataOnly() {
+            return insertDataOnly;
         }
-        QUEUE.offer(sparql);
     }
 }
@@ -0,0 +1,504 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.manager.buffer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Class is an append-only log of string entries (e.g. sparql updates), which is stored in memory-mapped segment files on the local disk. Each entry is
+ * stored as record with length, checksum (CRC32) and utf-8 content. The read offset is persisted in an own file, so the remaining entries are replayed in
+ * order after a restart. Segment files, which are read completely, are deleted and unmapped. Therefore the heap usage is independent of the number of
+ * entries. The read offset is forced to disk at the latest after {@link #MAX_UNFORCED_REMOVALS} removed entries, which bounds the number of entries
+ * replayed again after a crash.
+ *
+ * @author agent on 18.10.26.
+ */
+final class TransactionLog {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionLog.class);
+    private static final String SEGMENT_PREFIX = "segment_";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String OFFSET_FILE_NAME = "read.offset";
+    /**
+     * Record header: length (int) and checksum (int).
+     */
+    private static final int HEADER_SIZE = 8;
+    /**
+     * Offset file: segment index (long) and position (int).
+     */
+    private static final int OFFSET_FILE_SIZE = 12;
+    /**
+     * Maximal number of removed entries, whose read offset is not forced to disk.
+     */
+    static final int MAX_UNFORCED_REMOVALS = 64;
+
+    private final File directory;
+    private final int segmentSize;
+    private final MappedByteBuffer offsetBuffer;
+    private final CRC32 crc32;
+    /**
+     * Mappings of the segments, which are not read completely. A segment is mapped once and unmapped, when it is deleted.
+     */
+    private final Map<Long, MappedByteBuffer> segmentBuffers;
+
+    private long writeSegmentIndex;
+    private MappedByteBuffer writeBuffer;
+    private int writePosition;
+
+    private long readSegmentIndex;
+    private MappedByteBuffer readBuffer;
+    private int readPosition;
+
+    private long entryCount;
+    private long headSequence;
+    private String headEntry;
+    private int headNextPosition;
+    private int unforcedRemovals;
+
+    /**
+     * Constructor opens the transaction log in the input directory. Existing segment files are recovered: the write position is set behind the last valid
+     * record and the read position is loaded from the offset file.
+     *
+     * @param directory is the directory, which contains the segment files.
+     * @param segmentSize is the size of a new segment file in bytes.
+     * @throws IOException is thrown in case the directory or the files could not be created or mapped.
+     */
+    TransactionLog(final File directory, final int segmentSize) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create transaction log directory " + directory.getAbsolutePath());
+        }
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.crc32 = new CRC32();
+        this.segmentBuffers = new HashMap<>();
+        this.offsetBuffer = map(new File(directory, OFFSET_FILE_NAME), OFFSET_FILE_SIZE);
+
+        final List<Long> segmentIndexes = getSegmentIndexes();
+
+        if (segmentIndexes.isEmpty()) {
+            this.writeSegmentIndex = 0;
+            this.writeBuffer = map(getSegmentFile(writeSegmentIndex), segmentSize);
+            this.segmentBuffers.put(writeSegmentIndex, writeBuffer);
+            this.writePosition = 0;
+            this.readSegmentIndex = 0;
+            this.readPosition = 0;
+            this.readBuffer = writeBuffer;
+            this.entryCount = 0;
+            persistReadOffset();
+            return;
+        }
+
+        this.writeSegmentIndex = segmentIndexes.get(segmentIndexes.size() - 1);
+        this.writeBuffer = getSegmentBuffer(writeSegmentIndex);
+        this.writePosition = getEndPosition(writeBuffer);
+
+        final long persistedSegmentIndex = offsetBuffer.getLong(0);
+        final int persistedPosition = offsetBuffer.getInt(Long.BYTES);
+
+        if (segmentIndexes.contains(persistedSegmentIndex)) {
+            this.readSegmentIndex = persistedSegmentIndex;
+            this.readPosition = persistedPosition;
+        } else {
+            LOGGER.warn("Read offset of transaction log is invalid. Replay from oldest segment.");
+            this.readSegmentIndex = segmentIndexes.get(0);
+            this.readPosition = 0;
+        }
+        this.readBuffer = getSegmentBuffer(readSegmentIndex);
+        this.entryCount = countEntries(segmentIndexes);
+
+        if (entryCount != 0) {
+            LOGGER.info("Recovered " + entryCount + " entries of transaction log.");
+        }
+    }
+
+    /**
+     * Method appends the entry to the end of the log.
+     *
+     * @param entry is the entry, which should be stored.
+     * @throws IOException is thrown in case a new segment file could not be created.
+     */
+    synchronized void append(final String entry) throws IOException {
+        final byte[] content = entry.getBytes(StandardCharsets.UTF_8);
+        final int recordSize = HEADER_SIZE + content.length;
+
+        if (writePosition + recordSize > writeBuffer.capacity()) {
+            writeSegmentIndex++;
+            writeBuffer = map(getSegmentFile(writeSegmentIndex), Math.max(segmentSize, recordSize + Integer.BYTES));
+            segmentBuffers.put(writeSegmentIndex, writeBuffer);
+            writePosition = 0;
+        }
+
+        crc32.reset();
+        crc32.update(content, 0, content.length);
+
+        final ByteBuffer byteBuffer = writeBuffer.duplicate();
+        byteBuffer.position(writePosition + Integer.BYTES);
+        byteBuffer.putInt((int) crc32.getValue());
+        byteBuffer.put(content);
+
+        // mark the end of the log explicitly to overwrite stale data (e.g. broken record before restart)
+        if (writePosition + recordSize + Integer.BYTES <= writeBuffer.capacity()) {
+            writeBuffer.putInt(writePosition + recordSize, 0);
+        }
+        // the length is written last, so that an incomplete record is never valid
+        writeBuffer.putInt(writePosition, content.length);
+
+        writePosition += recordSize;
+        entryCount++;
+    }
+
+    /**
+     * Method returns the oldest entry of the log without removing it. Segment files, which are read completely, are deleted.
+     *
+     * @return the oldest entry or {@code null} if the log is empty.
+     * @throws IOException is thrown in case the next segment file could not be mapped.
+     */
+    synchronized String peek() throws IOException {
+        while (headEntry == null) {
+            final byte[] content = readRecord(readBuffer, readPosition);
+
+            if (content != null) {
+                headEntry = new String(content, StandardCharsets.UTF_8);
+                headNextPosition = readPosition + HEADER_SIZE + content.length;
+            } else if (readSegmentIndex < writeSegmentIndex) {
+                switchToNextReadSegment();
+            } else {
+                return null;
+            }
+        }
+        return headEntry;
+    }
+
+    /**
+     * Method removes the oldest entry of the log, if it's the input entry (same instance, which is returned by {@link #peek()}). The new read offset is
+     * persisted and forced to disk at the latest after {@link #MAX_UNFORCED_REMOVALS} removed entries.
+     *
+     * @param entry is the entry, which was returned by {@link #peek()}.
+     * @return {@code true} if the entry was removed. Otherwise {@code false}, because the entry was already removed.
+     */
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    synchronized boolean remove(final String entry) {
+        if (headEntry == null || headEntry != entry) {
+            return false;
+        }
+
+        readPosition = headNextPosition;
+        headEntry = null;
+        entryCount--;
+        headSequence++;
+        persistReadOffset();
+
+        if (++unforcedRemovals >= MAX_UNFORCED_REMOVALS) {
+            forceReadOffset();
+        }
+        return true;
+    }
+
+    /**
+     * Method returns the oldest entries of the log without removing them.
+     *
+     * @param maxEntries is the maximal number of returned entries.
+     * @return the oldest entries in order. The list is empty, if the log is empty.
+     * @throws IOException is thrown in case a segment file could not be mapped.
+     */
+    synchronized List<String> peek(final int maxEntries) throws IOException {
+        final List<String> entries = new ArrayList<>();
+        long segmentIndex = readSegmentIndex;
+        MappedByteBuffer buffer = readBuffer;
+        int position = readPosition;
+
+        while (entries.size() < maxEntries) {
+            final byte[] content = readRecord(buffer, position);
+
+            if (content != null) {
+                entries.add(new String(content, StandardCharsets.UTF_8));
+                position += HEADER_SIZE + content.length;
+            } else if (segmentIndex < writeSegmentIndex) {
+                do {
+                    segmentIndex++;
+                } while (segmentIndex < writeSegmentIndex && !getSegmentFile(segmentIndex).exists());
+
+                buffer = getSegmentBuffer(segmentIndex);
+                position = 0;
+            } else {
+                break;
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Method returns the sequence number of the oldest entry. The sequence number is incremented by each removed entry, so the entries, which are returned
+     * by {@link #peek(int)}, can be removed via {@link #removeUntil(long)} even if other entries were removed in the meantime.
+     *
+     * @return the sequence number of the oldest entry.
+     */
+    synchronized long getHeadSequence() {
+        return headSequence;
+    }
+
+    /**
+     * Method removes the oldest entries until the head sequence number reaches the input sequence number. The new read offset is forced to disk.
+     *
+     * @param sequence is the sequence number of the first entry, which should be kept.
+     * @throws IOException is thrown in case the next segment file could not be mapped.
+     */
+    synchronized void removeUntil(final long sequence) throws IOException {
+        while (headSequence < sequence) {
+            final String entry = peek();
+
+            if (entry == null) {
+                break;
+            }
+            remove(entry);
+        }
+        forceReadOffset();
+    }
+
+    /**
+     * Method removes the oldest entry of the log.
+     *
+     * @return the removed entry or {@code null} if the log is empty.
+     * @throws IOException is thrown in case the next segment file could not be mapped.
+     */
+    synchronized String poll() throws IOException {
+        final String entry = peek();
+
+        if (entry != null) {
+            remove(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Method returns the number of entries, which are not removed so far.
+     *
+     * @return the number of entries.
+     */
+    synchronized long size() {
+        return entryCount;
+    }
+
+    /**
+     * Method returns true, if there are no entries.
+     *
+     * @return {@code true} if the log is empty. Otherwise {@code false}.
+     */
+    synchronized boolean isEmpty() {
+        return entryCount == 0;
+    }
+
+    private void switchToNextReadSegment() throws IOException {
+        final long completedSegmentIndex = readSegmentIndex;
+
+        do {
+            readSegmentIndex++;
+        } while (readSegmentIndex < writeSegmentIndex && !getSegmentFile(readSegmentIndex).exists());
+
+        readBuffer = getSegmentBuffer(readSegmentIndex);
+        readPosition = 0;
+        persistReadOffset();
+        // the segment is deleted, so that the offset must be on disk before
+        offsetBuffer.force();
+        unforcedRemovals = 0;
+
+        // the mapping is released before the file is deleted (some platforms can't delete mapped files)
+        final MappedByteBuffer completedBuffer = segmentBuffers.remove(completedSegmentIndex);
+
+        if (completedBuffer != null) {
+            unmap(completedBuffer);
+        }
+        if (!getSegmentFile(completedSegmentIndex).delete()) {
+            LOGGER.warn("Could not delete completed segment " + getSegmentFile(completedSegmentIndex).getAbsolutePath());
+        }
+    }
+
+    private void persistReadOffset() {
+        offsetBuffer.putLong(0, readSegmentIndex);
+        offsetBuffer.putInt(Long.BYTES, readPosition);
+    }
+
+    private void forceReadOffset() {
+        if (unforcedRemovals == 0) {
+            return;
+        }
+        offsetBuffer.force();
+        unforcedRemovals = 0;
+    }
+
+    /**
+     * Method returns the mapping of the segment. Each segment is mapped once, so that the mapping is reused by the reader and by {@link #peek(int)}.
+     *
+     * @param segmentIndex is the index of the segment.
+     * @return the mapped buffer of the segment.
+     * @throws IOException is thrown in case the segment file could not be mapped.
+     */
+    private MappedByteBuffer getSegmentBuffer(final long segmentIndex) throws IOException {
+        MappedByteBuffer buffer = segmentBuffers.get(segmentIndex);
+
+        if (buffer == null) {
+            buffer = map(getSegmentFile(segmentIndex), 0);
+            segmentBuffers.put(segmentIndex, buffer);
+        }
+        return buffer;
+    }
+
+    private byte[] readRecord(final MappedByteBuffer buffer, final int position) {
+        if (position + HEADER_SIZE > buffer.capacity()) {
+            return null;
+        }
+
+        final int length = buffer.getInt(position);
+
+        if (length <= 0) {
+            return null;
+        }
+
+        if (position + HEADER_SIZE + length > buffer.capacity()) {
+            LOGGER.warn("Transaction log contains incomplete record. Skip rest of segment.");
+            return null;
+        }
+
+        final byte[] content = new byte[length];
+        final ByteBuffer byteBuffer = buffer.duplicate();
+        byteBuffer.position(position + HEADER_SIZE);
+        byteBuffer.get(content);
+
+        crc32.reset();
+        crc32.update(content, 0, length);
+
+        if ((int) crc32.getValue() != buffer.getInt(position + Integer.BYTES)) {
+            LOGGER.warn("Transaction log contains record with wrong checksum. Skip rest of segment.");
+            return null;
+        }
+        return content;
+    }
+
+    private int getEndPosition(final MappedByteBuffer buffer) {
+        int position = 0;
+        byte[] content = readRecord(buffer, position);
+
+        while (content != null) {
+            position += HEADER_SIZE + content.length;
+            content = readRecord(buffer, position);
+        }
+        return position;
+    }
+
+    private long countEntries(final List<Long> segmentIndexes) throws IOException {
+        long count = 0;
+
+        for (final long segmentIndex : segmentIndexes) {
+            if (segmentIndex < readSegmentIndex) {
+                continue;
+            }
+
+            final MappedByteBuffer buffer = getSegmentBuffer(segmentIndex);
+            int position = (segmentIndex == readSegmentIndex) ? readPosition : 0;
+            byte[] content = readRecord(buffer, position);
+
+            while (content != null) {
+                count++;
+                position += HEADER_SIZE + content.length;
+                content = readRecord(buffer, position);
+            }
+        }
+        return count;
+    }
+
+    private List<Long> getSegmentIndexes() {
+        final List<Long> segmentIndexes = new ArrayList<>();
+        final String[] fileNames = directory.list();
+
+        if (fileNames == null) {
+            return segmentIndexes;
+        }
+
+        for (final String fileName : fileNames) {
+            if (fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_SUFFIX)) {
+                try {
+                    segmentIndexes.add(Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException ex) {
+                    LOGGER.warn("Ignore unknown file " + fileName + " in transaction log directory.");
+                }
+            }
+        }
+        Collections.sort(segmentIndexes);
+        return segmentIndexes;
+    }
+
+    private File getSegmentFile(final long segmentIndex) {
+        return new File(directory, SEGMENT_PREFIX + String.format("%019d", segmentIndex) + SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Method maps the file into memory. If the file is smaller than the input size, the file is enlarged (filled with zeros).
+     *
+     * @param file is the file, which should be mapped.
+     * @param size is the minimal size of the file. Set to {@code 0} to map the existing file.
+     * @return the mapped buffer.
+     * @throws IOException is thrown in case the file could not be created or mapped.
+     */
+    private static MappedByteBuffer map(final File file, final int size) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            if (randomAccessFile.length() < size) {
+                randomAccessFile.setLength(size);
+            }
+            // the mapping stays valid after the channel is closed
+            return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, randomAccessFile.length());
+        }
+    }
+
+    /**
+     * Method releases the mapping of the buffer directly instead of waiting for the garbage collector. The buffer must not be accessed afterwards. If the
+     * mapping could not be released (e.g. not supported by the java runtime), it's released by the garbage collector.
+     *
+     * @param buffer is the mapped buffer, which should be released.
+     */
+    private static void unmap(final MappedByteBuffer buffer) {
+        try {
+            final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            final Object cleaner = cleanerMethod.invoke(buffer);
+
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            LOGGER.debug("Could not unmap segment of transaction log. The mapping is released by the garbage collector.", ex);
+        }
+    }
+}
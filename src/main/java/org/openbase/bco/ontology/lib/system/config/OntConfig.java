@@ -20,10 +20,38 @@
 package org.openbase.bco.ontology.lib.system.config;
 
 import org.apache.jena.ontology.OntModel;
+import org.openbase.bco.ontology.lib.jp.JPOntologyAggregationCatchUpLimit;
+import org.openbase.bco.ontology.lib.jp.JPOntologyAggregationParallelism;
+import org.openbase.bco.ontology.lib.jp.JPOntologyAggregationStateFile;
+import org.openbase.bco.ontology.lib.jp.JPOntologyAggregationTimeZone;
+import org.openbase.bco.ontology.lib.jp.JPOntologyAggregationWeighting;
+import org.openbase.bco.ontology.lib.jp.JPOntologyOnlineAggregation;
+import org.openbase.bco.ontology.lib.jp.JPOntologyBackend;
+import org.openbase.bco.ontology.lib.jp.JPOntologyBatchLinger;
+import org.openbase.bco.ontology.lib.jp.JPOntologyBatchQueueDepth;
+import org.openbase.bco.ontology.lib.jp.JPOntologyBatchSize;
+import org.openbase.bco.ontology.lib.jp.JPOntologyBufferDirectory;
+import org.openbase.bco.ontology.lib.jp.JPOntologyBufferOverflowPolicy;
 import org.openbase.bco.ontology.lib.jp.JPOntologyDBURL;
+import org.openbase.bco.ontology.lib.jp.JPOntologyHttpConnectTimeout;
+import org.openbase.bco.ontology.lib.jp.JPOntologyHttpKeepAlive;
+import org.openbase.bco.ontology.lib.jp.JPOntologyHttpMaxConnections;
+import org.openbase.bco.ontology.lib.jp.JPOntologyHttpSocketTimeout;
+import org.openbase.bco.ontology.lib.jp.JPOntologyGraphPartition;
 import org.openbase.bco.ontology.lib.jp.JPOntologyMode;
 import org.openbase.bco.ontology.lib.jp.JPOntologyPingURL;
 import org.openbase.bco.ontology.lib.jp.JPOntologyRSBScope;
+import org.openbase.bco.ontology.lib.jp.JPOntologyRSBUpdateScope;
+import org.openbase.bco.ontology.lib.jp.JPOntologyRetentionChunkSize;
+import org.openbase.bco.ontology.lib.jp.JPOntologyRetentionWindows;
+import org.openbase.bco.ontology.lib.jp.JPOntologyTdbDirectory;
+import org.openbase.bco.ontology.lib.jp.JPOntologyTriggerCacheFile;
+import org.openbase.bco.ontology.lib.jp.JPOntologyTriggerExecutionTimeout;
+import org.openbase.bco.ontology.lib.jp.JPOntologyTriggerMaxStaleness;
+import org.openbase.bco.ontology.lib.jp.JPOntologyTriggerMinInterval;
+import org.openbase.bco.ontology.lib.jp.JPOntologyTriggerParallelism;
+import org.openbase.bco.ontology.lib.jp.JPOntologyTriggerQueueTimeout;
+import org.openbase.bco.ontology.lib.jp.JPOntologyTriggerReplica;
 import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateChange;
 import org.openbase.bco.ontology.lib.utility.ontology.OntModelHandler;
 import org.openbase.bco.ontology.lib.manager.tbox.TBoxVerification;
@@ -43,7 +71,11 @@ import rst.domotic.unit.UnitTemplateType.UnitTemplate.UnitType;
 import java.io.IOException;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -128,6 +160,51 @@ public final class OntConfig {
      */
     public static final int TRANSACTION_BUFFER_SIZE = 10000000;
 
+    /**
+     * The size of a segment file of the transaction buffer in bytes.
+     */
+    public static final int TRANSACTION_BUFFER_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * The maximal number of transaction buffer entries, which are replayed in one sparql request.
+     */
+    public static final int TRANSACTION_BUFFER_REPLAY_BATCH_SIZE = 500;
+
+    /**
+     * The maximal number of parallel sparql requests to replay the transaction buffer.
+     */
+    public static final int TRANSACTION_BUFFER_REPLAY_PARALLELISM = 4;
+
+    /**
+     * The maximal time in milliseconds, which a producer is blocked by a full transaction buffer (overflow policy BLOCK).
+     */
+    public static final int TRANSACTION_BUFFER_BLOCK_TIMEOUT_MILLISECONDS = SMALL_RETRY_PERIOD_MILLISECONDS;
+
+    /**
+     * Fill level of the transaction buffer (ratio of the size), which signals pressure to the producers.
+     */
+    public static final double TRANSACTION_BUFFER_HIGH_WATERMARK = 0.8;
+
+    /**
+     * Fill level of the transaction buffer (ratio of the size), which signals the end of pressure to the producers.
+     */
+    public static final double TRANSACTION_BUFFER_LOW_WATERMARK = 0.5;
+
+    /**
+     * The minimal time in milliseconds between two observations of the same provider service.
+     */
+    public static final int OBSERVATION_PERIOD_MILLISECONDS = 200;
+
+    /**
+     * The minimal time in milliseconds between two observations of the same provider service, if the transaction buffer is under pressure.
+     */
+    public static final int OBSERVATION_REDUCED_PERIOD_MILLISECONDS = SMALL_RETRY_PERIOD_MILLISECONDS;
+
+    /**
+     * The maximal number of results (rows) per page of a paginated select query (e.g. the observations of the aggregation).
+     */
+    public static final int SELECT_PAGE_SIZE = 10000;
+
     /**
      * All listed location types, which are subsets of the class Location.
      */
@@ -163,6 +240,146 @@ public final class OntConfig {
      */
     private static boolean ontologyModeHistoricData;
 
+    /**
+     * The storage of the ontology.
+     */
+    private static OntologyBackend ontologyBackend = OntologyBackend.FUSEKI;
+
+    /**
+     * The directory of the embedded triple store.
+     */
+    private static String tdbDirectory = System.getProperty("user.home") + "/.cache/bco/ontology/tdb";
+
+    /**
+     * The maximal number of pooled http connections per route.
+     */
+    private static int httpMaxConnections = 20;
+
+    /**
+     * The keep-alive time of idle pooled http connections in milliseconds.
+     */
+    private static int httpKeepAliveMilliS = 30000;
+
+    /**
+     * The timeout to establish a http connection in milliseconds.
+     */
+    private static int httpConnectTimeoutMilliS = 5000;
+
+    /**
+     * The socket timeout of a http connection in milliseconds.
+     */
+    private static int httpSocketTimeoutMilliS = 30000;
+
+    /**
+     * The maximal number of triples of a batched sparql update.
+     */
+    private static int batchSize = 1000;
+
+    /**
+     * The maximal time in milliseconds, which sparql updates are collected to a batch.
+     */
+    private static int batchLingerMilliS = 100;
+
+    /**
+     * The maximal number of pending sparql updates, which wait for batching.
+     */
+    private static int batchQueueDepth = 10000;
+
+    /**
+     * The directory of the persistent transaction buffer.
+     */
+    private static String bufferDirectory = System.getProperty("user.home") + "/.cache/bco/ontology/transaction-buffer";
+
+    /**
+     * The overflow policy of the transaction buffer.
+     */
+    private static BufferOverflowPolicy bufferOverflowPolicy = BufferOverflowPolicy.DROP_OLDEST;
+
+    /**
+     * The number of threads, which aggregate the units in parallel.
+     */
+    private static int aggregationParallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The weighting of the statistics of continuous state values.
+     */
+    private static AggregationWeighting aggregationWeighting = AggregationWeighting.SAMPLE;
+
+    /**
+     * The period of the online aggregation. Is {@code null}, if the online aggregation is disabled.
+     */
+    private static Period onlineAggregationPeriod = null;
+
+    /**
+     * The time zone, which aligns the aggregation periods to the calendar.
+     */
+    private static ZoneId aggregationTimeZone = ZoneId.systemDefault();
+
+    /**
+     * The file, which keeps the last completed aggregation period of each period type.
+     */
+    private static String aggregationStateFile = System.getProperty("user.home") + "/.cache/bco/ontology/aggregation-state.properties";
+
+    /**
+     * The maximal number of missed aggregation periods, which are aggregated in parallel.
+     */
+    private static int aggregationCatchUpLimit = 2;
+
+    /**
+     * The retention windows of the data of each period, after they are aggregated to the next greater period.
+     */
+    private static EnumMap<Period, Duration> retentionWindows = new EnumMap<>(Period.class);
+
+    /**
+     * The maximal number of instances, which are deleted by one sparql update of the retention.
+     */
+    private static int retentionChunkSize = 1000;
+
+    /**
+     * The period of the graph partitions of the observations. Is {@code null}, if the observations are stored in the default graph.
+     */
+    private static Period graphPartitionPeriod = null;
+
+    /**
+     * The time in milliseconds without further ontology changes, after which a trigger query is evaluated.
+     */
+    private static int triggerMinIntervalMilliS = 50;
+
+    /**
+     * The maximal time in milliseconds, which the evaluation of a trigger query is delayed by coalescing ontology changes.
+     */
+    private static int triggerMaxStalenessMilliS = 500;
+
+    /**
+     * Is true, if the committed sparql updates are published and the triggers are evaluated on a local replica of the ontology.
+     */
+    private static boolean triggerReplica = false;
+
+    /**
+     * The rsb scope of the committed sparql updates.
+     */
+    private static String ontologyRsbUpdateScope = "/ontology/update";
+
+    /**
+     * The maximal number of trigger queries, which are evaluated in parallel.
+     */
+    private static int triggerParallelism = 4;
+
+    /**
+     * The maximal time in milliseconds, which a trigger evaluation waits for execution.
+     */
+    private static int triggerQueueTimeoutMilliS = 5000;
+
+    /**
+     * The maximal time in milliseconds of a trigger evaluation.
+     */
+    private static int triggerExecutionTimeoutMilliS = 10000;
+
+    /**
+     * The file, which caches the ontology changes parsed from trigger queries.
+     */
+    private static String triggerCacheFile = System.getProperty("user.home") + "/.cache/bco/ontology/trigger-dependency-cache.properties";
+
     static {
         for (final ServiceType serviceType : ServiceType.values()) {
             try {
@@ -192,6 +409,108 @@ public final class OntConfig {
         } catch (JPNotAvailableException ex) {
             ExceptionPrinter.printHistory(ex, LOGGER, LogLevel.ERROR);
         }
+
+        try {
+            ontologyBackend = OntologyBackend.valueOf(JPService.getProperty(JPOntologyBackend.class).getValue().toUpperCase());
+            tdbDirectory = JPService.getProperty(JPOntologyTdbDirectory.class).getValue();
+        } catch (JPNotAvailableException | IllegalArgumentException ex) {
+            ExceptionPrinter.printHistory("Could not load backend properties. Use remote ontology server.", ex, LOGGER, LogLevel.WARN);
+        }
+
+        try {
+            httpMaxConnections = JPService.getProperty(JPOntologyHttpMaxConnections.class).getValue();
+            httpKeepAliveMilliS = JPService.getProperty(JPOntologyHttpKeepAlive.class).getValue();
+            httpConnectTimeoutMilliS = JPService.getProperty(JPOntologyHttpConnectTimeout.class).getValue();
+            httpSocketTimeoutMilliS = JPService.getProperty(JPOntologyHttpSocketTimeout.class).getValue();
+        } catch (JPNotAvailableException ex) {
+            ExceptionPrinter.printHistory("Could not load http properties. Use default values.", ex, LOGGER, LogLevel.WARN);
+        }
+
+        try {
+            batchSize = JPService.getProperty(JPOntologyBatchSize.class).getValue();
+            batchLingerMilliS = JPService.getProperty(JPOntologyBatchLinger.class).getValue();
+            batchQueueDepth = JPService.getProperty(JPOntologyBatchQueueDepth.class).getValue();
+        } catch (JPNotAvailableException ex) {
+            ExceptionPrinter.printHistory("Could not load batch properties. Use default values.", ex, LOGGER, LogLevel.WARN);
+        }
+
+        try {
+            bufferDirectory = JPService.getProperty(JPOntologyBufferDirectory.class).getValue();
+            bufferOverflowPolicy = BufferOverflowPolicy.valueOf(JPService.getProperty(JPOntologyBufferOverflowPolicy.class).getValue().toUpperCase());
+        } catch (JPNotAvailableException | IllegalArgumentException ex) {
+            ExceptionPrinter.printHistory("Could not load buffer properties. Use default values.", ex, LOGGER, LogLevel.WARN);
+        }
+
+        try {
+            aggregationParallelism = JPService.getProperty(JPOntologyAggregationParallelism.class).getValue();
+            aggregationWeighting = AggregationWeighting.valueOf(JPService.getProperty(JPOntologyAggregationWeighting.class).getValue().toUpperCase());
+        } catch (JPNotAvailableException | IllegalArgumentException ex) {
+            ExceptionPrinter.printHistory("Could not load aggregation properties. Use default values.", ex, LOGGER, LogLevel.WARN);
+        }
+
+        try {
+            final String onlineAggregation = JPService.getProperty(JPOntologyOnlineAggregation.class).getValue().toUpperCase();
+
+            if (!"OFF".equals(onlineAggregation)) {
+                final Period period = Period.valueOf(onlineAggregation);
+
+                if (period != Period.HOUR && period != Period.DAY) {
+                    throw new IllegalArgumentException("Online aggregation supports the periods HOUR and DAY only, not " + period + "!");
+                }
+                onlineAggregationPeriod = period;
+            }
+        } catch (JPNotAvailableException | IllegalArgumentException ex) {
+            ExceptionPrinter.printHistory("Could not load online aggregation property. Online aggregation is disabled.", ex, LOGGER, LogLevel.WARN);
+        }
+
+        try {
+            aggregationTimeZone = ZoneId.of(JPService.getProperty(JPOntologyAggregationTimeZone.class).getValue());
+            aggregationStateFile = JPService.getProperty(JPOntologyAggregationStateFile.class).getValue();
+            aggregationCatchUpLimit = JPService.getProperty(JPOntologyAggregationCatchUpLimit.class).getValue();
+        } catch (JPNotAvailableException | DateTimeException ex) {
+            ExceptionPrinter.printHistory("Could not load aggregation schedule properties. Use default values.", ex, LOGGER, LogLevel.WARN);
+        }
+
+        try {
+            retentionWindows = parseRetentionWindows(JPService.getProperty(JPOntologyRetentionWindows.class).getValue());
+            retentionChunkSize = JPService.getProperty(JPOntologyRetentionChunkSize.class).getValue();
+        } catch (JPNotAvailableException | IllegalArgumentException | DateTimeException ex) {
+            ExceptionPrinter.printHistory("Could not load retention properties. Use default values.", ex, LOGGER, LogLevel.WARN);
+        }
+
+        try {
+            final String graphPartition = JPService.getProperty(JPOntologyGraphPartition.class).getValue().toUpperCase();
+
+            if (!"OFF".equals(graphPartition)) {
+                final Period period = Period.valueOf(graphPartition);
+
+                if (period != Period.DAY && period != Period.WEEK && period != Period.MONTH) {
+                    throw new IllegalArgumentException("Graph partitions support the periods DAY, WEEK and MONTH only, not " + period + "!");
+                }
+                graphPartitionPeriod = period;
+            }
+        } catch (JPNotAvailableException | IllegalArgumentException ex) {
+            ExceptionPrinter.printHistory("Could not load graph partition property. Use default graph.", ex, LOGGER, LogLevel.WARN);
+        }
+
+        try {
+            triggerMinIntervalMilliS = JPService.getProperty(JPOntologyTriggerMinInterval.class).getValue();
+            triggerMaxStalenessMilliS = JPService.getProperty(JPOntologyTriggerMaxStaleness.class).getValue();
+            triggerReplica = JPService.getProperty(JPOntologyTriggerReplica.class).getValue();
+            ontologyRsbUpdateScope = JPService.getProperty(JPOntologyRSBUpdateScope.class).getValue();
+            triggerParallelism = JPService.getProperty(JPOntologyTriggerParallelism.class).getValue();
+            triggerQueueTimeoutMilliS = JPService.getProperty(JPOntologyTriggerQueueTimeout.class).getValue();
+            triggerExecutionTimeoutMilliS = JPService.getProperty(JPOntologyTriggerExecutionTimeout.class).getValue();
+            triggerCacheFile = JPService.getProperty(JPOntologyTriggerCacheFile.class).getValue();
+        } catch (JPNotAvailableException ex) {
+            ExceptionPrinter.printHistory("Could not load trigger properties. Use default values.", ex, LOGGER, LogLevel.WARN);
+        }
+
+        if (triggerReplica && graphPartitionPeriod != null) {
+            // the replica covers the default graph only. The observations in the named graphs would be missed by the trigger queries
+            LOGGER.warn("Trigger replica does not support graph partitions. Evaluate trigger queries on the ontology server.");
+            triggerReplica = false;
+        }
     }
 
     /**
@@ -221,6 +540,24 @@ public final class OntConfig {
         return ontologyRsbScope;
     }
 
+    /**
+     * Getter for the storage of the ontology: the remote ontology server or the embedded triple store.
+     *
+     * @return the ontology backend.
+     */
+    public static OntologyBackend getOntologyBackend() {
+        return ontologyBackend;
+    }
+
+    /**
+     * Getter for the directory of the embedded triple store (see {@link OntologyBackend#TDB}).
+     *
+     * @return the path of the triple store directory.
+     */
+    public static String getTdbDirectory() {
+        return tdbDirectory;
+    }
+
     /**
      * Getter for ontology mode to save historic data or current state values only.
      *
@@ -230,6 +567,262 @@ public final class OntConfig {
         return ontologyModeHistoricData;
     }
 
+    /**
+     * Getter for the maximal number of pooled http connections per route.
+     *
+     * @return the maximal number of pooled http connections per route.
+     */
+    public static int getHttpMaxConnections() {
+        return httpMaxConnections;
+    }
+
+    /**
+     * Getter for the keep-alive time of idle pooled http connections.
+     *
+     * @return the keep-alive time in milliseconds.
+     */
+    public static int getHttpKeepAliveMilliS() {
+        return httpKeepAliveMilliS;
+    }
+
+    /**
+     * Getter for the timeout to establish a http connection.
+     *
+     * @return the connect timeout in milliseconds.
+     */
+    public static int getHttpConnectTimeoutMilliS() {
+        return httpConnectTimeoutMilliS;
+    }
+
+    /**
+     * Getter for the socket timeout of a http connection.
+     *
+     * @return the socket timeout in milliseconds.
+     */
+    public static int getHttpSocketTimeoutMilliS() {
+        return httpSocketTimeoutMilliS;
+    }
+
+    /**
+     * Getter for the maximal number of triples of a batched sparql update.
+     *
+     * @return the batch size.
+     */
+    public static int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Getter for the maximal time, which sparql updates are collected to a batch.
+     *
+     * @return the linger time in milliseconds.
+     */
+    public static int getBatchLingerMilliS() {
+        return batchLingerMilliS;
+    }
+
+    /**
+     * Getter for the maximal number of pending sparql updates, which wait for batching.
+     *
+     * @return the queue depth.
+     */
+    public static int getBatchQueueDepth() {
+        return batchQueueDepth;
+    }
+
+    /**
+     * Getter for the directory of the persistent transaction buffer.
+     *
+     * @return the buffer directory path.
+     */
+    public static String getBufferDirectory() {
+        return bufferDirectory;
+    }
+
+    /**
+     * Getter for the overflow policy of the transaction buffer.
+     *
+     * @return the overflow policy.
+     */
+    public static BufferOverflowPolicy getBufferOverflowPolicy() {
+        return bufferOverflowPolicy;
+    }
+
+    /**
+     * Getter for the number of threads, which aggregate the units in parallel.
+     *
+     * @return the aggregation parallelism.
+     */
+    public static int getAggregationParallelism() {
+        return aggregationParallelism;
+    }
+
+    /**
+     * Getter for the weighting of the statistics (mean, variance and standard deviation) of continuous state values.
+     *
+     * @return the aggregation weighting.
+     */
+    public static AggregationWeighting getAggregationWeighting() {
+        return aggregationWeighting;
+    }
+
+    /**
+     * Getter for the period of the online aggregation, which aggregates the state changes while they are observed.
+     *
+     * @return the online aggregation period (hour or day) or {@code null}, if the online aggregation is disabled.
+     */
+    public static Period getOnlineAggregationPeriod() {
+        return onlineAggregationPeriod;
+    }
+
+    /**
+     * Getter for the time zone, which aligns the aggregation periods to the calendar (e.g. a day begins at midnight of this time zone).
+     *
+     * @return the aggregation time zone.
+     */
+    public static ZoneId getAggregationTimeZone() {
+        return aggregationTimeZone;
+    }
+
+    /**
+     * Getter for the file, which keeps the last completed aggregation period of each period type.
+     *
+     * @return the path of the aggregation state file.
+     */
+    public static String getAggregationStateFile() {
+        return aggregationStateFile;
+    }
+
+    /**
+     * Getter for the maximal number of missed aggregation periods, which are aggregated in parallel after a downtime.
+     *
+     * @return the aggregation catch-up limit.
+     */
+    public static int getAggregationCatchUpLimit() {
+        return aggregationCatchUpLimit;
+    }
+
+    /**
+     * Getter for the retention window of the data of the input period. The data are deleted, if they are older than the retention window and aggregated to
+     * the next greater period. The period hour describes the raw data (observations, connection phases and heartbeat phases) and the hour aggregation
+     * observations of the online aggregation.
+     *
+     * @param period is the period of the data.
+     * @return the retention window or {@code null}, if there is no retention window for the period.
+     */
+    public static Duration getRetentionWindow(final Period period) {
+        return retentionWindows.get(period);
+    }
+
+    /**
+     * Getter for the maximal number of instances (e.g. observations), which are deleted by one sparql update of the retention.
+     *
+     * @return the retention chunk size.
+     */
+    public static int getRetentionChunkSize() {
+        return retentionChunkSize;
+    }
+
+    /**
+     * Getter for the period of the graph partitions, which keep the observations and aggregation observations of one time frame each.
+     *
+     * @return the graph partition period (day, week or month) or {@code null}, if the observations are stored in the default graph.
+     */
+    public static Period getGraphPartitionPeriod() {
+        return graphPartitionPeriod;
+    }
+
+    /**
+     * Getter for the minimal interval of trigger evaluations. Ontology changes, which arrive within this interval, are coalesced to one evaluation.
+     *
+     * @return the time in milliseconds without further changes, after which a trigger query is evaluated.
+     */
+    public static int getTriggerMinIntervalMilliS() {
+        return triggerMinIntervalMilliS;
+    }
+
+    /**
+     * Getter for the maximal staleness of trigger evaluations.
+     *
+     * @return the maximal time in milliseconds between the first coalesced ontology change and the evaluation of the trigger query.
+     */
+    public static int getTriggerMaxStalenessMilliS() {
+        return triggerMaxStalenessMilliS;
+    }
+
+    /**
+     * Getter for the trigger replica mode. If enabled, the ontology manager publishes the committed sparql updates and the triggers evaluate their queries on
+     * a local replica of the ontology. The replica is not supported in combination with graph partitions (see {@link #getGraphPartitionPeriod()}).
+     *
+     * @return true, if the trigger replica is enabled. Otherwise false.
+     */
+    public static boolean isTriggerReplica() {
+        return triggerReplica;
+    }
+
+    /**
+     * Getter for the rsb scope of the committed sparql updates.
+     *
+     * @return the rsb update scope.
+     */
+    public static String getOntologyRsbUpdateScope() {
+        return ontologyRsbUpdateScope;
+    }
+
+    /**
+     * Getter for the maximal number of trigger queries, which are evaluated in parallel.
+     *
+     * @return the trigger evaluation parallelism.
+     */
+    public static int getTriggerParallelism() {
+        return triggerParallelism;
+    }
+
+    /**
+     * Getter for the maximal time, which a trigger evaluation waits for execution. Evaluations, which wait longer, are dropped.
+     *
+     * @return the queue timeout in milliseconds.
+     */
+    public static int getTriggerQueueTimeoutMilliS() {
+        return triggerQueueTimeoutMilliS;
+    }
+
+    /**
+     * Getter for the maximal time of a trigger evaluation. The result of an evaluation, which takes longer, is discarded.
+     *
+     * @return the execution timeout in milliseconds.
+     */
+    public static int getTriggerExecutionTimeoutMilliS() {
+        return triggerExecutionTimeoutMilliS;
+    }
+
+    /**
+     * Getter for the file, which caches the ontology changes parsed from trigger queries.
+     *
+     * @return the path of the trigger cache file.
+     */
+    public static String getTriggerCacheFile() {
+        return triggerCacheFile;
+    }
+
+    private static EnumMap<Period, Duration> parseRetentionWindows(final String retentionWindowsValue) {
+        final EnumMap<Period, Duration> windows = new EnumMap<>(Period.class);
+
+        for (final String entry : retentionWindowsValue.split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+
+            final String[] keyValue = entry.split("=");
+
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("Invalid retention window " + entry + "! Expected form is PERIOD=ISO-8601-duration.");
+            }
+            windows.put(Period.valueOf(keyValue[0].trim().toUpperCase()), Duration.parse(keyValue[1].trim()));
+        }
+        return windows;
+    }
+
     /**
      * Enum contains the server services of the fuseki server. They are components of the url (suffix).
      */
@@ -319,6 +912,64 @@ public final class OntConfig {
         }
     }
 
+    /**
+     * Enum contains the behaviors of the transaction buffer, if the buffer is full.
+     */
+    public enum BufferOverflowPolicy {
+
+        /**
+         * The producer is blocked until there is free space or the timeout is reached. After the timeout the new entry is dropped.
+         */
+        BLOCK,
+
+        /**
+         * The oldest entry is dropped.
+         */
+        DROP_OLDEST,
+
+        /**
+         * The new entry is dropped.
+         */
+        DROP_NEWEST,
+
+        /**
+         * Only the latest entry per subject (unit and service) is kept until there is free space. Entries without subject are kept always.
+         */
+        COALESCE_BY_SUBJECT
+    }
+
+    /**
+     * Enum contains the storages of the ontology.
+     */
+    public enum OntologyBackend {
+
+        /**
+         * Remote ontology server (fuseki), which is addressed via http (see {@link #getOntologyDbUrl()}).
+         */
+        FUSEKI,
+
+        /**
+         * Embedded triple store (jena tdb) on local disk (see {@link #getTdbDirectory()}). There is no network hop and no separate server.
+         */
+        TDB
+    }
+
+    /**
+     * Enum contains the weightings of the statistics of continuous state values.
+     */
+    public enum AggregationWeighting {
+
+        /**
+         * Each state change has the same weight, independent of its duration.
+         */
+        SAMPLE,
+
+        /**
+         * Each state change is weighted by its duration, means the time until the next state change (or the end of the aggregation time frame).
+         */
+        TIME
+    }
+
     public enum AggregationTense {
 
         GREGORIAN_CALENDAR
@@ -491,6 +1142,21 @@ public final class OntConfig {
          */
         MEAN("mean"),
 
+        /**
+         * SPARQL variable: minimum.
+         */
+        MINIMUM("minimum"),
+
+        /**
+         * SPARQL variable: maximum.
+         */
+        MAXIMUM("maximum"),
+
+        /**
+         * SPARQL variable: integral.
+         */
+        INTEGRAL("integral"),
+
         /**
          * SPARQL variable: quantity.
          */
@@ -802,6 +1468,21 @@ public final class OntConfig {
          */
         VARIANCE("hasVariance"),
 
+        /**
+         * hasMinimum (dataType property).
+         */
+        MINIMUM("hasMinimum"),
+
+        /**
+         * hasMaximum (dataType property).
+         */
+        MAXIMUM("hasMaximum"),
+
+        /**
+         * hasIntegral (dataType property).
+         */
+        INTEGRAL("hasIntegral"),
+
         /**
          * hasLastConnection (dataType property).
          */
@@ -882,7 +1563,17 @@ public final class OntConfig {
         /**
          * Prefix of aggregated observation instance.
          */
-        AGGREGATION_OBSERVATION("aggObs_");
+        AGGREGATION_OBSERVATION("aggObs_"),
+
+        /**
+         * Prefix of named graph, which contains the observations of one graph partition.
+         */
+        OBSERVATION_GRAPH("observationGraph_"),
+
+        /**
+         * Prefix of named graph, which contains the aggregated observations of one period type and one graph partition.
+         */
+        AGGREGATION_GRAPH("aggObsGraph_");
 
         private final String prefix;
 
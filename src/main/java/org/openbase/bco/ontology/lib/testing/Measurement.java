@@ -37,6 +37,7 @@ import org.openbase.bco.ontology.lib.commun.web.SparqlHttp;
 import org.openbase.bco.ontology.lib.manager.aggregation.Aggregation;
 import org.openbase.bco.ontology.lib.manager.aggregation.AggregationImpl;
 import org.openbase.bco.ontology.lib.system.config.OntConfig;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.Period;
 import org.openbase.bco.ontology.lib.utility.sparql.QueryExpression;
 import org.openbase.bco.ontology.lib.trigger.Trigger;
 import org.openbase.bco.ontology.lib.trigger.TriggerFactory;
@@ -155,7 +156,7 @@ public class Measurement {
         this.duplicateData = new DuplicateData();
 //        this.measuredValues = new Long[DAYS_MAX_COUNT][TRIGGER_MAX_COUNT + 1];
         this.isMeasurementFinished = false;
-        this.aggregation = new AggregationImpl(null, null, null); //TODO Test values...
+        this.aggregation = new AggregationImpl(null, null, null, null); //TODO Test values...
         this.stopwatch = new Stopwatch();
         this.simpleQuMeasuredValues = new ArrayList<>();
         this.complexQuMeasuredValues = new ArrayList<>();
@@ -310,7 +311,7 @@ public class Measurement {
 
             if (daysCurCount < DAYS_MAX_COUNT) {
                 SparqlHttp.uploadSparqlRequest(QueryExpression.DELETE_ALL_OBSERVATIONS_WITH_FILTER, OntConfig.getOntologyDbUrl(), 0);
-                aggregation.startAggregation(daysCurCount);
+                aggregateSimulatedDay(daysCurCount);
                 stopwatch.waitForStart(2000);
 
                 System.out.println("Duplicate data...Day: " + (daysCurCount + 1));
@@ -325,6 +326,32 @@ public class Measurement {
         }
     }
 
+    /**
+     * Method simulates the aggregation days of the measurement: the periods week, month and year are aggregated, if the simulated day completes them. The
+     * calendar-aligned aggregation of the ontology manager is scheduled by {@link org.openbase.bco.ontology.lib.manager.aggregation.AggregationScheduler}.
+     *
+     * @param currentDays is the number of simulated days so far.
+     * @throws CouldNotPerformException is thrown in case the aggregation could not be performed.
+     * @throws InterruptedException is thrown in case the application was interrupted.
+     * @throws ExecutionException is thrown in case the aggregation of an unit failed.
+     */
+    private void aggregateSimulatedDay(int currentDays) throws CouldNotPerformException, InterruptedException, ExecutionException {
+        currentDays += 1;
+
+        if (currentDays % 7 == 0) {
+            LOGGER.info("Start aggregation at day: " + currentDays + " : " + Period.WEEK.toString());
+            aggregation.startAggregation(Period.WEEK);
+        }
+        if (currentDays % 28 == 0) {
+            LOGGER.info("Start aggregation at day: " + currentDays + " : " + Period.MONTH.toString());
+            aggregation.startAggregation(Period.MONTH);
+        }
+        if (currentDays % 364 == 0) {
+            LOGGER.info("Start aggregation at day: " + currentDays + " : " + Period.YEAR.toString());
+            aggregation.startAggregation(Period.YEAR);
+        }
+    }
+
     private void initMemoryTest() throws InterruptedException, CouldNotPerformException {
         init();
         System.out.println("TripleCount for configData only: " + askNumberOfTriple());
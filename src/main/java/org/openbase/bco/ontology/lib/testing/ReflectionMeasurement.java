@@ -0,0 +1,83 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.testing;
+
+import org.openbase.bco.ontology.lib.system.config.OntConfig.MethodRegEx;
+import org.openbase.bco.ontology.lib.utility.ReflectionUtility;
+import org.openbase.jul.exception.CouldNotPerformException;
+import org.openbase.jul.exception.printer.ExceptionPrinter;
+import org.openbase.jul.exception.printer.LogLevel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rst.domotic.state.PowerStateType.PowerState;
+import rst.timing.TimestampType.Timestamp;
+
+import java.util.regex.Pattern;
+
+/**
+ * Measurement compares the reflective timestamp lookup of the state observation with the cached method handle lookup. Each variant is warmed up before
+ * the invocations are measured.
+ *
+ * @author agent on 18.10.26.
+ */
+public final class ReflectionMeasurement {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReflectionMeasurement.class);
+    private static final int WARM_UP_COUNT = 100000;
+    private static final int MEASUREMENT_COUNT = 1000000;
+
+    private ReflectionMeasurement() {
+    }
+
+    public static void main(final String[] args) {
+        final PowerState powerState = PowerState.newBuilder().setValue(PowerState.State.ON)
+                .setTimestamp(Timestamp.newBuilder().setTime(System.currentTimeMillis() * 1000)).build();
+
+        try {
+            measure(powerState, WARM_UP_COUNT, false);
+            measure(powerState, WARM_UP_COUNT, true);
+
+            final long reflectionNanoS = measure(powerState, MEASUREMENT_COUNT, false);
+            final long methodHandleNanoS = measure(powerState, MEASUREMENT_COUNT, true);
+
+            LOGGER.info("Reflection: " + (reflectionNanoS / MEASUREMENT_COUNT) + " ns/op, method handle: " + (methodHandleNanoS / MEASUREMENT_COUNT)
+                    + " ns/op");
+        } catch (CouldNotPerformException ex) {
+            ExceptionPrinter.printHistory("Measurement of reflection lookup failed!", ex, LOGGER, LogLevel.ERROR);
+        }
+    }
+
+    private static long measure(final Object object, final int count, final boolean cached) throws CouldNotPerformException {
+        long checkSum = 0;
+        final long startNanoS = System.nanoTime();
+
+        for (int i = 0; i < count; i++) {
+            final Timestamp timestamp = (Timestamp) (cached
+                    ? ReflectionUtility.invokeCachedMethod(object, MethodRegEx.GET_TIMESTAMP.getName(), Pattern.CASE_INSENSITIVE)
+                    : ReflectionUtility.invokeMethod(object, MethodRegEx.GET_TIMESTAMP.getName(), Pattern.CASE_INSENSITIVE));
+            checkSum += timestamp.getTime();
+        }
+        final long durationNanoS = System.nanoTime() - startNanoS;
+
+        if (checkSum == 0) {
+            LOGGER.warn("Measurement read no timestamps.");
+        }
+        return durationNanoS;
+    }
+}
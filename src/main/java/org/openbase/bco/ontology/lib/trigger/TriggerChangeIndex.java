@@ -0,0 +1,102 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.trigger;
+
+import rst.domotic.ontology.OntologyChangeType.OntologyChange;
+import rst.domotic.service.ServiceTemplateType.ServiceTemplate.ServiceType;
+import rst.domotic.unit.UnitTemplateType.UnitTemplate.UnitType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class keeps an inverted index from the change values (categories, unit types and service types) to the triggers, which depend on them. An incoming
+ * ontology change touches the index entries of its own values only, so that the costs depend on the size of the change and the number of related triggers,
+ * but not on the number of registered triggers. The class is not thread safe.
+ *
+ * @param <T> is the type of the indexed triggers.
+ * @author agent on 18.10.26.
+ */
+class TriggerChangeIndex<T> {
+
+    private final Map<OntologyChange.Category, Set<T>> categoryIndex;
+    private final Map<UnitType, Set<T>> unitTypeIndex;
+    private final Map<ServiceType, Set<T>> serviceTypeIndex;
+
+    /**
+     * Constructor for TriggerChangeIndex.
+     */
+    TriggerChangeIndex() {
+        this.categoryIndex = new EnumMap<>(OntologyChange.Category.class);
+        this.unitTypeIndex = new EnumMap<>(UnitType.class);
+        this.serviceTypeIndex = new EnumMap<>(ServiceType.class);
+    }
+
+    /**
+     * Method adds the trigger to the index entries of all values of its depending ontology change.
+     *
+     * @param trigger is the trigger.
+     * @param dependingChange is the depending ontology change of the trigger.
+     */
+    void add(final T trigger, final OntologyChange dependingChange) {
+        dependingChange.getCategoryList().forEach(category -> categoryIndex.computeIfAbsent(category, key -> new LinkedHashSet<>()).add(trigger));
+        dependingChange.getUnitTypeList().forEach(unitType -> unitTypeIndex.computeIfAbsent(unitType, key -> new LinkedHashSet<>()).add(trigger));
+        dependingChange.getServiceTypeList().forEach(serviceType -> serviceTypeIndex.computeIfAbsent(serviceType, key -> new LinkedHashSet<>()).add(trigger));
+    }
+
+    /**
+     * Method removes the trigger from the index entries of all values of its depending ontology change.
+     *
+     * @param trigger is the trigger.
+     * @param dependingChange is the depending ontology change of the trigger, which was used to add the trigger.
+     */
+    void remove(final T trigger, final OntologyChange dependingChange) {
+        dependingChange.getCategoryList().forEach(category -> remove(categoryIndex, category, trigger));
+        dependingChange.getUnitTypeList().forEach(unitType -> remove(unitTypeIndex, unitType, trigger));
+        dependingChange.getServiceTypeList().forEach(serviceType -> remove(serviceTypeIndex, serviceType, trigger));
+    }
+
+    /**
+     * Method returns all triggers, which are related to the ontology change. A trigger is related, if at least one category, unit type or service type of
+     * the change is contained in its depending ontology change.
+     *
+     * @param ontologyChange is the incoming ontology change.
+     * @return the related triggers (each once) or an empty set.
+     */
+    Set<T> getRelatedTriggers(final OntologyChange ontologyChange) {
+        final Set<T> relatedTriggers = new LinkedHashSet<>();
+
+        ontologyChange.getCategoryList().forEach(category -> relatedTriggers.addAll(categoryIndex.getOrDefault(category, Collections.emptySet())));
+        ontologyChange.getUnitTypeList().forEach(unitType -> relatedTriggers.addAll(unitTypeIndex.getOrDefault(unitType, Collections.emptySet())));
+        ontologyChange.getServiceTypeList().forEach(serviceType -> relatedTriggers.addAll(serviceTypeIndex.getOrDefault(serviceType, Collections.emptySet())));
+
+        return relatedTriggers;
+    }
+
+    private static <K, T> void remove(final Map<K, Set<T>> index, final K key, final T trigger) {
+        final Set<T> triggers = index.get(key);
+
+        if (triggers != null && triggers.remove(trigger) && triggers.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
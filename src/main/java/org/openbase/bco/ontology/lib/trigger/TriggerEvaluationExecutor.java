@@ -0,0 +1,198 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.trigger;
+
+import org.openbase.bco.ontology.lib.system.config.OntConfig;
+import org.openbase.jul.exception.CouldNotPerformException;
+import org.openbase.jul.exception.printer.ExceptionPrinter;
+import org.openbase.jul.exception.printer.LogLevel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Class executes the trigger evaluations (blocking queries) apart from the rsb and observable notification threads, so that a slow query does not stall
+ * other triggers or the listener. The number of parallel evaluations is bounded (see {@link OntConfig#getTriggerParallelism()}). An evaluation, which waits
+ * longer than the queue timeout for execution, is dropped and the result of an evaluation, which takes longer than the execution timeout, is discarded (see
+ * {@link OntConfig#getTriggerQueueTimeoutMilliS()} and {@link OntConfig#getTriggerExecutionTimeoutMilliS()}). If the runtime supports virtual threads,
+ * each evaluation is executed in an own virtual thread. Otherwise a pool of daemon threads is used.
+ *
+ * @author agent on 18.10.26.
+ */
+final class TriggerEvaluationExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TriggerEvaluationExecutor.class);
+
+    /**
+     * The maximal number of evaluations, which wait for execution. Because the evaluations are coalesced per query, the number is bounded by the number of
+     * distinct trigger queries in general.
+     */
+    private static final int MAX_QUEUED_EVALUATIONS = 10000;
+
+    private final ExecutorService executorService;
+    private final ScheduledExecutorService timeoutService;
+    private final Semaphore permits;
+    private final AtomicInteger queuedEvaluations;
+
+    /**
+     * Constructor for TriggerEvaluationExecutor.
+     *
+     * @param parallelism is the maximal number of parallel evaluations.
+     */
+    TriggerEvaluationExecutor(final int parallelism) {
+        final int permitCount = Math.max(1, parallelism);
+        final ExecutorService virtualThreadExecutor = newVirtualThreadExecutor();
+
+        this.executorService = (virtualThreadExecutor == null) ? Executors.newFixedThreadPool(permitCount, newDaemonThreadFactory("TriggerEvaluation"))
+                : virtualThreadExecutor;
+        this.timeoutService = Executors.newSingleThreadScheduledExecutor(newDaemonThreadFactory("TriggerEvaluationTimeout"));
+        this.permits = new Semaphore(permitCount);
+        this.queuedEvaluations = new AtomicInteger();
+    }
+
+    /**
+     * Method executes the evaluation asynchronously. The result consumer is called exactly once: with the result of the evaluation or with {@code null}, if
+     * the evaluation failed, was dropped (queue timeout) or took too long (execution timeout). The result is delivered after the evaluation is finished, so
+     * that the execution timeout does not interrupt the consumer. The finish callback is called after the evaluation thread returned (or the evaluation was
+     * dropped) and the permit is released. In case of the execution timeout, this may be long after the result consumer was called with {@code null}.
+     *
+     * @param evaluation is the evaluation, which returns the query result.
+     * @param resultConsumer is the consumer of the evaluation result.
+     * @param finishCallback is called, if the evaluation does not occupy a permit anymore.
+     * @throws CouldNotPerformException is thrown in case the evaluation could not be queued (too many waiting evaluations). The callbacks are not called.
+     */
+    void execute(final Callable<Boolean> evaluation, final Consumer<Boolean> resultConsumer, final Runnable finishCallback) throws CouldNotPerformException {
+        final long queueDeadlineMilliS = System.currentTimeMillis() + OntConfig.getTriggerQueueTimeoutMilliS();
+        final AtomicBoolean completed = new AtomicBoolean(false);
+        final Consumer<Boolean> completion = result -> {
+            if (completed.compareAndSet(false, true)) {
+                resultConsumer.accept(result);
+            }
+        };
+
+        if (queuedEvaluations.incrementAndGet() > MAX_QUEUED_EVALUATIONS) {
+            queuedEvaluations.decrementAndGet();
+            throw new CouldNotPerformException("Could not queue trigger evaluation, because there are too many waiting evaluations!");
+        }
+
+        try {
+            executorService.execute(() -> {
+                try {
+                    // the pooled fallback queues the task in the thread pool, so the deadline may be expired before the task starts
+                    if (System.currentTimeMillis() > queueDeadlineMilliS || !permits.tryAcquire(Math.max(0, queueDeadlineMilliS - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                        queuedEvaluations.decrementAndGet();
+                        LOGGER.warn("Trigger evaluation dropped, because it waited longer than " + OntConfig.getTriggerQueueTimeoutMilliS() + "ms.");
+                        completion.accept(null);
+                        finishCallback.run();
+                        return;
+                    }
+                } catch (InterruptedException ex) {
+                    queuedEvaluations.decrementAndGet();
+                    completion.accept(null);
+                    finishCallback.run();
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+                queuedEvaluations.decrementAndGet();
+                try {
+                    evaluate(evaluation, completion);
+                } finally {
+                    permits.release();
+                    finishCallback.run();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            queuedEvaluations.decrementAndGet();
+            throw new CouldNotPerformException("Could not queue trigger evaluation!", ex);
+        }
+    }
+
+    private void evaluate(final Callable<Boolean> evaluation, final Consumer<Boolean> completion) {
+        final Thread evaluationThread = Thread.currentThread();
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final ScheduledFuture<?> timeout = timeoutService.schedule(() -> {
+            LOGGER.warn("Trigger evaluation result discarded, because it took longer than " + OntConfig.getTriggerExecutionTimeoutMilliS() + "ms.");
+            completion.accept(null);
+            // blocking io may ignore the interruption, but the permit is released not until the thread returns
+            synchronized (running) {
+                if (running.get()) {
+                    evaluationThread.interrupt();
+                }
+            }
+        }, OntConfig.getTriggerExecutionTimeoutMilliS(), TimeUnit.MILLISECONDS);
+
+        Boolean result = null;
+
+        try {
+            result = evaluation.call();
+        } catch (Exception ex) {
+            ExceptionPrinter.printHistory("Could not evaluate trigger query.", ex, LOGGER, LogLevel.WARN);
+        } finally {
+            timeout.cancel(false);
+            // the timeout does not interrupt the thread after the evaluation is finished. Clears a possibly interruption of the timeout, so that the
+            // pooled thread can be reused
+            synchronized (running) {
+                running.set(false);
+            }
+            Thread.interrupted();
+        }
+        // delivered after the evaluation is marked as finished, so that the timeout can not interrupt the consumer (e.g. the trigger observers)
+        completion.accept(result);
+    }
+
+    /**
+     * Method creates an executor, which starts a new virtual thread per task. The method is based on reflection, because virtual threads are available since
+     * java 21 only.
+     *
+     * @return the virtual thread executor or {@code null}, if the runtime does not support virtual threads.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            final ExecutorService executorService = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            LOGGER.info("Trigger evaluations are executed in virtual threads.");
+            return executorService;
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException ex) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory newDaemonThreadFactory(final String name) {
+        final AtomicInteger threadCount = new AtomicInteger();
+
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,338 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.trigger;
+
+import org.apache.jena.query.QueryException;
+import org.apache.jena.query.QueryFactory;
+import org.openbase.bco.ontology.lib.commun.trigger.OntologyRemote;
+import org.openbase.bco.ontology.lib.system.config.OntConfig;
+import org.openbase.jul.exception.CouldNotPerformException;
+import org.openbase.jul.exception.printer.ExceptionPrinter;
+import org.openbase.jul.exception.printer.LogLevel;
+import org.openbase.jul.pattern.Observer;
+import org.openbase.jul.pattern.Remote.ConnectionState;
+import org.openbase.jul.schedule.GlobalScheduledExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rst.domotic.ontology.OntologyChangeType.OntologyChange;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class evaluates the queries of all subscribed triggers. The queries are canonicalised, so that triggers with the same query share one evaluation: each
+ * distinct query is sent once per change epoch to the ontology server and the result is fanned out to all related triggers. Bursts of changes are coalesced
+ * per query, so that changes, which arrive while an evaluation is pending or in flight, lead to one re-evaluation only. The hub observes the ontology
+ * changes and the server connection state on behalf of the triggers as long as at least one trigger is subscribed. The triggers, which are related to an
+ * ontology change, are looked up via an inverted index (see {@link TriggerChangeIndex}) instead of asking each trigger. The queries are evaluated by a
+ * bounded executor (see {@link TriggerEvaluationExecutor}), so that the notification threads are not blocked.
+ *
+ * @author agent on 18.10.26.
+ */
+public class TriggerEvaluationHub {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TriggerEvaluationHub.class);
+
+    /**
+     * Change, which is evaluated after the connection to the ontology server is (re)established.
+     */
+    private static final OntologyChange RECONNECT_CHANGE = OntologyChange.newBuilder().addCategory(OntologyChange.Category.UNKNOWN).build();
+
+    /**
+     * Executor of the queries, which is shared by all hubs.
+     */
+    private static final TriggerEvaluationExecutor EVALUATION_EXECUTOR = new TriggerEvaluationExecutor(OntConfig.getTriggerParallelism());
+
+    private final OntologyRemote ontologyRemote;
+    private final Map<TriggerImpl, String> canonicalQueries;
+    private final TriggerChangeIndex<TriggerImpl> changeIndex;
+    private final Map<String, PendingEvaluation> pendingEvaluations;
+    private final Set<String> runningQueries;
+    private final Observer<ConnectionState> connectionObserver;
+    private final Observer<OntologyChange> ontologyObserver;
+    private volatile ConnectionState connectionState;
+
+    /**
+     * Constructor for TriggerEvaluationHub.
+     *
+     * @param ontologyRemote is the remote, which is used to evaluate the queries and to observe ontology changes and connection state.
+     */
+    public TriggerEvaluationHub(final OntologyRemote ontologyRemote) {
+        this.ontologyRemote = ontologyRemote;
+        this.canonicalQueries = new HashMap<>();
+        this.changeIndex = new TriggerChangeIndex<>();
+        this.pendingEvaluations = new HashMap<>();
+        this.runningQueries = new HashSet<>();
+        this.connectionState = ConnectionState.UNKNOWN;
+
+        this.connectionObserver = (source, data) -> {
+            switch (data) {
+                case CONNECTED:
+                    connectionState = ConnectionState.CONNECTED;
+                    evaluate(RECONNECT_CHANGE);
+                    break;
+                case DISCONNECTED:
+                case UNKNOWN:
+                    connectionState = data;
+                    notifyConnectionLoss();
+                    break;
+                default:
+            }
+        };
+        this.ontologyObserver = (source, data) -> {
+            if (connectionState != ConnectionState.DISCONNECTED) {
+                evaluate(data);
+            }
+        };
+    }
+
+    /**
+     * Method subscribes the trigger to the evaluation of its query. The trigger config of the trigger must be initialized.
+     *
+     * @param trigger is the trigger, which should be informed about the query result.
+     */
+    public void subscribe(final TriggerImpl trigger) {
+        final boolean first;
+
+        synchronized (canonicalQueries) {
+            if (canonicalQueries.containsKey(trigger)) {
+                return;
+            }
+            first = canonicalQueries.isEmpty();
+            canonicalQueries.put(trigger, canonicalize(trigger.getTriggerConfig().getQuery()));
+            changeIndex.add(trigger, trigger.getTriggerConfig().getDependingOntologyChange());
+        }
+
+        if (first) {
+            ontologyRemote.addConnectionStateObserver(connectionObserver);
+            ontologyRemote.addOntologyObserver(ontologyObserver);
+        }
+    }
+
+    /**
+     * Method unsubscribes the trigger from the evaluation of its query.
+     *
+     * @param trigger is the trigger, which should not be informed anymore.
+     */
+    public void unsubscribe(final TriggerImpl trigger) {
+        final boolean last;
+
+        synchronized (canonicalQueries) {
+            if (canonicalQueries.remove(trigger) == null) {
+                return;
+            }
+            changeIndex.remove(trigger, trigger.getTriggerConfig().getDependingOntologyChange());
+            last = canonicalQueries.isEmpty();
+        }
+
+        if (last) {
+            ontologyRemote.removeConnectionStateObserver(connectionObserver);
+            ontologyRemote.removeOntologyObserver(ontologyObserver);
+        }
+    }
+
+    /**
+     * Method marks the distinct queries of the triggers, which are related to the ontology change, as pending and schedules their evaluation. Changes, which
+     * arrive while an evaluation of the same query is pending or in flight, are coalesced to one re-evaluation (see {@link PendingEvaluation}).
+     *
+     * @param ontologyChange is the ontology change of the current epoch.
+     */
+    private void evaluate(final OntologyChange ontologyChange) {
+        final long now = System.currentTimeMillis();
+
+        synchronized (canonicalQueries) {
+            for (final TriggerImpl trigger : changeIndex.getRelatedTriggers(ontologyChange)) {
+                final String canonicalQuery = canonicalQueries.get(trigger);
+                // the original query string is sent, the canonical form is used as key only
+                final PendingEvaluation pendingEvaluation = pendingEvaluations.computeIfAbsent(canonicalQuery,
+                        key -> new PendingEvaluation(trigger.getTriggerConfig().getQuery(), now));
+
+                pendingEvaluation.triggers.add(trigger);
+                pendingEvaluation.lastChangeMilliS = now;
+
+                if (!pendingEvaluation.scheduled && !runningQueries.contains(canonicalQuery)) {
+                    schedule(canonicalQuery, pendingEvaluation, now);
+                }
+            }
+        }
+    }
+
+    /**
+     * Method submits the pending query to the evaluation executor, if it is due and not in flight (single flight per query). Otherwise the evaluation is
+     * postponed. The related triggers are informed about the result asynchronously.
+     *
+     * @param canonicalQuery is the canonical form of the pending query.
+     */
+    private void evaluatePending(final String canonicalQuery) {
+        final PendingEvaluation pendingEvaluation;
+
+        synchronized (canonicalQueries) {
+            pendingEvaluation = pendingEvaluations.get(canonicalQuery);
+
+            if (pendingEvaluation == null) {
+                return;
+            }
+
+            final long now = System.currentTimeMillis();
+
+            if (runningQueries.contains(canonicalQuery)) {
+                // is rescheduled after the running evaluation
+                pendingEvaluation.scheduled = false;
+                return;
+            } else if (pendingEvaluation.getDelayMilliS(now) > 0) {
+                schedule(canonicalQuery, pendingEvaluation, now);
+                return;
+            }
+            pendingEvaluations.remove(canonicalQuery);
+            runningQueries.add(canonicalQuery);
+            // triggers, which are unsubscribed in the meantime, are not informed anymore
+            pendingEvaluation.triggers.retainAll(canonicalQueries.keySet());
+        }
+
+        try {
+            EVALUATION_EXECUTOR.execute(() -> ontologyRemote.match(pendingEvaluation.query), match -> notifyMatch(pendingEvaluation, match),
+                    () -> finishEvaluation(canonicalQuery));
+        } catch (CouldNotPerformException ex) {
+            ExceptionPrinter.printHistory(ex, LOGGER, LogLevel.WARN);
+            finishEvaluation(canonicalQuery);
+        }
+    }
+
+    /**
+     * Method informs the triggers of the evaluation about the result.
+     *
+     * @param pendingEvaluation is the evaluation.
+     * @param match is the result of the query or {@code null}, if there is no result (the triggers keep their state).
+     */
+    private void notifyMatch(final PendingEvaluation pendingEvaluation, final Boolean match) {
+        if (match == null) {
+            return;
+        }
+
+        for (final TriggerImpl trigger : pendingEvaluation.triggers) {
+            try {
+                trigger.notifyMatch(match);
+            } catch (CouldNotPerformException ex) {
+                ExceptionPrinter.printHistory("Could not notify trigger " + trigger.getTriggerConfig().getLabel(), ex, LOGGER, LogLevel.ERROR);
+            }
+        }
+    }
+
+    /**
+     * Method releases the query, after the evaluation thread returned, and schedules the next evaluation of the query, if changes arrived in the meantime.
+     * The query is kept as running until then, also if the result was discarded by the execution timeout, so that there is one evaluation per query in
+     * flight only.
+     *
+     * @param canonicalQuery is the canonical form of the evaluated query.
+     */
+    private void finishEvaluation(final String canonicalQuery) {
+        synchronized (canonicalQueries) {
+            runningQueries.remove(canonicalQuery);
+            final PendingEvaluation nextEvaluation = pendingEvaluations.get(canonicalQuery);
+
+            if (nextEvaluation != null && !nextEvaluation.scheduled) {
+                schedule(canonicalQuery, nextEvaluation, System.currentTimeMillis());
+            }
+        }
+    }
+
+    private void schedule(final String canonicalQuery, final PendingEvaluation pendingEvaluation, final long now) {
+        try {
+            pendingEvaluation.scheduled = true;
+            scheduleEvaluation(canonicalQuery, pendingEvaluation.getDelayMilliS(now));
+        } catch (CouldNotPerformException ex) {
+            pendingEvaluations.remove(canonicalQuery);
+            ExceptionPrinter.printHistory(ex, LOGGER, LogLevel.ERROR);
+        }
+    }
+
+    private void scheduleEvaluation(final String canonicalQuery, final long delayMilliS) throws CouldNotPerformException {
+        try {
+            GlobalScheduledExecutorService.schedule(() -> evaluatePending(canonicalQuery), delayMilliS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            throw new CouldNotPerformException("Could not schedule trigger evaluation!", ex);
+        }
+    }
+
+    private void notifyConnectionLoss() {
+        final List<TriggerImpl> triggers;
+
+        synchronized (canonicalQueries) {
+            triggers = new ArrayList<>(canonicalQueries.keySet());
+        }
+
+        for (final TriggerImpl trigger : triggers) {
+            try {
+                trigger.notifyConnectionLoss();
+            } catch (CouldNotPerformException ex) {
+                ExceptionPrinter.printHistory("Could not notify trigger " + trigger.getTriggerConfig().getLabel(), ex, LOGGER, LogLevel.ERROR);
+            }
+        }
+    }
+
+    /**
+     * Method returns the canonical form of the query, so that queries, which differ in formatting only (whitespaces, line breaks, keyword case...), are
+     * evaluated once. If the query could not be parsed, the whitespaces of the query are normalized only.
+     *
+     * @param query is the sparql query.
+     * @return the canonical form of the query.
+     */
+    static String canonicalize(final String query) {
+        try {
+            return QueryFactory.create(query).serialize();
+        } catch (QueryException ex) {
+            return query.trim().replaceAll("\\s+", " ");
+        }
+    }
+
+    /**
+     * Class keeps the coalesced ontology changes of one query, which wait for evaluation. The evaluation is due, if there was no further change within the
+     * minimal interval (see {@link OntConfig#getTriggerMinIntervalMilliS()}), but at the latest after the maximal staleness since the first change (see
+     * {@link OntConfig#getTriggerMaxStalenessMilliS()}).
+     */
+    private static final class PendingEvaluation {
+
+        private final String query;
+        private final Set<TriggerImpl> triggers;
+        private final long firstChangeMilliS;
+        private long lastChangeMilliS;
+        private boolean scheduled;
+
+        private PendingEvaluation(final String query, final long firstChangeMilliS) {
+            this.query = query;
+            this.triggers = new LinkedHashSet<>();
+            this.firstChangeMilliS = firstChangeMilliS;
+            this.lastChangeMilliS = firstChangeMilliS;
+            this.scheduled = false;
+        }
+
+        private long getDelayMilliS(final long now) {
+            final long dueMilliS = Math.min(lastChangeMilliS + OntConfig.getTriggerMinIntervalMilliS(),
+                    firstChangeMilliS + OntConfig.getTriggerMaxStalenessMilliS());
+            return Math.max(0, dueMilliS - now);
+        }
+    }
+}
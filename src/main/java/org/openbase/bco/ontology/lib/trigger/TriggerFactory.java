@@ -18,9 +18,10 @@
  */
 package org.openbase.bco.ontology.lib.trigger;
 
-import org.openbase.bco.ontology.lib.commun.trigger.OntologyRemote;
 import org.openbase.bco.ontology.lib.commun.trigger.OntologyRemoteImpl;
 import org.openbase.bco.ontology.lib.commun.monitor.ServerConnection;
+import org.openbase.bco.ontology.lib.commun.web.EmbeddedTripleStore;
+import org.openbase.bco.ontology.lib.commun.web.HttpConnectionPool;
 import org.openbase.bco.ontology.lib.system.config.OntConfig;
 import org.openbase.bco.ontology.lib.trigger.sparql.QueryParser;
 import org.openbase.jul.exception.CouldNotPerformException;
@@ -50,16 +51,27 @@ public class TriggerFactory implements Factory {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TriggerFactory.class);
 
+    private final TriggerEvaluationHub evaluationHub;
+
     /**
      * Constructor initializes the base elements to create multiple trigger instances. That means (1) an independent server connection to monitor the
-     * connection state between trigger interface and ontology server and (2) the rsb communication.
+     * connection state between trigger interface and ontology server, (2) the rsb communication and (3) the evaluation hub, which is shared by all triggers
+     * of this factory. With the ontology backend {@link OntConfig.OntologyBackend#TDB} the trigger are supported in the process of the ontology manager only,
+     * because the embedded triple store must not be opened by another process.
      *
-     * @throws CouldNotPerformException is thrown in case at least one base element could not be initialized.
+     * @throws CouldNotPerformException is thrown in case at least one base element could not be initialized or the embedded triple store is not opened by
+     * this process.
      * @throws InterruptedException is thrown in case the thread is externally interrupted.
      */
     public TriggerFactory() throws CouldNotPerformException, InterruptedException {
+        if (OntConfig.getOntologyBackend() == OntConfig.OntologyBackend.TDB && !EmbeddedTripleStore.isOpen()) {
+            throw new CouldNotPerformException("Could not create trigger factory, because the embedded triple store (ontology backend TDB) is opened by "
+                    + "the ontology manager process only. Use the ontology backend FUSEKI for trigger in other processes!");
+        }
+        HttpConnectionPool.init();
         ServerConnection.newServerConnectionObservable();
         initRsb();
+        this.evaluationHub = new TriggerEvaluationHub(new OntologyRemoteImpl());
     }
 
     /**
@@ -80,8 +92,7 @@ public class TriggerFactory implements Factory {
         final TriggerConfig triggerConfig = ((TriggerConfig) config);
         checkTriggerConfig(triggerConfig);
 
-        final OntologyRemote ontologyRemote = new OntologyRemoteImpl();
-        final Trigger trigger = new TriggerImpl(ontologyRemote);
+        final Trigger trigger = new TriggerImpl(evaluationHub);
 
         return initTrigger(trigger, triggerConfig);
     }
@@ -99,8 +110,7 @@ public class TriggerFactory implements Factory {
     public Trigger newInstance(final String label, final String query) throws InstantiationException, InterruptedException {
         try {
             final OntologyChange ontologyChange = getOntologyChange(label, query);
-            final OntologyRemote ontologyRemote = new OntologyRemoteImpl();
-            final Trigger trigger = new TriggerImpl(ontologyRemote);
+            final Trigger trigger = new TriggerImpl(evaluationHub);
             final TriggerConfig triggerConfig = TriggerConfig.newBuilder().setLabel(label).setQuery(query).setDependingOntologyChange(ontologyChange).build();
 
             return initTrigger(trigger, triggerConfig);
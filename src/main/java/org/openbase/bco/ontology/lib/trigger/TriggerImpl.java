@@ -18,92 +18,51 @@
  */
 package org.openbase.bco.ontology.lib.trigger;
 
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-
 import org.openbase.bco.ontology.lib.commun.trigger.OntologyRemote;
 import org.openbase.jul.exception.CouldNotPerformException;
 import org.openbase.jul.exception.InitializationException;
-import org.openbase.jul.exception.printer.ExceptionPrinter;
-import org.openbase.jul.exception.printer.LogLevel;
-import org.openbase.jul.pattern.Observable;
 import org.openbase.jul.pattern.ObservableImpl;
 import org.openbase.jul.pattern.Observer;
-import org.openbase.jul.pattern.Remote.ConnectionState;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import rsb.converter.DefaultConverterRepository;
 import rsb.converter.ProtocolBufferConverter;
 import rst.domotic.ontology.OntologyChangeType.OntologyChange;
 import rst.domotic.ontology.TriggerConfigType.TriggerConfig;
-import rst.domotic.service.ServiceTemplateType.ServiceTemplate.ServiceType;
 import rst.domotic.state.ActivationStateType.ActivationState;
-import rst.domotic.unit.UnitTemplateType.UnitTemplate.UnitType;
 
 /**
  * @author agatting on 21.12.16.
  */
 public class TriggerImpl implements Trigger {
 
-    private static final List<OntologyChange.Category> UNKNOWN_CHANGE = new ArrayList<>();
-    private static final Logger LOGGER = LoggerFactory.getLogger(TriggerImpl.class);
-
     static {
         DefaultConverterRepository.getDefaultConverterRepository().addConverter(new ProtocolBufferConverter<>(OntologyChange.getDefaultInstance()));
     }
 
-    static {
-        UNKNOWN_CHANGE.add(OntologyChange.Category.UNKNOWN);
-    }
-
     private final ObservableImpl<ActivationState.State> activationObservable;
     private boolean active;
+    private ActivationState.State activationState;
     private TriggerConfig triggerConfig;
-    private final OntologyRemote ontologyRemote;
-    private final Observer<ConnectionState> connectionObserver;
-    private final Observer<OntologyChange> ontologyObserver;
-    private ConnectionState hasConnection;
-    private final OntologyChange.Category category;
+    private final TriggerEvaluationHub evaluationHub;
 
     /**
-     * Constructor for TriggerImpl.
+     * Constructor for TriggerImpl. The trigger uses an own evaluation hub, consider to share one hub between triggers via
+     * {@link #TriggerImpl(TriggerEvaluationHub)}.
      *
      * @param ontologyRemote ontologyRemote
      */
     public TriggerImpl(final OntologyRemote ontologyRemote) {
-        this.category = OntologyChange.Category.UNKNOWN; //TODO
-        this.hasConnection = ConnectionState.UNKNOWN;
-        this.ontologyRemote = ontologyRemote;
-        this.activationObservable = new ObservableImpl<>(true, this);
+        this(new TriggerEvaluationHub(ontologyRemote));
+    }
 
-        final OntologyChange ontologyChange = OntologyChange.newBuilder().addCategory(category).build();
-
-        this.connectionObserver = (source, data) -> {
-            switch (data) {
-                case CONNECTED:
-                    hasConnection = ConnectionState.CONNECTED;
-                    notifyOntologyChange(ontologyChange);
-                    break;
-                case DISCONNECTED:
-                    hasConnection = ConnectionState.DISCONNECTED;
-                    activationObservable.notifyObservers(ActivationState.State.UNKNOWN);
-                case UNKNOWN:
-                    hasConnection = ConnectionState.UNKNOWN;
-                    activationObservable.notifyObservers(ActivationState.State.UNKNOWN);
-                default:
-            }
-        };
-        this.ontologyObserver = (Observable<OntologyChange> source, OntologyChange data) -> {
-            if (!hasConnection.equals(ConnectionState.DISCONNECTED)) {
-//                if (Measurement.measurementWatch.isRunning()) {
-//                    Measurement.measurementWatch.stop();
-//                    Measurement.triggerImplFromRSB.add(Measurement.measurementWatch.getTime());
-//                    Measurement.measurementWatch.restart();
-//                }
-                notifyOntologyChange(data);
-            }
-        };
+    /**
+     * Constructor for TriggerImpl.
+     *
+     * @param evaluationHub is the hub, which evaluates the query of the trigger (shared with triggers of the same query).
+     */
+    public TriggerImpl(final TriggerEvaluationHub evaluationHub) {
+        this.evaluationHub = evaluationHub;
+        this.activationObservable = new ObservableImpl<>(true, this);
+        this.activationState = ActivationState.State.UNKNOWN;
     }
 
     @Override
@@ -119,8 +78,16 @@ public class TriggerImpl implements Trigger {
     @Override
     public void init(final TriggerConfig triggerConfig) throws InitializationException, InterruptedException {
         try {
+            // the hub indexes the trigger by the depending ontology changes of the current config, so that it is unsubscribed before the config is replaced
+            evaluationHub.unsubscribe(this);
             this.triggerConfig = triggerConfig;
-            activationObservable.notifyObservers(ActivationState.State.UNKNOWN);
+            synchronized (activationObservable) {
+                activationState = ActivationState.State.UNKNOWN;
+                activationObservable.notifyObservers(activationState);
+            }
+            if (active) {
+                evaluationHub.subscribe(this);
+            }
         } catch (CouldNotPerformException ex) {
             throw new InitializationException(this, ex);
         }
@@ -129,55 +96,42 @@ public class TriggerImpl implements Trigger {
     @Override
     public void activate() throws CouldNotPerformException, InterruptedException {
         active = true;
-        ontologyRemote.addConnectionStateObserver(connectionObserver);
-        ontologyRemote.addOntologyObserver(ontologyObserver);
+        evaluationHub.subscribe(this);
     }
 
     @Override
     public void deactivate() throws CouldNotPerformException, InterruptedException {
         active = false;
-        ontologyRemote.removeConnectionStateObserver(connectionObserver);
-        ontologyRemote.removeOntologyObserver(ontologyObserver);
+        evaluationHub.unsubscribe(this);
     }
 
-    private void notifyOntologyChange(final OntologyChange ontologyChange) throws CouldNotPerformException {
-        if (isRelatedChange(ontologyChange)) {
-            try {
-                if (ontologyRemote.match(triggerConfig.getQuery())) {
-                    activationObservable.notifyObservers(ActivationState.State.ACTIVE);
-                } else {
-                    activationObservable.notifyObservers(ActivationState.State.DEACTIVE);
-                }
-            } catch (IOException ex) {
-                ExceptionPrinter.printHistory("Could not send query to server. Waiting of notification from ServerConnection", ex, LOGGER, LogLevel.WARN);
-            }
-        }
+    /**
+     * Method informs the observers about the evaluated query result of the trigger, if the activation state flips.
+     *
+     * @param match is the result of the trigger query.
+     * @throws CouldNotPerformException is thrown in case the observers could not be notified.
+     */
+    void notifyMatch(final boolean match) throws CouldNotPerformException {
+        setActivationState(match ? ActivationState.State.ACTIVE : ActivationState.State.DEACTIVE);
     }
 
-    private boolean isRelatedChange(final OntologyChange ontologyChange) {
-
-        final List<OntologyChange.Category> categories = ontologyChange.getCategoryList();
-        final List<UnitType> unitTypes = ontologyChange.getUnitTypeList();
-        final List<ServiceType> serviceTypes = ontologyChange.getServiceTypeList();
-
-        for (final OntologyChange.Category category : categories) {
-            if (triggerConfig.getDependingOntologyChange().getCategoryList().contains(category)) {
-                return true;
-            }
-        }
-
-        for (final UnitType unitType : unitTypes) {
-            if (triggerConfig.getDependingOntologyChange().getUnitTypeList().contains(unitType)) {
-                return true;
-            }
-        }
+    /**
+     * Method informs the observers, that the trigger state is unknown, because there is no connection to the ontology server.
+     *
+     * @throws CouldNotPerformException is thrown in case the observers could not be notified.
+     */
+    void notifyConnectionLoss() throws CouldNotPerformException {
+        setActivationState(ActivationState.State.UNKNOWN);
+    }
 
-        for (final ServiceType serviceType : serviceTypes) {
-            if (triggerConfig.getDependingOntologyChange().getServiceTypeList().contains(serviceType)) {
-                return true;
+    private void setActivationState(final ActivationState.State state) throws CouldNotPerformException {
+        synchronized (activationObservable) {
+            if (activationState == state) {
+                return;
             }
+            activationState = state;
+            activationObservable.notifyObservers(state);
         }
-        return false;
     }
 
     /**
@@ -0,0 +1,189 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.trigger.sparql;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.openbase.bco.ontology.lib.system.config.OntConfig;
+import org.openbase.jul.exception.CouldNotPerformException;
+import org.openbase.jul.exception.printer.ExceptionPrinter;
+import org.openbase.jul.exception.printer.LogLevel;
+import org.openbase.jul.schedule.GlobalScheduledExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rst.domotic.ontology.OntologyChangeType.OntologyChange;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Properties;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class caches the ontology changes, which are parsed from trigger queries. The cache is content-addressed: the key is the SHA-256 hash of the extraction
+ * version, the ontology namespace and the query string, so that the same query of different triggers (or of a restarted application) is parsed once and a
+ * changed extraction or namespace does not use outdated entries. The cache is persisted in the trigger cache file (see
+ * {@link OntConfig#getTriggerCacheFile()}), which is replaced atomically. New entries mark the cache as dirty and are persisted together after a short
+ * delay (e.g. after the registration of all triggers) and at the shutdown of the application.
+ *
+ * @author agent on 18.10.26.
+ */
+final class QueryDependencyCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryDependencyCache.class);
+    private static final Properties CACHE = new Properties();
+
+    /**
+     * Delay of the persistence after a new entry, so that the entries of a burst (e.g. the registration of the triggers) are persisted once.
+     */
+    private static final long FLUSH_DELAY_MILLISECONDS = 1000;
+
+    private static Path cacheFile;
+    private static boolean dirty;
+    private static boolean flushScheduled;
+
+    static {
+        try {
+            cacheFile = Paths.get(OntConfig.getTriggerCacheFile());
+
+            if (Files.exists(cacheFile)) {
+                try (Reader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+                    CACHE.load(reader);
+                }
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(QueryDependencyCache::flush, "TriggerCacheShutdown"));
+        } catch (IOException | InvalidPathException ex) {
+            ExceptionPrinter.printHistory("Could not load trigger cache file. Cache is not persisted.", ex, LOGGER, LogLevel.WARN);
+            cacheFile = null;
+        }
+    }
+
+    private QueryDependencyCache() {
+    }
+
+    /**
+     * Method returns the cached ontology change of the query.
+     *
+     * @param query is the trigger query.
+     * @return the cached ontology change or {@code null}, if the query is not cached.
+     */
+    static synchronized OntologyChange get(final String query) {
+        final String value = CACHE.getProperty(getKey(query));
+
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return OntologyChange.parseFrom(Base64.getDecoder().decode(value));
+        } catch (InvalidProtocolBufferException | IllegalArgumentException ex) {
+            ExceptionPrinter.printHistory("Invalid trigger cache entry. Parse query again.", ex, LOGGER, LogLevel.WARN);
+            return null;
+        }
+    }
+
+    /**
+     * Method caches the ontology change of the query. The cache is persisted after a short delay (see {@link #FLUSH_DELAY_MILLISECONDS}).
+     *
+     * @param query is the trigger query.
+     * @param ontologyChange is the ontology change, which is parsed from the query.
+     */
+    static synchronized void put(final String query, final OntologyChange ontologyChange) {
+        CACHE.setProperty(getKey(query), Base64.getEncoder().encodeToString(ontologyChange.toByteArray()));
+        dirty = true;
+
+        if (cacheFile == null || flushScheduled) {
+            return;
+        }
+
+        try {
+            scheduleFlush();
+            flushScheduled = true;
+        } catch (CouldNotPerformException ex) {
+            ExceptionPrinter.printHistory("Trigger cache is persisted at shutdown only.", ex, LOGGER, LogLevel.WARN);
+        }
+    }
+
+    private static void scheduleFlush() throws CouldNotPerformException {
+        try {
+            GlobalScheduledExecutorService.schedule(QueryDependencyCache::flush, FLUSH_DELAY_MILLISECONDS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            throw new CouldNotPerformException("Could not schedule persistence of trigger cache!", ex);
+        }
+    }
+
+    /**
+     * Method persists the cache, if there are new entries since the last persistence.
+     */
+    private static synchronized void flush() {
+        flushScheduled = false;
+
+        if (!dirty || cacheFile == null) {
+            return;
+        }
+
+        try {
+            persist();
+            dirty = false;
+        } catch (CouldNotPerformException ex) {
+            ExceptionPrinter.printHistory(ex, LOGGER, LogLevel.WARN);
+        }
+    }
+
+    private static void persist() throws CouldNotPerformException {
+        try {
+            final Path directory = cacheFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            final Path tempFile = Files.createTempFile(directory, cacheFile.getFileName().toString(), ".tmp");
+
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                CACHE.store(writer, "ontology changes of trigger queries (key: sha-256 of the extraction version, namespace and query)");
+            }
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new CouldNotPerformException("Could not persist trigger cache to " + cacheFile + "!", ex);
+        }
+    }
+
+    private static String getKey(final String query) {
+        final String versionedQuery = QueryDependencyExtractor.VERSION + "\n" + OntConfig.NAMESPACE + "\n" + query;
+
+        try {
+            final byte[] hash = MessageDigest.getInstance("SHA-256").digest(versionedQuery.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder key = new StringBuilder(hash.length * 2);
+
+            for (final byte hashByte : hash) {
+                key.append(String.format("%02x", hashByte));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            // each java platform supports SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.trigger.sparql;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.sparql.algebra.Algebra;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.algebra.OpVisitorBase;
+import org.apache.jena.sparql.algebra.OpWalker;
+import org.apache.jena.sparql.algebra.op.OpBGP;
+import org.apache.jena.sparql.algebra.op.OpFilter;
+import org.apache.jena.sparql.algebra.op.OpLeftJoin;
+import org.apache.jena.sparql.algebra.op.OpPath;
+import org.apache.jena.sparql.algebra.op.OpQuadPattern;
+import org.apache.jena.sparql.algebra.op.OpTriple;
+import org.apache.jena.sparql.core.TriplePath;
+import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.expr.ExprFunctionOp;
+import org.apache.jena.sparql.expr.ExprList;
+import org.apache.jena.sparql.expr.ExprVisitorBase;
+import org.apache.jena.sparql.expr.ExprWalker;
+import org.openbase.bco.ontology.lib.system.config.OntConfig;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Class extracts the resources of the ontology namespace, which a trigger query depends on, by walking the ARQ algebra of the query. The result equals the
+ * spin based extraction (see {@link org.openbase.bco.ontology.lib.utility.sparql.QueryExpression#QUERY_URIS}): all subjects and objects of the triple
+ * patterns (including paths, graph patterns and exists filters), except the triples with the predicate hasStateValue or the resource Observation. The
+ * extraction avoids the conversion of the query to spin rdf and the query of the spin model.
+ *
+ * @author agent on 18.10.26.
+ */
+final class QueryDependencyExtractor {
+
+    /**
+     * Version of the extraction. Increment the version, if the extraction changes, so that the cached results of the previous extraction are not used
+     * anymore (see {@link QueryDependencyCache}).
+     */
+    static final int VERSION = 1;
+
+    private static final Node HAS_STATE_VALUE = NodeFactory.createURI(OntConfig.NAMESPACE + "hasStateValue");
+    private static final Node OBSERVATION = NodeFactory.createURI(OntConfig.NAMESPACE + "Observation");
+
+    private QueryDependencyExtractor() {
+    }
+
+    /**
+     * Method returns the names (without namespace) of the resources, which the query depends on.
+     *
+     * @param query is the trigger query.
+     * @return the distinct resource names in order of their occurrence.
+     * @throws org.apache.jena.shared.JenaException is thrown in case the query could not be parsed or compiled.
+     */
+    static List<String> getResources(final String query) {
+        final Set<String> resources = new LinkedHashSet<>();
+
+        walk(Algebra.compile(QueryFactory.create(query)), resources);
+        return new ArrayList<>(resources);
+    }
+
+    private static void walk(final Op op, final Set<String> resources) {
+        OpWalker.walk(op, new OpVisitorBase() {
+            @Override
+            public void visit(final OpBGP opBGP) {
+                opBGP.getPattern().forEach(triple -> addTriple(triple, resources));
+            }
+
+            @Override
+            public void visit(final OpTriple opTriple) {
+                addTriple(opTriple.getTriple(), resources);
+            }
+
+            @Override
+            public void visit(final OpQuadPattern opQuadPattern) {
+                opQuadPattern.getBasicPattern().forEach(triple -> addTriple(triple, resources));
+            }
+
+            @Override
+            public void visit(final OpPath opPath) {
+                final TriplePath triplePath = opPath.getTriplePath();
+
+                if (!OBSERVATION.equals(triplePath.getSubject()) && !OBSERVATION.equals(triplePath.getObject())) {
+                    addResource(triplePath.getSubject(), resources);
+                    addResource(triplePath.getObject(), resources);
+                }
+            }
+
+            @Override
+            public void visit(final OpFilter opFilter) {
+                walk(opFilter.getExprs(), resources);
+            }
+
+            @Override
+            public void visit(final OpLeftJoin opLeftJoin) {
+                walk(opLeftJoin.getExprs(), resources);
+            }
+        });
+    }
+
+    private static void walk(final ExprList exprList, final Set<String> resources) {
+        if (exprList == null) {
+            return;
+        }
+
+        for (final Expr expr : exprList) {
+            // the graph patterns of exists filters are not part of the algebra tree
+            ExprWalker.walk(new ExprVisitorBase() {
+                @Override
+                public void visit(final ExprFunctionOp funcOp) {
+                    walk(funcOp.getGraphPattern(), resources);
+                }
+            }, expr);
+        }
+    }
+
+    private static void addTriple(final Triple triple, final Set<String> resources) {
+        if (HAS_STATE_VALUE.equals(triple.getPredicate()) || OBSERVATION.equals(triple.getSubject()) || OBSERVATION.equals(triple.getObject())) {
+            return;
+        }
+        addResource(triple.getSubject(), resources);
+        addResource(triple.getObject(), resources);
+    }
+
+    private static void addResource(final Node node, final Set<String> resources) {
+        if (node.isURI() && node.getURI().startsWith(OntConfig.NAMESPACE)) {
+            resources.add(node.getURI().substring(OntConfig.NAMESPACE.length()));
+        }
+    }
+}
@@ -26,10 +26,15 @@ import org.apache.jena.query.ResultSet;
 import org.apache.jena.query.ResultSetFormatter;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.shared.JenaException;
 import org.openbase.bco.ontology.lib.system.config.OntConfig;
 import org.openbase.bco.ontology.lib.utility.sparql.QueryExpression;
 import org.openbase.jul.exception.MultiException;
 import org.openbase.jul.exception.NotAvailableException;
+import org.openbase.jul.exception.printer.ExceptionPrinter;
+import org.openbase.jul.exception.printer.LogLevel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.topbraid.spin.arq.ARQ2SPIN;
 import org.topbraid.spin.arq.ARQFactory;
 import rst.domotic.ontology.OntologyChangeType.OntologyChange;
@@ -45,10 +50,12 @@ import java.util.List;
  */
 public class QueryParser {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryParser.class);
+
     /**
      * Method creates an individual ontologyChange for the input query string (of the trigger with input label). The ontologyChange contains three types of
      * change values, which aggregate to (1) change categories, (2) service types and (3) unit types. Consider: the query string should not contain any negation
-     * phrase, because of the parse complexity.
+     * phrase, because of the parse complexity. The parsed ontologyChanges are cached per query (see {@link QueryDependencyCache}).
      *
      * @param triggerLabel is the label of the trigger.
      * @param triggerQuery is the query of the trigger.
@@ -74,8 +81,13 @@ public class QueryParser {
             throw new MultiException("Could not perform trigger with label \"" + triggerLabel + "\"", ex.getExceptionStack());
         }
 
-        final ResultSet resultSet = getSPINResultSet(triggerQuery);
-        final List<String> resources = getResourcesOfResultSet(resultSet);
+        final OntologyChange cachedOntologyChange = QueryDependencyCache.get(triggerQuery);
+
+        if (cachedOntologyChange != null) {
+            return cachedOntologyChange;
+        }
+
+        final List<String> resources = getResources(triggerQuery);
 
         final List<UnitType> unitTypeChanges = getUnitTypeChanges(resources);
         final List<ServiceType> serviceTypeChanges = getServiceTypeChanges(resources);
@@ -86,7 +98,31 @@ public class QueryParser {
                     + "query string? Or select ontology change manually.");
         }
 
-        return OntologyChange.newBuilder().addAllCategory(categoryChanges).addAllUnitType(unitTypeChanges).addAllServiceType(serviceTypeChanges).build();
+        final OntologyChange ontologyChange = OntologyChange.newBuilder().addAllCategory(categoryChanges).addAllUnitType(unitTypeChanges)
+                .addAllServiceType(serviceTypeChanges).build();
+
+        QueryDependencyCache.put(triggerQuery, ontologyChange);
+        return ontologyChange;
+    }
+
+    /**
+     * Method returns the resources, which the query depends on. The resources are extracted from the ARQ algebra of the query (see
+     * {@link QueryDependencyExtractor}). If the algebra could not be built or contains no resources, the resources are extracted via spin.
+     *
+     * @param triggerQuery is the query of the trigger.
+     * @return the names of the resources (without namespace).
+     */
+    private List<String> getResources(final String triggerQuery) {
+        try {
+            final List<String> resources = QueryDependencyExtractor.getResources(triggerQuery);
+
+            if (!resources.isEmpty()) {
+                return resources;
+            }
+        } catch (JenaException ex) {
+            ExceptionPrinter.printHistory("Could not walk algebra of trigger query. Use spin.", ex, LOGGER, LogLevel.WARN);
+        }
+        return getResourcesOfResultSet(getSPINResultSet(triggerQuery));
     }
 
     private List<Category> getCategoryChanges(final List<String> resources) {
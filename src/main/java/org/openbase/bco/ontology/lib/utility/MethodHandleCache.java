@@ -0,0 +1,74 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.utility;
+
+import org.openbase.jul.exception.CouldNotPerformException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class keeps the resolved method handles per class and regular expression, which are used by {@link ReflectionUtility#invokeCachedMethod(Object, String,
+ * int)}. The method detection (pattern compile and method scan) is done once per class and the invocation is done via method handle instead of reflection.
+ *
+ * @author agent on 18.10.26.
+ */
+final class MethodHandleCache {
+
+    /**
+     * Generic type of the cached method handles: the invoked object is the only parameter and the return value is boxed.
+     */
+    private static final MethodType GENERIC_GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final Map<Class<?>, Map<String, MethodHandle>> METHOD_HANDLES = new ConcurrentHashMap<>();
+
+    private MethodHandleCache() {
+    }
+
+    /**
+     * Method returns the cached method handle of the method, which matches the regular expression. If there is no cached method handle, the method is
+     * detected and the handle is created.
+     *
+     * @param inputClass is the class object, which contains the method.
+     * @param regEx is the regular expression, which should be matched with the method name.
+     * @param patternFlag is the flag to configure the matching radius (e.g. Pattern.CASE_INSENSITIVE). Set to 0 if not necessary.
+     * @return the method handle with type (Object)Object.
+     * @throws CouldNotPerformException is thrown in case the method could not detected or is not accessible.
+     */
+    static MethodHandle getMethodHandle(final Class<?> inputClass, final String regEx, final int patternFlag) throws CouldNotPerformException {
+        final Map<String, MethodHandle> classMethodHandles = METHOD_HANDLES.computeIfAbsent(inputClass, key -> new ConcurrentHashMap<>());
+        final String key = patternFlag + ":" + regEx;
+        MethodHandle methodHandle = classMethodHandles.get(key);
+
+        if (methodHandle == null) {
+            final Method method = ReflectionUtility.detectMethod(inputClass, regEx, patternFlag);
+
+            try {
+                methodHandle = MethodHandles.publicLookup().unreflect(method).asType(GENERIC_GETTER_TYPE);
+            } catch (IllegalAccessException ex) {
+                throw new CouldNotPerformException("Method " + method.getName() + " is not accessible!", ex);
+            }
+            classMethodHandles.put(key, methodHandle);
+        }
+        return methodHandle;
+    }
+}
@@ -21,6 +21,7 @@ package org.openbase.bco.ontology.lib.utility;
 import org.openbase.jul.exception.CouldNotPerformException;
 import org.openbase.jul.exception.NotAvailableException;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -54,6 +55,34 @@ public interface ReflectionUtility {
         }
     }
 
+    /**
+     * Method detects a method by input name and returns the invoked result of the method. In contrast to {@link #invokeMethod(Object, String, int)} the
+     * detected method is cached per class (as method handle). Use this method on hot paths, which invoke the same method of the same class frequently.
+     *
+     * @param object is the object, which the method is invoked from.
+     * @param regEx is the regular expression, which should be matched with the method name.
+     * @param patternFlag is the flag to configure the matching radius (e.g. Pattern.CASE_INSENSITIVE). Set to 0 if not necessary.
+     * @return the invoked method object.
+     * @throws CouldNotPerformException is thrown in case the method could not detected or the invocation of the detected method failed.
+     */
+    static Object invokeCachedMethod(final Object object, final String regEx, final int patternFlag) throws CouldNotPerformException {
+        if (object == null) {
+            assert false;
+            throw new NotAvailableException("Object is null!");
+        }
+
+        final MethodHandle methodHandle = MethodHandleCache.getMethodHandle(object.getClass(), regEx, patternFlag);
+
+        try {
+            return (Object) methodHandle.invokeExact(object);
+        } catch (Error ex) {
+            // errors (e.g. OutOfMemoryError) are not a failed invocation and are not wrapped
+            throw ex;
+        } catch (Throwable ex) {
+            throw new CouldNotPerformException("Invocation failed!", ex);
+        }
+    }
+
     /**
      * Method returns an invoked method set, which are matching with the regular expressions.
      *
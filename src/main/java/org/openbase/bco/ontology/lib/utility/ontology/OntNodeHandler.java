@@ -21,13 +21,11 @@ package org.openbase.bco.ontology.lib.utility.ontology;
 import org.apache.jena.query.QuerySolution;
 import org.apache.jena.rdf.model.RDFNode;
 import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntAggregatedStateChange;
-import org.openbase.bco.ontology.lib.manager.aggregation.datatype.OntStateChangeBuf;
 import org.openbase.bco.ontology.lib.system.config.OntConfig.StateValueType;
 import org.openbase.bco.ontology.lib.utility.Preconditions;
 import org.openbase.bco.ontology.lib.utility.StringModifier;
 import org.openbase.jul.exception.CouldNotPerformException;
 import org.openbase.jul.exception.MultiException;
-import org.openbase.jul.exception.MultiException.ExceptionStack;
 import org.openbase.jul.exception.NotAvailableException;
 
 import java.util.ArrayList;
@@ -40,60 +38,6 @@ import java.util.List;
  */
 public interface OntNodeHandler {
 
-    /**
-     * Method filters the input state changes and returns state changes, which includes literals of the input data type.
-     *
-     * @param stateChanges are the state changes of type OntStateChangeBuf, which include the state values.
-     * @param dataType is the ontology data type to filter the different state values.
-     * @return a list of filtered (literals only) state changes.
-     * @throws MultiException is thrown in case one important value is null.
-     */
-    static List<OntStateChangeBuf> getLiteralElements(final List<OntStateChangeBuf> stateChanges, final StateValueType dataType) throws MultiException {
-
-        ExceptionStack exceptionStack = new ExceptionStack();
-
-        Preconditions.multipleCheckNotNullAndThrow(null, stateChanges, dataType);
-
-//        Preconditions.checkNotNull(stateChanges, null, "Input state changes can not be null.", exceptionStack);
-//        exceptionStack = Preconditions.checkNotNull(null, dataType, "Input state value type can not be null.", exceptionStack);
-
-//        MultiException.checkAndThrow("Input parameter invalid.", exceptionStack);
-        final List<OntStateChangeBuf> stateChangeLiterals = new ArrayList<>();
-
-        for (final OntStateChangeBuf stateChange : stateChanges) {
-            boolean buf = false;
-
-//            final RDFNode stateValue = stateChange.getStateValues().get(0);
-//            final List<RDFNode> rdfNode = null;
-//
-//            final OntStateChange ontStateChange = new OntStateChange(true, null, null);
-//            final OntProviderServices ontProviderService = new OntProviderServices("");
-//            ontProviderService.ontStateChes.add(ontStateChange);
-
-
-
-
-            for (final RDFNode stateValue : stateChange.getStateValues()) {
-                try {
-                    Preconditions.checkNotNull(stateValue, "RDFNode can not be null!");
-
-                    if (stateValue.isLiteral() && StringModifier.getLocalName(stateValue.asLiteral().getDatatypeURI()).equalsIgnoreCase(dataType.toString())) {
-                        buf = true;
-                    }
-                } catch (NotAvailableException ex) {
-                    exceptionStack = MultiException.push(null, ex, exceptionStack);
-                }
-            }
-
-            if (buf) {
-                stateChangeLiterals.add(stateChange);
-            }
-        }
-
-        MultiException.checkAndThrow("There is a /are literal/s with no name!", exceptionStack);
-        return stateChangeLiterals;
-    }
-
     /**
      * Method filters the input state changes and returns state changes, which includes literals of the input data type.
      *
@@ -112,7 +56,9 @@ public interface OntNodeHandler {
             try {
                 final RDFNode stateValue = stateChange.getStateValue();
 
-                if (stateValue.isLiteral() && StringModifier.getLocalName(stateValue.asLiteral().getDatatypeURI()).equalsIgnoreCase(dataType.name())) {
+                // the state value of an aggregation observation is a string literal, which names the data type (e.g. "PERCENT"^^xsd:string)
+                if (stateValue.isLiteral() && (StringModifier.getLocalName(stateValue.asLiteral().getDatatypeURI()).equalsIgnoreCase(dataType.name())
+                        || stateValue.asLiteral().getLexicalForm().equalsIgnoreCase(dataType.name()))) {
                     stateChangeLiterals.add(stateChange);
                 }
             } catch (CouldNotPerformException ex) {
@@ -124,32 +70,6 @@ public interface OntNodeHandler {
         return stateChangeLiterals;
     }
 
-    /**
-     * Method filters the input state changes and returns state changes, which includes resources.
-     *
-     * @param stateChanges are the state changes of type OntStateChangeBuf, which include the state values.
-     * @return a list of filtered state changes.
-     */
-    static List<OntStateChangeBuf> getResourceElements(final List<OntStateChangeBuf> stateChanges) {
-
-        final List<OntStateChangeBuf> stateChangeLiterals = new ArrayList<>();
-
-        for (final OntStateChangeBuf stateChange : stateChanges) {
-            boolean buf = false;
-
-            for (final RDFNode stateValue : stateChange.getStateValues()) {
-                if (stateValue.isResource()) {
-                    buf = true;
-                }
-            }
-
-            if (buf) {
-                stateChangeLiterals.add(stateChange);
-            }
-        }
-        return stateChangeLiterals;
-    }
-
     /**
      * Method filters the input state changes and returns state changes, which includes resources.
      *
@@ -0,0 +1,199 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.utility.sparql;
+
+import org.openbase.bco.ontology.lib.system.config.OntConfig;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.OntPrefix;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.Period;
+import org.openbase.bco.ontology.lib.utility.time.CalendarPeriods;
+import org.openbase.jul.exception.NotAvailableException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility to name the time-partitioned named graphs of the observations and aggregation observations (see {@link OntConfig#getGraphPartitionPeriod()}).
+ * A graph partition contains the observations of one calendar-aligned period (see {@link CalendarPeriods}) and is named by the date of its beginning, e.g.
+ * "NS:observationGraph_2026-10-18". The aggregation observations are partitioned per period type additionally, e.g. "NS:aggObsGraph_day_2026-10-18", so
+ * that the retention of a period type can drop whole graphs. If the graph partitions are disabled, the graph names are {@code null}, which means the
+ * default graph.
+ *
+ * @author agent on 18.10.26.
+ */
+public final class GraphPartitions {
+
+    private GraphPartitions() {
+    }
+
+    /**
+     * Method returns the full IRI of the graph, which contains the observations of the input timestamp.
+     *
+     * @param timestampMilliS is the timestamp of the observation in epoch milliseconds.
+     * @return the graph IRI or {@code null}, if the graph partitions are disabled.
+     * @throws NotAvailableException is thrown in case the partition could not be aligned to the calendar.
+     */
+    public static String getObservationGraph(final long timestampMilliS) throws NotAvailableException {
+        if (OntConfig.getGraphPartitionPeriod() == null) {
+            return null;
+        }
+        return getGraph(getObservationGraphPrefix(), getPartitionBegin(Instant.ofEpochMilli(timestampMilliS).atZone(OntConfig.getAggregationTimeZone())));
+    }
+
+    /**
+     * Method returns the full IRI of the graph, which contains the aggregation observations of the input period type and timestamp.
+     *
+     * @param period is the period type of the aggregation observations.
+     * @param timestampMilliS is the timestamp (beginning of the time frame) of the aggregation observation in epoch milliseconds.
+     * @return the graph IRI or {@code null}, if the graph partitions are disabled.
+     * @throws NotAvailableException is thrown in case the partition could not be aligned to the calendar.
+     */
+    public static String getAggregationGraph(final String period, final long timestampMilliS) throws NotAvailableException {
+        if (OntConfig.getGraphPartitionPeriod() == null) {
+            return null;
+        }
+        return getGraph(getAggregationGraphPrefix(period), getPartitionBegin(Instant.ofEpochMilli(timestampMilliS)
+                .atZone(OntConfig.getAggregationTimeZone())));
+    }
+
+    /**
+     * Method returns the full IRIs of the graphs, which contain the observations of the input time frame. Each graph contains the latest observation of
+     * each unit and provider service before its partition too (carried over by the {@link QueryExpression#carryOverObservations(String, String)}), so the
+     * graphs contain the state at the beginning of the time frame.
+     *
+     * @param dateTimeFrom is the beginning of the time frame (inclusive).
+     * @param dateTimeUntil is the end of the time frame (exclusive).
+     * @return the graph IRIs or {@code null}, if the graph partitions are disabled.
+     * @throws NotAvailableException is thrown in case the partitions could not be aligned to the calendar.
+     */
+    public static List<String> getObservationGraphs(final ZonedDateTime dateTimeFrom, final ZonedDateTime dateTimeUntil) throws NotAvailableException {
+        if (OntConfig.getGraphPartitionPeriod() == null) {
+            return null;
+        }
+        return getGraphs(getObservationGraphPrefix(), dateTimeFrom, dateTimeUntil);
+    }
+
+    /**
+     * Method returns the full IRIs of the graphs, which contain the aggregation observations of the input period type and time frame.
+     *
+     * @param period is the period type of the aggregation observations.
+     * @param dateTimeFrom is the beginning of the time frame (inclusive).
+     * @param dateTimeUntil is the end of the time frame (exclusive).
+     * @return the graph IRIs or {@code null}, if the graph partitions are disabled.
+     * @throws NotAvailableException is thrown in case the partitions could not be aligned to the calendar.
+     */
+    public static List<String> getAggregationGraphs(final String period, final ZonedDateTime dateTimeFrom, final ZonedDateTime dateTimeUntil)
+            throws NotAvailableException {
+        if (OntConfig.getGraphPartitionPeriod() == null) {
+            return null;
+        }
+        return getGraphs(getAggregationGraphPrefix(period), dateTimeFrom, dateTimeUntil);
+    }
+
+    /**
+     * Method returns the prefix (full IRI) of the observation graphs.
+     *
+     * @return the prefix of the observation graphs.
+     */
+    public static String getObservationGraphPrefix() {
+        return OntConfig.NAMESPACE + OntPrefix.OBSERVATION_GRAPH.getName();
+    }
+
+    /**
+     * Method returns the prefix (full IRI) of the aggregation graphs of the input period type.
+     *
+     * @param period is the period type of the aggregation observations.
+     * @return the prefix of the aggregation graphs.
+     */
+    public static String getAggregationGraphPrefix(final String period) {
+        return OntConfig.NAMESPACE + OntPrefix.AGGREGATION_GRAPH.getName() + period.toLowerCase() + "_";
+    }
+
+    /**
+     * Method returns the beginning of the partition of the input graph.
+     *
+     * @param graph is the full IRI of the graph.
+     * @return the beginning of the partition in the time zone {@link OntConfig#getAggregationTimeZone()}.
+     * @throws NotAvailableException is thrown in case the graph is not a graph partition.
+     */
+    public static ZonedDateTime getPartitionBegin(final String graph) throws NotAvailableException {
+        try {
+            return LocalDate.parse(graph.substring(graph.lastIndexOf('_') + 1)).atStartOfDay(OntConfig.getAggregationTimeZone());
+        } catch (DateTimeParseException ex) {
+            throw new NotAvailableException("Partition of graph " + graph, ex);
+        }
+    }
+
+    /**
+     * Method returns the end of the partition of the input graph.
+     *
+     * @param graph is the full IRI of the graph.
+     * @return the end of the partition (exclusive).
+     * @throws NotAvailableException is thrown in case the graph is not a graph partition or the graph partitions are disabled.
+     */
+    public static ZonedDateTime getPartitionEnd(final String graph) throws NotAvailableException {
+        if (OntConfig.getGraphPartitionPeriod() == null) {
+            throw new NotAvailableException("Graph partition period");
+        }
+        return CalendarPeriods.getPeriodEnd(getPartitionBegin(graph), OntConfig.getGraphPartitionPeriod());
+    }
+
+    /**
+     * Method wraps the input graph pattern, so that it matches the triples of the input graphs only (variable ?graph).
+     *
+     * @param graphs are the full IRIs of the graphs. Can be set to {@code null}, which leads to the default graph.
+     * @param pattern is the graph pattern.
+     * @return the graph pattern, which is restricted to the graphs.
+     */
+    static String inGraphs(final List<String> graphs, final String pattern) {
+        if (graphs == null) {
+            return pattern;
+        }
+
+        final StringBuilder stringBuilder = new StringBuilder("VALUES ?graph { ");
+
+        for (final String graph : graphs) {
+            stringBuilder.append('<').append(graph).append("> ");
+        }
+        return stringBuilder.append("} GRAPH ?graph { ").append(pattern).append("} ").toString();
+    }
+
+    private static ZonedDateTime getPartitionBegin(final ZonedDateTime dateTime) throws NotAvailableException {
+        return CalendarPeriods.getPeriodBegin(dateTime, OntConfig.getGraphPartitionPeriod());
+    }
+
+    private static String getGraph(final String prefix, final ZonedDateTime partitionBegin) {
+        return prefix + partitionBegin.toLocalDate();
+    }
+
+    private static List<String> getGraphs(final String prefix, final ZonedDateTime dateTimeFrom, final ZonedDateTime dateTimeUntil)
+            throws NotAvailableException {
+        final List<String> graphs = new ArrayList<>();
+        ZonedDateTime partitionBegin = getPartitionBegin(dateTimeFrom.withZoneSameInstant(OntConfig.getAggregationTimeZone()));
+
+        while (partitionBegin.isBefore(dateTimeUntil)) {
+            graphs.add(getGraph(prefix, partitionBegin));
+            partitionBegin = CalendarPeriods.getPeriodEnd(partitionBegin, OntConfig.getGraphPartitionPeriod());
+        }
+        return graphs;
+    }
+}
@@ -27,6 +27,7 @@ import org.openbase.bco.ontology.lib.system.config.OntConfig.SparqlVariable;
 import org.openbase.bco.ontology.lib.utility.StringModifier;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -134,6 +135,62 @@ public final class QueryExpression {
                     + "?s ?p ?o . "
                     + "}";
 
+    /**
+     * Pattern, which binds ?observation to an observation, which is replaced by a newer observation of the same unit and provider service.
+     */
+    private static final String HISTORIC_OBSERVATION_PATTERN =
+            "?observation a NS:" + OntCl.OBSERVATION.getName() + " . "
+                    + "?observation NS:" + OntProp.UNIT_ID.getName() + " ?unit . "
+                    + "?observation NS:" + OntProp.PROVIDER_SERVICE.getName() + " ?providerService . "
+                    + "?observation NS:" + OntProp.TIME_STAMP.getName() + " ?timestamp . "
+                    + "?newerObservation a NS:" + OntCl.OBSERVATION.getName() + " . "
+                    + "?newerObservation NS:" + OntProp.UNIT_ID.getName() + " ?unit . "
+                    + "?newerObservation NS:" + OntProp.PROVIDER_SERVICE.getName() + " ?providerService . "
+                    + "?newerObservation NS:" + OntProp.TIME_STAMP.getName() + " ?newerTimestamp . "
+                    + "FILTER (?newerTimestamp > ?timestamp) . ";
+
+    /**
+     * Query constructs the subgraph of the default graph, which is relevant for the trigger replica: all triples except the triples of historic
+     * observations (observations, which are replaced by a newer observation of the same unit and provider service) and of aggregation observations.
+     */
+    public static final String CONSTRUCT_TRIGGER_REPLICA =
+            "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
+                    + "CONSTRUCT { "
+                    + "?s ?p ?o . "
+                    + "} WHERE { "
+                    + "?s ?p ?o . "
+                    + "FILTER NOT EXISTS { ?s a NS:" + OntCl.AGGREGATION_OBSERVATION.getName() + " } . "
+                    + "FILTER NOT EXISTS { "
+                    + HISTORIC_OBSERVATION_PATTERN.replace("?observation ", "?s ")
+                    + "} "
+                    + "}";
+
+    /**
+     * Sparql update deletes historic observations and aggregation observations, which are not part of the trigger replica (see
+     * {@link #CONSTRUCT_TRIGGER_REPLICA}). Considers the whole replica, see {@link #deleteTriggerReplicaHistory(Collection)} for a single update.
+     */
+    public static final String DELETE_TRIGGER_REPLICA_HISTORY =
+            "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
+                    + "DELETE { "
+                    + "?observation ?p ?o . "
+                    + "} WHERE { "
+                    + HISTORIC_OBSERVATION_PATTERN
+                    + "?observation ?p ?o . "
+                    + "} ; "
+                    + "DELETE WHERE { "
+                    + "?aggObs a NS:" + OntCl.AGGREGATION_OBSERVATION.getName() + " . "
+                    + "?aggObs ?p ?o . "
+                    + "}";
+
+    /**
+     * Query asks, if the observations are stored in named graphs (graph partitions), which are not covered by the trigger replica.
+     */
+    public static final String ASK_OBSERVATION_GRAPHS =
+            "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
+                    + "ASK { "
+                    + "GRAPH ?graph { ?observation a NS:" + OntCl.OBSERVATION.getName() + " } "
+                    + "}";
+
     private QueryExpression() {
     }
 
@@ -200,23 +257,113 @@ public final class QueryExpression {
                 + "ORDER BY ?observation ";
     }
 
+    /**
+     * Method returns a query, which selects the units with at least one observation before the end timestamp.
+     *
+     * @param endTimestamp is the end timestamp (until) to locate the time frame.
+     * @param graphs are the graphs of the observations (see {@link GraphPartitions}). Can be set to {@code null}, which leads to the default graph.
+     * @return a sparql string to select the observed units.
+     */
+    public static String selectObservedUnits(final String endTimestamp, final List<String> graphs) {
+        return "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
+                + "PREFIX xsd: <" + OntConfig.XSD + "> "
+                + "SELECT DISTINCT ?unit WHERE { "
+                    + GraphPartitions.inGraphs(graphs, ""
+                    + "?observation a NS:Observation . "
+                    + "?observation NS:hasUnitId ?unit . "
+                    + "?observation NS:hasTimeStamp ?timestamp . "
+                    + "FILTER (?timestamp < " + endTimestamp + " ) . ")
+                + "} ";
+    }
+
+    /**
+     * Method returns a query, which selects the initial state of the unit at the beginning of the time frame. That means the latest observation before the
+     * start timestamp of each provider service. The observations are ordered like {@link #selectObservationPage(String, String, String, String, String, int,
+     * List)}.
+     *
+     * @param unitId is the id of the unit, which observations are selected.
+     * @param startTimestamp is the start timestamp (from) to locate the time frame.
+     * @param graphs are the graphs of the observations (see {@link GraphPartitions}). Can be set to {@code null}, which leads to the default graph.
+     * @return a sparql string to select the initial observations.
+     */
+    public static String selectInitialObservations(final String unitId, final String startTimestamp, final List<String> graphs) {
+        final String unit = "<" + OntConfig.NAMESPACE + unitId + ">";
+
+        return "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
+                + "PREFIX xsd: <" + OntConfig.XSD + "> "
+                + "SELECT ?observation ?stateValue ?providerService ?timestamp WHERE { "
+                    + GraphPartitions.inGraphs(graphs, ""
+                    + "{ SELECT ?providerService (MAX(?latestTimestamp) AS ?timestamp) WHERE { "
+                        + "?latestObservation NS:hasUnitId " + unit + " . "
+                        + "?latestObservation a NS:Observation . "
+                        + "?latestObservation NS:hasTimeStamp ?latestTimestamp . "
+                        + "FILTER (?latestTimestamp < " + startTimestamp + " ) . "
+                        + "?latestObservation NS:hasProviderService ?providerService . "
+                    + "} GROUP BY ?providerService } "
+                    + "?observation NS:hasUnitId " + unit + " . "
+                    + "?observation a NS:Observation . "
+                    + "?observation NS:hasProviderService ?providerService . "
+                    + "?observation NS:hasTimeStamp ?timestamp . "
+                    + "?observation NS:hasStateValue ?stateValue . ")
+                + "} "
+                + "ORDER BY ?timestamp STR(?observation) ";
+    }
+
+    /**
+     * Method returns a query, which selects one page of observations of the unit in the time frame. The observations are ordered by timestamp and
+     * observation (keyset), so that all state values of the same observation are listed one after another. The next page starts after the last observation
+     * of the previous page. The state before the time frame is selected via {@link #selectInitialObservations(String, String, List)}.
+     *
+     * @param unitId is the id of the unit, which observations are selected.
+     * @param startTimestamp is the start timestamp (from) to locate the time frame.
+     * @param endTimestamp is the end timestamp (until) to locate the time frame.
+     * @param lastTimestamp is the timestamp (lexical form) of the last observation of the previous page. Set to {@code null} to select the first page.
+     * @param lastObservation is the uri of the last observation of the previous page. Set to {@code null} to select the first page.
+     * @param limit is the maximal number of results (rows) of the page.
+     * @param graphs are the graphs of the observations (see {@link GraphPartitions}). Can be set to {@code null}, which leads to the default graph.
+     * @return a sparql string to select a page of observations.
+     */
+    public static String selectObservationPage(final String unitId, final String startTimestamp, final String endTimestamp, final String lastTimestamp,
+                                               final String lastObservation, final int limit, final List<String> graphs) {
+        final String keysetFilter = (lastTimestamp == null || lastObservation == null) ? ""
+                : "FILTER (?timestamp > \"" + lastTimestamp + "\"^^xsd:dateTime || (?timestamp = \"" + lastTimestamp + "\"^^xsd:dateTime "
+                    + "&& STR(?observation) > \"" + lastObservation + "\")) . ";
+
+        return "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
+                + "PREFIX xsd: <" + OntConfig.XSD + "> "
+                + "SELECT ?observation ?stateValue ?providerService ?timestamp WHERE { "
+                    + GraphPartitions.inGraphs(graphs, ""
+                    + "?observation NS:hasUnitId <" + OntConfig.NAMESPACE + unitId + "> . "
+                    + "?observation a NS:Observation . "
+                    + "?observation NS:hasTimeStamp ?timestamp . "
+                    + "FILTER (?timestamp >= " + startTimestamp + " && ?timestamp < " + endTimestamp + " ) . "
+                    + keysetFilter
+                    + "?observation NS:hasStateValue ?stateValue . "
+                    + "?observation NS:hasProviderService ?providerService . ")
+                + "} "
+                + "ORDER BY ?timestamp STR(?observation) "
+                + "LIMIT " + limit + " ";
+    }
+
     /**
      * Method returns a query string, which selects observation data in the ontology.
      *
      * @param startTimestamp is the start timestamp (from) to locate the time frame.
      * @param endTimestamp is the end timestamp (until) to locate the time frame.
+     * @param graphs are the graphs of the observations (see {@link GraphPartitions}). Can be set to {@code null}, which leads to the default graph.
      * @return a sparql string to select observations.
      */
-    public static String getAllObservations(final String startTimestamp, final String endTimestamp) {
+    public static String getAllObservations(final String startTimestamp, final String endTimestamp, final List<String> graphs) {
         return "PREFIX NS: <http://www.openbase.org/bco/ontology#> "
                 + "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> "
                 + "SELECT ?observation ?unit ?stateValue ?providerService ?timestamp WHERE { "
+                    + GraphPartitions.inGraphs(graphs, ""
                     + "?observation a NS:Observation . "
                     + "?observation NS:hasTimeStamp ?timestamp . "
                     + "FILTER (?timestamp >= " + startTimestamp + " && ?timestamp < " + endTimestamp + " ) . "
                     + "?observation NS:hasUnitId ?unit . "
                     + "?observation NS:hasStateValue ?stateValue . "
-                    + "?observation NS:hasProviderService ?providerService . "
+                    + "?observation NS:hasProviderService ?providerService . ")
                 + "} "
                 + "ORDER BY ?observation ";
 //                + "GROUP BY ?observation ?unit ?stateValue ?providerService ?timestamp ";
@@ -228,29 +375,37 @@ public final class QueryExpression {
      * @param period is the period of the aggregated observation.
      * @param dateTimeFrom is the timestamp from.
      * @param dateTimeUntil is the timestamp until.
+     * @param graphs are the graphs of the aggregated observations (see {@link GraphPartitions}). Can be set to {@code null}, which leads to the default
+     * graph.
      * @return a sparql query to get aggregated observations.
      */
     public static String selectAggregatedObservations(final String period, final String dateTimeFrom,
-                                                      final String dateTimeUntil) {
+                                                      final String dateTimeUntil, final List<String> graphs) {
         return "PREFIX NS: <http://www.openbase.org/bco/ontology#> "
                 + "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> "
-                + "SELECT ?aggObs ?unit ?timeWeighting ?service ?stateValue ?quantity ?activityTime ?variance ?standardDeviation ?mean WHERE { "
+                + "SELECT ?aggObs ?unit ?timeWeighting ?providerService ?stateValue ?quantity ?activityTime ?variance ?standardDeviation ?mean ?minimum ?maximum "
+                    + "?integral WHERE { "
+                    + GraphPartitions.inGraphs(graphs, ""
                     + "?aggObs a NS:AggregationObservation . "
                     + "?aggObs NS:hasPeriod NS:" + period + " . "
                     + "?aggObs NS:hasTimeStamp ?timestamp . "
-                    + "FILTER (?timestamp >= " + dateTimeFrom + " && ?timestamp <= " + dateTimeUntil + " ) . "
+                    + "FILTER (?timestamp >= " + dateTimeFrom + " && ?timestamp < " + dateTimeUntil + " ) . "
                     + "?aggObs NS:hasUnitId ?unit . "
-                    + "?aggObs NS:hasProviderService ?service . "
+                    + "?aggObs NS:hasProviderService ?providerService . "
                     + "?aggObs NS:hasUnitId ?unit . "
                     + "OPTIONAL {?aggObs NS:hasQuantity ?quantity . } . "
                     + "OPTIONAL {?aggObs NS:hasActivityTime ?activityTime . } . "
                     + "OPTIONAL {?aggObs NS:hasVariance ?variance . } . "
                     + "OPTIONAL {?aggObs NS:hasStandardDeviation ?standardDeviation . } . "
                     + "OPTIONAL {?aggObs NS:hasMean ?mean . } . "
+                    + "OPTIONAL {?aggObs NS:hasMinimum ?minimum . } . "
+                    + "OPTIONAL {?aggObs NS:hasMaximum ?maximum . } . "
+                    + "OPTIONAL {?aggObs NS:hasIntegral ?integral . } . "
                     + "OPTIONAL {?aggObs NS:hasStateValue ?stateValue . } . "
-                    + "OPTIONAL {?aggObs NS:hasTimeWeighting ?timeWeighting . } . "
+                    + "OPTIONAL {?aggObs NS:hasTimeWeighting ?timeWeighting . } . ")
                 + "} "
-                + "GROUP BY ?aggObs ?unit ?timeWeighting ?service ?stateValue ?quantity ?activityTime ?variance ?standardDeviation ?mean ";
+                + "GROUP BY ?aggObs ?unit ?timeWeighting ?providerService ?stateValue ?quantity ?activityTime ?variance ?standardDeviation ?mean "
+                + "?minimum ?maximum ?integral ";
     }
 
     public static String deleteUnusedConnectionPhases(final String dateTimeUntil) {
@@ -320,20 +475,23 @@ public final class QueryExpression {
      * @param period is the period of the aggregated observation.
      * @param dateTimeFrom is the timestamp from.
      * @param dateTimeUntil is the timestamp until.
+     * @param graphs are the graphs of the aggregated observations (see {@link GraphPartitions}). Can be set to {@code null}, which leads to the default
+     * graph.
      * @return a sparql update to delete aggregated observations.
      */
-    public static String deleteUnusedAggObs(final String period, final String dateTimeFrom, final String dateTimeUntil) {
+    public static String deleteUnusedAggObs(final String period, final String dateTimeFrom, final String dateTimeUntil, final List<String> graphs) {
         final String periodBuf = period.toLowerCase();
         return "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
                 + "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> "
                 + "DELETE { "
-                    + "?aggObs ?p ?o . "
+                    + ((graphs == null) ? "?aggObs ?p ?o . " : "GRAPH ?graph { ?aggObs ?p ?o . } ")
                 + "} WHERE { "
+                    + GraphPartitions.inGraphs(graphs, ""
                     + "?aggObs ?p ?o . "
                     + "?aggObs a NS:AggregationObservation . "
                     + "?aggObs NS:hasPeriod NS:" + periodBuf + " . "
                     + "?aggObs NS:hasTimeStamp ?timestamp . "
-                    + "FILTER (?timestamp >= " + dateTimeFrom + " && ?timestamp <= " + dateTimeUntil + " ) . "
+                    + "FILTER (?timestamp >= " + dateTimeFrom + " && ?timestamp < " + dateTimeUntil + " ) . ")
                 + "}";
     }
 
@@ -357,6 +515,235 @@ public final class QueryExpression {
                 + "}";
     }
 
+    /**
+     * Method returns a query to select a chunk of expired observations and the number of triples of each observation. The latest observation of each unit
+     * and provider service before the time frame end is kept, because it describes the state at the beginning of the following aggregation time frame.
+     *
+     * @param dateTimeFrom is the timestamp from (inclusive).
+     * @param dateTimeUntil is the timestamp until (exclusive).
+     * @param limit is the maximal number of selected observations.
+     * @return a sparql query to select the observations (?subject) and their number of triples (?tripleCount).
+     */
+    public static String selectExpiredObservations(final String dateTimeFrom, final String dateTimeUntil, final int limit) {
+        return selectExpiredSubjects(""
+                + "?subject a NS:Observation . "
+                + "?subject NS:hasTimeStamp ?timestamp . "
+                + "FILTER (?timestamp >= " + dateTimeFrom + " && ?timestamp < " + dateTimeUntil + " ) . "
+                + "?subject NS:hasUnitId ?unit . "
+                + "?subject NS:hasProviderService ?providerService . "
+                + "FILTER EXISTS { "
+                    + "?newerObservation a NS:Observation . "
+                    + "?newerObservation NS:hasUnitId ?unit . "
+                    + "?newerObservation NS:hasProviderService ?providerService . "
+                    + "?newerObservation NS:hasTimeStamp ?newerTimestamp . "
+                    + "FILTER (?newerTimestamp > ?timestamp && ?newerTimestamp <= " + dateTimeUntil + " ) . "
+                + "} ", "?subject ?p ?o . ", limit);
+    }
+
+    /**
+     * Method returns a query to select a chunk of expired (closed) connectionPhases and the number of triples of each connectionPhase, including the triple
+     * of the unit, which refers to the connectionPhase.
+     *
+     * @param dateTimeFrom is the timestamp from (inclusive).
+     * @param dateTimeUntil is the timestamp until (exclusive).
+     * @param limit is the maximal number of selected connectionPhases.
+     * @return a sparql query to select the connectionPhases (?subject) and their number of triples (?tripleCount).
+     */
+    public static String selectExpiredConnectionPhases(final String dateTimeFrom, final String dateTimeUntil, final int limit) {
+        return selectExpiredSubjects(""
+                + "?subject a NS:ConnectionPhase . "
+                + "?subject NS:hasLastConnection ?lastConnection . "
+                + "FILTER (isLiteral(?lastConnection) && ?lastConnection >= " + dateTimeFrom + " && ?lastConnection < " + dateTimeUntil + " ) . ",
+                "{ ?subject ?p ?o . } UNION { ?unit NS:hasConnectionPhase ?subject . } ", limit);
+    }
+
+    /**
+     * Method returns a query to select a chunk of expired heartbeatPhases and the number of triples of each heartbeatPhase. HeartbeatPhases, which are
+     * referred by a connectionPhase, are kept.
+     *
+     * @param dateTimeFrom is the timestamp from (inclusive).
+     * @param dateTimeUntil is the timestamp until (exclusive).
+     * @param limit is the maximal number of selected heartbeatPhases.
+     * @return a sparql query to select the heartbeatPhases (?subject) and their number of triples (?tripleCount).
+     */
+    public static String selectExpiredHeartbeatPhases(final String dateTimeFrom, final String dateTimeUntil, final int limit) {
+        return selectExpiredSubjects(""
+                + "?subject a NS:HeartBeatPhase . "
+                + "?subject NS:hasLastConnection ?lastConnection . "
+                + "FILTER (?lastConnection >= " + dateTimeFrom + " && ?lastConnection < " + dateTimeUntil + " ) . "
+                + "FILTER NOT EXISTS { "
+                    + "?connectionPhase NS:hasLastConnection ?subject . "
+                + "} ", "?subject ?p ?o . ", limit);
+    }
+
+    /**
+     * Method returns a query to select a chunk of expired aggregated observations of a period and the number of triples of each aggregated observation.
+     *
+     * @param period is the period of the aggregated observations.
+     * @param dateTimeFrom is the timestamp from (inclusive).
+     * @param dateTimeUntil is the timestamp until (exclusive).
+     * @param limit is the maximal number of selected aggregated observations.
+     * @return a sparql query to select the aggregated observations (?subject) and their number of triples (?tripleCount).
+     */
+    public static String selectExpiredAggObs(final String period, final String dateTimeFrom, final String dateTimeUntil, final int limit) {
+        return selectExpiredSubjects(""
+                + "?subject a NS:AggregationObservation . "
+                + "?subject NS:hasPeriod NS:" + period.toLowerCase() + " . "
+                + "?subject NS:hasTimeStamp ?timestamp . "
+                + "FILTER (?timestamp >= " + dateTimeFrom + " && ?timestamp < " + dateTimeUntil + " ) . ", "?subject ?p ?o . ", limit);
+    }
+
+    /**
+     * Method returns a query to get the timestamp of the latest aggregated observation of a period.
+     *
+     * @param period is the period of the aggregated observations.
+     * @param graphs are the graphs of the aggregated observations (see {@link GraphPartitions}). Can be set to {@code null}, which leads to the default
+     * graph.
+     * @return a sparql query to select the latest timestamp (?timestamp).
+     */
+    public static String selectLatestAggObsTimestamp(final String period, final List<String> graphs) {
+        return "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
+                + "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> "
+                + "SELECT (MAX(?aggTimestamp) AS ?timestamp) WHERE { "
+                    + GraphPartitions.inGraphs(graphs, ""
+                    + "?aggObs a NS:AggregationObservation . "
+                    + "?aggObs NS:hasPeriod NS:" + period.toLowerCase() + " . "
+                    + "?aggObs NS:hasTimeStamp ?aggTimestamp . ")
+                + "}";
+    }
+
+    /**
+     * Method returns a query to select the named graphs, whose IRI starts with the input prefix (e.g. the graph partitions of the observations).
+     *
+     * @param graphPrefix is the prefix (full IRI) of the graphs.
+     * @return a sparql query to select the graphs (?graph).
+     */
+    public static String selectGraphs(final String graphPrefix) {
+        return "SELECT DISTINCT ?graph WHERE { "
+                    + "GRAPH ?graph { } "
+                    + "FILTER (STRSTARTS(STR(?graph), \"" + graphPrefix + "\")) . "
+                + "}";
+    }
+
+    /**
+     * Method returns a query to count the triples of a named graph.
+     *
+     * @param graph is the full IRI of the graph.
+     * @return a sparql query to select the number of triples (?tripleCount).
+     */
+    public static String countGraphTriples(final String graph) {
+        return "SELECT (COUNT(*) AS ?tripleCount) WHERE { "
+                    + "GRAPH <" + graph + "> { ?subject ?p ?o . } "
+                + "}";
+    }
+
+    /**
+     * Method returns a sparql update, which copies the latest observation of each unit and provider service from the source graph to the target graph (graph
+     * partitions). The target graph contains the state at the beginning of its partition afterwards, so the aggregation of a time frame has to read the
+     * graphs of the time frame only and the source graph can be dropped. The update can be repeated, because the copies are identical.
+     *
+     * @param sourceGraph is the full IRI of the previous graph partition.
+     * @param targetGraph is the full IRI of the current graph partition.
+     * @return the sparql update.
+     */
+    public static String carryOverObservations(final String sourceGraph, final String targetGraph) {
+        return "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
+                + "INSERT { "
+                    + "GRAPH <" + targetGraph + "> { ?observation ?p ?o . } "
+                + "} WHERE { "
+                    + "GRAPH <" + sourceGraph + "> { "
+                        + "?observation a NS:Observation . "
+                        + "?observation NS:hasUnitId ?unit . "
+                        + "?observation NS:hasProviderService ?providerService . "
+                        + "?observation NS:hasTimeStamp ?timestamp . "
+                        + "FILTER NOT EXISTS { "
+                            + "?newerObservation a NS:Observation . "
+                            + "?newerObservation NS:hasUnitId ?unit . "
+                            + "?newerObservation NS:hasProviderService ?providerService . "
+                            + "?newerObservation NS:hasTimeStamp ?newerTimestamp . "
+                            + "FILTER (?newerTimestamp > ?timestamp) . "
+                        + "} "
+                        + "?observation ?p ?o . "
+                    + "} "
+                + "}";
+    }
+
+    /**
+     * Method returns a sparql update to delete all triples of the input subjects. Triples, which refer to the subjects via hasConnectionPhase, are deleted
+     * too.
+     *
+     * @param subjects are the full IRIs of the subjects.
+     * @return the sparql update.
+     */
+    public static String deleteSubjects(final List<String> subjects) {
+        final StringBuilder values = new StringBuilder();
+
+        for (final String subject : subjects) {
+            values.append('<').append(subject).append("> ");
+        }
+
+        return "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
+                + "DELETE { "
+                    + "?subject ?p ?o . "
+                + "} WHERE { "
+                    + "VALUES ?subject { " + values + "} "
+                    + "?subject ?p ?o . "
+                + "} ; "
+                + "DELETE { "
+                    + "?unit NS:hasConnectionPhase ?subject . "
+                + "} WHERE { "
+                    + "VALUES ?subject { " + values + "} "
+                    + "?unit NS:hasConnectionPhase ?subject . "
+                + "}";
+    }
+
+    /**
+     * Method returns a sparql update, which deletes the triples of the trigger replica (see {@link #CONSTRUCT_TRIGGER_REPLICA}), which are outdated by the
+     * input subjects of an update: the historic observations of the units and provider services of the input observations and the input aggregation
+     * observations. Other subjects (e.g. connection phases) match nothing.
+     *
+     * @param subjects are the full IRIs of the subjects, which are inserted by the update.
+     * @return the sparql update.
+     */
+    public static String deleteTriggerReplicaHistory(final Collection<String> subjects) {
+        final StringBuilder values = new StringBuilder();
+
+        for (final String subject : subjects) {
+            values.append('<').append(subject).append("> ");
+        }
+
+        return "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
+                + "DELETE { "
+                    + "?observation ?p ?o . "
+                + "} WHERE { "
+                    + "VALUES ?subject { " + values + "} "
+                    + "?subject a NS:" + OntCl.OBSERVATION.getName() + " . "
+                    + "?subject NS:" + OntProp.UNIT_ID.getName() + " ?unit . "
+                    + "?subject NS:" + OntProp.PROVIDER_SERVICE.getName() + " ?providerService . "
+                    + HISTORIC_OBSERVATION_PATTERN
+                    + "?observation ?p ?o . "
+                + "} ; "
+                + "DELETE { "
+                    + "?subject ?p ?o . "
+                + "} WHERE { "
+                    + "VALUES ?subject { " + values + "} "
+                    + "?subject a NS:" + OntCl.AGGREGATION_OBSERVATION.getName() + " . "
+                    + "?subject ?p ?o . "
+                + "}";
+    }
+
+    private static String selectExpiredSubjects(final String subjectPattern, final String triplePattern, final int limit) {
+        return "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
+                + "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> "
+                + "SELECT ?subject (COUNT(*) AS ?tripleCount) WHERE { "
+                    + "{ SELECT DISTINCT ?subject WHERE { "
+                        + subjectPattern
+                    + "} LIMIT " + limit + " } "
+                    + triplePattern
+                + "} "
+                + "GROUP BY ?subject";
+    }
+
 //    public static String test(final String timestampUntil) {
 //
 //        return "PREFIX NS: <http://www.openbase.org/bco/ontology#> "
@@ -18,17 +18,16 @@
  */
 package org.openbase.bco.ontology.lib.utility.sparql;
 
-import org.openbase.bco.ontology.lib.system.config.OntConfig.OntExpr;
-import org.openbase.bco.ontology.lib.system.config.OntConfig;
-import org.openbase.jul.exception.MultiException;
 import org.openbase.jul.exception.NotAvailableException;
 
 import java.util.List;
 
 /**
+ * One-liners to build sparql update expressions. The expressions are written via {@link SparqlUpdateWriter}, which should be used directly to write
+ * multiple operations into one request or to stream a request to the ontology server.
+ *
  * @author agatting on 23.12.16.
  */
-@SuppressWarnings({"PMD.UseStringBufferForStringAppends", "checkstyle:multiplestringliterals"})
 public interface SparqlUpdateExpression {
 
     /**
@@ -40,28 +39,20 @@ public interface SparqlUpdateExpression {
      * @throws NotAvailableException is thrown in case the rdf triple is null.
      */
     static String getSparqlInsertExpression(final List<RdfTriple> insert) throws NotAvailableException {
+        return SparqlUpdateWriter.getThreadWriter().insertData(insert).toString();
+    }
 
-        MultiException.ExceptionStack exceptionStack = null;
-        String updateExpression =
-                "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
-                + "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> "
-                + "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#> "
-                + "INSERT DATA { ";
-
-        for (RdfTriple triple : insert) {
-            try {
-                updateExpression += getTripleCommand(triple, false);
-            } catch (NotAvailableException ex) {
-                exceptionStack = MultiException.push(null, ex, exceptionStack);
-            }
-        }
-
-        try {
-            MultiException.checkAndThrow("Some triple are null!", exceptionStack);
-        } catch (MultiException ex) {
-            throw new NotAvailableException("Sparql update expression.", ex);
-        }
-        return updateExpression + " } ";
+    /**
+     * Method creates an update sparql string with insert triple(s) into a named graph. Subject, predicate and object can be selected by a "name" (string).
+     * Missing namespace is added automatically.
+     *
+     * @param graph is the full IRI of the graph (see {@link GraphPartitions}). Can be set to {@code null}, which leads to the default graph.
+     * @param insert is the insert triple list (with or without namespace).
+     * @return a sparql update string to insert proper triples.
+     * @throws NotAvailableException is thrown in case the rdf triple is null.
+     */
+    static String getSparqlInsertExpression(final String graph, final List<RdfTriple> insert) throws NotAvailableException {
+        return SparqlUpdateWriter.getThreadWriter().insertData(graph, insert).toString();
     }
 
     /**
@@ -74,40 +65,7 @@ public interface SparqlUpdateExpression {
      * @throws NotAvailableException is thrown in case the rdf triple is null.
      */
     static String getSparqlUpdateExpression(final List<RdfTriple> insert, final List<RdfTriple> where) throws NotAvailableException {
-
-        MultiException.ExceptionStack exceptionStack = null;
-        String updateExpression =
-                "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
-                        + "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> "
-                        + "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#> "
-                        + "INSERT { ";
-
-        for (RdfTriple triple : insert) {
-            try {
-                updateExpression += getTripleCommand(triple, false);
-            } catch (NotAvailableException ex) {
-                exceptionStack = MultiException.push(null, ex, exceptionStack);
-            }
-        }
-
-        updateExpression += "} WHERE { ";
-
-        if (where != null) {
-            for (RdfTriple triple : where) {
-                try {
-                    updateExpression += getTripleCommand(triple, false);
-                } catch (NotAvailableException ex) {
-                    exceptionStack = MultiException.push(null, ex, exceptionStack);
-                }
-            }
-        }
-
-        try {
-            MultiException.checkAndThrow("Some triple are null!", exceptionStack);
-        } catch (MultiException ex) {
-            throw new NotAvailableException("Sparql update expression.", ex);
-        }
-        return updateExpression + " } ";
+        return SparqlUpdateWriter.getThreadWriter().insertWhere(insert, where).toString();
     }
 
     /**
@@ -138,49 +96,7 @@ public interface SparqlUpdateExpression {
             assert false;
             throw new NotAvailableException("Insert triple list is null.");
         }
-
-        MultiException.ExceptionStack exceptionStack = null;
-        String updateExpression =
-                "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
-                + "PREFIX xsd: <" + OntConfig.XSD + "> "
-                + "PREFIX rdfs: <" + OntConfig.RDFS + "> "
-                + "DELETE { ";
-
-        for (RdfTriple triple : delete) {
-            try {
-                updateExpression += getTripleCommand(triple, false);
-            } catch (NotAvailableException ex) {
-                exceptionStack = MultiException.push(null, ex, exceptionStack);
-            }
-        }
-
-        updateExpression += "} WHERE { ";
-        List<RdfTriple> whereExpression = (where == null) ? delete : where;
-
-        for (RdfTriple triple : whereExpression) {
-            try {
-                updateExpression += getTripleCommand(triple, true);
-            } catch (NotAvailableException ex) {
-                exceptionStack = MultiException.push(null, ex, exceptionStack);
-            }
-        }
-
-        updateExpression += "} ; INSERT DATA { ";
-
-        for (RdfTriple triple : insert) {
-            try {
-                updateExpression += getTripleCommand(triple, false);
-            } catch (NotAvailableException ex) {
-                exceptionStack = MultiException.push(null, ex, exceptionStack);
-            }
-        }
-
-        try {
-            MultiException.checkAndThrow("Some triple are null!", exceptionStack);
-        } catch (MultiException ex) {
-            throw new NotAvailableException("Sparql update expression.", ex);
-        }
-        return updateExpression + " } ";
+        return SparqlUpdateWriter.getThreadWriter().deleteWhere(delete, where, true).insertData(insert).toString();
     }
 
     /**
@@ -211,49 +127,7 @@ public interface SparqlUpdateExpression {
             assert false;
             throw new NotAvailableException("Insert triple list is null.");
         }
-
-        MultiException.ExceptionStack exceptionStack = null;
-        String updateExpression =
-                "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
-                + "PREFIX xsd: <" + OntConfig.XSD + "> "
-                + "PREFIX rdfs: <" + OntConfig.RDFS + "> "
-                + "DELETE { ";
-
-        for (RdfTriple triple : delete) {
-            try {
-                updateExpression += getTripleCommand(triple, false);
-            } catch (NotAvailableException ex) {
-                exceptionStack = MultiException.push(null, ex, exceptionStack);
-            }
-        }
-
-        updateExpression += "} INSERT { ";
-
-        for (RdfTriple triple : insert) {
-            try {
-                updateExpression += getTripleCommand(triple, false);
-            } catch (NotAvailableException ex) {
-                exceptionStack = MultiException.push(null, ex, exceptionStack);
-            }
-        }
-
-        updateExpression += "} WHERE { ";
-        List<RdfTriple> whereExpression = (where == null) ? delete : where;
-
-        for (RdfTriple triple : whereExpression) {
-            try {
-                updateExpression += getTripleCommand(triple, true);
-            } catch (NotAvailableException ex) {
-                exceptionStack = MultiException.push(null, ex, exceptionStack);
-            }
-        }
-
-        try {
-            MultiException.checkAndThrow("Some triple are null!", exceptionStack);
-        } catch (MultiException ex) {
-            throw new NotAvailableException("Sparql update expression.", ex);
-        }
-        return updateExpression + " } ";
+        return SparqlUpdateWriter.getThreadWriter().deleteInsertWhere(delete, insert, where).toString();
     }
 
     /**
@@ -271,15 +145,7 @@ public interface SparqlUpdateExpression {
      * @throws NotAvailableException is thrown in case the rdf triple is null or all triple elements are null (to prevent the deletion of whole ontology).
      */
     static String getSparqlUpdateExpression(final RdfTriple delete, final String where) throws NotAvailableException {
-
-        String updateExpression =
-                "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
-                + "PREFIX xsd: <" + OntConfig.XSD + "> "
-                + "PREFIX rdfs: <" + OntConfig.RDFS + "> "
-                + "DELETE { " + getTripleCommand(delete, false);
-        String whereExpression = (where == null) ? getTripleCommand(delete, false) : where;
-
-        return updateExpression + "} WHERE { " + whereExpression + " } ";
+        return SparqlUpdateWriter.getThreadWriter().deleteWhere(delete, where).toString();
     }
 
     /**
@@ -292,44 +158,21 @@ public interface SparqlUpdateExpression {
      * @throws NotAvailableException is thrown in case the rdf triple is null or all triple elements are null (to prevent the deletion of whole ontology).
      */
     static String getSparqlDeleteExpression(final List<RdfTriple> delete, List<RdfTriple> where) throws NotAvailableException {
-
         if (delete == null) {
             assert false;
             throw new NotAvailableException("Delete triple list is null.");
         }
+        return SparqlUpdateWriter.getThreadWriter().deleteWhere(delete, where, false).toString();
+    }
 
-        MultiException.ExceptionStack exceptionStack = null;
-        String updateExpression =
-                "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
-                + "PREFIX xsd: <" + OntConfig.XSD + "> "
-                + "PREFIX rdfs: <" + OntConfig.RDFS + "> "
-                + "DELETE { ";
-
-        for (RdfTriple triple : delete) {
-            try {
-                updateExpression += getTripleCommand(triple, false);
-            } catch (NotAvailableException ex) {
-                exceptionStack = MultiException.push(null, ex, exceptionStack);
-            }
-        }
-
-        updateExpression += "} WHERE { ";
-        List<RdfTriple> whereExpression = (where == null) ? delete : where;
-
-        for (RdfTriple triple : whereExpression) {
-            try {
-                updateExpression += getTripleCommand(triple, false);
-            } catch (NotAvailableException ex) {
-                exceptionStack = MultiException.push(null, ex, exceptionStack);
-            }
-        }
-
-        try {
-            MultiException.checkAndThrow("Some triple are null!", exceptionStack);
-        } catch (MultiException ex) {
-            throw new NotAvailableException("Sparql update expression.", ex);
-        }
-        return updateExpression + " } ";
+    /**
+     * Method creates an update sparql string to drop a named graph (e.g. an expired graph partition).
+     *
+     * @param graph is the full IRI of the graph.
+     * @return a sparql update string to drop the graph.
+     */
+    static String getDropGraphExpression(final String graph) {
+        return SparqlUpdateWriter.getThreadWriter().dropGraph(graph).toString();
     }
 
     /**
@@ -342,38 +185,8 @@ public interface SparqlUpdateExpression {
      * @throws NotAvailableException is thrown in case the rdf triple is null or all triple elements are null (to prevent the deletion of whole ontology).
      */
     static String getTripleCommand(final RdfTriple triple, final boolean ignoreSafeguard) throws NotAvailableException {
-
-        if (triple == null) {
-            assert false;
-            throw new NotAvailableException("Could not build delete triple command, because input triple is null!");
-        }
-
-        String subject = triple.getSubject();
-        String predicate = triple.getPredicate();
-        String object = triple.getObject();
-
-        if (subject == null && predicate == null && object == null && !ignoreSafeguard) {
-            throw new NotAvailableException("Subject, predicate and object are null! Whole ontology can be deleted...!");
-        }
-
-        if (subject == null) {
-            subject = "?subject";
-        } else if (!subject.startsWith(OntExpr.NS.getName()) || !subject.startsWith(OntConfig.NAMESPACE)) {
-            subject = OntExpr.NS.getName() + subject;
-        }
-
-        if (predicate == null) {
-            predicate = "?predicate";
-        } else if (!predicate.equalsIgnoreCase(OntExpr.IS_A.getName()) && !predicate.startsWith(OntExpr.NS.getName()) && !predicate.startsWith(OntConfig.NAMESPACE)
-                && !predicate.startsWith("owl:") && !predicate.startsWith("rdfs:")) {
-            predicate = OntExpr.NS.getName() + predicate;
-        }
-
-        if (object == null) {
-            object = "?object";
-        } else if (!object.startsWith(OntExpr.NS.getName()) && !object.startsWith(OntConfig.NAMESPACE) && !object.startsWith("\"")) {
-            object = OntExpr.NS.getName() + object;
-        }
-        return subject + " " + predicate + " " + object + " . ";
+        final StringBuilder stringBuilder = new StringBuilder();
+        SparqlUpdateWriter.appendTriple(stringBuilder, triple, ignoreSafeguard);
+        return stringBuilder.toString();
     }
 }
@@ -0,0 +1,382 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.utility.sparql;
+
+import org.openbase.bco.ontology.lib.system.config.OntConfig;
+import org.openbase.bco.ontology.lib.system.config.OntConfig.OntExpr;
+import org.openbase.jul.exception.MultiException;
+import org.openbase.jul.exception.NotAvailableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class writes sparql update requests into a reusable buffer. A request consists of one or more update operations, which are separated via ";".
+ * The prefix header is precomputed and written once at the beginning of the request. The triples are written directly into the buffer, so the cost of a
+ * request is linear to its size. The request can be written to an output stream (e.g. the http request) without building a string. The writer is not
+ * thread-safe.
+ *
+ * Example: {@code new SparqlUpdateWriter().deleteWhere(delete, null, true).insertData(insert).toString()}.
+ *
+ * @author agent on 18.10.26.
+ */
+@SuppressWarnings("checkstyle:multiplestringliterals")
+public final class SparqlUpdateWriter {
+
+    /**
+     * The prefix header of each sparql update request.
+     */
+    public static final String PREFIX_HEADER = "PREFIX NS: <" + OntConfig.NAMESPACE + "> "
+            + "PREFIX xsd: <" + OntConfig.XSD + "> "
+            + "PREFIX rdfs: <" + OntConfig.RDFS + "> ";
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+    private static final int CHUNK_SIZE = 8192;
+    private static final ThreadLocal<SparqlUpdateWriter> THREAD_WRITER = ThreadLocal.withInitial(SparqlUpdateWriter::new);
+
+    private StringBuilder buffer;
+    private MultiException.ExceptionStack exceptionStack;
+    private int operationCount;
+
+    /**
+     * Constructor creates an empty sparql update writer.
+     */
+    public SparqlUpdateWriter() {
+        this.buffer = new StringBuilder(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Method returns the reset writer of the current thread, which is used by the one-liners of {@link SparqlUpdateExpression}.
+     *
+     * @return the empty writer of the current thread.
+     */
+    static SparqlUpdateWriter getThreadWriter() {
+        return THREAD_WRITER.get().reset();
+    }
+
+    /**
+     * Method clears the writer to write a new request. The buffer is reused, unless it grew very large.
+     *
+     * @return this writer.
+     */
+    public SparqlUpdateWriter reset() {
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffer = new StringBuilder(INITIAL_CAPACITY);
+        } else {
+            buffer.setLength(0);
+        }
+        exceptionStack = null;
+        operationCount = 0;
+        return this;
+    }
+
+    /**
+     * Method writes an INSERT DATA operation.
+     *
+     * @param insert is the insert triple list (with or without namespace).
+     * @return this writer.
+     * @throws NotAvailableException is thrown in case a rdf triple is null. The operation is not written.
+     */
+    public SparqlUpdateWriter insertData(final Iterable<RdfTriple> insert) throws NotAvailableException {
+        final int operationStart = beginOperation();
+
+        buffer.append("INSERT DATA { ");
+        appendTriples(insert, false);
+        buffer.append(" } ");
+
+        return endOperation(operationStart);
+    }
+
+    /**
+     * Method writes an INSERT DATA operation into a named graph (e.g. a graph partition, see {@link GraphPartitions}).
+     *
+     * @param graph is the full IRI of the graph. Can be set to {@code null}, which leads to the default graph.
+     * @param insert is the insert triple list (with or without namespace).
+     * @return this writer.
+     * @throws NotAvailableException is thrown in case a rdf triple is null. The operation is not written.
+     */
+    public SparqlUpdateWriter insertData(final String graph, final Iterable<RdfTriple> insert) throws NotAvailableException {
+        if (graph == null) {
+            return insertData(insert);
+        }
+
+        final int operationStart = beginOperation();
+
+        buffer.append("INSERT DATA { GRAPH <").append(graph).append("> { ");
+        appendTriples(insert, false);
+        buffer.append(" } } ");
+
+        return endOperation(operationStart);
+    }
+
+    /**
+     * Method writes a DROP GRAPH operation, which deletes the named graph with all its triples. A missing graph is ignored.
+     *
+     * @param graph is the full IRI of the graph.
+     * @return this writer.
+     */
+    public SparqlUpdateWriter dropGraph(final String graph) {
+        beginOperation();
+        buffer.append("DROP SILENT GRAPH <").append(graph).append("> ");
+        operationCount++;
+        return this;
+    }
+
+    /**
+     * Method writes an INSERT WHERE operation.
+     *
+     * @param insert is the insert triple list (with or without namespace).
+     * @param where is an additional filter triple list to specify the insert region. Can be set to {@code null}, if not necessary.
+     * @return this writer.
+     * @throws NotAvailableException is thrown in case a rdf triple is null. The operation is not written.
+     */
+    public SparqlUpdateWriter insertWhere(final Iterable<RdfTriple> insert, final Iterable<RdfTriple> where) throws NotAvailableException {
+        final int operationStart = beginOperation();
+
+        buffer.append("INSERT { ");
+        appendTriples(insert, false);
+        buffer.append("} WHERE { ");
+
+        if (where != null) {
+            appendTriples(where, false);
+        }
+        buffer.append(" } ");
+
+        return endOperation(operationStart);
+    }
+
+    /**
+     * Method writes a DELETE WHERE operation. Subject, predicate and object of the triples can be placed as control variable by a "null" parameter.
+     *
+     * @param delete is the delete triple list (with or without namespace).
+     * @param where is an additional filter triple list. Can be set to {@code null}, which leads to the same triples like the delete parameter.
+     * @param ignoreWhereSafeguard is used to allow where triples, whose elements are all null.
+     * @return this writer.
+     * @throws NotAvailableException is thrown in case a rdf triple is null or all triple elements are null. The operation is not written.
+     */
+    public SparqlUpdateWriter deleteWhere(final Iterable<RdfTriple> delete, final Iterable<RdfTriple> where, final boolean ignoreWhereSafeguard)
+            throws NotAvailableException {
+        final int operationStart = beginOperation();
+
+        buffer.append("DELETE { ");
+        appendTriples(delete, false);
+        buffer.append("} WHERE { ");
+        appendTriples((where == null) ? delete : where, ignoreWhereSafeguard);
+        buffer.append(" } ");
+
+        return endOperation(operationStart);
+    }
+
+    /**
+     * Method writes a DELETE WHERE operation of one triple.
+     *
+     * @param delete is the delete triple (with or without namespace).
+     * @param where is an additional filter expression. Can be set to {@code null}, which leads to the delete triple.
+     * @return this writer.
+     * @throws NotAvailableException is thrown in case the rdf triple is null or all triple elements are null. The operation is not written.
+     */
+    public SparqlUpdateWriter deleteWhere(final RdfTriple delete, final String where) throws NotAvailableException {
+        final int operationStart = beginOperation();
+
+        try {
+            buffer.append("DELETE { ");
+            appendTriple(buffer, delete, false);
+            buffer.append("} WHERE { ");
+
+            if (where == null) {
+                appendTriple(buffer, delete, false);
+            } else {
+                buffer.append(where);
+            }
+            buffer.append(" } ");
+        } catch (NotAvailableException ex) {
+            rollback(operationStart);
+            throw ex;
+        }
+        return endOperation(operationStart);
+    }
+
+    /**
+     * Method writes a DELETE INSERT WHERE operation. If there is no match of the where triples, no triples are inserted.
+     *
+     * @param delete is the delete triple list (with or without namespace).
+     * @param insert is the insert triple list (with or without namespace).
+     * @param where is an additional filter triple list. Can be set to {@code null}, which leads to the same triples like the delete parameter.
+     * @return this writer.
+     * @throws NotAvailableException is thrown in case a rdf triple is null or all triple elements of a delete triple are null. The operation is not written.
+     */
+    public SparqlUpdateWriter deleteInsertWhere(final Iterable<RdfTriple> delete, final Iterable<RdfTriple> insert, final Iterable<RdfTriple> where)
+            throws NotAvailableException {
+        final int operationStart = beginOperation();
+
+        buffer.append("DELETE { ");
+        appendTriples(delete, false);
+        buffer.append("} INSERT { ");
+        appendTriples(insert, false);
+        buffer.append("} WHERE { ");
+        appendTriples((where == null) ? delete : where, true);
+        buffer.append(" } ");
+
+        return endOperation(operationStart);
+    }
+
+    /**
+     * Method writes a complete sparql update expression as operation. The expression may contain an own prologue.
+     *
+     * @param sparql is the sparql update expression.
+     * @return this writer.
+     */
+    public SparqlUpdateWriter update(final String sparql) {
+        beginOperation();
+        buffer.append(sparql);
+        operationCount++;
+        return this;
+    }
+
+    /**
+     * Method returns the number of written operations.
+     *
+     * @return the number of operations.
+     */
+    public int getOperationCount() {
+        return operationCount;
+    }
+
+    /**
+     * Method writes the request to the output stream (UTF-8). The output stream is flushed, but not closed.
+     *
+     * @param outputStream is the output stream (e.g. of the http request).
+     * @throws IOException is thrown in case the output stream could not be written.
+     */
+    public void writeTo(final OutputStream outputStream) throws IOException {
+        final Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        final char[] chunk = new char[Math.min(CHUNK_SIZE, Math.max(1, buffer.length()))];
+
+        for (int start = 0; start < buffer.length(); start += chunk.length) {
+            final int end = Math.min(start + chunk.length, buffer.length());
+            buffer.getChars(start, end, chunk, 0);
+            writer.write(chunk, 0, end - start);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Method returns the request as string.
+     *
+     * @return the sparql update request.
+     */
+    @Override
+    public String toString() {
+        return buffer.toString();
+    }
+
+    /**
+     * Method builds the input rdf triple to a sparql update command (not complete expression) and appends it. See
+     * {@link SparqlUpdateExpression#getTripleCommand(RdfTriple, boolean)}.
+     *
+     * @param stringBuilder is the builder, which the triple command is appended to.
+     * @param triple is the triple information: subject, predicate, object. If one ore two are {@code null} they are sparql variables.
+     * @param ignoreSafeguard is used to avoid an exception, if all elements of the triple are null. Beware! Maybe whole ontology can be deleted!
+     * @throws NotAvailableException is thrown in case the rdf triple is null or all triple elements are null (to prevent the deletion of whole ontology).
+     */
+    static void appendTriple(final StringBuilder stringBuilder, final RdfTriple triple, final boolean ignoreSafeguard) throws NotAvailableException {
+
+        if (triple == null) {
+            assert false;
+            throw new NotAvailableException("Could not build delete triple command, because input triple is null!");
+        }
+
+        final String subject = triple.getSubject();
+        final String predicate = triple.getPredicate();
+        final String object = triple.getObject();
+
+        if (subject == null && predicate == null && object == null && !ignoreSafeguard) {
+            throw new NotAvailableException("Subject, predicate and object are null! Whole ontology can be deleted...!");
+        }
+
+        if (subject == null) {
+            stringBuilder.append("?subject");
+        } else if (!subject.startsWith(OntExpr.NS.getName()) || !subject.startsWith(OntConfig.NAMESPACE)) {
+            stringBuilder.append(OntExpr.NS.getName()).append(subject);
+        } else {
+            stringBuilder.append(subject);
+        }
+        stringBuilder.append(' ');
+
+        if (predicate == null) {
+            stringBuilder.append("?predicate");
+        } else if (!predicate.equalsIgnoreCase(OntExpr.IS_A.getName()) && !predicate.startsWith(OntExpr.NS.getName())
+                && !predicate.startsWith(OntConfig.NAMESPACE) && !predicate.startsWith("owl:") && !predicate.startsWith("rdfs:")) {
+            stringBuilder.append(OntExpr.NS.getName()).append(predicate);
+        } else {
+            stringBuilder.append(predicate);
+        }
+        stringBuilder.append(' ');
+
+        if (object == null) {
+            stringBuilder.append("?object");
+        } else if (!object.startsWith(OntExpr.NS.getName()) && !object.startsWith(OntConfig.NAMESPACE) && !object.startsWith("\"")) {
+            stringBuilder.append(OntExpr.NS.getName()).append(object);
+        } else {
+            stringBuilder.append(object);
+        }
+        stringBuilder.append(" . ");
+    }
+
+    private void appendTriples(final Iterable<RdfTriple> triples, final boolean ignoreSafeguard) {
+        for (final RdfTriple triple : triples) {
+            try {
+                appendTriple(buffer, triple, ignoreSafeguard);
+            } catch (NotAvailableException ex) {
+                exceptionStack = MultiException.push(null, ex, exceptionStack);
+            }
+        }
+    }
+
+    private int beginOperation() {
+        final int operationStart = buffer.length();
+
+        if (operationCount == 0) {
+            buffer.append(PREFIX_HEADER);
+        } else {
+            buffer.append(" ; ");
+        }
+        return operationStart;
+    }
+
+    private SparqlUpdateWriter endOperation(final int operationStart) throws NotAvailableException {
+        try {
+            MultiException.checkAndThrow("Some triple are null!", exceptionStack);
+        } catch (MultiException ex) {
+            rollback(operationStart);
+            throw new NotAvailableException("Sparql update expression.", ex);
+        }
+        operationCount++;
+        return this;
+    }
+
+    private void rollback(final int operationStart) {
+        buffer.setLength(operationStart);
+        exceptionStack = null;
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.utility.time;
+
+import org.openbase.bco.ontology.lib.system.config.OntConfig.Period;
+import org.openbase.jul.exception.NotAvailableException;
+
+import java.time.DayOfWeek;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Utility to align the aggregation periods to the calendar. A period begins at the beginning of the calendar unit in the time zone of the input date time,
+ * e.g. a day at midnight, a week on monday at midnight and a month on the first day of the month at midnight. The period length is based on the calendar
+ * too, so that days with daylight saving time changes and months of different lengths are considered.
+ *
+ * @author agent on 18.10.26.
+ */
+public final class CalendarPeriods {
+
+    private CalendarPeriods() {
+    }
+
+    /**
+     * Method returns the beginning of the period, which contains the input date time.
+     *
+     * @param dateTime is the date time with the time zone of the calendar.
+     * @param period is the period.
+     * @return the beginning of the period.
+     * @throws NotAvailableException is thrown in case the period could not be aligned to the calendar.
+     */
+    public static ZonedDateTime getPeriodBegin(final ZonedDateTime dateTime, final Period period) throws NotAvailableException {
+        switch (period) {
+            case HOUR:
+                return dateTime.truncatedTo(ChronoUnit.HOURS);
+            case DAY:
+                return dateTime.truncatedTo(ChronoUnit.DAYS);
+            case WEEK:
+                return dateTime.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return dateTime.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.firstDayOfMonth());
+            case YEAR:
+                return dateTime.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.firstDayOfYear());
+            default:
+                throw new NotAvailableException("Could not align period " + period + " to the calendar!");
+        }
+    }
+
+    /**
+     * Method returns the end of the period, which is the beginning of the following period.
+     *
+     * @param periodBegin is the beginning of the period (see {@link #getPeriodBegin(ZonedDateTime, Period)}).
+     * @param period is the period.
+     * @return the end of the period (exclusive).
+     * @throws NotAvailableException is thrown in case the period could not be aligned to the calendar.
+     */
+    public static ZonedDateTime getPeriodEnd(final ZonedDateTime periodBegin, final Period period) throws NotAvailableException {
+        switch (period) {
+            case HOUR:
+                return periodBegin.plusHours(1);
+            case DAY:
+                return periodBegin.plusDays(1);
+            case WEEK:
+                return periodBegin.plusWeeks(1);
+            case MONTH:
+                return periodBegin.plusMonths(1);
+            case YEAR:
+                return periodBegin.plusYears(1);
+            default:
+                throw new NotAvailableException("Could not align period " + period + " to the calendar!");
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.ontology.lib.
+ *
+ * org.openbase.bco.ontology.lib is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.ontology.lib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.ontology.lib. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.ontology.lib.utility.time;
+
+import org.openbase.bco.ontology.lib.system.config.OntConfig;
+import org.openbase.jul.exception.NotAvailableException;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Codec to parse timestamps of the pattern {@link OntConfig#DATE_TIME} (e.g. 2017-04-19T15:01:05.123+02:00) into epoch milliseconds. The fixed pattern is
+ * parsed digit by digit without allocation, so that it is usable on the hot paths of the aggregation. Timestamps, which do not match the fixed pattern
+ * (e.g. other ISO-8601 variants), are parsed via {@link OffsetDateTime#parse(CharSequence)} as fallback.
+ *
+ * @author agent on 18.10.26.
+ */
+public final class TimestampCodec {
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long MILLIS_PER_MINUTE = 60L * MILLIS_PER_SECOND;
+    private static final long MILLIS_PER_HOUR = 60L * MILLIS_PER_MINUTE;
+    private static final long MILLIS_PER_DAY = 24L * MILLIS_PER_HOUR;
+
+    // length of "yyyy-MM-ddTHH:mm:ss"
+    private static final int SECONDS_END = 19;
+
+    private TimestampCodec() {
+    }
+
+    /**
+     * Method parses the input timestamp into epoch milliseconds.
+     *
+     * @param timestamp is the timestamp with the pattern {@link OntConfig#DATE_TIME} or another ISO-8601 date time with offset.
+     * @return the epoch milliseconds of the timestamp.
+     * @throws NotAvailableException is thrown in case the timestamp is null or could not be parsed.
+     */
+    public static long parseEpochMilli(final CharSequence timestamp) throws NotAvailableException {
+        if (timestamp == null) {
+            throw new NotAvailableException("timestamp");
+        }
+
+        final long epochMilli = parseFixedPattern(timestamp);
+
+        if (epochMilli != Long.MIN_VALUE) {
+            return epochMilli;
+        }
+
+        try {
+            return OffsetDateTime.parse(timestamp).toInstant().toEpochMilli();
+        } catch (DateTimeParseException ex) {
+            throw new NotAvailableException("Could not parse timestamp " + timestamp, ex);
+        }
+    }
+
+    /**
+     * Method parses the fixed pattern yyyy-MM-dd'T'HH:mm:ss[.S...](Z|+HH:mm|-HH:mm).
+     *
+     * @param text is the timestamp.
+     * @return the epoch milliseconds or {@link Long#MIN_VALUE} in case the timestamp does not match the fixed pattern.
+     */
+    private static long parseFixedPattern(final CharSequence text) {
+        final int length = text.length();
+
+        if (length < SECONDS_END + 1 || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T' || text.charAt(13) != ':'
+                || text.charAt(16) != ':') {
+            return Long.MIN_VALUE;
+        }
+
+        final int year = parseDigits(text, 0, 4);
+        final int month = parseDigits(text, 5, 7);
+        final int day = parseDigits(text, 8, 10);
+        final int hour = parseDigits(text, 11, 13);
+        final int minute = parseDigits(text, 14, 16);
+        final int second = parseDigits(text, 17, SECONDS_END);
+
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month) || hour < 0 || hour > 23 || minute < 0 || minute > 59
+                || second < 0 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+
+        int index = SECONDS_END;
+        int millis = 0;
+
+        if (text.charAt(index) == '.') {
+            index++;
+            final int fractionStart = index;
+
+            while (index < length && isDigit(text.charAt(index))) {
+                // digits after the milliseconds are truncated
+                if (index - fractionStart < 3) {
+                    millis = millis * 10 + (text.charAt(index) - '0');
+                }
+                index++;
+            }
+
+            final int fractionDigits = index - fractionStart;
+
+            if (fractionDigits == 0) {
+                return Long.MIN_VALUE;
+            }
+            for (int i = fractionDigits; i < 3; i++) {
+                millis *= 10;
+            }
+        }
+
+        if (index >= length) {
+            return Long.MIN_VALUE;
+        }
+
+        final long offsetMillis;
+        final char offsetSign = text.charAt(index);
+
+        if (offsetSign == 'Z' && index + 1 == length) {
+            offsetMillis = 0;
+        } else if ((offsetSign == '+' || offsetSign == '-') && index + 6 == length && text.charAt(index + 3) == ':') {
+            final int offsetHour = parseDigits(text, index + 1, index + 3);
+            final int offsetMinute = parseDigits(text, index + 4, index + 6);
+
+            if (offsetHour < 0 || offsetHour > 18 || offsetMinute < 0 || offsetMinute > 59) {
+                return Long.MIN_VALUE;
+            }
+            final long offset = offsetHour * MILLIS_PER_HOUR + offsetMinute * MILLIS_PER_MINUTE;
+            offsetMillis = (offsetSign == '+') ? offset : -offset;
+        } else {
+            return Long.MIN_VALUE;
+        }
+
+        return daysFromCivil(year, month, day) * MILLIS_PER_DAY + hour * MILLIS_PER_HOUR + minute * MILLIS_PER_MINUTE + second * MILLIS_PER_SECOND
+                + millis - offsetMillis;
+    }
+
+    /**
+     * Method parses the decimal digits of the input range.
+     *
+     * @return the number or -1 in case the range contains a non digit character.
+     */
+    private static int parseDigits(final CharSequence text, final int begin, final int end) {
+        int value = 0;
+
+        for (int i = begin; i < end; i++) {
+            final char character = text.charAt(i);
+
+            if (!isDigit(character)) {
+                return -1;
+            }
+            value = value * 10 + (character - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(final char character) {
+        return character >= '0' && character <= '9';
+    }
+
+    private static int lengthOfMonth(final int year, final int month) {
+        switch (month) {
+            case 2:
+                return ((year % 4 == 0 && year % 100 != 0) || year % 400 == 0) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Method returns the number of days since 1970-01-01 of the input (proleptic gregorian) date.
+     */
+    private static long daysFromCivil(final int year, final int month, final int day) {
+        final long shiftedYear = (month <= 2) ? year - 1 : year;
+        final long era = Math.floorDiv(shiftedYear, 400);
+        final long yearOfEra = shiftedYear - era * 400;
+        final long dayOfYear = (153 * (month + ((month > 2) ? -3 : 9)) + 2) / 5 + day - 1;
+        final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+        return era * 146097 + dayOfEra - 719468;
+    }
+}